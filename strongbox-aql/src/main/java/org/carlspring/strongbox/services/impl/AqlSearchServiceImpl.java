@@ -11,15 +11,17 @@ import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
-import org.carlspring.strongbox.data.criteria.QueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
 import org.carlspring.strongbox.dependency.snippet.SnippetGenerator;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryQueryTemplate;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.AqlSearchService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.storage.search.SearchResults;
@@ -39,14 +41,27 @@ public class AqlSearchServiceImpl implements AqlSearchService
     @Inject
     private SnippetGenerator snippetGenerator;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
     public SearchResults search(Selector<ArtifactEntry> selector)
         throws IOException
     {
         SearchResults result = new SearchResults();
 
-        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
-                new OQueryTemplate<>(entityManager));
-        for (ArtifactEntry artifactEntry : queryTemplate.select(selector))
+        OQueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(
+                entityManager, artifactEntryService.isCoordinateTokensCompleted());
+        List<ArtifactEntry> artifactEntries = queryTemplate.select(selector);
+
+        Paginator paginator = selector.getPaginator();
+        if (paginator.isKeyset() && !artifactEntries.isEmpty() && artifactEntries.size() == paginator.getLimit())
+        {
+            ArtifactEntry lastArtifactEntry = artifactEntries.get(artifactEntries.size() - 1);
+            result.setNext(queryTemplate.continuationToken(selector, lastArtifactEntry).encode());
+        }
+
+        artifactEntries = (List<ArtifactEntry>) new DetachQueryTemplate<>(queryTemplate).unproxy(artifactEntries);
+        for (ArtifactEntry artifactEntry : artifactEntries)
         {
             SearchResult r = new SearchResult();
             result.getResults().add(r);
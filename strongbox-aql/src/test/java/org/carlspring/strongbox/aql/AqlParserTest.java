@@ -1,13 +1,16 @@
 package org.carlspring.strongbox.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -197,6 +200,36 @@ public class AqlParserTest
                 );
     }
 
+    @Test
+    public void testKeysetPagination()
+    {
+        String query = "storage:storage-common-proxies +repository:carlspring asc: version";
+
+        Selector<ArtifactEntry> selector = new AqlQueryParser(query).parseQuery();
+
+        ContinuationToken token = ContinuationToken.decode(
+                new ContinuationToken(Collections.singletonList("1.2.3"), "#25:12").encode());
+        assertThat(token.getKeys()).containsExactly("1.2.3");
+        assertThat(token.getObjectId()).isEqualTo("#25:12");
+
+        Paginator paginator = selector.getPaginator();
+        paginator.setSkip(50);
+        paginator.setAfter(token);
+
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(null);
+
+        String sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        logger.debug("Query [{}] parse result:\n[{}]", query, sqlQuery);
+
+        String property = paginator.getProperty();
+        assertThat(sqlQuery).contains(String.format("((%s > :continuationKey_0) OR " +
+                                                    "(%s = :continuationKey_0 AND @rid > :continuationRid))",
+                                                    property, property));
+        assertThat(sqlQuery).endsWith(String.format("ORDER BY %s ASC, @rid ASC LIMIT 25", property));
+        assertThat(sqlQuery).doesNotContain("SKIP");
+    }
+
     @Test
     public void testInvalidQuery()
     {
@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.BulkImportService;
+import org.carlspring.strongbox.services.support.BulkImportResult;
+
+import javax.inject.Inject;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Imports an existing repository tree, a local directory or a zip archive within the import roots, into a repository,
+ * see {@link BulkImportService}.
+ */
+public class BulkImportCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_SOURCE = "source";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobStringTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_SOURCE))));
+
+    @Inject
+    private BulkImportService bulkImportService;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        String source = config.getProperty(PROPERTY_SOURCE);
+
+        BulkImportResult result = bulkImportService.importArtifacts(storageId, repositoryId, source);
+
+        logger.info("Imported [{}] into [{}:{}]: [{}].", source, storageId, repositoryId, result);
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(BulkImportCronJob.class.getName())
+                                .name("Bulk Import Cron Job")
+                                .description("Imports a local directory or zip archive into a repository")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
@@ -20,11 +20,21 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
 
     private static final String PROPERTY_MIN_SIZE_IN_BYTES = "minSizeInBytes";
 
+    private static final String PROPERTY_BATCH_SIZE = "batchSize";
+
+    private static final String PROPERTY_MAX_BYTES_PER_SECOND = "maxBytesPerSecond";
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobIntegerTypeField(
                     new CronJobRequiredField(new CronJobNamedField(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS))),
             new CronJobIntegerTypeField(
-                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))));
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MIN_SIZE_IN_BYTES))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_BATCH_SIZE))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_BYTES_PER_SECOND))));
 
     @Inject
     private LocalStorageProxyRepositoryExpiredArtifactsCleaner proxyRepositoryObsoleteArtifactsCleaner;
@@ -63,7 +73,41 @@ public class CleanupExpiredArtifactsFromProxyRepositoriesCronJob
             }
         }
 
-        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes);
+        final String batchSizeText = config.getProperty(PROPERTY_BATCH_SIZE);
+        final String maxBytesPerSecondText = config.getProperty(PROPERTY_MAX_BYTES_PER_SECOND);
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        if (batchSizeText != null)
+        {
+            try
+            {
+                batchSize = Integer.parseInt(batchSizeText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid integer value [{}] of 'batchSize' property. Cron job won't be fired.",
+                             batchSizeText, ex);
+                return;
+            }
+        }
+
+        long maxBytesPerSecond = 0;
+        if (maxBytesPerSecondText != null)
+        {
+            try
+            {
+                maxBytesPerSecond = Long.parseLong(maxBytesPerSecondText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid long value [{}] of 'maxBytesPerSecond' property. Cron job won't be fired.",
+                             maxBytesPerSecondText, ex);
+                return;
+            }
+        }
+
+        proxyRepositoryObsoleteArtifactsCleaner.cleanup(lastAccessedTimeInDays, minSizeInBytes, batchSize,
+                                                        maxBytesPerSecond);
     }
 
     @Override
@@ -0,0 +1,107 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.ArtifactEntryReconciliationService;
+import org.carlspring.strongbox.services.support.ReconciliationResult;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Reconciles the artifact entries with the artifact files of a repository, of all the repositories of a storage, or of
+ * all the repositories, see {@link ArtifactEntryReconciliationService}.
+ */
+public class ReconcileArtifactEntriesCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_VERIFY_CHECKSUMS = "verifyChecksums";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_VERIFY_CHECKSUMS))));
+
+    @Inject
+    private ArtifactEntryReconciliationService artifactEntryReconciliationService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        boolean verifyChecksums = Boolean.parseBoolean(config.getProperty(PROPERTY_VERIFY_CHECKSUMS));
+
+        if (storageId == null)
+        {
+            for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+            {
+                reconcileRepositories(storage, verifyChecksums);
+            }
+        }
+        else if (repositoryId == null)
+        {
+            reconcileRepositories(configurationManager.getConfiguration().getStorage(storageId), verifyChecksums);
+        }
+        else
+        {
+            reconcile(storageId, repositoryId, verifyChecksums);
+        }
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(ReconcileArtifactEntriesCronJob.class.getName())
+                                .name("Reconcile Artifact Entries Cron Job")
+                                .description("Reconciles the artifact entries with the stored artifact files")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+    private void reconcileRepositories(Storage storage,
+                                       boolean verifyChecksums)
+            throws IOException
+    {
+        for (Repository repository : storage.getRepositories().values())
+        {
+            // The group repositories have no artifact entries of their own.
+            if (!repository.isGroupRepository())
+            {
+                reconcile(storage.getId(), repository.getId(), verifyChecksums);
+            }
+        }
+    }
+
+    private void reconcile(String storageId,
+                           String repositoryId,
+                           boolean verifyChecksums)
+            throws IOException
+    {
+        ReconciliationResult result = artifactEntryReconciliationService.reconcile(storageId,
+                                                                                   repositoryId,
+                                                                                   verifyChecksums);
+
+        logger.info("Reconciled the artifact entries of [{}:{}]: [{}].", storageId, repositoryId, result);
+    }
+
+}
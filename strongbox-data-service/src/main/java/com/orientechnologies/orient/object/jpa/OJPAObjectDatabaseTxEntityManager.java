@@ -38,7 +38,7 @@ public class OJPAObjectDatabaseTxEntityManager implements EntityManager
         this.properties = properties;
         this.emFactory = entityManagerFactory;
         this.database = database;
-        this.transaction = new OJPAEntityTransaction(database);
+        this.transaction = new SessionEntityTransaction(database);
 
         if (logger.isLoggable(Level.INFO))
         {
@@ -414,7 +414,14 @@ public class OJPAObjectDatabaseTxEntityManager implements EntityManager
     @Override
     public void close()
     {
-        database.close();
+        if (emFactory instanceof OJPAObjectDatabaseTxEntityManagerFactory)
+        {
+            ((OJPAObjectDatabaseTxEntityManagerFactory) emFactory).closeDatabase(database);
+        }
+        else
+        {
+            database.close();
+        }
         if (logger.isLoggable(Level.INFO))
         {
             logger.fine("EntityManager closed. " + toString());
@@ -434,4 +441,60 @@ public class OJPAObjectDatabaseTxEntityManager implements EntityManager
                 + super.toString();
     }
 
+    /**
+     * The EntityManager, and so its session, can be shared by several transactions of a single web request, so the
+     * records cached by the session are dropped as each of them begins, in order not to read what a previous
+     * transaction has seen instead of what was committed since.
+     */
+    private static class SessionEntityTransaction implements EntityTransaction
+    {
+
+        private final OObjectDatabaseTx database;
+        private final EntityTransaction delegate;
+
+        SessionEntityTransaction(OObjectDatabaseTx database)
+        {
+            this.database = database;
+            this.delegate = new OJPAEntityTransaction(database);
+        }
+
+        @Override
+        public void begin()
+        {
+            database.getUnderlying().getLocalCache().clear();
+            delegate.begin();
+        }
+
+        @Override
+        public void commit()
+        {
+            delegate.commit();
+        }
+
+        @Override
+        public void rollback()
+        {
+            delegate.rollback();
+        }
+
+        @Override
+        public void setRollbackOnly()
+        {
+            delegate.setRollbackOnly();
+        }
+
+        @Override
+        public boolean getRollbackOnly()
+        {
+            return delegate.getRollbackOnly();
+        }
+
+        @Override
+        public boolean isActive()
+        {
+            return delegate.isActive();
+        }
+
+    }
+
 }
@@ -1,15 +1,12 @@
 package com.orientechnologies.orient.object.jpa;
 
-import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
 import com.orientechnologies.orient.jdbc.OrientDataSource;
-import com.orientechnologies.orient.jdbc.OrientJdbcConnection;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
-import org.carlspring.strongbox.util.ThrowingSupplier;
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
 
 import javax.persistence.*;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.metamodel.Metamodel;
-import java.sql.Connection;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -25,14 +22,17 @@ public class OJPAObjectDatabaseTxEntityManagerFactory
     private static Logger logger = Logger.getLogger(OJPAObjectDatabaseTxEntityManagerFactory.class.getName());
 
     private final OrientDataSource dataSource;
+    private final DatabaseSessionPool sessionPool;
     private final OJPAProperties properties;
 
 
     public OJPAObjectDatabaseTxEntityManagerFactory(final OJPAProperties properties,
-                                                    final OrientDataSource dataSource)
+                                                    final OrientDataSource dataSource,
+                                                    final DatabaseSessionPool sessionPool)
     {
         this.properties = properties;
         this.dataSource = dataSource;
+        this.sessionPool = sessionPool;
 
         logger.fine("EntityManagerFactory created. " + toString());
     }
@@ -64,10 +64,7 @@ public class OJPAObjectDatabaseTxEntityManagerFactory
 
     private EntityManager createEntityManager(final OJPAProperties properties)
     {
-
-        Connection connection = ThrowingSupplier.unchecked(dataSource::getConnection).get();
-
-        OObjectDatabaseTx db = new OObjectDatabaseTx((ODatabaseDocumentInternal) ((OrientJdbcConnection) connection).getDatabase());
+        OObjectDatabaseTx db = new OObjectDatabaseTx(sessionPool.acquire());
         Boolean automaticSchemaGeneration = Boolean.valueOf(properties.getOrDefault(
                 OJPAObjectDatabaseTxPersistenceProvider.PROPERTY_AUTOMATIC_SCHEMA_GENERATION,
                 Boolean.FALSE.toString())
@@ -76,6 +73,11 @@ public class OJPAObjectDatabaseTxEntityManagerFactory
         return new OJPAObjectDatabaseTxEntityManager(db, this, properties);
     }
 
+    void closeDatabase(OObjectDatabaseTx db)
+    {
+        sessionPool.release(db);
+    }
+
     @Override
     public void close()
     {
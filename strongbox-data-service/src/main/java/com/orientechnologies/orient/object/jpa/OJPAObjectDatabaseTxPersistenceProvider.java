@@ -9,6 +9,7 @@ import java.util.Properties;
 
 import com.orientechnologies.orient.core.entity.OEntityManager;
 import com.orientechnologies.orient.jdbc.OrientDataSource;
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
 import static com.orientechnologies.orient.core.entity.OEntityManager.getEntityManagerByDatabaseURL;
 
 /**
@@ -23,6 +24,13 @@ public class OJPAObjectDatabaseTxPersistenceProvider
 
     private static OJPAProviderUtil providerUtil = new OJPAProviderUtil();
 
+    private final DatabaseSessionPool sessionPool;
+
+    public OJPAObjectDatabaseTxPersistenceProvider(DatabaseSessionPool sessionPool)
+    {
+        this.sessionPool = sessionPool;
+    }
+
     @Override
     public synchronized EntityManagerFactory createEntityManagerFactory(String emName,
                                                                         Map map)
@@ -56,7 +64,7 @@ public class OJPAObjectDatabaseTxPersistenceProvider
 
         OrientDataSource dataSource = (OrientDataSource) info.getNonJtaDataSource();
 
-        return new OJPAObjectDatabaseTxEntityManagerFactory(properties, dataSource);
+        return new OJPAObjectDatabaseTxEntityManagerFactory(properties, dataSource, sessionPool);
     }
 
     @Override
@@ -8,6 +8,7 @@ import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 
 import org.carlspring.strongbox.config.hazelcast.HazelcastConfiguration;
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
 import org.carlspring.strongbox.data.tx.OEntityUnproxyAspect;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -68,6 +69,20 @@ public class DataServiceConfig
         return liquibase;
     }
 
+    /**
+     * Applies the schema changes which are maintained within this repository on top of the base schema.
+     */
+    @Bean(name = "liquibaseStrongbox")
+    @DependsOn("liquibase")
+    public SpringLiquibase springLiquibaseStrongbox(ResourceLoader resourceLoader)
+    {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-strongbox.xml");
+        return liquibase;
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory emf, HazelcastInstance hazelcastInstance)
     {
@@ -77,8 +92,10 @@ public class DataServiceConfig
     }
 
     @Bean
-    @DependsOn("liquibase")
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory(OrientDbServerConfiguration serverProperties)
+    @DependsOn({ "liquibase",
+                 "liquibaseStrongbox" })
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(OrientDbServerConfiguration serverProperties,
+                                                                       DatabaseSessionPool sessionPool)
     {
         Map<String, String> jpaProperties = new HashMap<>();
         jpaProperties.put("javax.persistence.jdbc.url", serverProperties.getUrl());
@@ -90,7 +107,7 @@ public class DataServiceConfig
         result.setDataSource(dataSource);
         result.setPersistenceUnitName("strongbox-PU");
         result.setPackagesToScan("org.carlspring.strongbox");
-        result.setPersistenceProvider(new OJPAObjectDatabaseTxPersistenceProvider());
+        result.setPersistenceProvider(new OJPAObjectDatabaseTxPersistenceProvider(sessionPool));
 
         return result;
     }
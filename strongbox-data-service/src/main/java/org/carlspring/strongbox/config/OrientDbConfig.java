@@ -47,9 +47,9 @@ class OrientDbConfig
     }
 
     /**
-     * The pool size is declared in either:
-     * - org.carlspring.strongbox.config.EmbeddedOrientDbConfig#orientDBConfig
-     * - org.carlspring.strongbox.config.InMemoryOrientDbConfig#orientDBConfig
+     * The pool size and acquire timeout are declared in
+     * org.carlspring.strongbox.config.orientdb.CommonOrientDbConfig#getOrientDBConfig, which is shared by both
+     * the embedded and the in-memory configurations.
      */
     @Bean(destroyMethod = "close")
     ODatabasePool databasePool(OrientDbServerConfiguration serverProperties)
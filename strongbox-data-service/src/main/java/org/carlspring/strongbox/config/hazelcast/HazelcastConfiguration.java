@@ -54,15 +54,6 @@ public class HazelcastConfiguration
     @Value("${cacheManagerConfiguration.caches.remoteRepositoryAliveness.evictionPolicy:LFU}")
     public EvictionPolicy remoteRepositoryAlivenessEvictionPolicy;
 
-    @Value("${cacheManagerConfiguration.caches.tags.maxSizeLimit:1000}")
-    public int tagsMaxSizeLimit;
-
-    @Value("${cacheManagerConfiguration.caches.tags.maxSizePolicy:FREE_HEAP_SIZE}")
-    public MaxSizeConfig.MaxSizePolicy tagsMaxSizePolicy;
-
-    @Value("${cacheManagerConfiguration.caches.tags.evictionPolicy:LFU}")
-    public EvictionPolicy tagsEvictionPolicy;
-
     public static MapConfig newDefaultMapConfig(String name,
                                                 int maxSize,
                                                 MaxSizeConfig.MaxSizePolicy maxSizePolicy,
@@ -123,10 +114,6 @@ public class HazelcastConfiguration
                                                                             remoteRepositoryAlivenessMaxSizeLimit,
                                                                             remoteRepositoryAlivenessMaxSizePolicy,
                                                                             remoteRepositoryAlivenessEvictionPolicy))
-                                          .addMapConfig(newDefaultMapConfig(CacheName.Artifact.TAGS,
-                                                                            tagsMaxSizeLimit,
-                                                                            tagsMaxSizePolicy,
-                                                                            tagsEvictionPolicy))
                                           .addMapConfig(authenticationCacheConfig(CacheName.User.AUTHENTICATIONS));
         config.setGroupConfig(new GroupConfig(groupConfigName, groupConfigPassword));
         config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(enableMulticastConfig);
@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.config.orientdb;
 
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.DependsOn;
@@ -17,10 +19,33 @@ import com.orientechnologies.orient.core.db.OrientDBConfig;
 abstract class CommonOrientDbConfig
 {
 
-    private OrientDBConfig orientDBConfig = OrientDBConfig.builder()
-                                                          .addConfig(OGlobalConfiguration.DB_POOL_MIN, 1L)
-                                                          .addConfig(OGlobalConfiguration.DB_POOL_MAX, 100L)
-                                                          .build();
+    /**
+     * Number of the parsed SQL statements cached by OrientDB, by the query text. It should be enough for all the
+     * query shapes (see {@link org.carlspring.strongbox.data.criteria.QueryBuilder}) to stay cached.
+     */
+    private static final int STATEMENT_CACHE_SIZE = 1000;
+
+    @Value("${strongbox.orientdb.pool.min:1}")
+    private int poolMin;
+
+    /**
+     * Each Jetty thread, which serves the requests as well as the async events, holds a session for its whole request,
+     * so unless it's set, the pool is sized to the Jetty thread pool plus the background sessions (see
+     * {@link DatabaseSessionPool#calculateMaxSize(int, int, int)}).
+     */
+    @Value("${strongbox.orientdb.pool.max:0}")
+    private int poolMax;
+
+    @Value("${strongbox.jetty.maxThreads:200}")
+    private int requestThreads;
+
+    @Value("${strongbox.orientdb.pool.background:16}")
+    private int backgroundSessions;
+
+    @Value("${strongbox.orientdb.pool.acquireTimeoutMillis:30000}")
+    private int poolAcquireTimeoutMillis;
+
+    private OrientDBConfig orientDBConfig;
 
     @Bean
     @DependsOn("connectionConfig")
@@ -61,8 +86,22 @@ abstract class CommonOrientDbConfig
         return serverProperties;
     }
 
-    public OrientDBConfig getOrientDBConfig()
+    public synchronized OrientDBConfig getOrientDBConfig()
     {
+        if (orientDBConfig == null)
+        {
+            orientDBConfig = OrientDBConfig.builder()
+                                           .addConfig(OGlobalConfiguration.DB_POOL_MIN, poolMin)
+                                           .addConfig(OGlobalConfiguration.DB_POOL_MAX,
+                                                      DatabaseSessionPool.calculateMaxSize(poolMax,
+                                                                                           requestThreads,
+                                                                                           backgroundSessions))
+                                           .addConfig(OGlobalConfiguration.DB_POOL_ACQUIRE_TIMEOUT,
+                                                      poolAcquireTimeoutMillis)
+                                           .addConfig(OGlobalConfiguration.STATEMENT_CACHE_SIZE, STATEMENT_CACHE_SIZE)
+                                           .build();
+        }
+
         return orientDBConfig;
     }
 
@@ -10,13 +10,6 @@ public final class CacheName
         public static final String AUTHENTICATIONS = "authentications";
     }
     
-    public static final class Artifact
-    {
-
-        public static final String TAGS = "tags";
-
-    }
-
     public static final class Repository
     {
 
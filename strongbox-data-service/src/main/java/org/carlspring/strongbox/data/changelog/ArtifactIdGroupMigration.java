@@ -0,0 +1,124 @@
+package org.carlspring.strongbox.data.changelog;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.jdbc.OrientJdbcConnection;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies the links of the artifact id groups, which have been stored before the entries referred to their group, onto
+ * the entries (as their {@code artifactIdGroup}) and removes the links. It's run before the application starts, so
+ * that the members and the last version of the existing groups are found from the first request on. The last version
+ * tags have been maintained over the links, so they are kept as they are.
+ * <p>
+ * Each group is updated with its own statements, and its links are removed last, so an interrupted change is resumed
+ * from the groups which still have their links.
+ */
+public class ArtifactIdGroupMigration
+        implements CustomTaskChange
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactIdGroupMigration.class);
+
+    private long migrated;
+
+    @Override
+    public void execute(Database database)
+            throws CustomChangeException
+    {
+        try
+        {
+            JdbcConnection connection = (JdbcConnection) database.getConnection();
+            ODatabaseDocument db = connection.getUnderlyingConnection()
+                                             .unwrap(OrientJdbcConnection.class)
+                                             .getDatabase();
+            db.activateOnCurrentThread();
+
+            migrated = migrate(db);
+        }
+        catch (SQLException e)
+        {
+            throw new CustomChangeException(e);
+        }
+    }
+
+    /**
+     * @return the number of updated artifact entries
+     */
+    public long migrate(ODatabaseDocument db)
+    {
+        List<ORID> groupIds = new ArrayList<>();
+        try (OResultSet resultSet = db.query("SELECT @rid AS rid FROM RepositoryArtifactIdGroupEntry " +
+                                             "WHERE artifactEntries IS NOT NULL"))
+        {
+            resultSet.forEachRemaining(r -> groupIds.add(r.<OIdentifiable>getProperty("rid").getIdentity()));
+        }
+
+        long result = 0;
+        for (ORID groupId : groupIds)
+        {
+            ODocument group = db.load(groupId);
+            Collection<OIdentifiable> links = group.field("artifactEntries");
+
+            List<ORID> artifactEntryIds = links.stream()
+                                               .map(OIdentifiable::getIdentity)
+                                               .collect(Collectors.toList());
+            if (!artifactEntryIds.isEmpty())
+            {
+                try (OResultSet resultSet = db.command("UPDATE ArtifactEntry SET artifactIdGroup = ? " +
+                                                       "WHERE @rid IN ?",
+                                                       group.<String>field("name"),
+                                                       artifactEntryIds))
+                {
+                    result += resultSet.next().<Number>getProperty("count").longValue();
+                }
+            }
+
+            group.removeField("artifactEntries");
+            group.save();
+        }
+
+        logger.info("Updated [{}] artifact entries of [{}] artifact id groups.", result, groupIds.size());
+
+        return result;
+    }
+
+    @Override
+    public String getConfirmationMessage()
+    {
+        return String.format("Updated [%s] artifact entries of the artifact id groups.", migrated);
+    }
+
+    @Override
+    public void setUp()
+    {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor)
+    {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database)
+    {
+        return new ValidationErrors();
+    }
+
+}
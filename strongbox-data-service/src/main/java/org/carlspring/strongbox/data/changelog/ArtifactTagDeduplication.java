@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.data.changelog;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.db.document.ODatabaseDocument;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import com.orientechnologies.orient.jdbc.OrientJdbcConnection;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the artifact tags which have the same name, so that the unique name index can be created. The tags were
+ * created on demand by any node of the cluster, without an index, so the same tag may have been stored more than
+ * once. The oldest tag of each name is kept, the entries which refer to the other ones are moved onto it, and the
+ * other ones are deleted.
+ */
+public class ArtifactTagDeduplication
+        implements CustomTaskChange
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactTagDeduplication.class);
+
+    private int deduplicated;
+
+    @Override
+    public void execute(Database database)
+            throws CustomChangeException
+    {
+        try
+        {
+            JdbcConnection connection = (JdbcConnection) database.getConnection();
+            ODatabaseDocument db = connection.getUnderlyingConnection()
+                                             .unwrap(OrientJdbcConnection.class)
+                                             .getDatabase();
+            db.activateOnCurrentThread();
+
+            deduplicated = deduplicate(db);
+        }
+        catch (SQLException e)
+        {
+            throw new CustomChangeException(e);
+        }
+    }
+
+    /**
+     * @return the number of deleted duplicates
+     */
+    public int deduplicate(ODatabaseDocument db)
+    {
+        Map<String, ORID> tags = new HashMap<>();
+        Map<ORID, ORID> duplicates = new LinkedHashMap<>();
+        try (OResultSet resultSet = db.query("SELECT @rid AS rid, name FROM ArtifactTagEntry ORDER BY @rid ASC"))
+        {
+            while (resultSet.hasNext())
+            {
+                OResult result = resultSet.next();
+                ORID tagId = result.<OIdentifiable>getProperty("rid").getIdentity();
+
+                ORID keptTagId = tags.putIfAbsent(result.getProperty("name"), tagId);
+                if (keptTagId != null)
+                {
+                    duplicates.put(tagId, keptTagId);
+                }
+            }
+        }
+
+        duplicates.forEach((tagId, keptTagId) -> {
+            List<ORID> artifactEntryIds = new ArrayList<>();
+            try (OResultSet resultSet = db.query("SELECT @rid AS rid FROM ArtifactEntry WHERE tagSet CONTAINS ?",
+                                                 tagId))
+            {
+                resultSet.forEachRemaining(r -> artifactEntryIds.add(r.<OIdentifiable>getProperty("rid")
+                                                                            .getIdentity()));
+            }
+
+            for (ORID artifactEntryId : artifactEntryIds)
+            {
+                ODocument artifactEntry = db.load(artifactEntryId);
+                Collection<OIdentifiable> tagSet = artifactEntry.field("tagSet");
+                tagSet.remove(tagId);
+                tagSet.add(keptTagId);
+                artifactEntry.save();
+            }
+
+            db.delete(tagId);
+
+            logger.info("Merged the artifact tag [{}] of [{}] artifact entries into [{}].",
+                        tagId,
+                        artifactEntryIds.size(),
+                        keptTagId);
+        });
+
+        return duplicates.size();
+    }
+
+    @Override
+    public String getConfirmationMessage()
+    {
+        return String.format("Deleted [%s] duplicated artifact tags.", deduplicated);
+    }
+
+    @Override
+    public void setUp()
+    {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor)
+    {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database)
+    {
+        return new ValidationErrors();
+    }
+
+}
@@ -0,0 +1,220 @@
+package org.carlspring.strongbox.data.criteria;
+
+import javax.annotation.concurrent.Immutable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Opaque position of a keyset (seek) pagination: the values of the sort properties and the record id of the last
+ * record of a page. The next page is selected with a range condition on these values, instead of skipping the
+ * records of all the previous pages, so each page costs the same no matter how deep it is.
+ * <p>
+ * The sort properties are expected to be non-null, records with {@code null} sort values can't be reliably paged
+ * through with keyset pagination.
+ */
+@Immutable
+public class ContinuationToken
+{
+
+    private static final String SEPARATOR = "\u0000";
+
+    private final List<Object> keys;
+
+    private final String objectId;
+
+    public ContinuationToken(List<Object> keys,
+                             String objectId)
+    {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        this.objectId = objectId;
+    }
+
+    /**
+     * Creates the token positioned at the given record.
+     *
+     * @param properties
+     *            the sort properties, nested properties can be addressed with dots
+     */
+    public static ContinuationToken of(ODocument document,
+                                       List<String> properties)
+    {
+        List<Object> keys = new ArrayList<>();
+        for (String property : properties)
+        {
+            keys.add(document.field(property));
+        }
+
+        return new ContinuationToken(keys, document.getIdentity().toString());
+    }
+
+    public List<Object> getKeys()
+    {
+        return keys;
+    }
+
+    public String getObjectId()
+    {
+        return objectId;
+    }
+
+    /**
+     * Checks that the token has been issued for results sorted by the given properties, so that it can be turned into
+     * a condition. The tokens come from the clients, so this should be called before building the query.
+     *
+     * @throws IllegalArgumentException
+     *             if the token doesn't match the sort properties
+     */
+    public void validate(List<String> properties)
+    {
+        if (properties.size() != keys.size())
+        {
+            throw new IllegalArgumentException(
+                    String.format("Continuation token doesn't match the sort properties %s.", properties));
+        }
+    }
+
+    /**
+     * Builds the condition which selects the records positioned after this token, for records ordered by the given
+     * properties and then by {@code @rid ASC}. The condition parameters are added into {@code parameterMap}.
+     *
+     * @param properties
+     *            the sort properties, in the order they are used in the {@code ORDER BY} clause
+     * @param descending
+     *            the sort direction of each property
+     */
+    public String toCondition(List<String> properties,
+                              List<Boolean> descending,
+                              Map<String, Object> parameterMap)
+    {
+        validate(properties);
+
+        // (k0 > :v0) OR (k0 = :v0 AND k1 > :v1) OR ... OR (k0 = :v0 AND ... AND @rid > :rid)
+        StringBuilder condition = new StringBuilder();
+        StringBuilder equalityPrefix = new StringBuilder();
+        for (int i = 0; i < properties.size(); i++)
+        {
+            String parameterName = String.format("continuationKey_%s", i);
+            parameterMap.put(parameterName, keys.get(i));
+
+            condition.append(String.format("(%s%s %s :%s) OR ",
+                                           equalityPrefix,
+                                           properties.get(i),
+                                           Boolean.TRUE.equals(descending.get(i)) ? "<" : ">",
+                                           parameterName));
+            equalityPrefix.append(String.format("%s = :%s AND ", properties.get(i), parameterName));
+        }
+
+        parameterMap.put("continuationRid", new ORecordId(objectId));
+        condition.append(String.format("(%s@rid > :continuationRid)", equalityPrefix));
+
+        return condition.insert(0, "(").append(")").toString();
+    }
+
+    public String encode()
+    {
+        StringBuilder sb = new StringBuilder(objectId);
+        for (Object key : keys)
+        {
+            sb.append(SEPARATOR).append(encodeKey(key));
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContinuationToken decode(String token)
+    {
+        String[] tokens;
+        try
+        {
+            tokens = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid continuation token [%s].", token), e);
+        }
+
+        if (!ORecordId.isA(tokens[0]))
+        {
+            throw new IllegalArgumentException(String.format("Invalid continuation token [%s].", token));
+        }
+
+        List<Object> keys = new ArrayList<>();
+        for (String key : Arrays.asList(tokens).subList(1, tokens.length))
+        {
+            keys.add(decodeKey(key, token));
+        }
+
+        return new ContinuationToken(keys, tokens[0]);
+    }
+
+    private static String encodeKey(Object key)
+    {
+        if (key instanceof Date)
+        {
+            return "d" + ((Date) key).getTime();
+        }
+        else if (key instanceof Long)
+        {
+            return "l" + key;
+        }
+        else if (key instanceof Integer)
+        {
+            return "i" + key;
+        }
+        else if (key instanceof Boolean)
+        {
+            return "b" + key;
+        }
+
+        return "s" + key;
+    }
+
+    private static Object decodeKey(String key,
+                                    String token)
+    {
+        if (key.isEmpty())
+        {
+            throw new IllegalArgumentException(String.format("Invalid continuation token [%s].", token));
+        }
+
+        String value = key.substring(1);
+        try
+        {
+            switch (key.charAt(0))
+            {
+            case 'd':
+                return new Date(Long.parseLong(value));
+            case 'l':
+                return Long.valueOf(value);
+            case 'i':
+                return Integer.valueOf(value);
+            case 'b':
+                return Boolean.valueOf(value);
+            case 's':
+                return value;
+            default:
+                throw new IllegalArgumentException(String.format("Invalid continuation token [%s].", token));
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException(String.format("Invalid continuation token [%s].", token), e);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return encode();
+    }
+
+}
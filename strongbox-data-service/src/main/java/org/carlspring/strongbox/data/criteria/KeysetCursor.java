@@ -0,0 +1,103 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over a large query result page by page with keyset pagination (see {@link ContinuationToken}), so that at
+ * most one page of {@code fetchSize} records is held in memory at a time and every page is fetched only when the
+ * previous one has been consumed.
+ * <p>
+ * The {@link #stream()} should be closed (try-with-resources) if it's not consumed to the end.
+ */
+public class KeysetCursor<T> implements Iterator<T>
+{
+
+    private final Function<ContinuationToken, List<T>> pageFetcher;
+
+    private final Function<T, ContinuationToken> tokenFactory;
+
+    private final int fetchSize;
+
+    private ContinuationToken after;
+
+    private Iterator<T> page = Collections.emptyIterator();
+
+    private boolean exhausted;
+
+    /**
+     * @param pageFetcher
+     *            fetches at most {@code fetchSize} records positioned after the given token, or from the beginning
+     *            if it's {@code null}
+     * @param tokenFactory
+     *            creates the token of the record, it's called for the last record of each page before it's returned
+     *            from the cursor
+     */
+    public KeysetCursor(Function<ContinuationToken, List<T>> pageFetcher,
+                        Function<T, ContinuationToken> tokenFactory,
+                        int fetchSize,
+                        ContinuationToken after)
+    {
+        this.pageFetcher = pageFetcher;
+        this.tokenFactory = tokenFactory;
+        this.fetchSize = fetchSize;
+        this.after = after;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (!page.hasNext() && !exhausted)
+        {
+            fetch();
+        }
+
+        return page.hasNext();
+    }
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+
+        return page.next();
+    }
+
+    private void fetch()
+    {
+        List<T> result = pageFetcher.apply(after);
+
+        exhausted = result.size() < fetchSize;
+        if (!result.isEmpty())
+        {
+            after = tokenFactory.apply(result.get(result.size() - 1));
+        }
+
+        page = result.iterator();
+    }
+
+    public void close()
+    {
+        exhausted = true;
+        page = Collections.emptyIterator();
+    }
+
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                                                                        Spliterator.ORDERED | Spliterator.NONNULL),
+                                    false)
+                            .onClose(this::close);
+    }
+
+}
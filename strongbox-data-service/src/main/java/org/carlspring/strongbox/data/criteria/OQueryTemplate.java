@@ -1,8 +1,12 @@
 package org.carlspring.strongbox.data.criteria;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 
@@ -12,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 
@@ -44,11 +49,58 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
     }
 
     public R select(Selector<T> s)
+    {
+        Object result = execute(s);
+        if (s.getView() != null)
+        {
+            ViewProjection<?> view = s.getView();
+
+            return (R) ((Collection<ODocument>) result).stream().map(view::map).collect(Collectors.toList());
+        }
+        else if (result instanceof Collection && !((Collection) result).isEmpty()
+                && ((Collection) result).iterator().next() instanceof ODocument)
+        {
+            // Commonly we don't need ODocument results, so if it's a ODocument
+            // then probably we assume to get it's contents
+            return (R) ((Collection<ODocument>) result).iterator().next().fieldValues()[0];
+        }
+        else
+        {
+            return (R) result;
+        }
+    }
+
+    /**
+     * Lazily fetches the selected entities in pages of {@code fetchSize} with keyset pagination, so the memory used
+     * doesn't depend on the total number of results. The ordering of the {@link Selector} paginator is kept, its
+     * limit and skip are replaced on a copy, the given {@link Selector} isn't changed. The returned entities are
+     * attached to the current session, the stream should be consumed within the transaction and closed afterwards.
+     */
+    public Stream<T> stream(Selector<T> s,
+                            int fetchSize)
+    {
+        Paginator source = s.getPaginator();
+
+        Paginator paginator = new Paginator();
+        paginator.setProperty(source == null ? null : source.getProperty());
+        paginator.setOrder(source == null ? Paginator.Order.ASC : source.getOrder());
+        paginator.setLimit(fetchSize);
+        paginator.setKeyset(true);
+        Selector<T> page = s.copy(paginator);
+
+        return new KeysetCursor<T>(after -> {
+            paginator.setAfter(after);
+            return (List<T>) execute(page);
+        }, e -> continuationToken(page, e), paginator.getLimit(), source == null ? null : source.getAfter()).stream();
+    }
+
+    protected Object execute(Selector<T> s)
     {
         String sQuery = calculateQueryString(s);
 
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
+        keysetCondition(s.getPaginator(), parameterMap);
 
         logger.debug("Executing SQL query:\n" +
                      "\t[{}]\n" +
@@ -56,19 +108,63 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
                      "\t[{}]",
                      sQuery, parameterMap);
 
-        Object result = getEmDelegate().command(oQuery)
-                                       .execute(parameterMap);
-        if (result instanceof Collection && !((Collection) result).isEmpty()
-                && ((Collection) result).iterator().next() instanceof ODocument)
+        return getEmDelegate().command(oQuery)
+                              .execute(parameterMap);
+    }
+
+    /**
+     * Deletes the selected records with a single set-based {@code DELETE} command, instead of loading and removing
+     * them one by one. The {@link Paginator} limit bounds the number of records deleted by one call, so a large delete
+     * can be split into several short transactions.
+     *
+     * @return the number of deleted records
+     */
+    public int delete(Selector<T> s)
+    {
+        String sCommand = calculateDeleteString(s);
+        Map<String, Object> parameterMap = s.getPredicate() == null ? new HashMap<>()
+                : exposeParameterMap(s.getPredicate());
+
+        logger.debug("Executing SQL command:\n" +
+                     "\t[{}]\n" +
+                     "With parameters:\n" +
+                     "\t[{}]",
+                     sCommand, parameterMap);
+
+        return getEmDelegate().command(new OCommandSQL(sCommand))
+                              .execute(parameterMap);
+    }
+
+    public String calculateDeleteString(Selector<T> selector)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DELETE FROM ").append(selector.getTargetClass().getSimpleName());
+
+        Predicate p = selector.getPredicate();
+        if (p != null && !p.isEmpty())
         {
-            // Commonly we don't need ODocument results, so if it's a ODocument
-            // then probably we assume to get it's contents
-            return (R) ((Collection<ODocument>) result).iterator().next().fieldValues()[0];
+            sb.append(" WHERE ").append(predicateToken(p, 0));
         }
-        else
+
+        Paginator paginator = selector.getPaginator();
+        if (paginator != null && paginator.getLimit() > 0)
         {
-            return (R) result;
+            sb.append(String.format(" LIMIT %s", paginator.getLimit()));
         }
+
+        return sb.toString();
+    }
+
+    /**
+     * Creates the {@link ContinuationToken} of the page which follows the given entity, it should be called with the
+     * last (not detached) entity of a page selected with keyset {@link Paginator}.
+     */
+    public ContinuationToken continuationToken(Selector<T> s,
+                                               T lastEntity)
+    {
+        ODocument document = getEmDelegate().getRecordByUserObject(lastEntity, false);
+
+        return ContinuationToken.of(document, sortProperties(s.getPaginator()));
     }
 
     public OObjectDatabaseTx getEmDelegate()
@@ -86,9 +182,9 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
     {
         HashMap<String, Object> result = new HashMap<>();
         Expression e = p.getExpression();
-        if (e != null && !ExpOperator.IS_NULL.equals(e.getOperator()) && !ExpOperator.IS_NOT_NULL.equals(e.getOperator()))
+        if (e != null)
         {
-            result.put(calculateParameterName(e.getProperty(), tokenCount), e.getValue());
+            result.putAll(exposeParameterMap(e, tokenCount));
         }
 
         for (Predicate predicate : p.getChildPredicateList())
@@ -99,6 +195,20 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return result;
     }
 
+    /**
+     * Exposes the parameters of the expression rendered by {@link #expressionToken(Expression, int)}.
+     */
+    protected Map<String, Object> exposeParameterMap(Expression e,
+                                                     int n)
+    {
+        if (ExpOperator.IS_NULL.equals(e.getOperator()) || ExpOperator.IS_NOT_NULL.equals(e.getOperator()))
+        {
+            return Collections.emptyMap();
+        }
+
+        return Collections.singletonMap(calculateParameterName(e.getProperty(), n), e.getValue());
+    }
+
     public String calculateQueryString(Selector<T> selector)
     {
         StringBuilder sb = new StringBuilder();
@@ -106,21 +216,36 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
         Predicate p = selector.getPredicate();
-        if (p.isEmpty())
+        Paginator paginator = selector.getPaginator();
+
+        String keysetCondition = keysetCondition(paginator, new HashMap<>());
+        if (!p.isEmpty() || keysetCondition != null)
         {
-            return sb.toString();
+            sb.append(" WHERE ");
+        }
+        if (!p.isEmpty() && keysetCondition != null)
+        {
+            sb.append("(").append(predicateToken(p, 0)).append(") AND ").append(keysetCondition);
+        }
+        else if (!p.isEmpty())
+        {
+            sb.append(predicateToken(p, 0));
+        }
+        else if (keysetCondition != null)
+        {
+            sb.append(keysetCondition);
         }
 
-        sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
-
-        Paginator paginator = selector.getPaginator();
-        if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
+        if (paginator != null && !sortProperties(paginator).isEmpty())
         {
             sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
         }
+        if (paginator != null && paginator.isKeyset())
+        {
+            sb.append(sortProperties(paginator).isEmpty() ? " ORDER BY @rid ASC" : ", @rid ASC");
+        }
 
-        if (paginator != null && paginator.getSkip() > 0)
+        if (paginator != null && !paginator.isKeyset() && paginator.getSkip() > 0)
         {
             sb.append(String.format(" SKIP %s", paginator.getSkip()));
         }
@@ -137,6 +262,27 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return sb.toString();
     }
 
+    private String keysetCondition(Paginator paginator,
+                               Map<String, Object> parameterMap)
+    {
+        if (paginator == null || paginator.getAfter() == null)
+        {
+            return null;
+        }
+
+        List<String> properties = sortProperties(paginator);
+
+        return paginator.getAfter()
+                        .toCondition(properties,
+                                     Collections.nCopies(properties.size(), Paginator.Order.DESC.equals(paginator.getOrder())),
+                                     parameterMap);
+    }
+
+    private List<String> sortProperties(Paginator paginator)
+    {
+        return paginator == null ? Collections.emptyList() : paginator.getSortProperties();
+    }
+
     protected String predicateToken(Predicate p,
                                     int tokenCount)
     {
@@ -220,8 +366,8 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return String.format(":%s", calculateParameterName(property, n));
     }
 
-    private String calculateParameterName(String property,
-                                          int n)
+    protected String calculateParameterName(String property,
+                                            int n)
     {
         if (property == null)
         {
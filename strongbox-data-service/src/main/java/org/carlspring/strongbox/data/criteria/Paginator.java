@@ -1,5 +1,8 @@
 package org.carlspring.strongbox.data.criteria;
 
+import java.util.Collections;
+import java.util.List;
+
 public class Paginator
 {
 
@@ -11,6 +14,10 @@ public class Paginator
     private String property;
     private Order order = Order.ASC;
 
+    private boolean keyset;
+
+    private ContinuationToken after;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -41,6 +48,19 @@ public class Paginator
         this.property = orderBy;
     }
 
+    /**
+     * @return the properties the results are sorted by, which the {@link ContinuationToken} keys correspond to
+     */
+    public List<String> getSortProperties()
+    {
+        if (property == null || property.trim().isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        return Collections.singletonList(property);
+    }
+
     public Order getOrder()
     {
         return order;
@@ -51,6 +71,33 @@ public class Paginator
         this.order = order;
     }
 
+    /**
+     * The keyset pagination position, if set the page starts right after it and {@link #getSkip()} is ignored.
+     */
+    public ContinuationToken getAfter()
+    {
+        return after;
+    }
+
+    public void setAfter(ContinuationToken after)
+    {
+        this.after = after;
+    }
+
+    /**
+     * With keyset pagination the results are additionally ordered by {@code @rid}, so that the last record of each
+     * page can be turned into a {@link ContinuationToken} for the next one.
+     */
+    public boolean isKeyset()
+    {
+        return keyset || after != null;
+    }
+
+    public void setKeyset(boolean keyset)
+    {
+        this.keyset = keyset;
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.data.criteria;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Query built with {@link QueryBuilder}: the query text, which depends only on the query shape, and the values bound
+ * to its parameters.
+ * <p>
+ * The parsed statements are cached by OrientDB itself, by the query text (see {@code statement.cacheSize}), so a new
+ * {@link OSQLSynchQuery} request is created for every execution: the requests hold the execution state and can't be
+ * shared between threads.
+ */
+@Immutable
+public class ParameterizedQuery
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ParameterizedQuery.class);
+
+    private final String text;
+
+    private final Map<String, Object> parameters;
+
+    private final int limit;
+
+    ParameterizedQuery(String text,
+                       Map<String, Object> parameters,
+                       int limit)
+    {
+        this.text = text;
+        this.parameters = Collections.unmodifiableMap(new HashMap<>(parameters));
+        this.limit = limit;
+    }
+
+    public String getText()
+    {
+        return text;
+    }
+
+    public Map<String, Object> getParameters()
+    {
+        return parameters;
+    }
+
+    public int getLimit()
+    {
+        return limit;
+    }
+
+    public <R> R execute(OObjectDatabaseTx db)
+    {
+        OSQLSynchQuery<Object> oQuery = new OSQLSynchQuery<>(text);
+        if (limit > 0)
+        {
+            oQuery.setLimit(limit);
+        }
+
+        logger.debug("Executing SQL query:\n" +
+                     "\t[{}]\n" +
+                     "With parameters:\n" +
+                     "\t[{}]",
+                     text, parameters);
+
+        return db.command(oQuery).execute(new HashMap<>(parameters));
+    }
+
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+
+}
@@ -0,0 +1,236 @@
+package org.carlspring.strongbox.data.criteria;
+
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Typed builder of the OrientDB {@code SELECT} queries, which always binds the values as parameters instead of
+ * inlining them into the query text.
+ * <p>
+ * This way the text of a query depends only on its shape (target class, conditions, ordering), so OrientDB can reuse
+ * the statement parsed once for all the executions of the same kind of query, and the query text can't be injected:
+ * the identifiers are validated and the conditions can't have inlined literals.
+ */
+public class QueryBuilder
+{
+
+    private static final Pattern IDENTIFIER = Pattern.compile("@?[A-Za-z_]\\w*(\\.[A-Za-z_]\\w*(\\(\\))?)*");
+
+    private static final Pattern PROJECTION = Pattern.compile("[\\w@.(), *]+");
+
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    private static final String SKIP_PARAMETER = "skip";
+
+    private final String targetClass;
+
+    private String projection = "*";
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    private final List<String> orders = new ArrayList<>();
+
+    private int skip;
+
+    private int limit;
+
+    private QueryBuilder(String targetClass)
+    {
+        this.targetClass = identifier(targetClass);
+    }
+
+    public static QueryBuilder select(Class<?> targetClass)
+    {
+        return new QueryBuilder(targetClass.getSimpleName());
+    }
+
+    public QueryBuilder projection(String projection)
+    {
+        if (projection == null || !PROJECTION.matcher(projection).matches())
+        {
+            throw new IllegalArgumentException(String.format("Invalid projection [%s].", projection));
+        }
+
+        this.projection = projection;
+        return this;
+    }
+
+    /**
+     * Adds the {@code property <operator> :parameter} condition, the conditions are joined with {@code AND}.
+     * <p>
+     * With the {@link ExpOperator#CONTAINS} operator the {@code collection.property} will be rendered as
+     * {@code collection CONTAINS (property = :parameter)}, while a plain {@code collection} as
+     * {@code collection CONTAINS :parameter}.
+     */
+    public QueryBuilder where(String property,
+                              ExpOperator operator,
+                              Object value)
+    {
+        identifier(property);
+
+        switch (operator)
+        {
+        case IS_NULL:
+            conditions.add(String.format("%s IS NULL", property));
+            return this;
+        case IS_NOT_NULL:
+            conditions.add(String.format("%s IS NOT NULL", property));
+            return this;
+        case CONTAINS:
+            int i = property.indexOf(".");
+            if (i < 0)
+            {
+                conditions.add(String.format("%s CONTAINS :%s", property, bind(property, value)));
+            }
+            else
+            {
+                conditions.add(String.format("%s CONTAINS (%s = :%s)",
+                                             property.substring(0, i),
+                                             property.substring(i + 1),
+                                             bind(property, value)));
+            }
+            return this;
+        default:
+            conditions.add(String.format("%s %s :%s", property, operatorToken(operator), bind(property, value)));
+            return this;
+        }
+    }
+
+    /**
+     * Adds the condition which can't be expressed with {@link #where(String, ExpOperator, Object)}, for example a
+     * group of {@code OR} conditions. The condition should refer to its values as {@code :name} parameters, all of
+     * which should be provided.
+     */
+    public QueryBuilder where(String condition,
+                              Map<String, ?> conditionParameters)
+    {
+        if (condition.indexOf('\'') >= 0 || condition.indexOf('"') >= 0)
+        {
+            throw new IllegalArgumentException(
+                    String.format("Query condition [%s] should use parameters instead of literals.", condition));
+        }
+
+        Matcher matcher = PARAMETER.matcher(condition);
+        while (matcher.find())
+        {
+            String name = matcher.group(1);
+            if (!conditionParameters.containsKey(name))
+            {
+                throw new IllegalArgumentException(
+                        String.format("Query condition [%s] parameter [%s] has no value.", condition, name));
+            }
+            if (parameters.containsKey(name) && !Objects.equals(parameters.get(name), conditionParameters.get(name)))
+            {
+                throw new IllegalArgumentException(String.format("Query parameter [%s] is already bound.", name));
+            }
+        }
+
+        conditions.add(String.format("(%s)", condition));
+        parameters.putAll(conditionParameters);
+
+        return this;
+    }
+
+    public QueryBuilder orderBy(String property,
+                                boolean descending)
+    {
+        orders.add(String.format("%s %s", identifier(property), descending ? "DESC" : "ASC"));
+        return this;
+    }
+
+    /**
+     * The skip is bound as the {@code :skip} parameter, so the query text doesn't depend on its value.
+     */
+    public QueryBuilder skip(int skip)
+    {
+        this.skip = skip;
+        return this;
+    }
+
+    /**
+     * The limit is set on the query request rather than in the query text, so the text doesn't depend on it.
+     */
+    public QueryBuilder limit(int limit)
+    {
+        this.limit = limit;
+        return this;
+    }
+
+    public ParameterizedQuery build()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT ").append(projection).append(" FROM ").append(targetClass);
+
+        if (!conditions.isEmpty())
+        {
+            sb.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (!orders.isEmpty())
+        {
+            sb.append(" ORDER BY ").append(String.join(", ", orders));
+        }
+
+        Map<String, Object> queryParameters = new LinkedHashMap<>(parameters);
+        if (skip > 0)
+        {
+            if (queryParameters.containsKey(SKIP_PARAMETER))
+            {
+                throw new IllegalArgumentException(String.format("Query parameter [%s] is reserved for the skip.",
+                                                                 SKIP_PARAMETER));
+            }
+
+            sb.append(" SKIP :").append(SKIP_PARAMETER);
+            queryParameters.put(SKIP_PARAMETER, skip);
+        }
+
+        return new ParameterizedQuery(sb.toString(), queryParameters, limit);
+    }
+
+    private String bind(String property,
+                        Object value)
+    {
+        String name = property.replace(".toLowerCase()", "").replace("@", "");
+        name = String.format("%s_%s", name.substring(name.lastIndexOf(".") + 1), parameters.size());
+
+        parameters.put(name, value);
+
+        return name;
+    }
+
+    private static String identifier(String identifier)
+    {
+        if (identifier == null || !IDENTIFIER.matcher(identifier).matches())
+        {
+            throw new IllegalArgumentException(String.format("Invalid identifier [%s].", identifier));
+        }
+
+        return identifier;
+    }
+
+    private static String operatorToken(ExpOperator operator)
+    {
+        switch (operator)
+        {
+        case EQ:
+            return "=";
+        case GE:
+            return ">=";
+        case LE:
+            return "<=";
+        case LIKE:
+            return "LIKE";
+        default:
+            throw new IllegalArgumentException(String.format("Unsupported operator [%s].", operator));
+        }
+    }
+
+}
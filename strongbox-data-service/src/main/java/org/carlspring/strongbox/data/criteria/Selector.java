@@ -21,6 +21,8 @@ public class Selector<T extends GenericEntity>
     private Predicate predicate;
 
     private boolean fetch;
+
+    private ViewProjection<?> view;
     
     private Paginator paginator = new Paginator();
 
@@ -48,9 +50,25 @@ public class Selector<T extends GenericEntity>
     public Selector<T> select(String projection)
     {
         this.projection = projection;
+        this.view = null;
+        return this;
+    }
+
+    /**
+     * Selects only the fields of the given view projection, the results are mapped to the views instead of entities.
+     */
+    public Selector<T> select(ViewProjection<?> view)
+    {
+        this.projection = view.getFields();
+        this.view = view;
         return this;
     }
 
+    public ViewProjection<?> getView()
+    {
+        return view;
+    }
+
     public Predicate where(Expression e)
     {
         return this.predicate = Predicate.of(e);
@@ -61,9 +79,12 @@ public class Selector<T extends GenericEntity>
         return this.predicate = p;
     }
 
+    /**
+     * The fetch plan is only applied to the entity selections, it's not needed for the views.
+     */
     public boolean isFetch()
     {
-        return fetch;
+        return fetch && view == null;
     }
 
     public Selector<T> fetch()
@@ -83,4 +104,20 @@ public class Selector<T extends GenericEntity>
         return this;
     }
 
+    /**
+     * @return a new {@link Selector} with the same projection, predicate and fetch, but with the given
+     *         {@link Paginator}, this one is left unchanged
+     */
+    public Selector<T> copy(Paginator paginator)
+    {
+        Selector<T> result = new Selector<>(targetClass);
+        result.projection = projection;
+        result.view = view;
+        result.predicate = predicate;
+        result.fetch = fetch;
+        result.paginator = paginator;
+
+        return result;
+    }
+
 }
@@ -0,0 +1,23 @@
+package org.carlspring.strongbox.data.criteria;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Explicit field projection of the selected entities, mapped to a read only view (DTO). Only the projected fields are
+ * read, the entity graph (links, embedded collections) isn't loaded nor detached.
+ *
+ * @param <V>
+ *            the view type
+ * @see Selector#select(ViewProjection)
+ */
+public interface ViewProjection<V>
+{
+
+    /**
+     * @return the projected fields, for example {@code @rid AS objectId, storageId, sizeInBytes}
+     */
+    String getFields();
+
+    V map(ODocument document);
+
+}
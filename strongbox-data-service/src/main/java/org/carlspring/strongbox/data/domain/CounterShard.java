@@ -0,0 +1,64 @@
+package org.carlspring.strongbox.data.domain;
+
+import javax.persistence.Entity;
+
+/**
+ * One of the shards of a counter field, see {@link org.carlspring.strongbox.data.service.impl.ShardedCounters}.
+ */
+@Entity
+public class CounterShard
+        extends GenericEntity
+{
+
+    /**
+     * The record identity of the counted entity.
+     */
+    private String target;
+
+    private String field;
+
+    private Integer shard;
+
+    private Long value;
+
+    public String getTarget()
+    {
+        return target;
+    }
+
+    public void setTarget(String target)
+    {
+        this.target = target;
+    }
+
+    public String getField()
+    {
+        return field;
+    }
+
+    public void setField(String field)
+    {
+        this.field = field;
+    }
+
+    public Integer getShard()
+    {
+        return shard;
+    }
+
+    public void setShard(Integer shard)
+    {
+        this.shard = shard;
+    }
+
+    public Long getValue()
+    {
+        return value;
+    }
+
+    public void setValue(Long value)
+    {
+        this.value = value;
+    }
+
+}
@@ -1,23 +1,28 @@
 package org.carlspring.strongbox.data.service;
 
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.QueryBuilder;
+import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.data.service.impl.EntityMetadataRegistry;
 import org.carlspring.strongbox.data.service.impl.EntityServiceRegistry;
+import org.carlspring.strongbox.data.service.support.EntityMetadata.CascadeField;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import javax.persistence.CascadeType;
 import javax.persistence.EntityManager;
-import javax.persistence.ManyToMany;
-import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
 import javax.persistence.PersistenceContext;
 
-import java.lang.annotation.Annotation;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.google.common.collect.Iterables;
 import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
@@ -25,8 +30,11 @@ import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Transactional
 public abstract class CommonCrudService<T extends GenericEntity>
@@ -35,12 +43,25 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
     private static final Logger logger = LoggerFactory.getLogger(CommonCrudService.class);
 
+    protected static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Maximum number of records written or deleted within one transaction by the bulk operations.
+     */
+    protected static final int DEFAULT_BATCH_SIZE = Paginator.MAX_LIMIT;
+
     @PersistenceContext
     protected EntityManager entityManager;
 
     @Inject
     private EntityServiceRegistry entityServiceRegistry;
 
+    @Inject
+    private EntityMetadataRegistry entityMetadataRegistry;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
     @PostConstruct
     public void postConstruct()
     {
@@ -49,40 +70,35 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
     protected <S extends T> S cascadeEntitySave(T entity)
     {
-        identifyEntity(entity);
-        
-        ReflectionUtils.doWithFields(getEntityClass(), (field) -> {
-            ReflectionUtils.makeAccessible(field);
-
-            Set<CascadeType> cascadeTypeSet = Arrays.stream(field.getAnnotations())
-                                                    .map(a -> exposeCascadeType(a))
-                                                    .reduce((c1,
-                                                             c2) -> {
-                                                        c1.addAll(c2);
-                                                        return c1;
-                                                    })
-                                                    .orElse(Collections.emptySet());
-            
-            if (!cascadeTypeSet.stream().anyMatch(c -> CascadeType.ALL.equals(c) || CascadeType.MERGE.equals(c)
-                    || CascadeType.PERSIST.equals(c)))
-            {
-                return;
-            }
-            
-            Class<?> fieldType = field.getType();
-            Object fieldValue = ReflectionUtils.getField(field, entity);
+        return cascadeEntitySave(entity, false);
+    }
 
+    /**
+     * @param uuidLookedUp
+     *            the {@code uuid} of the entity has already been looked up by {@link #identifyEntities(List)}, so if
+     *            the entity still has no record id, it's a new one and it isn't looked up again
+     */
+    protected <S extends T> S cascadeEntitySave(T entity,
+                                                boolean uuidLookedUp)
+    {
+        identifyEntity(entity, uuidLookedUp);
+
+        for (CascadeField field : entityMetadataRegistry.getEntityMetadata(getEntityClass()).getCascadeFields())
+        {
+            Object fieldValue = field.get(entity);
             if (fieldValue == null)
             {
-                return;
+                continue;
             }
 
-            if (Collection.class.isAssignableFrom(fieldType))
+            if (field.isCollection())
             {
                 Collection<Object> collection = (Collection<Object>) fieldValue;
+                Set<GenericEntity> lookedUp = identifyCascadedEntities(collection);
+
                 List<Object> replaceCollection = new LinkedList<>();
                 collection.removeIf(a -> {
-                    Object b = tryToCascadeEntitySave(a);
+                    Object b = tryToCascadeEntitySave(a, lookedUp.contains(a));
                     if (b != a)
                     {
                         replaceCollection.add(b);
@@ -94,53 +110,97 @@ public abstract class CommonCrudService<T extends GenericEntity>
             }
             else
             {
-                Object newFieldValue = tryToCascadeEntitySave(fieldValue);
+                Object newFieldValue = tryToCascadeEntitySave(fieldValue, false);
                 if (newFieldValue != fieldValue)
                 {
-                    ReflectionUtils.setField(field, entity, newFieldValue);
+                    field.set(entity, newFieldValue);
                 }
             }
-
-        });
+        }
 
         return getDelegate().save(entity);
     }
 
-    private Set<CascadeType> exposeCascadeType(Annotation a)
+    protected Object tryToCascadeEntitySave(Object entityCandidate,
+                                            boolean uuidLookedUp)
     {
-        Set<CascadeType> result = new HashSet<>();
-        if (a instanceof OneToMany)
-        {
-            result.addAll(Arrays.asList(((OneToMany) a).cascade()));
-        }
-        else if (a instanceof OneToOne)
-        {
-            result.addAll(Arrays.asList(((OneToOne) a).cascade()));
-        }
-        else if (a instanceof ManyToMany)
-        {
-            result.addAll(Arrays.asList(((ManyToMany) a).cascade()));
-        }
-        else if (a instanceof ManyToOne)
+        if (!(entityCandidate instanceof GenericEntity))
         {
-            result.addAll(Arrays.asList(((ManyToOne) a).cascade()));
+            return entityCandidate;
         }
+
+        GenericEntity entity = (GenericEntity) entityCandidate;
+        CommonCrudService<GenericEntity> entityService = (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService(entity.getClass());
+        return entityService.cascadeEntitySave(entity, uuidLookedUp);
+    }
+
+    /**
+     * Resolves the identity of all the not yet identified entities of the collection with one query per entity
+     * service, so that cascading the save of a large collection doesn't do a {@code uuid} lookup per element. The
+     * batching is per collection, the nested collections of the elements are resolved when they are cascaded.
+     *
+     * @return the entities which {@code uuid} has been looked up, compared by identity
+     */
+    private Set<GenericEntity> identifyCascadedEntities(Collection<Object> entityCandidates)
+    {
+        Map<CommonCrudService<GenericEntity>, List<GenericEntity>> entitiesByService = entityCandidates.stream()
+                .filter(e -> e instanceof GenericEntity)
+                .map(e -> (GenericEntity) e)
+                .filter(e -> e.getObjectId() == null && e.getUuid() != null)
+                .collect(Collectors.groupingBy(e -> (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService(e.getClass())));
+
+        Set<GenericEntity> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        entitiesByService.forEach((service, entities) -> result.addAll(service.identifyEntities(entities)));
+
         return result;
     }
 
-    protected Object tryToCascadeEntitySave(Object entityCandidate)
+    /**
+     * Batch variant of the {@code uuid} lookup of {@link #identifyEntity(GenericEntity)} for the entities which
+     * already have the {@code uuid}.
+     *
+     * @return the entities which have been looked up, compared by identity, those not found are new ones
+     */
+    protected Set<T> identifyEntities(List<T> entities)
     {
-        if (!(entityCandidate instanceof GenericEntity))
+        if (entities.size() < 2)
         {
-            return entityCandidate;
+            return Collections.emptySet();
         }
 
-        GenericEntity entity = (GenericEntity) entityCandidate;
-        CommonCrudService<GenericEntity> entityService = (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService(entity.getClass());
-        return entityService.cascadeEntitySave(entity);
+        Map<String, List<T>> entitiesByUuid = entities.stream().collect(Collectors.groupingBy(GenericEntity::getUuid));
+
+        String sQuery = String.format("SELECT @rid AS objectId, uuid FROM %s WHERE uuid IN :uuids",
+                                      getEntityClass().getSimpleName());
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("uuids", new ArrayList<>(entitiesByUuid.keySet()));
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+        for (ODocument record : resultList)
+        {
+            ODocument value = record.field("objectId");
+            String objectId = value.getIdentity().toString();
+
+            entitiesByUuid.getOrDefault(record.<String>field("uuid"), Collections.emptyList())
+                          .forEach(e -> e.setObjectId(objectId));
+        }
+
+        Set<T> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        result.addAll(entities);
+
+        return result;
     }
-    
+
     protected boolean identifyEntity(T entity)
+    {
+        return identifyEntity(entity, false);
+    }
+
+    private boolean identifyEntity(T entity,
+                                   boolean uuidLookedUp)
     {
         if (entity.getObjectId() != null)
         {
@@ -149,9 +209,13 @@ public abstract class CommonCrudService<T extends GenericEntity>
         else if (entity.getUuid() == null)
         {
             entity.setUuid(UUID.randomUUID().toString());
-            return false;
+            return identifyEntityByKey(entity);
         }
-        
+        else if (uuidLookedUp)
+        {
+            return identifyEntityByKey(entity);
+        }
+
         String sQuery = String.format("SELECT @rid AS objectId FROM %s WHERE uuid = :uuid",
                                       getEntityClass().getSimpleName());
 
@@ -164,7 +228,7 @@ public abstract class CommonCrudService<T extends GenericEntity>
         List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
         if (resultList.isEmpty())
         {
-            return false;
+            return identifyEntityByKey(entity);
         }
         
         ODocument record = resultList.iterator().next();
@@ -174,12 +238,43 @@ public abstract class CommonCrudService<T extends GenericEntity>
         return true;
     }
 
+    /**
+     * Override to identify the entities which {@code uuid} didn't match by their natural key.
+     *
+     * @return {@code true} if the record id of the entity has been found
+     */
+    protected boolean identifyEntityByKey(T entity)
+    {
+        return false;
+    }
+
     @Override
     public <S extends T> S save(S entity)
     {
         return cascadeEntitySave(entity);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <S extends T> List<S> saveAll(Collection<S> entities)
+    {
+        List<S> result = new ArrayList<>(entities.size());
+        for (List<S> batch : Iterables.partition(entities, DEFAULT_BATCH_SIZE))
+        {
+            result.addAll(inTransaction(t -> {
+                Set<T> lookedUp = identifyEntities(batch.stream()
+                                                        .filter(e -> e.getObjectId() == null && e.getUuid() != null)
+                                                        .collect(Collectors.<T>toList()));
+
+                return batch.stream()
+                            .map(e -> this.<S>cascadeEntitySave(e, lookedUp.contains(e)))
+                            .collect(Collectors.toList());
+            }));
+        }
+
+        return result;
+    }
+
     @Override
     public T lockOne(String id)
     {
@@ -236,6 +331,15 @@ public abstract class CommonCrudService<T extends GenericEntity>
         return Optional.ofNullable(resultList.isEmpty() ? null : resultList);
     }
 
+    @Override
+    public Stream<T> streamAll(int fetchSize)
+    {
+        Selector<T> selector = new Selector<>(getEntityClass());
+        selector.where(Predicate.empty());
+
+        return new OQueryTemplate<List<T>, T>(entityManager).stream(selector, fetchSize);
+    }
+
     @Override
     public long count()
     {
@@ -273,18 +377,66 @@ public abstract class CommonCrudService<T extends GenericEntity>
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deleteAll()
     {
-        Optional<List<T>> findAll = findAll();
-        if (!findAll.isPresent())
+        // The batches are run with inTransaction(), so it doesn't matter that the call doesn't go through the proxy.
+        deleteAll(Predicate.empty());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long deleteAll(Predicate predicate)
+    {
+        Paginator paginator = new Paginator();
+        paginator.setLimit(DEFAULT_BATCH_SIZE);
+
+        Selector<T> selector = new Selector<>(getEntityClass());
+        selector.where(predicate);
+        selector.with(paginator);
+
+        long result = 0;
+        int deleted;
+        do
         {
-            return;
+            deleted = inTransaction(t -> new OQueryTemplate<Integer, T>(entityManager).delete(selector));
+            result += deleted;
         }
+        while (deleted >= paginator.getLimit());
+
+        logger.debug("Deleted [{}] records of [{}]", result, getEntityClass().getSimpleName());
+
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int deleteByIds(Collection<String> ids)
+    {
+        String sCommand = String.format("DELETE FROM %s WHERE @rid IN :ids", getEntityClass().getSimpleName());
 
-        for (T entity : findAll.get())
+        int result = 0;
+        for (List<String> batch : Iterables.partition(ids, DEFAULT_BATCH_SIZE))
         {
-            delete(entity);
+            Map<String, Object> parameterMap = new HashMap<>();
+            parameterMap.put("ids", batch.stream().map(ORecordId::new).collect(Collectors.toList()));
+
+            // The records which are already gone are not counted.
+            Number deleted = inTransaction(t -> getDelegate().command(new OCommandSQL(sCommand)).execute(parameterMap));
+            result += deleted.intValue();
         }
+
+        return result;
+    }
+
+    /**
+     * Executes the action within a transaction, a new one if there is no transaction in progress. The bulk operations
+     * use it to split the work into bounded size transactions when they are called without a transaction, they are
+     * declared with {@link Propagation#SUPPORTS} so that they join the transaction of the caller otherwise.
+     */
+    protected <R> R inTransaction(TransactionCallback<R> action)
+    {
+        return new TransactionTemplate(transactionManager).execute(action);
     }
 
     protected String buildQuery(Map<String, String> map)
@@ -299,14 +451,14 @@ public abstract class CommonCrudService<T extends GenericEntity>
 
         sb.append(" WHERE ");
 
-        // process only coordinates with non-null values
-        map.entrySet()
-           .stream()
-           .filter(entry -> entry.getValue() != null)
-           .forEach(entry -> sb.append(entry.getKey())
-                               .append(" = :")
-                               .append(entry.getKey())
-                               .append(" AND "));
+        // process only coordinates with non-null values, sorted so that the query text doesn't depend on the map order
+        new TreeMap<>(map).entrySet()
+                          .stream()
+                          .filter(entry -> entry.getValue() != null)
+                          .forEach(entry -> sb.append(entry.getKey())
+                                              .append(" = :")
+                                              .append(entry.getKey())
+                                              .append(" AND "));
 
         // remove last 'and' statement (that doesn't relate to any value)
         String query = sb.toString();
@@ -329,20 +481,40 @@ public abstract class CommonCrudService<T extends GenericEntity>
         return simpleName;
     }
 
-    protected void appendPagingCriteria(StringBuilder queryBuilder,
-                                        PagingCriteria pagingCriteria)
+    /**
+     * Applies the paging criteria to the query: the ordering, the keyset pagination condition if any, the skip and the
+     * limit.
+     */
+    protected QueryBuilder applyPagingCriteria(QueryBuilder queryBuilder,
+                                               PagingCriteria pagingCriteria)
     {
+        List<Sort.Order> orders = pagingCriteria.getSort().getOrders();
 
-        queryBuilder.append(String.format(" ORDER BY %s", pagingCriteria.getSort()));
+        ContinuationToken after = pagingCriteria.getAfter();
+        if (after != null)
+        {
+            Map<String, Object> parameterMap = new HashMap<>();
+            String condition = after.toCondition(orders.stream()
+                                                       .map(Sort.Order::getProperty)
+                                                       .collect(Collectors.toList()),
+                                                 orders.stream()
+                                                       .map(o -> Sort.Direction.DESC.equals(o.getDirection()))
+                                                       .collect(Collectors.toList()),
+                                                 parameterMap);
+            queryBuilder.where(condition, parameterMap);
+        }
 
-        if (pagingCriteria.getSkip() > 0)
+        orders.forEach(o -> queryBuilder.orderBy(o.getProperty(), Sort.Direction.DESC.equals(o.getDirection())));
+        if (pagingCriteria.isKeyset())
         {
-            queryBuilder.append(String.format(" SKIP %s", pagingCriteria.getSkip()));
+            queryBuilder.orderBy("@rid", false);
         }
-        if (pagingCriteria.getLimit() > 0)
+        else
         {
-            queryBuilder.append(String.format(" LIMIT %s", pagingCriteria.getLimit()));
+            queryBuilder.skip(pagingCriteria.getSkip());
         }
+
+        return queryBuilder.limit(pagingCriteria.getLimit());
     }
 
     /**
@@ -1,9 +1,12 @@
 package org.carlspring.strongbox.data.service;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
 /**
@@ -16,6 +19,12 @@ public interface CrudService<T extends GenericEntity, ID extends Serializable>
 
     <S extends T> S save(S entity);
 
+    /**
+     * Saves the entities in several bounded size transactions, with the identities of the already persisted entities
+     * resolved by one query per transaction. Within a transaction of the caller, all of them join that transaction.
+     */
+    <S extends T> List<S> saveAll(Collection<S> entities);
+
     T lockOne(ID id);
 
     Optional<T> findOne(ID id);
@@ -26,6 +35,12 @@ public interface CrudService<T extends GenericEntity, ID extends Serializable>
 
     Optional<List<T>> findAll();
 
+    /**
+     * Lazily fetches all the entities with at most {@code fetchSize} of them held in memory at a time, unlike
+     * {@link #findAll()} which loads the whole class. The stream must be consumed within a transaction and closed.
+     */
+    Stream<T> streamAll(int fetchSize);
+
     long count();
 
     void delete(ID id);
@@ -36,6 +51,23 @@ public interface CrudService<T extends GenericEntity, ID extends Serializable>
 
     void deleteAll();
 
+    /**
+     * Deletes the entities matching the predicate with set-based {@code DELETE} commands, each of them deleting a
+     * bounded number of records within its own transaction. Within a transaction of the caller, all of them join that
+     * transaction.
+     *
+     * @return the number of deleted entities
+     */
+    long deleteAll(Predicate predicate);
+
+    /**
+     * Deletes the entities with the given ids in several bounded size transactions, without loading them. Within a
+     * transaction of the caller, all of them join that transaction.
+     *
+     * @return the number of deleted entities, the ids of the records which no longer exist are not counted
+     */
+    int deleteByIds(Collection<ID> ids);
+
     Class<T> getEntityClass();
 
 }
@@ -11,4 +11,10 @@ public class DataServiceException
     {
         super(message);
     }
+
+    public DataServiceException(final String message,
+                                final Throwable cause)
+    {
+        super(message, cause);
+    }
 }
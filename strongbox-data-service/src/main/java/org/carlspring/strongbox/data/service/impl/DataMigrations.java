@@ -0,0 +1,93 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records the data migrations which have been completed, so that a migration of the existing records (for example
+ * the calculation of a new indexed field) is only run once instead of on every startup.
+ * <p>
+ * A migration stays completed once it has been, so the completed ones are remembered, and the queries which can only
+ * rely on the migrated records afterwards (see {@link #isCompleted(String)}) don't look them up every time.
+ */
+@Component
+public class DataMigrations
+{
+
+    private static final String CLASS_NAME = "DataMigration";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    public boolean isCompleted(String name)
+    {
+        if (completed.contains(name))
+        {
+            return true;
+        }
+
+        String sQuery = String.format("SELECT FROM %s WHERE name = :name", CLASS_NAME);
+
+        boolean result = new TransactionTemplate(transactionManager).execute(t -> {
+            OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+            oQuery.setLimit(1);
+
+            List<ODocument> resultList = getDatabase().getUnderlying()
+                                                      .command(oQuery)
+                                                      .execute(Collections.singletonMap("name", name));
+
+            return !resultList.isEmpty();
+        });
+        if (result)
+        {
+            completed.add(name);
+        }
+
+        return result;
+    }
+
+    public void complete(String name)
+    {
+        String sCommand = String.format("INSERT INTO %s SET name = :name, completed = sysdate()", CLASS_NAME);
+
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                return getDatabase().getUnderlying()
+                                    .command(new OCommandSQL(sCommand))
+                                    .execute(Collections.singletonMap("name", name));
+            });
+        }
+        catch (ORecordDuplicatedException e)
+        {
+            // Completed by another node.
+        }
+
+        completed.add(name);
+    }
+
+    private OObjectDatabaseTx getDatabase()
+    {
+        return (OObjectDatabaseTx) entityManager.getDelegate();
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.carlspring.strongbox.data.service.support.EntityMetadata;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the {@link EntityMetadata} per entity class, so that the reflection is done only once.
+ */
+@Component
+public class EntityMetadataRegistry
+{
+
+    private final Map<Class<?>, EntityMetadata> entityMetadataMap = new ConcurrentHashMap<>();
+
+    public EntityMetadata getEntityMetadata(Class<?> entityClass)
+    {
+        return entityMetadataMap.computeIfAbsent(entityClass, EntityMetadata::of);
+    }
+
+}
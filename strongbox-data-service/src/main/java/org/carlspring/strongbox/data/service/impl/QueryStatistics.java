@@ -0,0 +1,657 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.command.OCommandExecutor;
+import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.command.OCommandRequestText;
+import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabaseInternal;
+import com.orientechnologies.orient.core.db.ODatabaseLifecycleListener;
+import com.orientechnologies.orient.core.db.ODatabaseListener;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the latency of the SQL commands and queries executed by all the database sessions, grouped by the query
+ * shape: the query text with its literals (strings, numbers, record ids and cluster names) replaced by {@code ?}, so
+ * the same query issued with different inline values is counted once.
+ * <p>
+ * The commands are timed by a {@link ODatabaseListener}, which is registered on every database as it's opened, so the
+ * {@code OQueryTemplate}, {@code QueryBuilder} and the services' own {@code OSQLSynchQuery} and {@code OCommandSQL}
+ * executions are all covered, without wrapping any of them. The queries which exceed the threshold are logged.
+ * <p>
+ * The {@code EXPLAIN} plan of the slow queries can be captured as well
+ * ({@code strongbox.data.queries.explain.enabled}), at most once per interval for each shape. It's off by default: the
+ * legacy executor, which runs the queries, explains a query by running it once more, with profiling, on the thread
+ * which has just been slowed down by it.
+ * <p>
+ * The number of shapes is bounded, the shapes seen once the bound is reached are all counted as {@link #OTHER_SHAPE}.
+ */
+@Component
+public class QueryStatistics
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatistics.class);
+
+    public static final String OTHER_SHAPE = "(other)";
+
+    private static final int MAX_SHAPE_LENGTH = 2000;
+
+    /**
+     * The upper bounds, in milliseconds, of the latency histogram buckets; the last bucket has no bound.
+     */
+    private static final long[] BUCKETS = { 1, 5, 10, 50, 100, 500, 1000, 5000, 10000 };
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"");
+
+    private static final Pattern RECORD_ID = Pattern.compile("#-?\\d+:-?\\d+");
+
+    private static final Pattern CLUSTERS = Pattern.compile("(?i)cluster:(\\[[^\\]]*\\]|\\w+)");
+
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern SELECT = Pattern.compile("(?i)^\\s*select\\b.*", Pattern.DOTALL);
+
+    @Value("${strongbox.data.queries.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.data.queries.slowThresholdMillis:500}")
+    private long slowThresholdMillis;
+
+    @Value("${strongbox.data.queries.maxShapes:500}")
+    private int maxShapes;
+
+    @Value("${strongbox.data.queries.explain.enabled:false}")
+    private boolean explainEnabled;
+
+    @Value("${strongbox.data.queries.explainIntervalSeconds:60}")
+    private long explainIntervalSeconds;
+
+    private final Map<String, ShapeCounters> shapes = new ConcurrentHashMap<>();
+
+    private final LongAdder queryCount = new LongAdder();
+
+    private final LongAdder slowQueryCount = new LongAdder();
+
+    private final LongAdder totalTimeNanos = new LongAdder();
+
+    /**
+     * The start times of the commands being executed by the thread. A command which fails is never completed, so its
+     * entry is left behind; the map is cleared when it grows beyond a few nested commands.
+     */
+    private final ThreadLocal<Map<OCommandRequestText, Long>> startTimes =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private final ThreadLocal<Boolean> explaining = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final ODatabaseListener commandListener = new CommandListener();
+
+    private final ODatabaseLifecycleListener lifecycleListener = new LifecycleListener();
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        Orient.instance().addDbLifecycleListener(lifecycleListener);
+    }
+
+    @Override
+    public void destroy()
+    {
+        Orient.instance().removeDbLifecycleListener(lifecycleListener);
+    }
+
+    public long getSlowThresholdMillis()
+    {
+        return slowThresholdMillis;
+    }
+
+    /**
+     * @return the number of queries recorded since the startup, it isn't affected by {@link #reset()}
+     */
+    public long getQueryCount()
+    {
+        return queryCount.sum();
+    }
+
+    /**
+     * @return the number of slow queries recorded since the startup, it isn't affected by {@link #reset()}
+     */
+    public long getSlowQueryCount()
+    {
+        return slowQueryCount.sum();
+    }
+
+    /**
+     * @return the total time of the queries recorded since the startup, it isn't affected by {@link #reset()}
+     */
+    public long getTotalTimeNanos()
+    {
+        return totalTimeNanos.sum();
+    }
+
+    public int getShapeCount()
+    {
+        return shapes.size();
+    }
+
+    /**
+     * @return the first {@code limit} shapes in the given order
+     */
+    public List<Shape> getShapes(SortBy sortBy,
+                                 int limit)
+    {
+        return shapes.values()
+                     .stream()
+                     .map(ShapeCounters::snapshot)
+                     .sorted(sortBy.comparator)
+                     .limit(limit)
+                     .collect(Collectors.toList());
+    }
+
+    /**
+     * Drops the statistics of all the shapes.
+     */
+    public void reset()
+    {
+        shapes.clear();
+    }
+
+    void record(String query,
+                Map<Object, Object> parameters,
+                long nanos)
+    {
+        queryCount.increment();
+        totalTimeNanos.add(nanos);
+
+        ShapeCounters counters = getCounters(normalize(query));
+        counters.record(nanos);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (millis < slowThresholdMillis)
+        {
+            return;
+        }
+
+        slowQueryCount.increment();
+        counters.slowCount.increment();
+
+        String plan = explainEnabled && counters.acquireExplain(TimeUnit.SECONDS.toNanos(explainIntervalSeconds)) ?
+                      explain(query, parameters) : null;
+        counters.lastSlowQuery = new SlowQuery(query, millis, new Date(), plan);
+
+        if (plan == null)
+        {
+            logger.warn("Slow query took [{}] ms:\n\t[{}]", millis, query);
+        }
+        else
+        {
+            logger.warn("Slow query took [{}] ms:\n\t[{}]\nLegacy executor plan:\n{}", millis, query, plan);
+        }
+    }
+
+    private ShapeCounters getCounters(String shape)
+    {
+        ShapeCounters counters = shapes.get(shape);
+        if (counters != null)
+        {
+            return counters;
+        }
+
+        return shapes.computeIfAbsent(shapes.size() < maxShapes ? shape : OTHER_SHAPE, ShapeCounters::new);
+    }
+
+    /**
+     * Runs {@code EXPLAIN} for the query with the same parameters, within the session of the calling thread. Only the
+     * {@code SELECT} queries are explained.
+     * <p>
+     * The timed commands are all run by the legacy executor, which may plan a query differently from the new one, so
+     * they are explained by the legacy executor too. Its {@code EXPLAIN} runs the query with profiling, and the plan
+     * is the resulting profile: the involved indexes, the records read and whether the result was sorted by an index.
+     *
+     * @return the execution plan, or {@code null} if it's not available
+     */
+    private String explain(String query,
+                           Map<Object, Object> parameters)
+    {
+        if (!SELECT.matcher(query).matches())
+        {
+            return null;
+        }
+
+        ODatabaseDocumentInternal db = ODatabaseRecordThreadLocal.instance().getIfDefined();
+        if (db == null || db.isClosed())
+        {
+            return null;
+        }
+
+        explaining.set(Boolean.TRUE);
+        try
+        {
+            OCommandRequest explain = db.command(new OCommandSQL("EXPLAIN " + query));
+            // The named parameters are bound by name, the positional ones by their index.
+            Object result = parameters == null || parameters.isEmpty() ? explain.execute()
+                                                                       : explain.execute(parameters);
+            if (result instanceof List)
+            {
+                List<?> resultList = (List<?>) result;
+                result = resultList.isEmpty() ? null : resultList.get(0);
+            }
+
+            return result instanceof ODocument ? ((ODocument) result).toJSON("prettyPrint") : null;
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Failed to explain the query [{}]", query, e);
+
+            return null;
+        }
+        finally
+        {
+            explaining.remove();
+        }
+    }
+
+    static String normalize(String query)
+    {
+        String result = STRING_LITERAL.matcher(query).replaceAll("?");
+        result = RECORD_ID.matcher(result).replaceAll("?");
+        result = CLUSTERS.matcher(result).replaceAll("cluster:?");
+        result = NUMBER.matcher(result).replaceAll("?");
+        result = WHITESPACE.matcher(result).replaceAll(" ").trim();
+
+        return result.length() > MAX_SHAPE_LENGTH ? result.substring(0, MAX_SHAPE_LENGTH) : result;
+    }
+
+    public enum SortBy
+    {
+
+        TOTAL(Comparator.comparingDouble(Shape::getTotalMillis)),
+
+        MEAN(Comparator.comparingDouble(Shape::getMeanMillis)),
+
+        MAX(Comparator.comparingDouble(Shape::getMaxMillis)),
+
+        COUNT(Comparator.comparingLong(Shape::getCount));
+
+        private final Comparator<Shape> comparator;
+
+        SortBy(Comparator<Shape> comparator)
+        {
+            this.comparator = comparator.reversed();
+        }
+
+    }
+
+    private static class ShapeCounters
+    {
+
+        private final String shape;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final LongAdder slowCount = new LongAdder();
+
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+        private final AtomicLong lastExplainNanos = new AtomicLong();
+
+        private volatile SlowQuery lastSlowQuery;
+
+        private ShapeCounters(String shape)
+        {
+            this.shape = shape;
+        }
+
+        private void record(long nanos)
+        {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis > BUCKETS[bucket])
+            {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        /**
+         * @return {@code true} if the shape has not been explained within the interval
+         */
+        private boolean acquireExplain(long intervalNanos)
+        {
+            long now = System.nanoTime();
+            long last = lastExplainNanos.get();
+
+            return (last == 0 || now - last >= intervalNanos) && lastExplainNanos.compareAndSet(last, now);
+        }
+
+        private Shape snapshot()
+        {
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < histogram.length(); i++)
+            {
+                buckets.put(i < BUCKETS.length ? String.format("le%sms", BUCKETS[i]) : "inf", histogram.get(i));
+            }
+
+            return new Shape(shape,
+                             count.sum(),
+                             totalNanos.sum(),
+                             maxNanos.get(),
+                             slowCount.sum(),
+                             buckets,
+                             lastSlowQuery);
+        }
+
+    }
+
+    /**
+     * The statistics of a query shape, at the time it's taken.
+     */
+    public static class Shape
+    {
+
+        private final String shape;
+
+        private final long count;
+
+        private final double totalMillis;
+
+        private final double meanMillis;
+
+        private final double maxMillis;
+
+        private final long slowCount;
+
+        private final Map<String, Long> histogram;
+
+        private final SlowQuery lastSlowQuery;
+
+        private Shape(String shape,
+                      long count,
+                      long totalNanos,
+                      long maxNanos,
+                      long slowCount,
+                      Map<String, Long> histogram,
+                      SlowQuery lastSlowQuery)
+        {
+            this.shape = shape;
+            this.count = count;
+            this.totalMillis = totalNanos / 1e6;
+            this.meanMillis = count == 0 ? 0 : totalMillis / count;
+            this.maxMillis = maxNanos / 1e6;
+            this.slowCount = slowCount;
+            this.histogram = Collections.unmodifiableMap(histogram);
+            this.lastSlowQuery = lastSlowQuery;
+        }
+
+        public String getShape()
+        {
+            return shape;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public double getTotalMillis()
+        {
+            return totalMillis;
+        }
+
+        public double getMeanMillis()
+        {
+            return meanMillis;
+        }
+
+        public double getMaxMillis()
+        {
+            return maxMillis;
+        }
+
+        public long getSlowCount()
+        {
+            return slowCount;
+        }
+
+        /**
+         * @return the number of executions per latency bucket, keyed by the bucket upper bound
+         */
+        public Map<String, Long> getHistogram()
+        {
+            return histogram;
+        }
+
+        /**
+         * @return the last execution which exceeded the threshold, or {@code null} if there is none
+         */
+        public SlowQuery getLastSlowQuery()
+        {
+            return lastSlowQuery;
+        }
+
+    }
+
+    public static class SlowQuery
+    {
+
+        private final String query;
+
+        private final long durationMillis;
+
+        private final Date timestamp;
+
+        private final String plan;
+
+        private SlowQuery(String query,
+                          long durationMillis,
+                          Date timestamp,
+                          String plan)
+        {
+            this.query = query;
+            this.durationMillis = durationMillis;
+            this.timestamp = timestamp;
+            this.plan = plan;
+        }
+
+        public String getQuery()
+        {
+            return query;
+        }
+
+        public long getDurationMillis()
+        {
+            return durationMillis;
+        }
+
+        public Date getTimestamp()
+        {
+            return timestamp;
+        }
+
+        /**
+         * @return the {@code EXPLAIN} plan of the legacy executor, or {@code null} if it has not been captured
+         */
+        public String getPlan()
+        {
+            return plan;
+        }
+
+    }
+
+    private class CommandListener
+            implements ODatabaseListener
+    {
+
+        @Override
+        public void onBeforeCommand(OCommandRequestText iCommand,
+                                    OCommandExecutor executor)
+        {
+            if (explaining.get())
+            {
+                return;
+            }
+
+            Map<OCommandRequestText, Long> commands = startTimes.get();
+            if (commands.size() > 16)
+            {
+                commands.clear();
+            }
+            commands.put(iCommand, System.nanoTime());
+        }
+
+        @Override
+        public void onAfterCommand(OCommandRequestText iCommand,
+                                   OCommandExecutor executor,
+                                   Object result)
+        {
+            Long start = startTimes.get().remove(iCommand);
+            if (start == null || iCommand.getText() == null)
+            {
+                return;
+            }
+
+            try
+            {
+                record(iCommand.getText(), iCommand.getParameters(), System.nanoTime() - start);
+            }
+            catch (RuntimeException e)
+            {
+                logger.debug("Failed to record the query [{}]", iCommand.getText(), e);
+            }
+        }
+
+        @Override
+        public void onCreate(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onDelete(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onOpen(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onBeforeTxBegin(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onBeforeTxRollback(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onAfterTxRollback(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onBeforeTxCommit(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onAfterTxCommit(ODatabase iDatabase)
+        {
+        }
+
+        @Override
+        public void onClose(ODatabase iDatabase)
+        {
+            startTimes.remove();
+        }
+
+        @Override
+        public boolean onCorruptionRepairDatabase(ODatabase iDatabase,
+                                                  String iReason,
+                                                  String iWhatWillbeFixed)
+        {
+            return false;
+        }
+
+    }
+
+    private class LifecycleListener
+            implements ODatabaseLifecycleListener
+    {
+
+        @Override
+        public PRIORITY getPriority()
+        {
+            return PRIORITY.LAST;
+        }
+
+        @Override
+        public void onCreate(ODatabaseInternal iDatabase)
+        {
+            iDatabase.registerListener(commandListener);
+        }
+
+        @Override
+        public void onOpen(ODatabaseInternal iDatabase)
+        {
+            iDatabase.registerListener(commandListener);
+        }
+
+        @Override
+        public void onClose(ODatabaseInternal iDatabase)
+        {
+        }
+
+        @Override
+        public void onDrop(ODatabaseInternal iDatabase)
+        {
+        }
+
+        @Override
+        public void onLocalNodeConfigurationRequest(ODocument iConfiguration)
+        {
+        }
+
+    }
+
+}
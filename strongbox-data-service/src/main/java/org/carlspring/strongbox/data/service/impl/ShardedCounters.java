@@ -0,0 +1,456 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.data.domain.CounterShard;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Iterables;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sharded counters for the entity fields incremented by many concurrent writers (for example the download count of a
+ * popular artifact), which would otherwise all contend on the same record.
+ * <p>
+ * The increments are summed locally and flushed on a fixed interval, each into one of the {@link CounterShard}
+ * records of the counter, chosen randomly, so the concurrent flushes (of all the nodes) rarely touch the same record.
+ * The shards are periodically compacted back into the entity field: the shard records are deleted within the same
+ * transaction which adds their sum to the field, so an increment racing with the compaction fails it on the record
+ * version, and the compaction is retried. The current value of a counter is the entity field plus {@link #get(String,
+ * String)}.
+ * <p>
+ * The shards of the deleted entities are left behind by the deletions, and dropped by the next compaction.
+ */
+@Component
+public class ShardedCounters
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedCounters.class);
+
+    private static final int MAX_RETRY = 10;
+
+    private static final Pattern RECORD_ID = Pattern.compile("#\\d+:\\d+");
+
+    private static final Pattern FIELD = Pattern.compile("[A-Za-z_]\\w*");
+
+    @Value("${strongbox.data.counters.shards:16}")
+    private int shards;
+
+    @Value("${strongbox.data.counters.flushIntervalMillis:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.data.counters.compactIntervalSeconds:300}")
+    private long compactIntervalSeconds;
+
+    @Value("${strongbox.data.counters.batchSize:100}")
+    private int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<CounterKey, Long> pendingDeltas = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                                        flushIntervalMillis,
+                                        flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::compactQuietly,
+                                        compactIntervalSeconds,
+                                        compactIntervalSeconds,
+                                        TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy()
+            throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+
+        flush();
+
+        if (!pendingDeltas.isEmpty())
+        {
+            logger.error("Failed to drain [{}] pending counter increments: [{}]", pendingDeltas.size(),
+                         pendingDeltas);
+        }
+    }
+
+    public void increment(String objectId,
+                          String field,
+                          long delta)
+    {
+        pendingDeltas.merge(new CounterKey(objectId, field), delta, Long::sum);
+    }
+
+    /**
+     * @return the part of the counter not compacted into the entity field yet
+     */
+    public long get(String objectId,
+                    String field)
+    {
+        CounterKey key = new CounterKey(objectId, field);
+
+        Long sum = new TransactionTemplate(transactionManager).execute(t -> {
+            String sQuery = String.format("SELECT sum(value) AS value FROM %s " +
+                                          "WHERE target = :target AND field = :field",
+                                          CounterShard.class.getSimpleName());
+
+            List<ODocument> resultList = getDatabase().getUnderlying()
+                                                      .command(new OSQLSynchQuery<ODocument>(sQuery))
+                                                      .execute(key.toParameterMap());
+
+            return resultList.stream()
+                             .findFirst()
+                             .map(d -> d.<Number>field("value"))
+                             .map(Number::longValue)
+                             .orElse(0L);
+        });
+
+        return sum + pendingDeltas.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Sums the shards of the counters of all the given entities with a single grouped query, for the listings which
+     * show a counter per entity.
+     *
+     * @return the part of each counter not compacted into the entity field yet, by the entity identity
+     */
+    public Map<String, Long> get(Collection<String> objectIds,
+                                 String field)
+    {
+        List<CounterKey> keys = objectIds.stream()
+                                         .distinct()
+                                         .map(id -> new CounterKey(id, field))
+                                         .collect(Collectors.toList());
+
+        Map<String, Long> result = new HashMap<>();
+        keys.forEach(k -> result.put(k.target, pendingDeltas.getOrDefault(k, 0L)));
+        if (keys.isEmpty())
+        {
+            return result;
+        }
+
+        new TransactionTemplate(transactionManager).execute(t -> {
+            String sQuery = String.format("SELECT target, sum(value) AS value FROM %s " +
+                                          "WHERE target IN :targets AND field = :field GROUP BY target",
+                                          CounterShard.class.getSimpleName());
+
+            Map<String, Object> params = new HashMap<>();
+            params.put("targets", new ArrayList<>(result.keySet()));
+            params.put("field", field);
+
+            List<ODocument> resultList = getDatabase().getUnderlying()
+                                                      .command(new OSQLSynchQuery<ODocument>(sQuery))
+                                                      .execute(params);
+            for (ODocument document : resultList)
+            {
+                Number value = document.field("value");
+                result.merge(document.<String>field("target"), value != null ? value.longValue() : 0L, Long::sum);
+            }
+
+            return null;
+        });
+
+        return result;
+    }
+
+    /**
+     * Flushes all the increments pending at the moment of the call.
+     */
+    public void flush()
+    {
+        flushLock.lock();
+        try
+        {
+            Map<CounterKey, Long> deltas = new LinkedHashMap<>();
+            for (CounterKey key : new ArrayList<>(pendingDeltas.keySet()))
+            {
+                Long delta = pendingDeltas.remove(key);
+                if (delta != null && delta != 0)
+                {
+                    deltas.put(key, delta);
+                }
+            }
+
+            for (List<CounterKey> batch : Iterables.partition(deltas.keySet(), batchSize))
+            {
+                flushBatch(batch, deltas);
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the sum of the shards into the counted entity fields.
+     */
+    public void compact()
+    {
+        flush();
+
+        List<CounterKey> keys = new TransactionTemplate(transactionManager).execute(t -> {
+            String sQuery = String.format("SELECT target, field FROM %s GROUP BY target, field",
+                                          CounterShard.class.getSimpleName());
+
+            List<ODocument> resultList = getDatabase().getUnderlying()
+                                                      .command(new OSQLSynchQuery<ODocument>(sQuery))
+                                                      .execute();
+
+            List<CounterKey> result = new ArrayList<>(resultList.size());
+            resultList.forEach(d -> result.add(new CounterKey(d.field("target"), d.field("field"))));
+
+            return result;
+        });
+
+        for (CounterKey key : keys)
+        {
+            compact(key);
+        }
+
+        logger.debug("Compacted [{}] sharded counters.", keys.size());
+    }
+
+    private void flushBatch(List<CounterKey> batch,
+                            Map<CounterKey, Long> deltas)
+    {
+        String sQuery = String.format("UPDATE %s SET value = ifnull(value, 0) + :delta, uuid = ifnull(uuid, :uuid) " +
+                                      "UPSERT WHERE target = :target AND field = :field AND shard = :shard",
+                                      CounterShard.class.getSimpleName());
+
+        for (int i = 1; i <= MAX_RETRY; i++)
+        {
+            try
+            {
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    OObjectDatabaseTx db = getDatabase();
+                    for (CounterKey key : batch)
+                    {
+                        Map<String, Object> params = key.toParameterMap();
+                        params.put("shard", ThreadLocalRandom.current().nextInt(shards));
+                        params.put("delta", deltas.get(key));
+                        params.put("uuid", UUID.randomUUID().toString());
+
+                        db.command(new OCommandSQL(sQuery)).execute(params);
+                    }
+
+                    return null;
+                });
+
+                return;
+            }
+            catch (ONeedRetryException e)
+            {
+                // Another shard is chosen with the retry.
+                logger.debug("Retry flushing [{}] counter increments.", batch.size());
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to flush [{}] counter increments.", batch.size(), e);
+                break;
+            }
+        }
+
+        // Put the increments back, so they are retried with the next flush.
+        batch.forEach(k -> pendingDeltas.merge(k, deltas.get(k), Long::sum));
+    }
+
+    private void compact(CounterKey key)
+    {
+        for (int i = 1; i <= MAX_RETRY; i++)
+        {
+            try
+            {
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    OObjectDatabaseTx db = getDatabase();
+
+                    String sQuery = String.format("SELECT FROM %s WHERE target = :target AND field = :field",
+                                                  CounterShard.class.getSimpleName());
+                    List<ODocument> shardList = db.getUnderlying()
+                                                  .command(new OSQLSynchQuery<ODocument>(sQuery))
+                                                  .execute(key.toParameterMap());
+
+                    long sum = 0;
+                    for (ODocument shard : shardList)
+                    {
+                        Number value = shard.field("value");
+                        sum += value != null ? value.longValue() : 0;
+
+                        // The deletion is checked against the record version on commit.
+                        shard.delete();
+                    }
+
+                    // The shards of a deleted entity are dropped with nothing to add them to, they would
+                    // otherwise fail every compaction.
+                    if (db.getUnderlying().load(new ORecordId(key.target)) == null)
+                    {
+                        logger.debug("Dropped the counter [{}] of a deleted entity.", key);
+                    }
+                    else if (sum != 0)
+                    {
+                        // The record identity can't be bound as a parameter of the UPDATE target, it's validated.
+                        String sUpdate = String.format("UPDATE %s SET %s = ifnull(%s, 0) + :delta",
+                                                       key.target, key.field, key.field);
+
+                        Map<String, Object> params = new HashMap<>();
+                        params.put("delta", sum);
+
+                        db.command(new OCommandSQL(sUpdate)).execute(params);
+                    }
+
+                    return null;
+                });
+
+                return;
+            }
+            catch (ONeedRetryException e)
+            {
+                logger.debug("Retry compacting the counter [{}].", key);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to compact the counter [{}].", key, e);
+                return;
+            }
+        }
+
+        logger.warn("Failed to compact the counter [{}], it's retried with the next compaction.", key);
+    }
+
+    private OObjectDatabaseTx getDatabase()
+    {
+        return (OObjectDatabaseTx) entityManager.getDelegate();
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush pending counter increments.", e);
+        }
+    }
+
+    private void compactQuietly()
+    {
+        try
+        {
+            compact();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to compact sharded counters.", e);
+        }
+    }
+
+    private static final class CounterKey
+    {
+
+        private final String target;
+
+        private final String field;
+
+        private CounterKey(String target,
+                           String field)
+        {
+            if (!RECORD_ID.matcher(String.valueOf(target)).matches())
+            {
+                throw new IllegalArgumentException(String.format("Invalid record identity [%s].", target));
+            }
+            if (field == null || !FIELD.matcher(field).matches())
+            {
+                throw new IllegalArgumentException(String.format("Invalid field [%s].", field));
+            }
+
+            this.target = target;
+            this.field = field;
+        }
+
+        private Map<String, Object> toParameterMap()
+        {
+            Map<String, Object> params = new HashMap<>();
+            params.put("target", target);
+            params.put("field", field);
+
+            return params;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof CounterKey))
+            {
+                return false;
+            }
+
+            CounterKey that = (CounterKey) o;
+
+            return target.equals(that.target) && field.equals(that.field);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(target, field);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s.%s", target, field);
+        }
+
+    }
+
+}
@@ -0,0 +1,438 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.Iterables;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind queue for the non-critical entity fields (usage statistics, timestamps), which would otherwise be
+ * written by the serving threads, each within its own transaction, contending on the same records.
+ * <p>
+ * The updates are coalesced per entity: the last value wins for the {@link #set(Class, String, String, Object)}
+ * fields, while the {@link #increment(Class, String, String, long)} deltas are summed. The pending updates are flushed
+ * in batched transactions on a fixed interval, or as soon as the number of pending entities reaches the threshold,
+ * and drained on shutdown.
+ * <p>
+ * A batch which still conflicts after the retries is put back and merged under the updates queued meanwhile, which are
+ * newer. An update which failed to flush {@code maxAttempts} times, or failed with a non-retryable error on its own,
+ * is dead-lettered: logged with its values and dropped, so it doesn't block the queue.
+ */
+@Component
+public class WriteBehindQueue
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private static final int MAX_RETRY = 10;
+
+    private static final Pattern RECORD_ID = Pattern.compile("#\\d+:\\d+");
+
+    private static final Pattern FIELD = Pattern.compile("[A-Za-z_]\\w*");
+
+    @Value("${strongbox.data.writeBehind.flushIntervalMillis:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.data.writeBehind.flushThreshold:1000}")
+    private int flushThreshold;
+
+    @Value("${strongbox.data.writeBehind.batchSize:100}")
+    private int batchSize;
+
+    @Value("${strongbox.data.writeBehind.maxAttempts:10}")
+    private int maxAttempts;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong flushedUpdates = new AtomicLong();
+
+    private final AtomicLong failedUpdates = new AtomicLong();
+
+    private final AtomicLong deadLetteredUpdates = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                                        flushIntervalMillis,
+                                        flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy()
+            throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+
+        logger.info("Draining [{}] pending entity updates.", pendingUpdates.size());
+
+        flush();
+
+        if (!pendingUpdates.isEmpty())
+        {
+            logger.error("Failed to drain [{}] pending entity updates: [{}]", pendingUpdates.size(),
+                         pendingUpdates.values());
+        }
+    }
+
+    /**
+     * Sets the field value, overwriting the not yet flushed value of the same field.
+     */
+    public void set(Class<? extends GenericEntity> entityClass,
+                    String objectId,
+                    String field,
+                    Object value)
+    {
+        enqueue(new PendingUpdate(entityClass.getSimpleName(), objectId).set(field, value));
+    }
+
+    /**
+     * Increments the numeric field value, the not yet flushed deltas of the same field are summed.
+     */
+    public void increment(Class<? extends GenericEntity> entityClass,
+                          String objectId,
+                          String field,
+                          long delta)
+    {
+        enqueue(new PendingUpdate(entityClass.getSimpleName(), objectId).increment(field, delta));
+    }
+
+    /**
+     * @return the number of entities with pending updates
+     */
+    public int getQueueDepth()
+    {
+        return pendingUpdates.size();
+    }
+
+    /**
+     * @return the age of the oldest pending update, in milliseconds
+     */
+    public long getLag()
+    {
+        long now = System.currentTimeMillis();
+
+        return pendingUpdates.values()
+                             .stream()
+                             .mapToLong(u -> now - u.queuedAt)
+                             .max()
+                             .orElse(0);
+    }
+
+    public long getFlushedUpdates()
+    {
+        return flushedUpdates.get();
+    }
+
+    public long getFailedUpdates()
+    {
+        return failedUpdates.get();
+    }
+
+    /**
+     * @return the number of updates dropped after they failed to flush, see the class description
+     */
+    public long getDeadLetteredUpdates()
+    {
+        return deadLetteredUpdates.get();
+    }
+
+    /**
+     * Flushes all the updates pending at the moment of the call.
+     */
+    public void flush()
+    {
+        flushLock.lock();
+        try
+        {
+            flushRequested.set(false);
+
+            List<PendingUpdate> updates = new ArrayList<>(pendingUpdates.size());
+            for (String objectId : new ArrayList<>(pendingUpdates.keySet()))
+            {
+                PendingUpdate update = pendingUpdates.remove(objectId);
+                if (update != null)
+                {
+                    updates.add(update);
+                }
+            }
+
+            for (List<PendingUpdate> batch : Iterables.partition(updates, batchSize))
+            {
+                flushBatch(batch);
+            }
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(PendingUpdate update)
+    {
+        if (!RECORD_ID.matcher(String.valueOf(update.objectId)).matches())
+        {
+            throw new IllegalArgumentException(String.format("Invalid record identity [%s].", update.objectId));
+        }
+
+        pendingUpdates.merge(update.objectId, update, PendingUpdate::merge);
+
+        if (pendingUpdates.size() >= flushThreshold && flushRequested.compareAndSet(false, true)
+            && !executor.isShutdown())
+        {
+            executor.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush pending entity updates.", e);
+        }
+    }
+
+    private void flushBatch(List<PendingUpdate> batch)
+    {
+        try
+        {
+            executeWithRetry(batch);
+
+            flushedUpdates.addAndGet(batch.size());
+        }
+        catch (ONeedRetryException e)
+        {
+            logger.warn("Failed to flush [{}] pending entity updates after [{}] retries.", batch.size(), MAX_RETRY);
+
+            failedUpdates.addAndGet(batch.size());
+            batch.forEach(this::requeue);
+        }
+        catch (Exception e)
+        {
+            if (batch.size() > 1)
+            {
+                // Flush the updates one by one, so that a single poison update doesn't fail the whole batch.
+                logger.warn("Failed to flush [{}] pending entity updates, flushing them one by one.", batch.size(), e);
+
+                batch.forEach(u -> flushBatch(Collections.singletonList(u)));
+
+                return;
+            }
+
+            failedUpdates.incrementAndGet();
+            deadLetter(batch.get(0), e);
+        }
+    }
+
+    private void executeWithRetry(List<PendingUpdate> batch)
+    {
+        for (int i = 1; ; i++)
+        {
+            try
+            {
+                new TransactionTemplate(transactionManager).execute(t -> {
+                    OObjectDatabaseTx db = (OObjectDatabaseTx) entityManager.getDelegate();
+                    batch.forEach(u -> u.execute(db));
+
+                    return null;
+                });
+
+                return;
+            }
+            catch (ONeedRetryException e)
+            {
+                if (i >= MAX_RETRY)
+                {
+                    throw e;
+                }
+
+                logger.debug("Retry flushing [{}] pending entity updates.", batch.size());
+            }
+        }
+    }
+
+    private void requeue(PendingUpdate failed)
+    {
+        if (++failed.failedAttempts >= maxAttempts)
+        {
+            deadLetter(failed, null);
+
+            return;
+        }
+
+        // The updates queued meanwhile are newer than the failed one, so they are merged on top of it.
+        pendingUpdates.merge(failed.objectId, failed, (existing, update) -> update.merge(existing));
+    }
+
+    private void deadLetter(PendingUpdate update,
+                            Exception cause)
+    {
+        deadLetteredUpdates.incrementAndGet();
+        logger.error("Dropping the entity update [{}] after [{}] failed attempts.", update,
+                     Math.max(update.failedAttempts, 1), cause);
+    }
+
+    private static class PendingUpdate
+    {
+
+        private final String entityClassName;
+
+        private final String objectId;
+
+        private final long queuedAt;
+
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        private final Map<String, Long> deltas = new LinkedHashMap<>();
+
+        private int failedAttempts;
+
+        PendingUpdate(String entityClassName,
+                      String objectId)
+        {
+            this(entityClassName, objectId, System.currentTimeMillis());
+        }
+
+        private PendingUpdate(String entityClassName,
+                              String objectId,
+                              long queuedAt)
+        {
+            this.entityClassName = entityClassName;
+            this.objectId = objectId;
+            this.queuedAt = queuedAt;
+        }
+
+        PendingUpdate set(String field,
+                          Object value)
+        {
+            validateField(field);
+            values.put(field, value);
+            deltas.remove(field);
+
+            return this;
+        }
+
+        PendingUpdate increment(String field,
+                                long delta)
+        {
+            validateField(field);
+
+            Object value = values.get(field);
+            if (value instanceof Number)
+            {
+                values.put(field, ((Number) value).longValue() + delta);
+                return this;
+            }
+
+            deltas.merge(field, delta, Long::sum);
+
+            return this;
+        }
+
+        /**
+         * Merges the newer update into a new instance, which keeps the queuing time and the failed attempts of the
+         * older one.
+         */
+        PendingUpdate merge(PendingUpdate newer)
+        {
+            PendingUpdate result = new PendingUpdate(entityClassName, objectId, Math.min(queuedAt, newer.queuedAt));
+            result.failedAttempts = Math.max(failedAttempts, newer.failedAttempts);
+            result.values.putAll(values);
+            result.deltas.putAll(deltas);
+
+            newer.values.forEach(result::set);
+            newer.deltas.forEach(result::increment);
+
+            return result;
+        }
+
+        private static void validateField(String field)
+        {
+            if (field == null || !FIELD.matcher(field).matches())
+            {
+                throw new IllegalArgumentException(String.format("Invalid field [%s].", field));
+            }
+        }
+
+        void execute(OObjectDatabaseTx db)
+        {
+            Map<String, Object> parameterMap = new HashMap<>();
+            List<String> assignments = new ArrayList<>();
+
+            values.forEach((field, value) -> {
+                assignments.add(String.format("%s = :%s", field, field));
+                parameterMap.put(field, value);
+            });
+            deltas.forEach((field, delta) -> {
+                assignments.add(String.format("%s = ifnull(%s, 0) + :%s", field, field, field));
+                parameterMap.put(field, delta);
+            });
+
+            if (assignments.isEmpty())
+            {
+                return;
+            }
+
+            // The record identity can't be bound as a parameter of the UPDATE target, it's validated on enqueue.
+            String sQuery = String.format("UPDATE %s SET %s", objectId, String.join(", ", assignments));
+
+            db.command(new OCommandSQL(sQuery)).execute(parameterMap);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s%s{values=%s, deltas=%s}", entityClassName, objectId, values, deltas);
+        }
+
+    }
+
+}
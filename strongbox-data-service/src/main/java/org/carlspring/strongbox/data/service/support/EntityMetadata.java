@@ -0,0 +1,171 @@
+package org.carlspring.strongbox.data.service.support;
+
+import org.carlspring.strongbox.data.service.DataServiceException;
+
+import javax.annotation.concurrent.Immutable;
+import javax.persistence.CascadeType;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Persistence metadata of an entity class which is needed on every save: the fields which cascade the save
+ * ({@link CascadeType#ALL}, {@link CascadeType#MERGE} or {@link CascadeType#PERSIST}) together with their accessors.
+ * It's calculated with reflection once per class, see {@link #of(Class)}.
+ */
+@Immutable
+public class EntityMetadata
+{
+
+    private static final Set<CascadeType> SAVE_CASCADE_TYPES = EnumSet.of(CascadeType.ALL,
+                                                                          CascadeType.MERGE,
+                                                                          CascadeType.PERSIST);
+
+    private final Class<?> entityClass;
+
+    private final List<CascadeField> cascadeFields;
+
+    private EntityMetadata(Class<?> entityClass,
+                           List<CascadeField> cascadeFields)
+    {
+        this.entityClass = entityClass;
+        this.cascadeFields = Collections.unmodifiableList(cascadeFields);
+    }
+
+    public Class<?> getEntityClass()
+    {
+        return entityClass;
+    }
+
+    public List<CascadeField> getCascadeFields()
+    {
+        return cascadeFields;
+    }
+
+    public static EntityMetadata of(Class<?> entityClass)
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<CascadeField> cascadeFields = new ArrayList<>();
+
+        ReflectionUtils.doWithFields(entityClass, field -> {
+            ReflectionUtils.makeAccessible(field);
+            try
+            {
+                cascadeFields.add(new CascadeField(field.getName(),
+                                                   Collection.class.isAssignableFrom(field.getType()),
+                                                   lookup.unreflectGetter(field),
+                                                   lookup.unreflectSetter(field)));
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new DataServiceException(String.format("Failed to access [%s].", field), e);
+            }
+        }, EntityMetadata::isSaveCascaded);
+
+        return new EntityMetadata(entityClass, cascadeFields);
+    }
+
+    private static boolean isSaveCascaded(Field field)
+    {
+        return Arrays.stream(field.getAnnotations())
+                     .map(EntityMetadata::exposeCascadeType)
+                     .flatMap(Arrays::stream)
+                     .anyMatch(SAVE_CASCADE_TYPES::contains);
+    }
+
+    private static CascadeType[] exposeCascadeType(Annotation a)
+    {
+        if (a instanceof OneToMany)
+        {
+            return ((OneToMany) a).cascade();
+        }
+        else if (a instanceof OneToOne)
+        {
+            return ((OneToOne) a).cascade();
+        }
+        else if (a instanceof ManyToMany)
+        {
+            return ((ManyToMany) a).cascade();
+        }
+        else if (a instanceof ManyToOne)
+        {
+            return ((ManyToOne) a).cascade();
+        }
+        return new CascadeType[0];
+    }
+
+    @Immutable
+    public static class CascadeField
+    {
+
+        private final String name;
+
+        private final boolean collection;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private CascadeField(String name,
+                             boolean collection,
+                             MethodHandle getter,
+                             MethodHandle setter)
+        {
+            this.name = name;
+            this.collection = collection;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public boolean isCollection()
+        {
+            return collection;
+        }
+
+        public Object get(Object entity)
+        {
+            try
+            {
+                return getter.invoke(entity);
+            }
+            catch (Throwable e)
+            {
+                throw new DataServiceException(String.format("Failed to get [%s] of [%s].", name, entity), e);
+            }
+        }
+
+        public void set(Object entity,
+                        Object value)
+        {
+            try
+            {
+                setter.invoke(entity, value);
+            }
+            catch (Throwable e)
+            {
+                throw new DataServiceException(String.format("Failed to set [%s] of [%s].", name, entity), e);
+            }
+        }
+
+    }
+
+}
@@ -1,6 +1,9 @@
 package org.carlspring.strongbox.data.service.support.search;
 
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
+
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.util.Objects;
 
@@ -19,6 +22,10 @@ public class PagingCriteria
 
     private final Sort sort;
 
+    private final boolean keyset;
+
+    private final ContinuationToken after;
+
     public PagingCriteria(final int skip,
                           final int limit,
                           @Nonnull final Sort sort)
@@ -28,6 +35,25 @@ public class PagingCriteria
         this.skip = skip;
         this.limit = limit;
         this.sort = sort;
+        this.keyset = false;
+        this.after = null;
+    }
+
+    /**
+     * Keyset (seek) pagination, the page starts right after the given position, or from the beginning if it's
+     * {@code null}.
+     */
+    public PagingCriteria(@Nullable final ContinuationToken after,
+                          final int limit,
+                          @Nonnull final Sort sort)
+    {
+        Objects.requireNonNull(sort, "Sort cannot be null");
+
+        this.skip = 0;
+        this.limit = limit;
+        this.sort = sort;
+        this.keyset = true;
+        this.after = after;
     }
 
     public PagingCriteria(final int skip,
@@ -51,4 +77,15 @@ public class PagingCriteria
     {
         return sort;
     }
+
+    public boolean isKeyset()
+    {
+        return keyset;
+    }
+
+    @Nullable
+    public ContinuationToken getAfter()
+    {
+        return after;
+    }
 }
@@ -39,6 +39,11 @@ public class Sort
         return new Sort(Arrays.asList(orders));
     }
 
+    public List<Order> getOrders()
+    {
+        return orders;
+    }
+
     @Override
     public String toString()
     {
@@ -80,6 +85,16 @@ public class Sort
             return new Order(Direction.DESC, property);
         }
 
+        public Direction getDirection()
+        {
+            return direction;
+        }
+
+        public String getProperty()
+        {
+            return property;
+        }
+
         @Override
         public String toString()
         {
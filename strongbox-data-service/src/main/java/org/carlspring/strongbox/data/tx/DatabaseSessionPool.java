@@ -0,0 +1,240 @@
+package org.carlspring.strongbox.data.tx;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.orientechnologies.orient.core.db.ODatabase;
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out the sessions of the shared {@link ODatabasePool} to the {@code EntityManager}s, validating each of them,
+ * and keeps the statistics of the time spent waiting for a session and of the sessions in use.
+ * <p>
+ * The pool size and acquire timeout are the OrientDB settings (see {@code CommonOrientDbConfig}); once the pool is
+ * exhausted, the acquisition blocks until a session is released or the timeout elapses. The web requests hold a
+ * single session for their whole duration, so the pool is sized to the Jetty thread pool by default, plus an allotment
+ * for the background threads which hold sessions of their own: the {@code WriteBehindQueue}, {@code ShardedCounters},
+ * {@code ArtifactExistenceFilter} and {@code RepositoryChangeLog} writers and the cron tasks. This way the requests
+ * can't starve the background writers, nor the other way round.
+ * <p>
+ * The parallel jobs (the bulk import and the reconciliation) hold a session per worker, so their parallelism is capped
+ * by the background sessions, see {@link #calculateParallelism(int, int)}.
+ */
+@Component
+public class DatabaseSessionPool
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSessionPool.class);
+
+    private static final int MAX_VALIDATION_ATTEMPTS = 3;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Value("${strongbox.orientdb.pool.max:0}")
+    private int configuredMaxSize;
+
+    @Value("${strongbox.jetty.maxThreads:200}")
+    private int requestThreads;
+
+    @Value("${strongbox.orientdb.pool.background:16}")
+    private int backgroundSessions;
+
+    private int maxSize;
+
+    @Value("${strongbox.orientdb.pool.validate:true}")
+    private boolean validate;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final AtomicInteger peakActiveCount = new AtomicInteger();
+
+    private final LongAdder acquireCount = new LongAdder();
+
+    private final LongAdder acquireFailureCount = new LongAdder();
+
+    private final LongAdder invalidCount = new LongAdder();
+
+    private final LongAdder waitTimeNanos = new LongAdder();
+
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+    /**
+     * The sessions handed out and not released yet, so a session released twice, or closed before it's released, is
+     * counted once.
+     */
+    private final Set<ODatabase<?>> activeSessions = Collections.newSetFromMap(
+            Collections.synchronizedMap(new IdentityHashMap<>()));
+
+    /**
+     * @return the configured pool size, or if it's not set, the request threads plus the background sessions
+     */
+    public static int calculateMaxSize(int configuredMaxSize,
+                                       int requestThreads,
+                                       int backgroundSessions)
+    {
+        return configuredMaxSize > 0 ? configuredMaxSize : requestThreads + backgroundSessions;
+    }
+
+    /**
+     * @return the configured parallelism, or if it's not set, the number of processors, but no more than the background
+     *         sessions, so that the workers of a parallel job don't take the sessions of the requests
+     */
+    public static int calculateParallelism(int configuredParallelism,
+                                           int backgroundSessions)
+    {
+        int parallelism = configuredParallelism > 0 ? configuredParallelism :
+                          Runtime.getRuntime().availableProcessors();
+
+        return Math.max(1, Math.min(parallelism, backgroundSessions));
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        maxSize = calculateMaxSize(configuredMaxSize, requestThreads, backgroundSessions);
+
+        logger.info("Using database session pool of [{}] sessions.", maxSize);
+    }
+
+    /**
+     * The session is active on the current thread once acquired, and must be handed back with
+     * {@link #release(ODatabase)}.
+     */
+    public ODatabaseDocumentInternal acquire()
+    {
+        long start = System.nanoTime();
+        try
+        {
+            for (int attempt = 1; ; attempt++)
+            {
+                ODatabaseDocumentInternal session = (ODatabaseDocumentInternal) databasePool.acquire();
+                if (!validate || isValid(session))
+                {
+                    activeSessions.add(session);
+                    peakActiveCount.accumulateAndGet(activeCount.incrementAndGet(), Math::max);
+                    acquireCount.increment();
+
+                    return session;
+                }
+
+                invalidCount.increment();
+                logger.warn("Discarding invalid database session [{}], attempt [{}].", session, attempt);
+                discard(session);
+
+                if (attempt == MAX_VALIDATION_ATTEMPTS)
+                {
+                    throw new IllegalStateException(String.format("Failed to acquire a valid database session " +
+                                                                  "after [%s] attempts.", attempt));
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            acquireFailureCount.increment();
+            logger.error("Failed to acquire a database session, [{}] of [{}] sessions in use.",
+                         activeCount.get(), maxSize, e);
+
+            throw e;
+        }
+        finally
+        {
+            long waitTime = System.nanoTime() - start;
+            waitTimeNanos.add(waitTime);
+            maxWaitTimeNanos.accumulateAndGet(waitTime, Math::max);
+        }
+    }
+
+    public void release(ODatabase<?> session)
+    {
+        ODatabase<?> underlying = session instanceof OObjectDatabaseTx ? ((OObjectDatabaseTx) session).getUnderlying()
+                                                                       : session;
+        if (activeSessions.remove(underlying))
+        {
+            activeCount.decrementAndGet();
+        }
+
+        if (!session.isClosed())
+        {
+            session.close();
+        }
+    }
+
+    private boolean isValid(ODatabaseDocumentInternal session)
+    {
+        return !session.isClosed() && session.getStorage() != null && !session.getStorage().isClosed();
+    }
+
+    private void discard(ODatabaseDocumentInternal session)
+    {
+        try
+        {
+            session.close();
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Failed to close invalid database session [{}].", session, e);
+        }
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public int getActiveCount()
+    {
+        return activeCount.get();
+    }
+
+    public int getPeakActiveCount()
+    {
+        return peakActiveCount.get();
+    }
+
+    public double getUtilization()
+    {
+        return maxSize > 0 ? (double) activeCount.get() / maxSize : 0;
+    }
+
+    public long getAcquireCount()
+    {
+        return acquireCount.sum();
+    }
+
+    public long getAcquireFailureCount()
+    {
+        return acquireFailureCount.sum();
+    }
+
+    public long getInvalidCount()
+    {
+        return invalidCount.sum();
+    }
+
+    /**
+     * @return the total time spent waiting for the sessions, including the failed acquisitions
+     */
+    public long getWaitTimeNanos()
+    {
+        return waitTimeNanos.sum();
+    }
+
+    public long getMaxWaitTimeNanos()
+    {
+        return maxWaitTimeNanos.get();
+    }
+
+}
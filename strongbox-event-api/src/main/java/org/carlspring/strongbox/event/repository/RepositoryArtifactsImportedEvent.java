@@ -0,0 +1,31 @@
+package org.carlspring.strongbox.event.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dispatched once per bulk imported batch of artifacts, instead of an event per artifact, so that the listeners can
+ * regenerate the metadata and indexes of the affected paths at once.
+ */
+public class RepositoryArtifactsImportedEvent
+        extends RepositoryEvent
+{
+
+    private final List<String> artifactPaths;
+
+    public RepositoryArtifactsImportedEvent(String storageId,
+                                            String repositoryId,
+                                            Collection<String> artifactPaths)
+    {
+        super(storageId, repositoryId, RepositoryEventTypeEnum.EVENT_REPOSITORY_ARTIFACTS_IMPORTED.getType());
+        this.artifactPaths = Collections.unmodifiableList(new ArrayList<>(artifactPaths));
+    }
+
+    public List<String> getArtifactPaths()
+    {
+        return artifactPaths;
+    }
+
+}
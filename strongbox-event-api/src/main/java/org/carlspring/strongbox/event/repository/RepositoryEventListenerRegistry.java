@@ -1,6 +1,9 @@
 package org.carlspring.strongbox.event.repository;
 
 import org.carlspring.strongbox.event.AbstractEventListenerRegistry;
+
+import java.util.Collection;
+
 import org.springframework.stereotype.Component;
 
 /**
@@ -50,4 +53,15 @@ public class RepositoryEventListenerRegistry
         dispatchEvent(event);
     }
 
+    public void dispatchArtifactsImportedEvent(String storageId,
+                                               String repositoryId,
+                                               Collection<String> artifactPaths)
+    {
+        RepositoryArtifactsImportedEvent event = new RepositoryArtifactsImportedEvent(storageId,
+                                                                                      repositoryId,
+                                                                                      artifactPaths);
+
+        dispatchEvent(event);
+    }
+
 }
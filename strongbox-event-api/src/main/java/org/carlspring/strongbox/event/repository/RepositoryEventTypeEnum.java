@@ -58,7 +58,12 @@ public enum RepositoryEventTypeEnum
     /**
      * Occurs when all the trash for repositories has been undeleted.
      */
-    EVENT_REPOSITORY_UNDELETE_TRASH_FOR_ALL_REPOSITORIES(10);
+    EVENT_REPOSITORY_UNDELETE_TRASH_FOR_ALL_REPOSITORIES(10),
+
+    /**
+     * Occurs when a batch of artifacts has been bulk imported into a repository.
+     */
+    EVENT_REPOSITORY_ARTIFACTS_IMPORTED(11);
 
     private int type;
 
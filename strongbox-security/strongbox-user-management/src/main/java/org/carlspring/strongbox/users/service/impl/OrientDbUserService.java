@@ -4,6 +4,7 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +31,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.OCommandSQL;
@@ -169,13 +172,28 @@ public class OrientDbUserService extends CommonCrudService<UserEntry> implements
     @Override
     @CacheEvict(cacheNames = CacheName.User.AUTHENTICATIONS, key = "#p0.username")
     public <S extends UserEntry> S save(S entity)
+    {
+        assertNotExternal(entity);
+
+        return super.save(entity);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @CacheEvict(cacheNames = CacheName.User.AUTHENTICATIONS, allEntries = true)
+    public <S extends UserEntry> List<S> saveAll(Collection<S> entities)
+    {
+        entities.forEach(this::assertNotExternal);
+
+        return super.saveAll(entities);
+    }
+
+    private void assertNotExternal(UserEntry entity)
     {
         if (StringUtils.isNotBlank(entity.getSourceId()))
         {
             throw new IllegalStateException("Can't modify external users.");
         }
-
-        return super.save(entity);
     }
 
     public void expireUser(String username, boolean clearSourceId)
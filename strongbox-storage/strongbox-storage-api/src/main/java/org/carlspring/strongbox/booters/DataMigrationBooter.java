@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.data.service.impl.DataMigrations;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a data migration of the existing records, which is too long to be run before the application starts (for
+ * example the calculation of a new indexed field, which scans the records without an index), in the background once
+ * the application has started. It's run by one node of the cluster at a time, and only until it's been completed once
+ * (see {@link DataMigrations}); an interrupted or failed migration is resumed on the next startup.
+ */
+public class DataMigrationBooter
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(DataMigrationBooter.class);
+
+    @Inject
+    private DataMigrations dataMigrations;
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    private final String migration;
+
+    private final LongSupplier update;
+
+    private ExecutorService executor;
+
+    /**
+     * @param migration
+     *            the name of the migration, which is recorded once it's been completed
+     * @param update
+     *            updates the records which haven't been migrated yet, and returns their number
+     */
+    public DataMigrationBooter(String migration,
+                               LongSupplier update)
+    {
+        this.migration = migration;
+        this.update = update;
+    }
+
+    @PostConstruct
+    public void initialize()
+    {
+        if (dataMigrations.isCompleted(migration))
+        {
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor();
+        executor.execute(this::update);
+        executor.shutdown();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void update()
+    {
+        ILock lock = hazelcastInstance.getLock(String.format("DataMigrationBooterLock[%s]", migration));
+
+        if (!lock.tryLock())
+        {
+            logger.debug("Failed to run the data migration [{}]. Another JVM may be doing this.", migration);
+
+            return;
+        }
+
+        try
+        {
+            if (dataMigrations.isCompleted(migration))
+            {
+                return;
+            }
+
+            long updated = update.getAsLong();
+            dataMigrations.complete(migration);
+
+            logger.info(" -> Completed the data migration [{}] of [{}] records.", migration, updated);
+        }
+        catch (RuntimeException e)
+        {
+            logger.error(String.format("Failed to run the data migration [%s], it will be resumed on the next startup.",
+                                       migration),
+                         e);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+}
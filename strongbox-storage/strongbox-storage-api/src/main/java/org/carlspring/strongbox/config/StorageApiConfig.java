@@ -1,6 +1,9 @@
 package org.carlspring.strongbox.config;
 
+import org.carlspring.strongbox.booters.DataMigrationBooter;
 import org.carlspring.strongbox.booters.StorageBooter;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchTokens;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
@@ -56,4 +59,25 @@ public class StorageApiConfig
         return new StorageBooter();
     }
 
+    /**
+     * Calculates the coordinate search tokens of the artifact entries stored before the tokens were introduced.
+     */
+    @Bean
+    DataMigrationBooter coordinateTokensBooter(ArtifactEntryService artifactEntryService)
+    {
+        return new DataMigrationBooter(ArtifactCoordinatesSearchTokens.MIGRATION,
+                                       artifactEntryService::updateCoordinateTokens);
+    }
+
+    /**
+     * Calculates the indexed archive filenames of the artifact entries whose archive listing has been stored before
+     * the filenames were introduced.
+     */
+    @Bean
+    DataMigrationBooter archiveFilenamesBooter(ArtifactEntryService artifactEntryService)
+    {
+        return new DataMigrationBooter("artifact-entry-archive-filenames",
+                                       artifactEntryService::updateArchiveFilenames);
+    }
+
 }
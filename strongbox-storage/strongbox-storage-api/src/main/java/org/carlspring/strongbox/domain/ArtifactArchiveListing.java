@@ -2,6 +2,7 @@ package org.carlspring.strongbox.domain;
 
 import javax.persistence.Embeddable;
 import java.io.Serializable;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -25,6 +26,32 @@ public class ArtifactArchiveListing
         this.filenames = filenames;
     }
 
+    /**
+     * The names which the listing can be searched by: the full entry names, like {@code META-INF/MANIFEST.MF}, and
+     * their last path segments, like {@code MANIFEST.MF}. The directory entries are skipped.
+     */
+    public Set<String> calculateSearchNames()
+    {
+        Set<String> result = new HashSet<>();
+        if (filenames == null)
+        {
+            return result;
+        }
+
+        for (String filename : filenames)
+        {
+            if (filename == null || filename.isEmpty() || filename.endsWith("/"))
+            {
+                continue;
+            }
+
+            result.add(filename);
+            result.add(filename.substring(filename.lastIndexOf('/') + 1));
+        }
+
+        return result;
+    }
+
     @Override
     public String toString()
     {
@@ -4,13 +4,13 @@ import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchTokens;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
-import javax.persistence.Transient;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
@@ -37,6 +37,18 @@ public class ArtifactEntry
                            CascadeType.REFRESH })
     private AbstractArtifactCoordinates artifactCoordinates;
 
+    /**
+     * The {@link #artifactCoordinates} path, it's kept here so that the artifact entry can be found with a single
+     * lookup of the {@code (storageId, repositoryId, artifactPath)} index.
+     */
+    private String artifactPath;
+
+    /**
+     * The name of the {@link RepositoryArtifactIdGroupEntry} the entry belongs to. The group members are found with
+     * the {@code (storageId, repositoryId, artifactIdGroup)} index, so that adding an entry doesn't update the group.
+     */
+    private String artifactIdGroup;
+
     @ManyToMany(targetEntity = ArtifactTagEntry.class)
     private Set<ArtifactTag> tagSet;
 
@@ -55,6 +67,17 @@ public class ArtifactEntry
 
     private Integer downloadCount = Integer.valueOf(0);
 
+    /**
+     * Indexed search tokens of the {@link #artifactCoordinates}, see {@link ArtifactCoordinatesSearchTokens}.
+     */
+    private Set<String> coordinateTokens;
+
+    /**
+     * Indexed names of the {@link #artifactArchiveListing} entries, see
+     * {@link ArtifactArchiveListing#calculateSearchNames()}.
+     */
+    private Set<String> archiveFilenames;
+
     public ArtifactEntry()
     {
     }
@@ -87,6 +110,7 @@ public class ArtifactEntry
     public void setArtifactCoordinates(ArtifactCoordinates artifactCoordinates)
     {
         this.artifactCoordinates = (AbstractArtifactCoordinates) artifactCoordinates;
+        setArtifactPath(artifactCoordinates == null ? null : artifactCoordinates.toPath());
     }
 
     public Set<ArtifactTag> getTagSet()
@@ -159,6 +183,26 @@ public class ArtifactEntry
         this.downloadCount = downloadCount;
     }
 
+    public Set<String> getCoordinateTokens()
+    {
+        return coordinateTokens;
+    }
+
+    public void setCoordinateTokens(Set<String> coordinateTokens)
+    {
+        this.coordinateTokens = coordinateTokens;
+    }
+
+    public Set<String> getArchiveFilenames()
+    {
+        return archiveFilenames;
+    }
+
+    public void setArchiveFilenames(Set<String> archiveFilenames)
+    {
+        this.archiveFilenames = archiveFilenames;
+    }
+
     public ArtifactArchiveListing getArtifactArchiveListing()
     {
         return artifactArchiveListing;
@@ -169,7 +213,6 @@ public class ArtifactEntry
         this.artifactArchiveListing = artifactArchiveListing;
     }
 
-    @Transient
     public String getArtifactPath()
     {
         return Optional.of(getArtifactCoordinates())
@@ -177,6 +220,21 @@ public class ArtifactEntry
                        .orElseThrow(() -> new IllegalStateException("ArtifactCoordinates required to be set."));
     }
 
+    protected void setArtifactPath(String artifactPath)
+    {
+        this.artifactPath = artifactPath;
+    }
+
+    public String getArtifactIdGroup()
+    {
+        return artifactIdGroup;
+    }
+
+    public void setArtifactIdGroup(String artifactIdGroup)
+    {
+        this.artifactIdGroup = artifactIdGroup;
+    }
+
     @Override
     public String toString()
     {
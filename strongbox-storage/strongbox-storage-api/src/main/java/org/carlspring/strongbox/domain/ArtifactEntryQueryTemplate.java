@@ -0,0 +1,113 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.criteria.Expression;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchTokens;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link OQueryTemplate} for {@link ArtifactEntry} queries, which backs the coordinate expressions with the coordinate
+ * search tokens index (see {@link ArtifactCoordinatesSearchTokens}). These are the expressions on the
+ * {@code artifactCoordinates.coordinates.<name>} properties with the {@link ExpOperator#EQ} or {@link ExpOperator#LIKE}
+ * operators.
+ * <p>
+ * The tokens are only a necessary condition, so the original expression is kept as is and the results don't change.
+ * They are only added once all the entries have them (see {@link ArtifactEntryService#isCoordinateTokensCompleted()}),
+ * otherwise the entries stored before them would be missed.
+ */
+public class ArtifactEntryQueryTemplate<R, T extends ArtifactEntry> extends OQueryTemplate<R, T>
+{
+
+    private static final String COORDINATES_PROPERTY_PREFIX = "artifactCoordinates.coordinates.";
+
+    private static final String TO_LOWER_CASE = ".toLowerCase()";
+
+    private final boolean coordinateTokens;
+
+    public ArtifactEntryQueryTemplate(EntityManager entityManager,
+                                      boolean coordinateTokens)
+    {
+        super(entityManager);
+        this.coordinateTokens = coordinateTokens;
+    }
+
+    @Override
+    protected String expressionToken(Expression e,
+                                     int n)
+    {
+        String result = super.expressionToken(e, n);
+
+        List<String> tokens = coordinateTokens(e);
+        if (tokens.isEmpty())
+        {
+            return result;
+        }
+
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            sb.append(String.format("coordinateTokens CONTAINS :%s AND ", calculateTokenParameterName(e, n, i)));
+        }
+
+        return sb.append(result).append(")").toString();
+    }
+
+    @Override
+    protected Map<String, Object> exposeParameterMap(Expression e,
+                                                     int n)
+    {
+        List<String> tokens = coordinateTokens(e);
+        if (tokens.isEmpty())
+        {
+            return super.exposeParameterMap(e, n);
+        }
+
+        Map<String, Object> result = new HashMap<>(super.exposeParameterMap(e, n));
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            result.put(calculateTokenParameterName(e, n, i), tokens.get(i));
+        }
+
+        return result;
+    }
+
+    private List<String> coordinateTokens(Expression e)
+    {
+        String property = e.getProperty();
+        if (!coordinateTokens
+                || !(ExpOperator.EQ.equals(e.getOperator()) || ExpOperator.LIKE.equals(e.getOperator()))
+                || !(e.getValue() instanceof String)
+                || property == null
+                || !property.startsWith(COORDINATES_PROPERTY_PREFIX))
+        {
+            return Collections.emptyList();
+        }
+
+        String coordinate = property.substring(COORDINATES_PROPERTY_PREFIX.length());
+        if (coordinate.endsWith(TO_LOWER_CASE))
+        {
+            coordinate = coordinate.substring(0, coordinate.length() - TO_LOWER_CASE.length());
+        }
+        if (coordinate.isEmpty() || coordinate.contains("."))
+        {
+            return Collections.emptyList();
+        }
+
+        return ArtifactCoordinatesSearchTokens.ofPattern(coordinate, (String) e.getValue());
+    }
+
+    private String calculateTokenParameterName(Expression e,
+                                               int n,
+                                               int i)
+    {
+        return String.format("%s_token%s", calculateParameterName(e.getProperty(), n), i);
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.criteria.ViewProjection;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+
+/**
+ * Read only view of an {@link ArtifactEntry} for the listings which only need the artifact path, size, checksums and
+ * tags. It's selected with the {@link #PROJECTION}, so the artifact coordinates and the archive listing are neither
+ * loaded nor detached.
+ * <p>
+ * The cached flag is only set for the {@link RemoteArtifactEntry}s of the proxy repositories.
+ */
+@Immutable
+public class ArtifactEntryView
+{
+
+    public static final ViewProjection<ArtifactEntryView> PROJECTION = new ViewProjection<ArtifactEntryView>()
+    {
+
+        @Override
+        public String getFields()
+        {
+            return "@rid AS objectId, uuid, storageId, repositoryId, artifactPath, sizeInBytes, checksums, " +
+                   "lastUpdated, lastUsed, tagSet.name AS tagNames, artifactIdGroup, isCached";
+        }
+
+        @Override
+        public ArtifactEntryView map(ODocument document)
+        {
+            return new ArtifactEntryView(document);
+        }
+
+    };
+
+    private final String objectId;
+
+    private final String uuid;
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private final String artifactPath;
+
+    private final Long sizeInBytes;
+
+    private final Map<String, String> checksums;
+
+    private final Date lastUpdated;
+
+    private final Date lastUsed;
+
+    private final Set<String> tagNames;
+
+    private final String artifactIdGroup;
+
+    private final Boolean isCached;
+
+    private ArtifactEntryView(ODocument document)
+    {
+        OIdentifiable identity = document.field("objectId");
+        Map<String, String> checksums = document.field("checksums");
+        Date lastUpdated = document.field("lastUpdated");
+        Date lastUsed = document.field("lastUsed");
+
+        this.objectId = identity == null ? null : identity.getIdentity().toString();
+        this.uuid = document.field("uuid");
+        this.storageId = document.field("storageId");
+        this.repositoryId = document.field("repositoryId");
+        this.artifactPath = document.field("artifactPath");
+        this.sizeInBytes = document.field("sizeInBytes", Long.class);
+        this.checksums = checksums == null ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(checksums));
+        this.lastUpdated = lastUpdated == null ? null : new Date(lastUpdated.getTime());
+        this.lastUsed = lastUsed == null ? null : new Date(lastUsed.getTime());
+        this.tagNames = Collections.unmodifiableSet(toTagNames(document.field("tagNames")));
+        this.artifactIdGroup = document.field("artifactIdGroup");
+        this.isCached = document.field("isCached");
+    }
+
+    private static Set<String> toTagNames(Object value)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        if (value instanceof Collection)
+        {
+            ((Collection<?>) value).forEach(t -> result.add(String.valueOf(t)));
+        }
+        else if (value != null)
+        {
+            result.add(String.valueOf(value));
+        }
+
+        return result;
+    }
+
+    public String getObjectId()
+    {
+        return objectId;
+    }
+
+    public String getUuid()
+    {
+        return uuid;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public String getArtifactPath()
+    {
+        return artifactPath;
+    }
+
+    public Long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    public Map<String, String> getChecksums()
+    {
+        return checksums;
+    }
+
+    public Date getLastUpdated()
+    {
+        return lastUpdated == null ? null : new Date(lastUpdated.getTime());
+    }
+
+    public Date getLastUsed()
+    {
+        return lastUsed == null ? null : new Date(lastUsed.getTime());
+    }
+
+    public Set<String> getTagNames()
+    {
+        return tagNames;
+    }
+
+    public String getArtifactIdGroup()
+    {
+        return artifactIdGroup;
+    }
+
+    public Boolean getIsCached()
+    {
+        return isCached;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("ArtifactEntryView{storageId='%s', repositoryId='%s', artifactPath='%s'}",
+                             storageId, repositoryId, artifactPath);
+    }
+
+}
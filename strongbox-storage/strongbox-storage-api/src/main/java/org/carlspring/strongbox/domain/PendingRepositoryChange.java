@@ -0,0 +1,95 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+import java.util.Date;
+
+/**
+ * A change which has been recorded within the transaction of the operation, but not numbered into the
+ * {@link RepositoryChange} log yet. The pending changes are committed or rolled back together with the operation, so
+ * the log neither loses the committed changes on a crash nor records the rolled back ones.
+ * <p>
+ * A change which can't be written to the log is dead lettered, so it doesn't hold back the following ones.
+ */
+@Entity
+public class PendingRepositoryChange
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private String type;
+
+    private String path;
+
+    private Date timestamp;
+
+    private Boolean deadLettered = Boolean.FALSE;
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    /**
+     * @return the {@link RepositoryChangeTypeEnum} name
+     */
+    public String getType()
+    {
+        return type;
+    }
+
+    public void setType(String type)
+    {
+        this.type = type;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    public void setPath(String path)
+    {
+        this.path = path;
+    }
+
+    public Date getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp)
+    {
+        this.timestamp = timestamp;
+    }
+
+    public Boolean getDeadLettered()
+    {
+        return deadLettered;
+    }
+
+    public void setDeadLettered(Boolean deadLettered)
+    {
+        this.deadLettered = deadLettered;
+    }
+
+}
@@ -3,6 +3,8 @@ package org.carlspring.strongbox.domain;
 import javax.persistence.Entity;
 
 /**
+ * The group members refer to their group by its name, see {@link ArtifactEntry#getArtifactIdGroup()}.
+ *
  * @author Przemyslaw Fusik
  */
 @Entity
@@ -0,0 +1,93 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+import java.util.Date;
+
+/**
+ * An entry of the append-only repository change log. The entries of a repository are numbered with a gapless,
+ * monotonically increasing sequence, so the consumers can ask for the changes since the last sequence they have
+ * processed instead of scanning the whole repository.
+ */
+@Entity
+public class RepositoryChange
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private Long sequence;
+
+    private String type;
+
+    private String path;
+
+    private Date timestamp;
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public Long getSequence()
+    {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence)
+    {
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the {@link RepositoryChangeTypeEnum} name
+     */
+    public String getType()
+    {
+        return type;
+    }
+
+    public void setType(String type)
+    {
+        this.type = type;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    public void setPath(String path)
+    {
+        this.path = path;
+    }
+
+    public Date getTimestamp()
+    {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp)
+    {
+        this.timestamp = timestamp;
+    }
+
+}
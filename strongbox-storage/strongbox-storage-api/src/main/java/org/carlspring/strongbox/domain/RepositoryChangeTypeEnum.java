@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.domain;
+
+/**
+ * The kinds of changes recorded in the {@link RepositoryChange} log.
+ */
+public enum RepositoryChangeTypeEnum
+{
+
+    /**
+     * A new file has been stored.
+     */
+    STORE,
+
+    /**
+     * An existing file has been overwritten.
+     */
+    UPDATE,
+
+    /**
+     * A file has been deleted.
+     */
+    DELETE
+
+}
@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+
+import javax.persistence.Entity;
+import java.util.Date;
+
+/**
+ * Number of artifacts, their total size and the time of the last change within a repository. The statistics are
+ * maintained incrementally from the store and delete paths and periodically reconciled with the
+ * {@link ArtifactEntry}s, so they can be read without scanning the repository.
+ * <p>
+ * The statistics are approximate. The deltas are written behind, after the commit of the changes they count, so the
+ * ones pending on a node which stops abruptly, or dead-lettered after failing to flush, are lost. Each node also
+ * serves the counters from its own copy, which sees the changes made on the other nodes only once it has been
+ * reconciled. The drift is bounded by the reconciliation interval
+ * ({@code strongbox.repository.statistics.reconcileIntervalMinutes}), the callers which need the exact values have
+ * to reconcile first.
+ */
+@Entity
+public class RepositoryStatistics
+        extends GenericEntity
+{
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private Long artifactCount;
+
+    private Long sizeInBytes;
+
+    private Date lastActivity;
+
+    private Date lastReconciled;
+
+    public RepositoryStatistics()
+    {
+    }
+
+    public RepositoryStatistics(String storageId,
+                                String repositoryId)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public Long getArtifactCount()
+    {
+        return artifactCount;
+    }
+
+    public void setArtifactCount(Long artifactCount)
+    {
+        this.artifactCount = artifactCount;
+    }
+
+    public Long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    public void setSizeInBytes(Long sizeInBytes)
+    {
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    public Date getLastActivity()
+    {
+        return lastActivity;
+    }
+
+    public void setLastActivity(Date lastActivity)
+    {
+        this.lastActivity = lastActivity;
+    }
+
+    public Date getLastReconciled()
+    {
+        return lastReconciled;
+    }
+
+    public void setLastReconciled(Date lastReconciled)
+    {
+        this.lastReconciled = lastReconciled;
+    }
+
+}
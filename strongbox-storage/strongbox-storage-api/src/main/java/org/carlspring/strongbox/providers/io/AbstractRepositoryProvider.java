@@ -19,7 +19,6 @@ import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.RepositoryStreamCallback;
@@ -35,6 +34,7 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
@@ -71,6 +71,9 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
     
     @Inject
     private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
     
     protected Configuration getConfiguration()
     {
@@ -214,7 +217,6 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
         
         Repository repository = repositoryPath.getRepository();
         Storage storage = repository.getStorage();
-        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
         
         repositoryPath.artifactEntry = null;
         if (artifactEntry == null)
@@ -222,6 +224,9 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
             return;
         }
         
+        long artifactsDelta = artifactEntry.getUuid() == null ? 1 : 0;
+        long previousSizeInBytes = Optional.ofNullable(artifactEntry.getSizeInBytes()).orElse(0L);
+
         CountingOutputStream cos = StreamUtils.findSource(CountingOutputStream.class, ctx.getStream());
         artifactEntry.setSizeInBytes(cos.getByteCount());
 
@@ -229,8 +234,12 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider,
         artifactEntry.getChecksums().clear();
         artifactEntry.getChecksums().putAll(los.getDigestMap());
 
-        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-        repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, artifactEntry);
+        repositoryArtifactIdGroupService.addArtifactToGroup(storage.getId(), repository.getId(), artifactEntry);
+
+        repositoryUsageCounter.update(storage.getId(),
+                                      repository.getId(),
+                                      artifactsDelta,
+                                      artifactEntry.getSizeInBytes() - previousSizeInBytes);
     }
 
     protected ArtifactEntry provideArtifactEntry(RepositoryPath repositoryPath) throws IOException
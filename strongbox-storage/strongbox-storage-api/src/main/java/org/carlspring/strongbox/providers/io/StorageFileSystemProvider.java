@@ -233,7 +233,7 @@ public abstract class StorageFileSystemProvider
                 throws IOException
             {
                 // Checksum files will be deleted during directory walking
-                doDeletePath((RepositoryPath) file, force, false);
+                doDeleteWalkedPath((RepositoryPath) file, force);
 
                 return FileVisitResult.CONTINUE;
             }
@@ -267,6 +267,16 @@ public abstract class StorageFileSystemProvider
         });
     }
 
+    /**
+     * Deletes a file found by {@link #recursiveDeleteExceptRoot(RepositoryPath, boolean)}.
+     */
+    protected void doDeleteWalkedPath(RepositoryPath repositoryPath,
+                                      boolean force)
+        throws IOException
+    {
+        doDeletePath(repositoryPath, force, false);
+    }
+
     protected void doDeletePath(RepositoryPath repositoryPath,
                                 boolean force,
                                 boolean deleteChecksum)
@@ -651,11 +661,17 @@ public abstract class StorageFileSystemProvider
     }
 
     
-    private class TempOutputStream extends ProxyOutputStream
+    /**
+     * Writes into the {@link TempRepositoryPath} and moves it to the target path on {@link #close()}, unless the
+     * stream has been aborted, in which case the temporary file is just removed and the target path stays untouched.
+     */
+    public class TempOutputStream extends ProxyOutputStream
     {
 
         private TempRepositoryPath path;
 
+        private boolean aborted;
+
         public TempOutputStream(TempRepositoryPath path,
                                 OpenOption... options)
             throws IOException
@@ -665,6 +681,14 @@ public abstract class StorageFileSystemProvider
             this.path = path;
         }
 
+        /**
+         * Marks the written content as rejected, so it will never become visible under the target path.
+         */
+        public void abort()
+        {
+            this.aborted = true;
+        }
+
         @Override
         public void close()
             throws IOException
@@ -673,6 +697,12 @@ public abstract class StorageFileSystemProvider
 
             try
             {
+                if (aborted)
+                {
+                    logger.debug("Discarding [{}]", path.getTarget());
+                    return;
+                }
+
                 moveFromTemporaryDirectory(path);
             } 
             finally
@@ -20,6 +20,8 @@ import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.ArtifactResolutionException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+import org.javatuples.Pair;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -60,6 +62,9 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -266,6 +271,53 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
         logger.debug("Deleted [{}]", path);
     }
+
+    /**
+     * The {@link ArtifactEntry}s located under the directory are deleted in bulk before the files, instead of one by
+     * one for each of the walked files.
+     */
+    @Override
+    protected void recursiveDeleteExceptRoot(RepositoryPath repositoryPath,
+                                             boolean force)
+        throws IOException
+    {
+        if (!isTrashOrTemp(repositoryPath))
+        {
+            Repository repository = repositoryPath.getRepository();
+            Pair<Long, Long> deleted = artifactEntryService.deleteByPath(repository.getStorage().getId(),
+                                                                         repository.getId(),
+                                                                         RepositoryFiles.relativizePath(repositoryPath));
+            repositoryUsageCounter.update(repository.getStorage().getId(),
+                                          repository.getId(),
+                                          -deleted.getValue0(),
+                                          -deleted.getValue1());
+        }
+
+        super.recursiveDeleteExceptRoot(repositoryPath, force);
+    }
+
+    @Override
+    protected void doDeleteWalkedPath(RepositoryPath repositoryPath,
+                                      boolean force)
+        throws IOException
+    {
+        if (isTrashOrTemp(repositoryPath))
+        {
+            super.doDeleteWalkedPath(repositoryPath, force);
+            return;
+        }
+
+        // The ArtifactEntry has been already deleted with the whole directory.
+        super.doDeletePath(repositoryPath, force);
+    }
+
+    private boolean isTrashOrTemp(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        return Boolean.TRUE.equals(RepositoryFiles.isTrash(repositoryPath))
+                || Boolean.TRUE.equals(RepositoryFiles.isTemp(repositoryPath));
+    }
+
     @Override
     protected void doDeletePath(RepositoryPath repositoryPath,
                                 boolean force)
@@ -282,6 +334,12 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         if (artifactEntry != null)
         {
             artifactEntryService.delete(artifactEntry);
+
+            Repository repository = repositoryPath.getRepository();
+            repositoryUsageCounter.update(repository.getStorage().getId(),
+                                          repository.getId(),
+                                          -1,
+                                          -Optional.ofNullable(artifactEntry.getSizeInBytes()).orElse(0L));
         }
         
         super.doDeletePath(repositoryPath, force);
@@ -3,7 +3,11 @@ package org.carlspring.strongbox.providers.repository;
 import java.io.IOException;
 import java.util.Date;
 
+import javax.inject.Inject;
+
 import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
+import org.carlspring.strongbox.data.service.impl.ShardedCounters;
+import org.carlspring.strongbox.data.service.impl.WriteBehindQueue;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -13,20 +17,35 @@ import org.springframework.stereotype.Component;
 public class ArtifactDownloadingEventHandler extends AsyncArtifactEntryHandler
 {
 
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    private ShardedCounters shardedCounters;
+
     public ArtifactDownloadingEventHandler()
     {
         super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING);
     }
 
+    /**
+     * The download statistics are written behind, so the downloads of the same artifact don't contend on its
+     * {@link ArtifactEntry} record. The download count goes to a sharded counter, as the hottest artifacts would
+     * still make the flushes of all the nodes collide on their records.
+     */
     @Override
     protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
     {
         ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
-        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + 1);
-        artifactEntry.setLastUsed(new Date());
+        if (artifactEntry == null || artifactEntry.getObjectId() == null)
+        {
+            return null;
+        }
+
+        shardedCounters.increment(artifactEntry.getObjectId(), "downloadCount", 1);
+        writeBehindQueue.set(ArtifactEntry.class, artifactEntry.getObjectId(), "lastUsed", new Date());
 
-        return artifactEntry;
+        return null;
     }
 
 }
@@ -20,12 +20,12 @@ import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.ConfigurationUtils;
-import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryQueryTemplate;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -306,7 +306,8 @@ public class GroupRepositoryProvider
         Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
         selector.select("count(distinct(artifactCoordinates))").where(p);
 
-        QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        QueryTemplate<Long, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(
+                entityManager, artifactEntryService.isCoordinateTokensCompleted());
 
         return queryTemplate.select(selector);
 
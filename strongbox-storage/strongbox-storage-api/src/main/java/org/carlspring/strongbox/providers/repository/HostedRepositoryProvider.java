@@ -14,12 +14,13 @@ import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
-import org.carlspring.strongbox.data.criteria.OQueryTemplate;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryQueryTemplate;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -95,7 +96,8 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         
         Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator).fetch();
         
-        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(entityManager);
+        QueryTemplate<List<ArtifactEntry>, ArtifactEntry> queryTemplate = new DetachQueryTemplate<>(
+                new ArtifactEntryQueryTemplate<>(entityManager, artifactEntryService.isCoordinateTokensCompleted()));
         
         RootRepositoryPath rootRepositoryPath = repositoryPathResolver.resolve(repository);
         List<ArtifactEntry> searchResult = queryTemplate.select(selector);
@@ -117,6 +119,32 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
         return result;
     }
 
+    @Override
+    public List<Path> searchPaths(String storageId,
+                                  String repositoryId,
+                                  Predicate predicate,
+                                  Paginator paginator)
+    {
+        List<Path> result = new LinkedList<Path>();
+
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        Repository repository = storage.getRepository(repositoryId);
+
+        Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).with(paginator);
+        selector.select(ArtifactEntryView.PROJECTION);
+
+        QueryTemplate<List<ArtifactEntryView>, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(
+                entityManager, artifactEntryService.isCoordinateTokensCompleted());
+
+        RootRepositoryPath rootRepositoryPath = repositoryPathResolver.resolve(repository);
+        for (ArtifactEntryView artifactEntryView : queryTemplate.select(selector))
+        {
+            result.add(rootRepositoryPath.resolve(artifactEntryView.getArtifactPath()));
+        }
+
+        return result;
+    }
+
     @Override
     public Long count(String storageId,
                       String repositoryId,
@@ -124,7 +152,8 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
     {
         Selector<ArtifactEntry> selector = createSelector(storageId, repositoryId, predicate).select("count(*)");
 
-        QueryTemplate<Long, ArtifactEntry> queryTemplate = new OQueryTemplate<>(entityManager);
+        QueryTemplate<Long, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(
+                entityManager, artifactEntryService.isCoordinateTokensCompleted());
 
         return queryTemplate.select(selector);
     }
@@ -147,6 +176,19 @@ public class HostedRepositoryProvider extends AbstractRepositoryProvider
 
     private boolean artifactNotExists(RepositoryPath repositoryPath) throws IOException
     {
+        // Most lookups of the artifacts which the repository doesn't have (the group members, the proxy cache) are
+        // answered by the existence filter, without loading the entry.
+        if (RepositoryFiles.isArtifact(repositoryPath))
+        {
+            Repository repository = repositoryPath.getRepository();
+            if (!artifactEntryService.artifactExists(repository.getStorage().getId(),
+                                                     repository.getId(),
+                                                     RepositoryFiles.relativizePath(repositoryPath)))
+            {
+                return true;
+            }
+        }
+
         return RepositoryFiles.artifactDoesNotExist(repositoryPath);
     }
 
@@ -5,6 +5,7 @@ import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.io.RepositoryStreamWriteContext;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -12,6 +13,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryQuotaEvictor;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -49,6 +51,9 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private ProxyRepositoryQuotaEvictor proxyRepositoryQuotaEvictor;
+
     @Override
     public String getAlias()
     {
@@ -135,6 +140,21 @@ public class ProxyRepositoryProvider
         return hostedRepositoryProvider.search(storageId, repositoryId, predicate, paginator);
     }
 
+    @Override
+    public List<Path> searchPaths(String storageId,
+                                  String repositoryId,
+                                  Predicate predicate,
+                                  Paginator paginator)
+    {
+        RemoteRepositorySearchEvent event = new RemoteRepositorySearchEvent(storageId,
+                                                                            repositoryId,
+                                                                            predicate,
+                                                                            paginator);
+        eventPublisher.publishEvent(event);
+
+        return hostedRepositoryProvider.searchPaths(storageId, repositoryId, predicate, paginator);
+    }
+
     @Override
     public Long count(String storageId,
                       String repositoryId,
@@ -143,6 +163,16 @@ public class ProxyRepositoryProvider
         return hostedRepositoryProvider.count(storageId, repositoryId, predicate);
     }
 
+    @Override
+    public void commit(RepositoryStreamWriteContext ctx)
+        throws IOException
+    {
+        super.commit(ctx);
+
+        RepositoryPath repositoryPath = (RepositoryPath) ctx.getPath();
+        proxyRepositoryQuotaEvictor.requestEviction(repositoryPath.getRepository());
+    }
+
     @Override
     protected ArtifactEntry provideArtifactEntry(RepositoryPath repositoryPath) throws IOException
     {
@@ -1,122 +1,192 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
 import org.carlspring.strongbox.configuration.ConfigurationManager;
-import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
-import org.carlspring.strongbox.providers.io.RepositoryPath;
-import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
-import org.carlspring.strongbox.services.ArtifactEntryService;
-import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactsRemover.BatchResult;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.services.support.CheckpointStore;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
-import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
-import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Date;
+import java.util.Properties;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Removes expired artifacts from the local storage of proxy repositories.
+ * <p>
+ * The expired {@link ArtifactEntry}s are walked repository by repository with keyset pagination (by {@code lastUsed}
+ * and record id), so that only one batch is held in memory at a time. Each batch is removed within its own short
+ * transaction, the throughput can be limited with an I/O budget, and the position reached is checkpointed after
+ * every batch, so an interrupted run continues where it stopped.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
 public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
 {
 
+    static final String CHECKPOINT_NAME = "cleanup-expired-artifacts-from-proxy-repositories";
+
     private final Logger logger = LoggerFactory.getLogger(LocalStorageProxyRepositoryExpiredArtifactsCleaner.class);
 
-    @Inject
-    private ConfigurationManager configurationManager;
+    @Value("${strongbox.cleanup.proxy.batchSize:500}")
+    private int defaultBatchSize;
 
-    @Inject
-    private RepositoryPathResolver repositoryPathResolver;
+    @Value("${strongbox.cleanup.proxy.maxBytesPerSecond:0}")
+    private long defaultMaxBytesPerSecond;
 
     @Inject
-    private ArtifactEntryService artifactEntryService;
+    private ConfigurationManager configurationManager;
 
     @Inject
-    private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
+    private ProxyRepositoryArtifactsRemover proxyRepositoryArtifactsRemover;
 
     @Inject
-    private ArtifactManagementService artifactManagementService;
+    private CheckpointStore checkpointStore;
 
-    @Transactional(rollbackFor = Exception.class)
     public void cleanup(final Integer lastAccessedTimeInDays,
                         final Long minSizeInBytes)
             throws IOException
     {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
+        cleanup(lastAccessedTimeInDays, minSizeInBytes, defaultBatchSize, defaultMaxBytesPerSecond);
+    }
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+    /**
+     * @param batchSize
+     *            number of artifacts removed within one transaction
+     * @param maxBytesPerSecond
+     *            I/O budget of the cleanup, values less than or equal to zero mean no limit
+     */
+    public synchronized void cleanup(final Integer lastAccessedTimeInDays,
+                                     final Long minSizeInBytes,
+                                     final int batchSize,
+                                     final long maxBytesPerSecond)
+            throws IOException
+    {
+        final Properties checkpoint = checkpointStore.load(CHECKPOINT_NAME);
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+        for (final Storage storage : configurationManager.getConfiguration().getStorages().values())
         {
-            return;
+            for (final Repository repository : storage.getRepositories().values())
+            {
+                if (!proxyRepositoryArtifactsRemover.isAccessibleProxyRepository(repository))
+                {
+                    continue;
+                }
+
+                final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                           .withStorageId(storage.getId())
+                                                                           .withRepositoryId(repository.getId())
+                                                                           .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                           .withMinSizeInBytes(minSizeInBytes)
+                                                                           .build();
+
+                // The position is only meaningful for the same criteria, a run with other ones starts over.
+                final String checkpointKey = String.format("%s:%s:%s:%s", storage.getId(), repository.getId(),
+                                                           lastAccessedTimeInDays, minSizeInBytes);
+
+                if (!cleanup(repository, searchCriteria, checkpointKey, batchSize, maxBytesPerSecond, checkpoint))
+                {
+                    logger.info("Cleanup of expired artifacts was interrupted, it will be resumed on the next run.");
+                    return;
+                }
+            }
         }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
+        checkpointStore.remove(CHECKPOINT_NAME);
     }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
+    private boolean cleanup(final Repository repository,
+                            final ArtifactEntrySearchCriteria searchCriteria,
+                            final String checkpointKey,
+                            final int batchSize,
+                            final long maxBytesPerSecond,
+                            final Properties checkpoint)
+            throws IOException
     {
-        if (CollectionUtils.isEmpty(artifactEntries))
+        if (Boolean.parseBoolean(checkpoint.getProperty(checkpointKey + ".completed")))
         {
-            return;
+            return true;
         }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+
+        final String lastUsedText = checkpoint.getProperty(checkpointKey + ".lastUsed");
+        Date lastUsedAfter = lastUsedText == null ? null : new Date(Long.parseLong(lastUsedText));
+        String objectIdAfter = checkpoint.getProperty(checkpointKey + ".objectId");
+
+        BatchResult batchResult;
+        do
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
+            final long batchStart = System.currentTimeMillis();
+
+            batchResult = proxyRepositoryArtifactsRemover.removeBatch(repository, searchCriteria, lastUsedAfter,
+                                                                      objectIdAfter, batchSize);
+            if (batchResult.getSize() == 0)
             {
-                it.remove();
-                continue;
+                break;
             }
-            final RemoteRepository remoteRepository = repository.getRemoteRepository();
-            if (remoteRepository == null)
+            if (!batchResult.getFailedPaths().isEmpty())
             {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
+                logger.warn("Failed to delete [{}] files of the removed artifacts from [{}:{}]: {}",
+                            batchResult.getFailedPaths().size(), repository.getStorage().getId(),
+                            repository.getId(), batchResult.getFailedPaths());
             }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+
+            lastUsedAfter = batchResult.getLastUsed();
+            objectIdAfter = batchResult.getObjectId();
+
+            checkpoint.setProperty(checkpointKey + ".lastUsed", String.valueOf(lastUsedAfter.getTime()));
+            checkpoint.setProperty(checkpointKey + ".objectId", objectIdAfter);
+            checkpointStore.save(CHECKPOINT_NAME, checkpoint);
+
+            if (!throttle(batchResult.getBytes(), maxBytesPerSecond, System.currentTimeMillis() - batchStart))
             {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
+                return false;
             }
         }
+        while (batchResult.getSize() == batchSize);
+
+        checkpoint.remove(checkpointKey + ".lastUsed");
+        checkpoint.remove(checkpointKey + ".objectId");
+        checkpoint.setProperty(checkpointKey + ".completed", Boolean.TRUE.toString());
+        checkpointStore.save(CHECKPOINT_NAME, checkpoint);
 
+        return true;
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
-            throws IOException
+    private boolean throttle(final long bytes,
+                             final long maxBytesPerSecond,
+                             final long elapsedMillis)
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        if (maxBytesPerSecond <= 0)
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            return !Thread.currentThread().isInterrupted();
+        }
 
-            artifactManagementService.delete(repositoryPath, true);
+        long expectedMillis = bytes * 1000 / maxBytesPerSecond;
+        if (expectedMillis <= elapsedMillis)
+        {
+            return !Thread.currentThread().isInterrupted();
         }
+
+        try
+        {
+            Thread.sleep(expectedMillis - elapsedMillis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return true;
     }
 
 }
@@ -3,17 +3,26 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
 import javax.inject.Inject;
 
+import org.apache.commons.io.IOUtils;
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
@@ -70,9 +79,16 @@ public class ProxyRepositoryArtifactResolver
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try
         {
-            return doFetch(repositoryPath, is);
+            Map<String, String> expectedChecksums = remoteRepository.isChecksumValidation() ?
+                                                    fetchRemoteChecksums(client, repositoryPath) :
+                                                    Collections.emptyMap();
+
+            try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+            {
+                return doFetch(repositoryPath, is, expectedChecksums);
+            }
         }
         finally
         {
@@ -80,8 +96,56 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    /**
+     * Fetches the remote checksum of the artifact before the artifact itself, so that the digest calculated while the
+     * artifact is streamed into the storage can be verified before the file becomes visible.
+     *
+     * @return algorithm -&gt; checksum, empty if the remote doesn't provide checksums for this path
+     */
+    protected Map<String, String> fetchRemoteChecksums(RestArtifactResolver client,
+                                                       RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath)) ||
+            Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+        {
+            return Collections.emptyMap();
+        }
+
+        // One checksum is enough to verify the content, so try the stronger algorithms first.
+        List<String> digestAlgorithms = new ArrayList<>(repositoryPath.getFileSystem().getDigestAlgorithmSet());
+        digestAlgorithms.sort((a1, a2) -> Boolean.compare("MD5".equalsIgnoreCase(a1), "MD5".equalsIgnoreCase(a2)));
+
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) repositoryPath.getFileSystem().provider();
+        RemoteArtifactStreamFetcher fetcher = new RemoteArtifactStreamFetcher(client);
+        for (String digestAlgorithm : digestAlgorithms)
+        {
+            RepositoryPath checksumPath = provider.getChecksumPath(repositoryPath, digestAlgorithm);
+            try (InputStream is = fetcher.getInputStream(0, checksumPath))
+            {
+                // Checksum files may contain the file name after the checksum itself.
+                String[] tokens = IOUtils.toString(is, StandardCharsets.UTF_8).trim().split("\\s+");
+                if (!tokens[0].isEmpty())
+                {
+                    return Collections.singletonMap(digestAlgorithm, tokens[0].toLowerCase());
+                }
+            }
+            catch (ArtifactNotFoundException e)
+            {
+                logger.debug("Remote checksum [{}] not found for [{}].", digestAlgorithm, repositoryPath);
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to fetch remote checksum [{}] for [{}].", digestAlgorithm, repositoryPath, e);
+            }
+        }
+
+        return Collections.emptyMap();
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
-                                   InputStream is)
+                                   InputStream is,
+                                   Map<String, String> expectedChecksums)
         throws IOException
     {
         //We need this to force initialize lazy connection to remote repository.
@@ -89,7 +153,7 @@ public class ProxyRepositoryArtifactResolver
         logger.debug("Got [{}] available bytes for [{}].", available, repositoryPath);
         
         
-        RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath);
+        RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath, expectedChecksums);
         
         RepositoryFileAttributes artifactFileAttributes = Files.readAttributes(repositoryPath,
                                                                                RepositoryFileAttributes.class);
@@ -102,15 +166,14 @@ public class ProxyRepositoryArtifactResolver
     }
 
     protected RepositoryPath onSuccessfulProxyRepositoryResponse(InputStream is,
-                                                                 RepositoryPath repositoryPath)
+                                                                 RepositoryPath repositoryPath,
+                                                                 Map<String, String> expectedChecksums)
             throws IOException
     {
-         artifactManagementService.store(repositoryPath, is);
-         
-        // TODO: Add a policy for validating the checksums of downloaded artifacts
-        // TODO: Validate the local checksum against the remote's checksums
-        // sbespalov: we have checksum validation within ArtifactManagementService.store() method, but it's not strict for now (see SB-949)
-        
+        // The content is verified against the remote checksums while it's being stored, see the remote repository
+        // checksum policy for what happens on mismatch.
+        artifactManagementService.store(repositoryPath, is, expectedChecksums);
+
         // Serve the downloaded artifact
         return repositoryPath;
     }
@@ -0,0 +1,219 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessService;
+import org.carlspring.strongbox.storage.validation.resource.ArtifactOperationsValidator;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes locally cached artifacts of proxy repositories batch by batch, each batch within its own short transaction.
+ * <p>
+ * The {@link ArtifactEntry}s of a batch are removed with a single bulk operation, and once that is committed the files
+ * (together with their checksums and metadata) are deleted. The files which fail to be deleted are reported within the
+ * {@link BatchResult}.
+ */
+@Component
+public class ProxyRepositoryArtifactsRemover
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryArtifactsRemover.class);
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RemoteRepositoryAlivenessService remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private ArtifactOperationsValidator artifactOperationsValidator;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Removes the next batch of artifacts matching the search criteria, ordered by {@code lastUsed} and record id.
+     *
+     * @see ArtifactEntryService#findMatchingViews(ArtifactEntrySearchCriteria, Date, String, int)
+     */
+    public BatchResult removeBatch(final Repository repository,
+                                   final ArtifactEntrySearchCriteria searchCriteria,
+                                   final Date lastUsedAfter,
+                                   final String objectIdAfter,
+                                   final int batchSize)
+            throws IOException
+    {
+        BatchResult result = new TransactionTemplate(transactionManager).execute(t -> {
+            // Only the paths, sizes and positions are needed, so the entries aren't loaded as a whole.
+            List<ArtifactEntryView> artifactEntries = artifactEntryService.findMatchingViews(searchCriteria,
+                                                                                             lastUsedAfter,
+                                                                                             objectIdAfter,
+                                                                                             batchSize);
+            BatchResult batchResult = new BatchResult();
+            batchResult.size = artifactEntries.size();
+            if (artifactEntries.isEmpty())
+            {
+                return batchResult;
+            }
+
+            ArtifactEntryView lastArtifactEntry = artifactEntries.get(artifactEntries.size() - 1);
+            batchResult.lastUsed = lastArtifactEntry.getLastUsed();
+            batchResult.objectId = lastArtifactEntry.getObjectId();
+
+            List<String> objectIds = new ArrayList<>(artifactEntries.size());
+            for (ArtifactEntryView artifactEntry : artifactEntries)
+            {
+                batchResult.artifactPaths.add(artifactEntry.getArtifactPath());
+                objectIds.add(artifactEntry.getObjectId());
+                batchResult.bytes += artifactEntry.getSizeInBytes() == null ? 0 : artifactEntry.getSizeInBytes();
+            }
+
+            logger.debug("Removing [{}] artifacts from [{}:{}]",
+                         objectIds.size(), repository.getStorage().getId(), repository.getId());
+
+            artifactEntryService.deleteByIds(objectIds);
+
+            return batchResult;
+        });
+
+        if (result.size == 0)
+        {
+            return result;
+        }
+
+        // The files are deleted only once the removal of their entries is committed, so a failure can only leave an
+        // unreferenced file behind (which is recorded), never an entry without its file.
+        deleteFromStorage(repository, result);
+
+        repositoryUsageCounter.update(repository.getStorage().getId(), repository.getId(), -result.size,
+                                      -result.bytes);
+
+        return result;
+    }
+
+    private void deleteFromStorage(final Repository repository,
+                                   final BatchResult result)
+    {
+        for (final String artifactPath : result.artifactPaths)
+        {
+            try
+            {
+                RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, artifactPath);
+
+                RepositoryFiles.delete(repositoryPath, true);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.warn("Failed to delete [{}] from [{}:{}], its entry is already removed.",
+                            artifactPath, repository.getStorage().getId(), repository.getId(), e);
+
+                result.failedPaths.add(artifactPath);
+            }
+        }
+    }
+
+    /**
+     * Artifacts are only removed from proxy repositories which allow deletion and whose remote repository is alive,
+     * so that they can be fetched again.
+     */
+    public boolean isAccessibleProxyRepository(final Repository repository)
+    {
+        if (!repository.isProxyRepository())
+        {
+            return false;
+        }
+        final RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (remoteRepository == null)
+        {
+            logger.warn("Repository {} is not associated with remote repository", repository.getId());
+            return false;
+        }
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.warn("Remote repository {} is down. Artifacts won't be removed.", remoteRepository.getUrl());
+            return false;
+        }
+        try
+        {
+            artifactOperationsValidator.checkAllowsDeletion(repository);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Repository {} doesn't allow deletion. Artifacts won't be removed.", repository.getId());
+            return false;
+        }
+
+        return true;
+    }
+
+    public static class BatchResult
+    {
+
+        private int size;
+
+        private long bytes;
+
+        private Date lastUsed;
+
+        private String objectId;
+
+        private final List<String> artifactPaths = new ArrayList<>();
+
+        private final List<String> failedPaths = new ArrayList<>();
+
+        public int getSize()
+        {
+            return size;
+        }
+
+        public long getBytes()
+        {
+            return bytes;
+        }
+
+        public Date getLastUsed()
+        {
+            return lastUsed;
+        }
+
+        public String getObjectId()
+        {
+            return objectId;
+        }
+
+        /**
+         * @return the paths whose entries were removed but whose files could not be deleted
+         */
+        public List<String> getFailedPaths()
+        {
+            return failedPaths;
+        }
+
+    }
+
+}
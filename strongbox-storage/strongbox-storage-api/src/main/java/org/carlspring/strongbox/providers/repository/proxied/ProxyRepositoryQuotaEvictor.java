@@ -0,0 +1,192 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactsRemover.BatchResult;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter.Usage;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+
+/**
+ * Keeps the local storage of proxy repositories within the quota configured with
+ * {@link RemoteRepository#getLocalStorageMaxSizeInBytes()} and {@link RemoteRepository#getLocalStorageMaxArtifacts()}.
+ * <p>
+ * When the usage of a repository (maintained by {@link RepositoryUsageCounter}) exceeds the high watermark of its
+ * quota, the least recently used artifacts are evicted in small batches until the usage drops below the low
+ * watermark. The eviction is requested on every stored artifact and additionally checked on a fixed interval.
+ */
+@Component
+public class ProxyRepositoryQuotaEvictor
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryQuotaEvictor.class);
+
+    @Value("${strongbox.proxy.quota.highWatermark:0.95}")
+    private double highWatermark;
+
+    @Value("${strongbox.proxy.quota.lowWatermark:0.85}")
+    private double lowWatermark;
+
+    @Value("${strongbox.proxy.quota.batchSize:100}")
+    private int batchSize;
+
+    @Value("${strongbox.proxy.quota.checkIntervalSeconds:60}")
+    private int checkIntervalSeconds;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private ProxyRepositoryArtifactsRemover proxyRepositoryArtifactsRemover;
+
+    private final Set<String> scheduledRepositories = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::checkAllRepositories,
+                                        checkIntervalSeconds,
+                                        checkIntervalSeconds,
+                                        TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules the eviction if the repository exceeds the high watermark of its quota.
+     */
+    public void requestEviction(Repository repository)
+    {
+        if (!hasQuota(repository) || !exceeds(repository, highWatermark))
+        {
+            return;
+        }
+
+        String key = repository.getStorageIdAndRepositoryId();
+        if (!scheduledRepositories.add(key))
+        {
+            return;
+        }
+
+        executor.execute(() -> {
+            try
+            {
+                evict(repository);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to evict artifacts from [{}]", key, e);
+            }
+            finally
+            {
+                scheduledRepositories.remove(key);
+            }
+        });
+    }
+
+    private void checkAllRepositories()
+    {
+        try
+        {
+            configurationManager.getConfiguration()
+                                .getStorages()
+                                .values()
+                                .stream()
+                                .flatMap(s -> s.getRepositories().values().stream())
+                                .forEach(this::requestEviction);
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to check proxy repositories quota.", e);
+        }
+    }
+
+    private void evict(Repository repository)
+            throws IOException
+    {
+        if (!proxyRepositoryArtifactsRemover.isAccessibleProxyRepository(repository))
+        {
+            return;
+        }
+
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        logger.info("Repository [{}:{}] exceeds its quota, evicting least recently used artifacts.",
+                    storageId, repositoryId);
+
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(storageId)
+                                                                                    .withRepositoryId(repositoryId)
+                                                                                    .build();
+
+        long evicted = 0;
+        while (exceeds(repository, lowWatermark) && !Thread.currentThread().isInterrupted())
+        {
+            // Evicted entries are gone, so every batch starts from the least recently used remaining one.
+            BatchResult batchResult = proxyRepositoryArtifactsRemover.removeBatch(repository, searchCriteria, null,
+                                                                                  null, batchSize);
+            if (batchResult.getSize() == 0)
+            {
+                break;
+            }
+
+            evicted += batchResult.getSize();
+        }
+
+        logger.info("Evicted [{}] artifacts from [{}:{}].", evicted, storageId, repositoryId);
+    }
+
+    private boolean hasQuota(Repository repository)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+
+        return repository.isProxyRepository() && remoteRepository != null &&
+               (remoteRepository.getLocalStorageMaxSizeInBytes() != null ||
+                remoteRepository.getLocalStorageMaxArtifacts() != null);
+    }
+
+    private boolean exceeds(Repository repository,
+                            double watermark)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+        Usage usage = repositoryUsageCounter.getUsage(repository.getStorage().getId(), repository.getId());
+
+        Long maxSizeInBytes = remoteRepository.getLocalStorageMaxSizeInBytes();
+        if (maxSizeInBytes != null && usage.getSizeInBytes() > maxSizeInBytes * watermark)
+        {
+            return true;
+        }
+
+        Long maxArtifacts = remoteRepository.getLocalStorageMaxArtifacts();
+        return maxArtifacts != null && usage.getArtifacts() > maxArtifacts * watermark;
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.providers.search;
 
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
 import org.carlspring.strongbox.storage.search.SearchResult;
@@ -7,16 +8,15 @@ import org.carlspring.strongbox.storage.search.SearchResults;
 
 import javax.inject.Inject;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author carlspring
@@ -32,6 +32,8 @@ public class OrientDbSearchProvider
 
     public static final String ALIAS = "OrientDB";
 
+    private static final int FETCH_SIZE = 500;
+
     @Inject
     private ArtifactEntryService artifactEntryService;
 
@@ -42,6 +44,7 @@ public class OrientDbSearchProvider
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SearchResults search(SearchRequest searchRequest)
             throws SearchException
     {
@@ -61,15 +64,12 @@ public class OrientDbSearchProvider
             }
             while (matcher.find());
 
-            List<SearchResult> results = new LinkedList<>();
-            results.addAll(artifactEntryService.findArtifactList(searchRequest.getStorageId(),
-                                                                 searchRequest.getRepositoryId(),
-                                                                 coordinates, false)
-                                               .stream()
-                                               .map(this::createSearchResult)
-                                               .collect(Collectors.toList()));
-
-            searchResults.getResults().addAll(results);
+            // Only one page of the entries is loaded at a time, the results are built as they are fetched.
+            try (Stream<ArtifactEntry> artifactEntries = artifactEntryService.streamArtifactList(
+                    searchRequest.getStorageId(), searchRequest.getRepositoryId(), coordinates, false, FETCH_SIZE))
+            {
+                artifactEntries.map(this::createSearchResult).forEach(searchResults.getResults()::add);
+            }
 
             return searchResults;
         }
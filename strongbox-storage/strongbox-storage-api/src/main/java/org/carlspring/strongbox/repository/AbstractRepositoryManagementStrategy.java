@@ -5,8 +5,12 @@ import org.carlspring.strongbox.providers.io.LayoutFileSystem;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ArtifactExistenceFilter;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryChangeLog;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -30,6 +34,18 @@ public abstract class AbstractRepositoryManagementStrategy
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private RepositoryChangeLog repositoryChangeLog;
+
+    @Inject
+    private ArtifactExistenceFilter artifactExistenceFilter;
+
     @Override
     public void createRepository(String storageId,
                                  String repositoryId)
@@ -39,6 +55,10 @@ public abstract class AbstractRepositoryManagementStrategy
         Repository repository = storage.getRepository(repositoryId);
 
         createRepositoryStructure(repository);
+        if (!repository.isGroupRepository())
+        {
+            artifactExistenceFilter.register(storageId, repositoryId);
+        }
         createRepositoryInternal(storage, getRepository(storageId, repositoryId));
     }
 
@@ -82,7 +102,15 @@ public abstract class AbstractRepositoryManagementStrategy
                                  String repositoryId)
             throws IOException
     {
+        // The artifact entries are deleted in bulk together with the directory structure.
         removeDirectoryStructure(storageId, repositoryId);
+
+        long groups = repositoryArtifactIdGroupService.deleteAll(storageId, repositoryId);
+        repositoryUsageCounter.reset(storageId, repositoryId);
+        repositoryChangeLog.reset(storageId, repositoryId);
+        artifactExistenceFilter.reset(storageId, repositoryId);
+
+        logger.debug("Removed [{}] artifact groups of repository [{}:{}].", groups, storageId, repositoryId);
     }
 
     @Override
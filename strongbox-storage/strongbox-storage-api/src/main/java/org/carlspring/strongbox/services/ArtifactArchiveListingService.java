@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Serves the archive listings of the artifacts from their {@link org.carlspring.strongbox.domain.ArtifactEntry}s,
+ * so that the archives are scanned only once.
+ */
+public interface ArtifactArchiveListingService
+{
+
+    /**
+     * Returns the persisted archive listing of the artifact. The listing is normally calculated when the artifact is
+     * stored; if the artifact has none yet, the archive is listed and the listing is persisted for the next calls.
+     *
+     * @return the names of the archive entries, or an empty set if the artifact is not an archive
+     */
+    Set<String> getArchiveFilenames(RepositoryPath repositoryPath)
+            throws IOException;
+
+}
@@ -0,0 +1,815 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
+import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.services.support.CheckpointStore;
+import org.carlspring.strongbox.services.support.ReconciliationResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.google.common.io.ByteStreams;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+
+/**
+ * Reconciles the {@link ArtifactEntry}s of a repository with the artifact files actually stored under its base
+ * directory, for example after the database has been lost or restored from an older backup.
+ * <p>
+ * The repository is walked in parallel. The size, the modification time and the checksum files of every artifact are
+ * compared with its entry, the missing entries are created and the stale ones updated, in batched transactions. Then
+ * the entries are walked with keyset pagination and the orphaned ones, whose artifact files don't exist, are removed,
+ * except for the placeholders of the proxy repositories.
+ * The top level directories which have been reconciled, and the position reached by the orphans walk, are
+ * checkpointed, so an interrupted run continues where it stopped.
+ * <p>
+ * The checksums are calculated only for the new and stale entries, unless the artifact contents are to be verified as
+ * well, in which case every artifact file is read.
+ */
+@Component
+public class ArtifactEntryReconciliationService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryReconciliationService.class);
+
+    private static final String CHECKPOINT_PREFIX = "reconcile-artifact-entries-";
+
+    private static final String CHECKPOINT_DIRECTORY = "directory.";
+
+    private static final String CHECKPOINT_ORPHANS_UUID = "orphans.uuid";
+
+    private static final String CHECKPOINT_ORPHANS_OBJECT_ID = "orphans.objectId";
+
+    private static final String CHECKPOINT_ORPHANS_COMPLETED = "orphans.completed";
+
+    private static final int MAX_RETRY = 10;
+
+    @Value("${strongbox.reconcile.parallelism:0}")
+    private int parallelism;
+
+    @Value("${strongbox.orientdb.pool.background:16}")
+    private int backgroundSessions;
+
+    @Value("${strongbox.reconcile.batchSize:500}")
+    private int batchSize;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private CheckpointStore checkpointStore;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private final Set<String> runningReconciliations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param verifyChecksums
+     *            whether the checksums of every artifact file should be calculated and compared with its entry, instead
+     *            of comparing the checksum files only
+     */
+    public ReconciliationResult reconcile(String storageId,
+                                          String repositoryId,
+                                          boolean verifyChecksums)
+            throws IOException
+    {
+        Repository repository = configurationManager.getRepository(storageId, repositoryId);
+        Assert.notNull(repository, String.format("Repository [%s:%s] not found.", storageId, repositoryId));
+        Assert.isTrue(!repository.isGroupRepository(),
+                      String.format("Group repository [%s:%s] has no artifacts of its own.", storageId, repositoryId));
+
+        String checkpointName = CHECKPOINT_PREFIX + storageId + "-" + repositoryId;
+        if (!runningReconciliations.add(checkpointName))
+        {
+            throw new IllegalStateException(String.format("Repository [%s:%s] is already being reconciled.",
+                                                          storageId, repositoryId));
+        }
+
+        try
+        {
+            return reconcile(repository, checkpointName, verifyChecksums);
+        }
+        finally
+        {
+            runningReconciliations.remove(checkpointName);
+        }
+    }
+
+    private ReconciliationResult reconcile(Repository repository,
+                                           String checkpointName,
+                                           boolean verifyChecksums)
+            throws IOException
+    {
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        logger.info("Reconciling the artifact entries of [{}:{}].", storageId, repositoryId);
+
+        long start = System.currentTimeMillis();
+
+        ReconcileContext ctx = new ReconcileContext(repository,
+                                                    checkpointName,
+                                                    checkpointStore.load(checkpointName),
+                                                    verifyChecksums);
+
+        reconcileFiles(ctx);
+        removeOrphans(ctx);
+
+        checkpointStore.remove(checkpointName);
+
+        // The usage counters are recalculated at once, instead of applying the deltas of every batch.
+        repositoryUsageCounter.reconcile(storageId, repositoryId);
+
+        ReconciliationResult result = new ReconciliationResult(ctx.files.sum(),
+                                                               ctx.created.sum(),
+                                                               ctx.updated.sum(),
+                                                               ctx.removed.sum(),
+                                                               ctx.failed.sum(),
+                                                               System.currentTimeMillis() - start);
+
+        logger.info("Reconciled the artifact entries of [{}:{}]: [{}].", storageId, repositoryId, result);
+
+        return result;
+    }
+
+    private void reconcileFiles(ReconcileContext ctx)
+            throws IOException
+    {
+        RepositoryPath root = repositoryPathResolver.resolve(ctx.repository);
+        if (!Files.exists(root))
+        {
+            return;
+        }
+
+        List<ReconcileDirectoryTask> tasks = new ArrayList<>();
+        ReconcileUnit rootUnit = new ReconcileUnit(ctx, null);
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(root))
+        {
+            for (Path path : directoryStream)
+            {
+                String name = path.getFileName().toString();
+                if (isHidden(name))
+                {
+                    continue;
+                }
+
+                if (!Files.isDirectory(path))
+                {
+                    // There are only a few files in the repository root, they aren't checkpointed.
+                    rootUnit.check((RepositoryPath) path);
+                }
+                else if (!ctx.checkpoint.containsKey(CHECKPOINT_DIRECTORY + name))
+                {
+                    tasks.add(new ReconcileDirectoryTask(new ReconcileUnit(ctx, name), (RepositoryPath) path, true));
+                }
+            }
+        }
+        rootUnit.flush();
+
+        // Every worker holds a database session while storing its batch.
+        int poolSize = DatabaseSessionPool.calculateParallelism(parallelism, backgroundSessions);
+
+        ForkJoinPool pool = new ForkJoinPool(poolSize);
+        try
+        {
+            tasks.forEach(pool::execute);
+            tasks.forEach(ForkJoinTask::join);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private void removeOrphans(ReconcileContext ctx)
+            throws IOException
+    {
+        Properties checkpoint = ctx.checkpoint;
+        if (Boolean.parseBoolean(checkpoint.getProperty(CHECKPOINT_ORPHANS_COMPLETED)))
+        {
+            return;
+        }
+
+        String storageId = ctx.repository.getStorage().getId();
+        String repositoryId = ctx.repository.getId();
+
+        ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(storageId)
+                                                                                    .withRepositoryId(repositoryId)
+                                                                                    .build();
+
+        String uuidAfter = checkpoint.getProperty(CHECKPOINT_ORPHANS_UUID);
+        String objectIdAfter = checkpoint.getProperty(CHECKPOINT_ORPHANS_OBJECT_ID);
+        ContinuationToken after = uuidAfter == null || objectIdAfter == null ? null :
+                                  new ContinuationToken(Collections.singletonList(uuidAfter), objectIdAfter);
+
+        List<ArtifactEntryView> batch;
+        do
+        {
+            // Only the paths are needed, so the entries aren't loaded as a whole.
+            batch = artifactEntryService.findMatchingViews(searchCriteria,
+                                                           new PagingCriteria(after, batchSize, Sort.byUuid()));
+            if (batch.isEmpty())
+            {
+                break;
+            }
+
+            // The placeholders of the proxy repositories, which are known from the remote feeds but have not been
+            // downloaded yet, have no artifact files.
+            List<ArtifactEntryView> orphans =
+                    batch.stream()
+                         .filter(e -> !Boolean.FALSE.equals(e.getIsCached()))
+                         .filter(e -> !Files.exists(repositoryPathResolver.resolve(ctx.repository,
+                                                                                   e.getArtifactPath())))
+                         .collect(Collectors.toList());
+            if (!orphans.isEmpty())
+            {
+                removeOrphans(ctx, orphans);
+            }
+
+            ArtifactEntryView lastArtifactEntry = batch.get(batch.size() - 1);
+            after = new ContinuationToken(Collections.singletonList(lastArtifactEntry.getUuid()),
+                                          lastArtifactEntry.getObjectId());
+
+            checkpoint.setProperty(CHECKPOINT_ORPHANS_UUID, lastArtifactEntry.getUuid());
+            checkpoint.setProperty(CHECKPOINT_ORPHANS_OBJECT_ID, lastArtifactEntry.getObjectId());
+            checkpointStore.save(ctx.checkpointName, checkpoint);
+        }
+        while (batch.size() == batchSize);
+
+        checkpoint.remove(CHECKPOINT_ORPHANS_UUID);
+        checkpoint.remove(CHECKPOINT_ORPHANS_OBJECT_ID);
+        checkpoint.setProperty(CHECKPOINT_ORPHANS_COMPLETED, Boolean.TRUE.toString());
+        checkpointStore.save(ctx.checkpointName, checkpoint);
+    }
+
+    /**
+     * The cached entries of a proxy repository are turned back into placeholders, as the artifacts can still be
+     * downloaded from the remote repository, while the other orphans are deleted. The artifact groups of the deleted
+     * entries are updated within the same transaction.
+     */
+    private void removeOrphans(ReconcileContext ctx,
+                               List<ArtifactEntryView> orphans)
+    {
+        String storageId = ctx.repository.getStorage().getId();
+        String repositoryId = ctx.repository.getId();
+        boolean proxy = ctx.repository.isProxyRepository();
+
+        new TransactionTemplate(transactionManager).execute(t -> {
+            List<String> deletedIds = new ArrayList<>();
+            Set<String> artifactIds = new LinkedHashSet<>();
+            for (ArtifactEntryView orphan : orphans)
+            {
+                if (proxy && Boolean.TRUE.equals(orphan.getIsCached()))
+                {
+                    artifactEntryService.findOne(orphan.getObjectId()).ifPresent(e -> {
+                        ((RemoteArtifactEntry) e).setIsCached(false);
+                        artifactEntryService.save(e);
+                    });
+
+                    continue;
+                }
+
+                deletedIds.add(orphan.getObjectId());
+                if (orphan.getArtifactIdGroup() != null)
+                {
+                    artifactIds.add(orphan.getArtifactIdGroup());
+                }
+            }
+
+            if (!deletedIds.isEmpty())
+            {
+                ctx.removed.add(artifactEntryService.deleteByIds(deletedIds));
+                repositoryArtifactIdGroupService.reconcileGroups(storageId, repositoryId, artifactIds);
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * The trash, temporary and index directories are hidden.
+     */
+    private static boolean isHidden(String name)
+    {
+        return name.startsWith(".");
+    }
+
+    private class ReconcileDirectoryTask
+            extends RecursiveAction
+    {
+
+        private final ReconcileUnit unit;
+
+        private final RepositoryPath directory;
+
+        private final boolean topLevel;
+
+        ReconcileDirectoryTask(ReconcileUnit unit,
+                               RepositoryPath directory,
+                               boolean topLevel)
+        {
+            this.unit = unit;
+            this.directory = directory;
+            this.topLevel = topLevel;
+        }
+
+        @Override
+        protected void compute()
+        {
+            List<ReconcileDirectoryTask> subtasks = new ArrayList<>();
+            List<RepositoryPath> files = new ArrayList<>();
+
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory))
+            {
+                for (Path path : directoryStream)
+                {
+                    if (isHidden(path.getFileName().toString()))
+                    {
+                        continue;
+                    }
+
+                    if (Files.isDirectory(path))
+                    {
+                        subtasks.add(new ReconcileDirectoryTask(unit, (RepositoryPath) path, false));
+                    }
+                    else
+                    {
+                        files.add((RepositoryPath) path);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed to list [{}].", directory, e);
+                unit.ctx.failed.increment();
+                unit.incomplete = true;
+
+                return;
+            }
+
+            subtasks.forEach(ForkJoinTask::fork);
+            files.forEach(unit::check);
+            subtasks.forEach(ForkJoinTask::join);
+
+            if (topLevel)
+            {
+                unit.complete();
+            }
+        }
+
+    }
+
+    private static class ReconcileContext
+    {
+
+        private final Repository repository;
+
+        private final String checkpointName;
+
+        private final Properties checkpoint;
+
+        private final boolean verifyChecksums;
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder created = new LongAdder();
+
+        private final LongAdder updated = new LongAdder();
+
+        private final LongAdder removed = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        ReconcileContext(Repository repository,
+                         String checkpointName,
+                         Properties checkpoint,
+                         boolean verifyChecksums)
+        {
+            this.repository = repository;
+            this.checkpointName = checkpointName;
+            this.checkpoint = checkpoint;
+            this.verifyChecksums = verifyChecksums;
+        }
+
+    }
+
+    /**
+     * The artifacts of a top level directory, which is checkpointed once all of them have been reconciled.
+     */
+    private class ReconcileUnit
+    {
+
+        private final ReconcileContext ctx;
+
+        private final String name;
+
+        private volatile boolean incomplete;
+
+        private List<RepositoryPath> pending = new ArrayList<>();
+
+        ReconcileUnit(ReconcileContext ctx,
+                      String name)
+        {
+            this.ctx = ctx;
+            this.name = name;
+        }
+
+        void check(RepositoryPath path)
+        {
+            try
+            {
+                if (!Boolean.TRUE.equals(RepositoryFiles.isArtifact(path))
+                    || Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
+                {
+                    return;
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed to read the attributes of [{}].", path, e);
+                ctx.failed.increment();
+                incomplete = true;
+
+                return;
+            }
+
+            ctx.files.increment();
+
+            List<RepositoryPath> batch = null;
+            synchronized (this)
+            {
+                pending.add(path);
+                if (pending.size() >= batchSize)
+                {
+                    batch = pending;
+                    pending = new ArrayList<>();
+                }
+            }
+
+            if (batch != null)
+            {
+                reconcileBatch(batch);
+            }
+        }
+
+        void flush()
+        {
+            List<RepositoryPath> batch;
+            synchronized (this)
+            {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            if (!batch.isEmpty())
+            {
+                reconcileBatch(batch);
+            }
+        }
+
+        void complete()
+        {
+            flush();
+
+            // The directories with failures are reconciled again on the next run.
+            if (incomplete)
+            {
+                return;
+            }
+
+            ctx.checkpoint.setProperty(CHECKPOINT_DIRECTORY + name, Boolean.TRUE.toString());
+            try
+            {
+                checkpointStore.save(ctx.checkpointName, ctx.checkpoint);
+            }
+            catch (IOException e)
+            {
+                logger.warn("Failed to save checkpoint [{}].", ctx.checkpointName, e);
+            }
+        }
+
+        private void reconcileBatch(List<RepositoryPath> batch)
+        {
+            String storageId = ctx.repository.getStorage().getId();
+            String repositoryId = ctx.repository.getId();
+
+            try
+            {
+                // The files are read outside of the transactions, which are kept short.
+                List<ReconciledArtifact> newArtifacts = new ArrayList<>();
+                List<ReconciledArtifact> staleArtifacts = new ArrayList<>();
+                for (RepositoryPath path : batch)
+                {
+                    try
+                    {
+                        String artifactPath = RepositoryFiles.relativizePath(path);
+                        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                           repositoryId,
+                                                                                           artifactPath);
+                        if (artifactEntry == null)
+                        {
+                            newArtifacts.add(new ReconciledArtifact(artifactPath,
+                                                                    RepositoryFiles.readCoordinates(path),
+                                                                    Files.size(path),
+                                                                    calculateChecksums(path)));
+                        }
+                        else
+                        {
+                            ReconciledArtifact staleArtifact = checkStale(artifactEntry, path, artifactPath);
+                            if (staleArtifact != null)
+                            {
+                                staleArtifacts.add(staleArtifact);
+                            }
+                        }
+                    }
+                    catch (IOException e)
+                    {
+                        logger.error("Failed to reconcile [{}].", path, e);
+                        ctx.failed.increment();
+                        incomplete = true;
+                    }
+                }
+
+                if (newArtifacts.isEmpty() && staleArtifacts.isEmpty())
+                {
+                    return;
+                }
+
+                long[] counts = store(storageId, repositoryId, newArtifacts, staleArtifacts);
+
+                ctx.created.add(counts[0]);
+                ctx.updated.add(counts[1]);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to reconcile [{}] artifacts of [{}:{}].", batch.size(), storageId, repositoryId,
+                             e);
+                ctx.failed.add(batch.size());
+                incomplete = true;
+            }
+        }
+
+        /**
+         * @return the actual values of the artifact, if its entry doesn't match the artifact file
+         */
+        private ReconciledArtifact checkStale(ArtifactEntry artifactEntry,
+                                              RepositoryPath path,
+                                              String artifactPath)
+                throws IOException
+        {
+            long size = Files.size(path);
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+            Map<String, String> checksums = ctx.verifyChecksums ? calculateChecksums(path) : null;
+
+            // The placeholder of a proxy repository whose artifact has been stored in the meantime.
+            boolean uncached = artifactEntry instanceof RemoteArtifactEntry
+                               && !Boolean.TRUE.equals(((RemoteArtifactEntry) artifactEntry).getIsCached());
+
+            boolean stale = uncached
+                            || artifactEntry.getSizeInBytes() == null
+                            || artifactEntry.getSizeInBytes() != size
+                            || artifactEntry.getLastUpdated() == null
+                            || artifactEntry.getLastUpdated().getTime() < lastModified
+                            || !matches(artifactEntry.getChecksums(),
+                                        checksums != null ? checksums : readChecksums(path));
+            if (!stale)
+            {
+                return null;
+            }
+
+            return new ReconciledArtifact(artifactPath,
+                                          artifactEntry.getArtifactCoordinates(),
+                                          size,
+                                          checksums != null ? checksums : calculateChecksums(path));
+        }
+
+        /**
+         * Only the algorithms known on both sides are compared, the missing checksum files are left to the checksum
+         * regeneration.
+         */
+        private boolean matches(Map<String, String> expected,
+                                Map<String, String> actual)
+        {
+            return actual.entrySet()
+                         .stream()
+                         .filter(e -> expected.containsKey(e.getKey()))
+                         .allMatch(e -> e.getValue().equalsIgnoreCase(expected.get(e.getKey())));
+        }
+
+        private Map<String, String> readChecksums(RepositoryPath path)
+                throws IOException
+        {
+            LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+
+            Map<String, String> result = new HashMap<>();
+            for (String digestAlgorithm : path.getFileSystem().getDigestAlgorithmSet())
+            {
+                RepositoryPath checksumPath = provider.getChecksumPath(path, digestAlgorithm);
+                if (!Files.exists(checksumPath))
+                {
+                    continue;
+                }
+
+                // The checksum files may be followed by the file name.
+                String checksum = new String(Files.readAllBytes(checksumPath), StandardCharsets.UTF_8).trim();
+                result.put(digestAlgorithm, checksum.split("\\s+")[0]);
+            }
+
+            return result;
+        }
+
+        private Map<String, String> calculateChecksums(RepositoryPath path)
+                throws IOException
+        {
+            try (InputStream is = Files.newInputStream(path))
+            {
+                ByteStreams.exhaust(is);
+
+                return new HashMap<>(StreamUtils.findSource(LayoutInputStream.class, is).getHexDigests());
+            }
+        }
+
+        /**
+         * The entries are loaded again within the transaction, as they may have been changed by the artifact
+         * deployments, or the other batches, since the files have been read.
+         *
+         * @return the numbers of the created and updated entries
+         */
+        private long[] store(String storageId,
+                             String repositoryId,
+                             List<ReconciledArtifact> newArtifacts,
+                             List<ReconciledArtifact> staleArtifacts)
+        {
+            for (int i = 1; ; i++)
+            {
+                try
+                {
+                    return new TransactionTemplate(transactionManager).execute(t -> {
+                        long[] counts = new long[2];
+                        List<ArtifactEntry> newArtifactEntries = new ArrayList<>(newArtifacts.size());
+
+                        for (ReconciledArtifact artifact : newArtifacts)
+                        {
+                            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                               repositoryId,
+                                                                                               artifact.path);
+                            if (artifactEntry != null)
+                            {
+                                artifactEntryService.save(apply(artifactEntry, artifact));
+                                counts[1]++;
+
+                                continue;
+                            }
+
+                            newArtifactEntries.add(apply(createArtifactEntry(artifact), artifact));
+                            counts[0]++;
+                        }
+
+                        for (ReconciledArtifact artifact : staleArtifacts)
+                        {
+                            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                               repositoryId,
+                                                                                               artifact.path);
+                            // The artifact has been deleted in the meantime.
+                            if (artifactEntry == null)
+                            {
+                                continue;
+                            }
+
+                            artifactEntryService.save(apply(artifactEntry, artifact));
+                            counts[1]++;
+                        }
+
+                        repositoryArtifactIdGroupService.addArtifactsToGroups(storageId,
+                                                                              repositoryId,
+                                                                              newArtifactEntries);
+
+                        return counts;
+                    });
+                }
+                catch (ONeedRetryException e)
+                {
+                    // The parallel batches may update the same artifact groups.
+                    if (i >= MAX_RETRY)
+                    {
+                        throw e;
+                    }
+
+                    logger.debug("Retry storing [{}] reconciled artifacts of [{}:{}].",
+                                 newArtifacts.size() + staleArtifacts.size(), storageId, repositoryId);
+                }
+            }
+        }
+
+        private ArtifactEntry createArtifactEntry(ReconciledArtifact artifact)
+        {
+            // The artifacts found in a proxy repository have been downloaded from its remote repository.
+            ArtifactEntry artifactEntry = ctx.repository.isProxyRepository() ? new RemoteArtifactEntry() :
+                                          new ArtifactEntry();
+            artifactEntry.setStorageId(ctx.repository.getStorage().getId());
+            artifactEntry.setRepositoryId(ctx.repository.getId());
+            artifactEntry.setArtifactCoordinates(artifact.coordinates);
+            artifactEntry.setLastUsed(new Date());
+
+            return artifactEntry;
+        }
+
+        private ArtifactEntry apply(ArtifactEntry artifactEntry,
+                                    ReconciledArtifact artifact)
+        {
+            if (artifactEntry instanceof RemoteArtifactEntry)
+            {
+                ((RemoteArtifactEntry) artifactEntry).setIsCached(true);
+            }
+            artifactEntry.setLastUpdated(new Date());
+            artifactEntry.setSizeInBytes(artifact.size);
+            artifactEntry.getChecksums().clear();
+            artifactEntry.getChecksums().putAll(artifact.checksums);
+
+            return artifactEntry;
+        }
+
+    }
+
+    private static class ReconciledArtifact
+    {
+
+        private final String path;
+
+        private final ArtifactCoordinates coordinates;
+
+        private final long size;
+
+        private final Map<String, String> checksums;
+
+        ReconciledArtifact(String path,
+                           ArtifactCoordinates coordinates,
+                           long size,
+                           Map<String, String> checksums)
+        {
+            this.path = path;
+            this.coordinates = coordinates;
+            this.size = size;
+            this.checksums = checksums;
+        }
+
+    }
+
+}
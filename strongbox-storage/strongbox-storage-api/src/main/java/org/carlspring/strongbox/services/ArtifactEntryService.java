@@ -1,16 +1,20 @@
 package org.carlspring.strongbox.services;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.ArtifactExistenceFilter;
 import org.javatuples.Pair;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -56,6 +60,49 @@ public interface ArtifactEntryService
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
+    /**
+     * Keyset (seek) variant of {@link #findMatching(ArtifactEntrySearchCriteria, PagingCriteria)}. Results are ordered
+     * by {@code lastUsed} and then by record id, and only the entries which come strictly after the given position are
+     * returned, so the caller can walk through an arbitrary large result set in constant sized batches.
+     *
+     * @param lastUsedAfter
+     *            the {@code lastUsed} value of the last entry from the previous batch, or {@code null} for the first one
+     * @param objectIdAfter
+     *            the {@code objectId} of the last entry from the previous batch, or {@code null} for the first one
+     * @param limit
+     *            maximum batch size
+     */
+    List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
+                                     Date lastUsedAfter,
+                                     String objectIdAfter,
+                                     int limit);
+
+    /**
+     * Same as {@link #findMatching(ArtifactEntrySearchCriteria, PagingCriteria)}, but only the
+     * {@link ArtifactEntryView} fields are selected instead of the whole entries.
+     */
+    List<ArtifactEntryView> findMatchingViews(ArtifactEntrySearchCriteria searchCriteria,
+                                              PagingCriteria pagingCriteria);
+
+    /**
+     * Same as {@link #findMatching(ArtifactEntrySearchCriteria, Date, String, int)}, but only the
+     * {@link ArtifactEntryView} fields are selected instead of the whole entries.
+     */
+    List<ArtifactEntryView> findMatchingViews(ArtifactEntrySearchCriteria searchCriteria,
+                                              Date lastUsedAfter,
+                                              String objectIdAfter,
+                                              int limit);
+
+    /**
+     * Same as {@link #findArtifactList(String, String, Map, boolean)}, but the entries are fetched lazily, with at most
+     * {@code fetchSize} of them held in memory at a time. The stream must be consumed within a transaction and closed.
+     */
+    Stream<ArtifactEntry> streamArtifactList(String storageId,
+                                             String repositoryId,
+                                             Map<String, String> coordinates,
+                                             boolean strict,
+                                             int fetchSize);
+
     Long countCoordinates(Collection<Pair<String, String>> storageRepositoryPairList,
                           Map<String, String> coordinates,
                           boolean strict);
@@ -69,10 +116,61 @@ public interface ArtifactEntryService
                         Map<String, String> coordinates,
                         boolean strict);
 
+    /**
+     * Aggregates the number of artifacts and their total size within the given repository.
+     *
+     * @return pair of the artifacts count and the total size in bytes
+     */
+    Pair<Long, Long> countArtifactsAndSizeInBytes(String storageId,
+                                                  String repositoryId);
+
+    /**
+     * Deletes all the artifact entries of the repository located under the given directory, with set-based commands
+     * in bounded size transactions, or within the transaction of the caller if there is one.
+     *
+     * @param path
+     *            the directory path relative to the repository root, the whole repository if it's empty
+     * @return pair of the deleted artifacts count and their total size in bytes
+     */
+    Pair<Long, Long> deleteByPath(String storageId,
+                                  String repositoryId,
+                                  String path);
+
+    /**
+     * Calculates the coordinate search tokens of the entries which have been stored without them, in bounded size
+     * transactions.
+     *
+     * @return the number of updated entries
+     */
+    long updateCoordinateTokens();
+
+    /**
+     * @return whether the coordinate search tokens of all the entries have been calculated (see
+     *         {@link #updateCoordinateTokens()}), so that the coordinate searches can be narrowed down with them
+     */
+    boolean isCoordinateTokensCompleted();
+
+    /**
+     * Calculates the indexed archive filenames of the entries which have an archive listing stored without them, in
+     * bounded size transactions.
+     *
+     * @return the number of updated entries
+     */
+    long updateArchiveFilenames();
+
+    /**
+     * Checks the artifact existence for the read paths, the artifacts which don't exist are mostly rejected by the
+     * {@link ArtifactExistenceFilter} without the index lookup. Its negative answer may be wrong for an artifact
+     * which has just been added on another node, so the write paths, which decide whether to create an entry, use
+     * {@link #findOneArtifact(String, String, String)}.
+     */
     boolean artifactExists(String storageId,
                            String repositoryId,
                            String path);
 
+    /**
+     * Finds the artifact entry with the path index.
+     */
     ArtifactEntry findOneArtifact(String storageId,
                                   String repositoryId,
                                   String path);
@@ -7,6 +7,7 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -27,6 +28,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryOutputStream;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
@@ -34,6 +36,8 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.checksum.ArtifactChecksum;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryChecksumPolicyValidationTypeEnum;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidatorRegistry;
@@ -99,9 +103,32 @@ public class ArtifactManagementService
         return doStore(repositoryPath, is);
     }
 
+    /**
+     * Stores the artifact and verifies its digests, calculated while the bytes are written into the temporary file,
+     * against the expected checksums (algorithm -&gt; checksum). If they don't match and the checksum policy of the
+     * remote repository is {@link RepositoryChecksumPolicyValidationTypeEnum#STRICT}, the temporary file is discarded,
+     * so the artifact never becomes visible in the repository.
+     */
+    @Transactional
+    public long store(RepositoryPath repositoryPath,
+                      InputStream is,
+                      Map<String, String> expectedChecksums)
+        throws IOException
+    {
+        return doStore(repositoryPath, is, expectedChecksums);
+    }
+
     private long doStore(RepositoryPath repositoryPath,
                          InputStream is)
             throws IOException
+    {
+        return doStore(repositoryPath, is, Collections.emptyMap());
+    }
+
+    private long doStore(RepositoryPath repositoryPath,
+                         InputStream is,
+                         Map<String, String> expectedChecksums)
+            throws IOException
     {
         long result;
         boolean updatedArtifactFile = false;
@@ -113,7 +140,16 @@ public class ArtifactManagementService
         
         try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
         {
-            result = writeArtifact(repositoryPath, is, aos);
+            try
+            {
+                result = writeArtifact(repositoryPath, is, aos, expectedChecksums);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                // Incomplete or rejected content should never be moved from the temporary location.
+                abort(aos);
+                throw e;
+            }
             logger.debug("Stored [{}] bytes for [{}].", result, repositoryPath);
             aos.flush();
         }
@@ -144,9 +180,19 @@ public class ArtifactManagementService
         return result;
     }
 
+    private void abort(OutputStream os)
+    {
+        TempOutputStream tos = StreamUtils.findSource(TempOutputStream.class, os);
+        if (tos != null)
+        {
+            tos.abort();
+        }
+    }
+
     private long writeArtifact(RepositoryPath repositoryPath,
                                InputStream is,
-                               OutputStream os)
+                               OutputStream os,
+                               Map<String, String> expectedChecksums)
             throws IOException
     {
         LayoutOutputStream aos = StreamUtils.findSource(LayoutOutputStream.class, os);
@@ -172,8 +218,12 @@ public class ArtifactManagementService
         Map<String, String> digestMap = aos.getDigestMap();
         if (Boolean.FALSE.equals(checksumAttribute) && !digestMap.isEmpty())
         {
-            // Store artifact digests in cache if we have them.
-            addChecksumsToCacheManager(digestMap, repositoryPathId);
+            // Verified digests go straight into the ArtifactEntry with the commit, there is nothing to check later.
+            if (!verifyChecksums(repositoryPath, digestMap, expectedChecksums))
+            {
+                // Store artifact digests in cache if we have them.
+                addChecksumsToCacheManager(digestMap, repositoryPathId);
+            }
 
             writeChecksums(repositoryPath, digestMap);
         }
@@ -191,6 +241,60 @@ public class ArtifactManagementService
         return totalAmountOfBytes;
     }
 
+    /**
+     * @return {@code true} if the calculated digests have been verified against at least one expected checksum
+     */
+    private boolean verifyChecksums(RepositoryPath repositoryPath,
+                                    Map<String, String> digestMap,
+                                    Map<String, String> expectedChecksums)
+            throws ArtifactStorageException
+    {
+        boolean verified = false;
+        for (Map.Entry<String, String> expected : expectedChecksums.entrySet())
+        {
+            String actual = digestMap.get(expected.getKey());
+            if (actual == null)
+            {
+                continue;
+            }
+
+            if (actual.equalsIgnoreCase(expected.getValue()))
+            {
+                verified = true;
+                continue;
+            }
+
+            String message = String.format("The %s checksum for [%s] is invalid: expected [%s], actual [%s].",
+                                           expected.getKey(), repositoryPath, expected.getValue(), actual);
+            if (RepositoryChecksumPolicyValidationTypeEnum.STRICT.equals(getChecksumPolicy(repositoryPath)))
+            {
+                throw new ArtifactStorageException(message);
+            }
+
+            logger.warn(message);
+
+            return false;
+        }
+
+        return verified;
+    }
+
+    private RepositoryChecksumPolicyValidationTypeEnum getChecksumPolicy(RepositoryPath repositoryPath)
+    {
+        RemoteRepository remoteRepository = repositoryPath.getRepository().getRemoteRepository();
+        String checksumPolicy = remoteRepository != null ? remoteRepository.getChecksumPolicy() : null;
+
+        for (RepositoryChecksumPolicyValidationTypeEnum policy : RepositoryChecksumPolicyValidationTypeEnum.values())
+        {
+            if (policy.name().equalsIgnoreCase(checksumPolicy) || policy.getPolicyType().equalsIgnoreCase(checksumPolicy))
+            {
+                return policy;
+            }
+        }
+
+        return RepositoryChecksumPolicyValidationTypeEnum.STRICT;
+    }
+
     private void writeChecksums(RepositoryPath repositoryPath,
                                 Map<String, String> digestMap)
     {
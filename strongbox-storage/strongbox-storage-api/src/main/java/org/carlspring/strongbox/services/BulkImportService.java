@@ -0,0 +1,615 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
+import org.carlspring.strongbox.io.LayoutOutputStream;
+import org.carlspring.strongbox.io.LazyOutputStream;
+import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.services.support.BulkImportResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.ProviderNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import com.google.common.io.ByteStreams;
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Imports an existing repository tree (a local directory or a zip archive) into a repository, bypassing the per file
+ * deployment path.
+ * <p>
+ * The tree is walked in parallel. Each file is copied once, with all its checksums calculated while copying, and the
+ * checksum files of the source are skipped. The artifact entries, and their groups, are stored in batched
+ * transactions, each of them followed by a single
+ * {@link RepositoryEventListenerRegistry#dispatchArtifactsImportedEvent} instead of the per artifact events, so that
+ * the metadata is regenerated once per batch.
+ * <p>
+ * The import is idempotent: the already imported files are overwritten and their entries updated, so a failed import
+ * can simply be repeated.
+ * <p>
+ * Only the sources within the configured import roots ({@code strongbox.import.roots}) can be imported, and the
+ * symbolic links of the imported tree are skipped, so that an import can't be used to read any other file of the
+ * server.
+ */
+@Component
+public class BulkImportService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int MAX_RETRY = 10;
+
+    @Value("${strongbox.import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${strongbox.orientdb.pool.background:16}")
+    private int backgroundSessions;
+
+    @Value("${strongbox.import.batchSize:500}")
+    private int batchSize;
+
+    @Value("${strongbox.import.roots:${strongbox.vault}/import}")
+    private String[] roots;
+
+    private List<Path> importRoots;
+
+    /**
+     * The imports submitted by {@link #submitImport}, by storage and repository.
+     */
+    private final Map<String, CompletableFuture<BulkImportResult>> imports = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private RepositoryEventListenerRegistry repositoryEventListenerRegistry;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void initialize()
+    {
+        importRoots = Arrays.stream(roots)
+                            .map(String::trim)
+                            .filter(r -> !r.isEmpty())
+                            .map(r -> toRealPath(Paths.get(r)))
+                            .collect(Collectors.toList());
+
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    public List<Path> getImportRoots()
+    {
+        return importRoots;
+    }
+
+    /**
+     * Validates the source and imports it in the background, one import at a time.
+     *
+     * @throws IllegalStateException if an import into the repository is already in progress
+     */
+    public CompletableFuture<BulkImportResult> submitImport(String storageId,
+                                                            String repositoryId,
+                                                            String source)
+            throws IOException
+    {
+        Repository repository = getRepository(storageId, repositoryId);
+        Path sourcePath = resolveSource(source);
+
+        String key = String.format("%s:%s", storageId, repositoryId);
+        CompletableFuture<BulkImportResult> result = imports.compute(key, (k, previous) -> {
+            if (previous != null && !previous.isDone())
+            {
+                throw new IllegalStateException(String.format("An import into [%s] is already in progress.", k));
+            }
+
+            return CompletableFuture.supplyAsync(() -> {
+                try
+                {
+                    return importSource(repository, sourcePath);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        });
+
+        result.whenComplete((r, e) -> {
+            if (e != null)
+            {
+                logger.error("Failed to import [{}] into [{}].", source, key, e);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * @return the last import submitted into the repository
+     */
+    public Optional<CompletableFuture<BulkImportResult>> findImport(String storageId,
+                                                                    String repositoryId)
+    {
+        return Optional.ofNullable(imports.get(String.format("%s:%s", storageId, repositoryId)));
+    }
+
+    public BulkImportResult importArtifacts(String storageId,
+                                            String repositoryId,
+                                            String source)
+            throws IOException
+    {
+        return importSource(getRepository(storageId, repositoryId), resolveSource(source));
+    }
+
+    private Repository getRepository(String storageId,
+                                     String repositoryId)
+    {
+        Repository repository = configurationManager.getRepository(storageId, repositoryId);
+        Assert.notNull(repository, String.format("Repository [%s:%s] not found.", storageId, repositoryId));
+
+        return repository;
+    }
+
+    /**
+     * Resolves the source, a relative one against the first import root, with the {@code ..} segments and the
+     * symbolic links resolved, so that it can be checked to be within one of the import roots.
+     *
+     * @throws AccessDeniedException if the source is not within the import roots
+     */
+    private Path resolveSource(String source)
+            throws IOException
+    {
+        Path path = Paths.get(source);
+        if (!path.isAbsolute() && !importRoots.isEmpty())
+        {
+            path = importRoots.get(0).resolve(path);
+        }
+
+        Path realPath = path.toRealPath();
+        // The roots may have been created after the startup.
+        if (importRoots.stream().map(BulkImportService::toRealPath).noneMatch(realPath::startsWith))
+        {
+            throw new AccessDeniedException(source, null, "The source is not within the import roots.");
+        }
+
+        return realPath;
+    }
+
+    private static Path toRealPath(Path path)
+    {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        try
+        {
+            return Files.exists(absolutePath) ? absolutePath.toRealPath() : absolutePath;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BulkImportResult importSource(Repository repository,
+                                          Path source)
+            throws IOException
+    {
+        if (Files.isDirectory(source))
+        {
+            return importTree(repository, source);
+        }
+
+        try (FileSystem archive = FileSystems.newFileSystem(source, (ClassLoader) null))
+        {
+            return importTree(repository, archive.getRootDirectories().iterator().next());
+        }
+        catch (ProviderNotFoundException e)
+        {
+            throw new IllegalArgumentException(String.format("[%s] is neither a directory nor an archive.", source));
+        }
+    }
+
+    private BulkImportResult importTree(Repository repository,
+                                        Path root)
+    {
+        logger.info("Importing [{}] into [{}:{}].", root.toUri(), repository.getStorage().getId(), repository.getId());
+
+        long start = System.currentTimeMillis();
+
+        ImportContext ctx = new ImportContext(repository, root);
+
+        // Every worker holds a database session while storing its batch.
+        int poolSize = DatabaseSessionPool.calculateParallelism(parallelism, backgroundSessions);
+
+        ForkJoinPool pool = new ForkJoinPool(poolSize);
+        try
+        {
+            pool.invoke(new ImportDirectoryTask(ctx, root));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        ctx.flush(ctx.drain());
+
+        BulkImportResult result = new BulkImportResult(ctx.files.sum(),
+                                                       ctx.artifacts.sum(),
+                                                       ctx.sizeInBytes.sum(),
+                                                       ctx.skipped.sum(),
+                                                       ctx.failed.sum(),
+                                                       System.currentTimeMillis() - start);
+
+        logger.info("Imported [{}] into [{}:{}]: [{}].",
+                    root.toUri(), repository.getStorage().getId(), repository.getId(), result);
+
+        return result;
+    }
+
+    private class ImportDirectoryTask
+            extends RecursiveAction
+    {
+
+        private final ImportContext ctx;
+
+        private final Path directory;
+
+        ImportDirectoryTask(ImportContext ctx,
+                            Path directory)
+        {
+            this.ctx = ctx;
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute()
+        {
+            List<ImportDirectoryTask> subtasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory))
+            {
+                for (Path path : directoryStream)
+                {
+                    // The links may lead out of the import roots.
+                    if (Files.isSymbolicLink(path))
+                    {
+                        logger.warn("Skipped the symbolic link [{}].", path.toUri());
+                        ctx.skipped.increment();
+                    }
+                    else if (Files.isDirectory(path))
+                    {
+                        subtasks.add(new ImportDirectoryTask(ctx, path));
+                    }
+                    else
+                    {
+                        files.add(path);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed to list [{}].", directory.toUri(), e);
+                ctx.failed.increment();
+
+                return;
+            }
+
+            // The subdirectories are walked by the other workers, while this one imports the files.
+            subtasks.forEach(ForkJoinTask::fork);
+            files.forEach(ctx::importFile);
+            subtasks.forEach(ForkJoinTask::join);
+        }
+
+    }
+
+    private class ImportContext
+    {
+
+        private final Repository repository;
+
+        private final Path root;
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder artifacts = new LongAdder();
+
+        private final LongAdder sizeInBytes = new LongAdder();
+
+        private final LongAdder skipped = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final ReentrantLock eventLock = new ReentrantLock();
+
+        private List<ImportedArtifact> pending = new ArrayList<>();
+
+        ImportContext(Repository repository,
+                      Path root)
+        {
+            this.repository = repository;
+            this.root = root;
+        }
+
+        void importFile(Path source)
+        {
+            String path = root.relativize(source).toString().replace(source.getFileSystem().getSeparator(), "/");
+            try
+            {
+                RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+                if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+                {
+                    skipped.increment();
+
+                    return;
+                }
+
+                long size;
+                Map<String, String> checksums;
+                try (InputStream is = Files.newInputStream(source);
+                     OutputStream os = Files.newOutputStream(repositoryPath))
+                {
+                    StreamUtils.findSource(LazyOutputStream.class, os).init();
+
+                    size = ByteStreams.copy(is, os);
+                    checksums = new HashMap<>(StreamUtils.findSource(LayoutOutputStream.class, os).getDigestMap());
+                }
+
+                writeChecksums(repositoryPath, checksums);
+
+                files.increment();
+                sizeInBytes.add(size);
+
+                if (Boolean.TRUE.equals(RepositoryFiles.isArtifact(repositoryPath)))
+                {
+                    add(new ImportedArtifact(path, RepositoryFiles.readCoordinates(repositoryPath), size, checksums));
+                }
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to import [{}].", source.toUri(), e);
+                failed.increment();
+            }
+        }
+
+        private void writeChecksums(RepositoryPath repositoryPath,
+                                    Map<String, String> checksums)
+                throws IOException
+        {
+            LayoutFileSystemProvider provider = (LayoutFileSystemProvider) repositoryPath.getFileSystem().provider();
+
+            for (Map.Entry<String, String> entry : checksums.entrySet())
+            {
+                Files.write(provider.getChecksumPath(repositoryPath, entry.getKey()),
+                            entry.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private void add(ImportedArtifact artifact)
+        {
+            List<ImportedArtifact> batch = null;
+            synchronized (this)
+            {
+                pending.add(artifact);
+                if (pending.size() >= batchSize)
+                {
+                    batch = drain();
+                }
+            }
+
+            if (batch != null)
+            {
+                flush(batch);
+            }
+        }
+
+        synchronized List<ImportedArtifact> drain()
+        {
+            List<ImportedArtifact> result = pending;
+            pending = new ArrayList<>();
+
+            return result;
+        }
+
+        void flush(List<ImportedArtifact> batch)
+        {
+            if (batch.isEmpty())
+            {
+                return;
+            }
+
+            String storageId = repository.getStorage().getId();
+            String repositoryId = repository.getId();
+
+            long[] deltas;
+            try
+            {
+                deltas = store(storageId, repositoryId, batch);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to store [{}] imported artifacts of [{}:{}].",
+                             batch.size(), storageId, repositoryId, e);
+                failed.add(batch.size());
+
+                return;
+            }
+
+            artifacts.add(batch.size());
+            repositoryUsageCounter.update(storageId, repositoryId, deltas[0], deltas[1]);
+
+            // The batches don't overlap while regenerating the metadata of their paths.
+            eventLock.lock();
+            try
+            {
+                repositoryEventListenerRegistry.dispatchArtifactsImportedEvent(storageId,
+                                                                               repositoryId,
+                                                                               batch.stream()
+                                                                                    .map(a -> a.path)
+                                                                                    .collect(Collectors.toList()));
+            }
+            finally
+            {
+                eventLock.unlock();
+            }
+        }
+
+        /**
+         * @return the artifacts and size deltas of the repository
+         */
+        private long[] store(String storageId,
+                             String repositoryId,
+                             List<ImportedArtifact> batch)
+        {
+            for (int i = 1; ; i++)
+            {
+                try
+                {
+                    return new TransactionTemplate(transactionManager).execute(t -> {
+                        long[] deltas = new long[2];
+                        List<ArtifactEntry> artifactEntries = new ArrayList<>(batch.size());
+
+                        for (ImportedArtifact artifact : batch)
+                        {
+                            Date now = new Date();
+
+                            ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId,
+                                                                                               repositoryId,
+                                                                                               artifact.path);
+                            if (artifactEntry == null)
+                            {
+                                artifactEntry = new ArtifactEntry();
+                                artifactEntry.setStorageId(storageId);
+                                artifactEntry.setRepositoryId(repositoryId);
+                                artifactEntry.setArtifactCoordinates(artifact.coordinates);
+                                artifactEntry.setCreated(now);
+
+                                deltas[0]++;
+                            }
+                            else
+                            {
+                                deltas[1] -= Optional.ofNullable(artifactEntry.getSizeInBytes()).orElse(0L);
+                            }
+
+                            artifactEntry.setLastUpdated(now);
+                            artifactEntry.setLastUsed(now);
+                            artifactEntry.setSizeInBytes(artifact.size);
+                            artifactEntry.getChecksums().clear();
+                            artifactEntry.getChecksums().putAll(artifact.checksums);
+
+                            deltas[1] += artifact.size;
+                            artifactEntries.add(artifactEntry);
+                        }
+
+                        repositoryArtifactIdGroupService.addArtifactsToGroups(storageId, repositoryId, artifactEntries);
+
+                        return deltas;
+                    });
+                }
+                catch (ONeedRetryException e)
+                {
+                    // The parallel batches may update the same artifact groups.
+                    if (i >= MAX_RETRY)
+                    {
+                        throw e;
+                    }
+
+                    logger.debug("Retry storing [{}] imported artifacts of [{}:{}].",
+                                 batch.size(), storageId, repositoryId);
+                }
+            }
+        }
+
+    }
+
+    private static class ImportedArtifact
+    {
+
+        private final String path;
+
+        private final ArtifactCoordinates coordinates;
+
+        private final long size;
+
+        private final Map<String, String> checksums;
+
+        ImportedArtifact(String path,
+                         ArtifactCoordinates coordinates,
+                         long size,
+                         Map<String, String> checksums)
+        {
+            this.path = path;
+            this.coordinates = coordinates;
+            this.size = size;
+            this.checksums = checksums;
+        }
+
+    }
+
+}
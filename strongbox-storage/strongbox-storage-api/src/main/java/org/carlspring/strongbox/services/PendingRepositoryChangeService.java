@@ -0,0 +1,27 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.PendingRepositoryChange;
+
+import java.util.List;
+
+public interface PendingRepositoryChangeService
+        extends CrudService<PendingRepositoryChange, String>
+{
+
+    /**
+     * @return the oldest changes which haven't been dead lettered, in the order they were committed
+     */
+    List<PendingRepositoryChange> findPending(int limit);
+
+    long countPending();
+
+    long countDeadLettered();
+
+    @Override
+    default Class<PendingRepositoryChange> getEntityClass()
+    {
+        return PendingRepositoryChange.class;
+    }
+
+}
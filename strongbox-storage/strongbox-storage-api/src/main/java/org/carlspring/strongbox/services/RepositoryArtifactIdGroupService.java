@@ -1,8 +1,11 @@
 package org.carlspring.strongbox.services;
 
+import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,9 +15,46 @@ public interface RepositoryArtifactIdGroupService
         extends ArtifactGroupService<RepositoryArtifactIdGroupEntry>
 {
 
+    /**
+     * Adds the artifact to the group of its artifact id, which is created if needed.
+     */
+    void addArtifactToGroup(String storageId,
+                            String repositoryId,
+                            ArtifactEntry artifactEntry);
+
+    /**
+     * Adds the artifacts to the groups of their artifact ids, for the bulk imports. Each group is looked up, and its
+     * last version calculated, once for all its artifacts.
+     */
+    void addArtifactsToGroups(String storageId,
+                              String repositoryId,
+                              Collection<? extends ArtifactEntry> artifactEntries);
+
+    /**
+     * Updates the groups of the given artifact ids once some of their entries have been deleted: the groups left
+     * without entries are deleted, and the last version tag is put back onto the remaining entries of the groups which
+     * have lost their last version.
+     */
+    void reconcileGroups(String storageId,
+                         String repositoryId,
+                         Collection<String> artifactIds);
+
+    /**
+     * Finds the entries of the group, by their reference to it (see {@link ArtifactEntry#getArtifactIdGroup()}).
+     */
+    List<ArtifactEntry> findArtifactEntries(RepositoryArtifactIdGroupEntry artifactGroup);
+
     long count(String storageId,
                String repositoryId);
 
+    /**
+     * Deletes all the groups of the repository, see {@link #deleteAll(Predicate)}.
+     *
+     * @return the number of deleted groups
+     */
+    long deleteAll(String storageId,
+                   String repositoryId);
+
     List<RepositoryArtifactIdGroupEntry> findMatching(String storageId,
                                                       String repositoryId,
                                                       PagingCriteria pagingCriteria);
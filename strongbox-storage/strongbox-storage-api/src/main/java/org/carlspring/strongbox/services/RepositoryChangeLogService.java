@@ -0,0 +1,55 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.RepositoryChange;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RepositoryChangeLogService
+        extends CrudService<RepositoryChange, String>
+{
+
+    /**
+     * @return the detached changes of the repository with a sequence greater than the given one, in sequence order
+     */
+    List<RepositoryChange> findChanges(String storageId,
+                                       String repositoryId,
+                                       long since,
+                                       int limit);
+
+    /**
+     * @return the sequence of the oldest retained change of the repository, or {@code 0} if there are none
+     */
+    long findFirstSequence(String storageId,
+                           String repositoryId);
+
+    /**
+     * @return the sequence of the latest change of the repository, or {@code 0} if there are none
+     */
+    long findLastSequence(String storageId,
+                          String repositoryId);
+
+    /**
+     * Deletes the changes of the repository recorded before the given time. The latest change is always kept, so the
+     * sequence of the repository never goes back.
+     *
+     * @return the number of deleted records
+     */
+    int deleteOlderThan(String storageId,
+                        String repositoryId,
+                        Date timestamp);
+
+    /**
+     * @return the number of deleted records
+     */
+    int delete(String storageId,
+               String repositoryId);
+
+    @Override
+    default Class<RepositoryChange> getEntityClass()
+    {
+        return RepositoryChange.class;
+    }
+
+}
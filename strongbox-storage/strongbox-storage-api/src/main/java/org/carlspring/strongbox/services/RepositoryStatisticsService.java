@@ -0,0 +1,44 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.data.service.CrudService;
+import org.carlspring.strongbox.domain.RepositoryStatistics;
+
+public interface RepositoryStatisticsService
+        extends CrudService<RepositoryStatistics, String>
+{
+
+    /**
+     * @return the detached statistics of the repository, or {@code null} if they have not been calculated yet
+     */
+    RepositoryStatistics findOne(String storageId,
+                                 String repositoryId);
+
+    /**
+     * Same as {@link #findOne(String, String)}, but calculates the statistics with {@link #reconcile(String, String)}
+     * if there are none yet. The statistics are created in their own transaction, so a concurrent creation, which is
+     * rejected on commit, doesn't fail the caller's transaction.
+     */
+    RepositoryStatistics findOneOrCreate(String storageId,
+                                         String repositoryId);
+
+    /**
+     * Recalculates the statistics from the {@link org.carlspring.strongbox.domain.ArtifactEntry}s of the repository.
+     *
+     * @return the detached statistics
+     */
+    RepositoryStatistics reconcile(String storageId,
+                                   String repositoryId);
+
+    /**
+     * @return the number of deleted records
+     */
+    int delete(String storageId,
+               String repositoryId);
+
+    @Override
+    default Class<RepositoryStatistics> getEntityClass()
+    {
+        return RepositoryStatistics.class;
+    }
+
+}
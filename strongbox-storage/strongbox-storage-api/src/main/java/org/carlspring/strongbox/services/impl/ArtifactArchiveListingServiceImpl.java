@@ -0,0 +1,145 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.domain.ArtifactArchiveListing;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.services.ArtifactArchiveListingService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ArtifactArchiveListingServiceImpl
+        implements ArtifactArchiveListingService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactArchiveListingServiceImpl.class);
+
+    @Inject
+    private LayoutProviderRegistry layoutProviderRegistry;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public Set<String> getArchiveFilenames(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try
+        {
+            Set<String> result = transactionTemplate.execute(t -> findArchiveFilenames(repositoryPath));
+            if (result != null)
+            {
+                return result;
+            }
+
+            // The listing is calculated under the same lock as the artifact entry updates of the store events.
+            Lock lock = repositoryPathLock.lock(repositoryPath, ArtifactEntry.class.getSimpleName()).writeLock();
+            lock.lock();
+            try
+            {
+                return transactionTemplate.execute(t -> calculateArchiveFilenames(repositoryPath));
+            }
+            catch (ONeedRetryException e)
+            {
+                logger.debug("Skip persisting the archive listing of [{}], its artifact entry has been updated.",
+                             repositoryPath);
+
+                return listArchiveFilenames(repositoryPath);
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return the persisted listing, or {@code null} if there is none
+     */
+    private Set<String> findArchiveFilenames(RepositoryPath repositoryPath)
+    {
+        ArtifactArchiveListing artifactArchiveListing = Optional.ofNullable(getArtifactEntry(repositoryPath))
+                                                                .map(ArtifactEntry::getArtifactArchiveListing)
+                                                                .orElse(null);
+        if (artifactArchiveListing == null || artifactArchiveListing.getFilenames() == null)
+        {
+            return null;
+        }
+
+        return Collections.unmodifiableSet(new LinkedHashSet<>(artifactArchiveListing.getFilenames()));
+    }
+
+    private Set<String> calculateArchiveFilenames(RepositoryPath repositoryPath)
+    {
+        Set<String> result = findArchiveFilenames(repositoryPath);
+        if (result != null)
+        {
+            return result;
+        }
+
+        Set<String> archiveFilenames = listArchiveFilenames(repositoryPath);
+
+        ArtifactEntry artifactEntry = getArtifactEntry(repositoryPath);
+        // The artifacts which aren't archives have no listing, there is nothing to keep for them.
+        if (artifactEntry == null || archiveFilenames.isEmpty())
+        {
+            return archiveFilenames;
+        }
+
+        ArtifactArchiveListing artifactArchiveListing = new ArtifactArchiveListing();
+        artifactArchiveListing.setFilenames(new LinkedHashSet<>(archiveFilenames));
+        artifactEntry.setArtifactArchiveListing(artifactArchiveListing);
+        artifactEntryService.save(artifactEntry);
+
+        logger.debug("Persisted the archive listing of [{}].", repositoryPath);
+
+        return archiveFilenames;
+    }
+
+    private Set<String> listArchiveFilenames(RepositoryPath repositoryPath)
+    {
+        return layoutProviderRegistry.getProvider(repositoryPath.getRepository().getLayout())
+                                     .listArchiveFilenames(repositoryPath);
+    }
+
+    private ArtifactEntry getArtifactEntry(RepositoryPath repositoryPath)
+    {
+        try
+        {
+            return repositoryPath.getArtifactEntry();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
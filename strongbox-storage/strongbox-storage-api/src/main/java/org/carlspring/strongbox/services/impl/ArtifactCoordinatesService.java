@@ -16,13 +16,8 @@ public class ArtifactCoordinatesService extends CommonCrudService<AbstractArtifa
 {
 
     @Override
-    protected boolean identifyEntity(AbstractArtifactCoordinates entity)
+    protected boolean identifyEntityByKey(AbstractArtifactCoordinates entity)
     {
-        if (super.identifyEntity(entity))
-        {
-            return true;
-        }
-
         String sQuery = String.format("SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path");
 
         OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
@@ -2,25 +2,43 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.KeysetCursor;
+import org.carlspring.strongbox.data.criteria.QueryBuilder;
+import org.carlspring.strongbox.data.service.impl.DataMigrations;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.domain.ArtifactArchiveListing;
 import org.carlspring.strongbox.domain.ArtifactEntry;
-import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactCoordinatesSearchTokens;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.ArtifactExistenceFilter;
+
+import javax.inject.Inject;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
 import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -35,21 +53,45 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    @Inject
+    private ArtifactExistenceFilter artifactExistenceFilter;
+
+    @Inject
+    private DataMigrations dataMigrations;
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
     }
 
     @Override
-    protected <S extends ArtifactEntry> S cascadeEntitySave(ArtifactEntry entity)
+    protected <S extends ArtifactEntry> S cascadeEntitySave(ArtifactEntry entity,
+                                                            boolean uuidLookedUp)
     {
         entity.setArtifactCoordinates(entity.getArtifactCoordinates());
+        entity.setCoordinateTokens(calculateCoordinateTokens(entity));
+        entity.setArchiveFilenames(calculateArchiveFilenames(entity));
         if (artifactEntryIsSavedForTheFirstTime(entity))
         {
             entity.setCreated(new Date());
+            artifactExistenceFilter.add(entity.getStorageId(), entity.getRepositoryId(), entity.getArtifactPath());
         }
 
-        return super.cascadeEntitySave(entity);
+        return super.cascadeEntitySave(entity, uuidLookedUp);
+    }
+
+    private Set<String> calculateCoordinateTokens(ArtifactEntry entity)
+    {
+        return Optional.ofNullable(entity.getArtifactCoordinates())
+                       .map(c -> ArtifactCoordinatesSearchTokens.of(c.getCoordinates()))
+                       .orElse(null);
+    }
+
+    private Set<String> calculateArchiveFilenames(ArtifactEntry entity)
+    {
+        return Optional.ofNullable(entity.getArtifactArchiveListing())
+                       .map(ArtifactArchiveListing::calculateSearchNames)
+                       .orElse(null);
     }
 
     @Override
@@ -77,75 +119,116 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             orderBy = "uuid";
         }
 
-        coordinates = prepareParameterMap(coordinates, strict);
-
-        Map<String, ArtifactTagEntry> tagMap = tagSet.stream()
-                                                     .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
-                                                                               t -> (ArtifactTagEntry) t));
-
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
-                                              skip,
-                                              limit, orderBy, strict);
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
+        QueryBuilder queryBuilder = buildCoordinatesQuery(toList(storageId, repositoryId),
+                                                          prepareParameterMap(coordinates, strict),
+                                                          strict);
+        tagSet.forEach(t -> queryBuilder.where("tagSet.name", ExpOperator.CONTAINS, t.getName()));
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
-        if (storageId != null && !storageId.trim().isEmpty())
+        if ("uuid".equals(orderBy))
         {
-            parameterMap.put("storageId0", storageId);
+            queryBuilder.orderBy("artifactCoordinates.uuid", false);
         }
-        if (repositoryId != null && !repositoryId.trim().isEmpty())
+        else if (!orderBy.trim().isEmpty())
         {
-            parameterMap.put("repositoryId0", repositoryId);
+            queryBuilder.orderBy(String.format("artifactCoordinates.coordinates.%s", orderBy), false);
         }
 
-        tagMap.entrySet().stream().forEach(e -> parameterMap.put(e.getKey(), e.getValue().getName()));
+        return queryBuilder.skip(skip).limit(limit).build().execute(getDelegate());
+    }
 
-        List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
+    @Override
+    public List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
+                                            PagingCriteria pagingCriteria)
+    {
+        QueryBuilder queryBuilder = buildSearchCriteriaQuery(searchCriteria);
 
-        return entries;
+        return applyPagingCriteria(queryBuilder, pagingCriteria).build().execute(getDelegate());
     }
 
     @Override
     public List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
-                                            PagingCriteria pagingCriteria)
+                                            Date lastUsedAfter,
+                                            String objectIdAfter,
+                                            int limit)
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append("SELECT FROM ").append(getEntityClass().getSimpleName());
-        Map<String, Object> parameterMap = Collections.emptyMap();
+        return findMatching(searchCriteria, lastUsedPagingCriteria(lastUsedAfter, objectIdAfter, limit));
+    }
 
+    @Override
+    public List<ArtifactEntryView> findMatchingViews(ArtifactEntrySearchCriteria searchCriteria,
+                                                     PagingCriteria pagingCriteria)
+    {
+        QueryBuilder queryBuilder = buildSearchCriteriaQuery(searchCriteria);
+        queryBuilder.projection(ArtifactEntryView.PROJECTION.getFields());
 
-        if (!searchCriteria.isEmpty())
-        {
-            StringBuilder criteriaQueryClasuse = new StringBuilder();
-            sb.append(" WHERE ");
-            parameterMap = new HashMap<>();
+        List<ODocument> result = applyPagingCriteria(queryBuilder, pagingCriteria).build().execute(getDelegate());
 
-            if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
-            {
-                criteriaQueryClasuse.append(" sizeInBytes >= :minSizeInBytes ");
-                parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
-            }
-            if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
-            {
-                if (criteriaQueryClasuse.length() > 0)
-                {
-                    criteriaQueryClasuse.append(" AND ");
-                }
-                Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
-                criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
-                parameterMap.put("lastUsed", lastUsed);
-            }
+        return result.stream().map(ArtifactEntryView.PROJECTION::map).collect(Collectors.toList());
+    }
 
-            sb.append(criteriaQueryClasuse);
-        }
+    @Override
+    public List<ArtifactEntryView> findMatchingViews(ArtifactEntrySearchCriteria searchCriteria,
+                                                     Date lastUsedAfter,
+                                                     String objectIdAfter,
+                                                     int limit)
+    {
+        return findMatchingViews(searchCriteria, lastUsedPagingCriteria(lastUsedAfter, objectIdAfter, limit));
+    }
+
+    private PagingCriteria lastUsedPagingCriteria(Date lastUsedAfter,
+                                                  String objectIdAfter,
+                                                  int limit)
+    {
+        ContinuationToken after = lastUsedAfter == null || objectIdAfter == null ? null :
+                                  new ContinuationToken(Collections.singletonList(lastUsedAfter), objectIdAfter);
+
+        return new PagingCriteria(after, limit, Sort.by(Sort.Order.asc("lastUsed")));
+    }
 
-        appendPagingCriteria(sb, pagingCriteria);
+    @Override
+    public Stream<ArtifactEntry> streamArtifactList(String storageId,
+                                                    String repositoryId,
+                                                    Map<String, String> coordinates,
+                                                    boolean strict,
+                                                    int fetchSize)
+    {
+        Map<String, String> parameterMap = prepareParameterMap(coordinates, strict);
 
-        logger.debug("Executing SQL query> {}", sb);
+        return new KeysetCursor<ArtifactEntry>(after -> {
+            QueryBuilder queryBuilder = buildCoordinatesQuery(toList(storageId, repositoryId), parameterMap, strict);
+            PagingCriteria pagingCriteria = new PagingCriteria(after, fetchSize, Sort.byUuid());
+
+            return applyPagingCriteria(queryBuilder, pagingCriteria).build().execute(getDelegate());
+        }, e -> new ContinuationToken(Collections.singletonList(e.getUuid()), e.getObjectId()), fetchSize, null)
+                .stream();
+    }
 
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
+    private QueryBuilder buildSearchCriteriaQuery(ArtifactEntrySearchCriteria searchCriteria)
+    {
+        QueryBuilder queryBuilder = QueryBuilder.select(getEntityClass());
+        if (searchCriteria.getStorageId() != null)
+        {
+            queryBuilder.where("storageId", ExpOperator.EQ, searchCriteria.getStorageId());
+        }
+        if (searchCriteria.getRepositoryId() != null)
+        {
+            queryBuilder.where("repositoryId", ExpOperator.EQ, searchCriteria.getRepositoryId());
+        }
+        if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
+        {
+            queryBuilder.where("sizeInBytes", ExpOperator.GE, searchCriteria.getMinSizeInBytes());
+        }
+        if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
+        {
+            Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
+            queryBuilder.where("lastUsed < :lastUsed", Collections.singletonMap("lastUsed", lastUsed));
+        }
+        if (searchCriteria.getArchiveFilename() != null)
+        {
+            queryBuilder.where("archiveFilenames", ExpOperator.CONTAINS, searchCriteria.getArchiveFilename());
+        }
 
-        return getDelegate().command(oQuery).execute(parameterMap);
+        return queryBuilder;
     }
 
     @Override
@@ -165,30 +248,13 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  Map<String, String> coordinates,
                                  boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
-
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
-
-        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
-            String storageId = p[idx].getValue0();
-            String repositoryId = p[idx].getValue1();
-
-            if (storageId != null && !storageId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
-            }
-            if (repositoryId != null && !repositoryId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
-            }
-        });
-
+        QueryBuilder queryBuilder = buildCoordinatesQuery(storageRepositoryPairList,
+                                                          prepareParameterMap(coordinates, strict),
+                                                          strict);
 
-        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        List<ODocument> result = queryBuilder.projection("count(distinct(artifactCoordinates))")
+                                             .build()
+                                             .execute(getDelegate());
         return (Long) result.iterator().next().field("count");
     }
 
@@ -197,30 +263,13 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                Map<String, String> coordinates,
                                boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
-        sQuery = sQuery.replace("*", "count(*)");
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
-
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
-
-        Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
-            String storageId = p[idx].getValue0();
-            String repositoryId = p[idx].getValue1();
-
-            if (storageId != null && !storageId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("storageId%s", idx), p[idx].getValue0());
-            }
-            if (repositoryId != null && !repositoryId.trim().isEmpty())
-            {
-                parameterMap.put(String.format("repositoryId%s", idx), p[idx].getValue1());
-            }
-        });
-
+        QueryBuilder queryBuilder = buildCoordinatesQuery(storageRepositoryPairList,
+                                                          prepareParameterMap(coordinates, strict),
+                                                          strict);
 
-        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        List<ODocument> result = queryBuilder.projection("count(*)")
+                                             .build()
+                                             .execute(getDelegate());
         return (Long) result.iterator().next().field("count");
     }
 
@@ -234,75 +283,223 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                               strict);
     }
 
-    public List<Pair<String, String>> toList(String storageId,
-                                             String repositoryId)
+    @Override
+    public Pair<Long, Long> countArtifactsAndSizeInBytes(String storageId,
+                                                         String repositoryId)
     {
-        return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
+        String sQuery = String.format("SELECT count(*) AS artifacts, sum(sizeInBytes) AS sizeInBytes FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        if (result.isEmpty())
+        {
+            return Pair.with(0L, 0L);
+        }
+
+        ODocument document = result.iterator().next();
+        Number artifacts = document.field("artifacts");
+        Number sizeInBytes = document.field("sizeInBytes");
+
+        return Pair.with(artifacts == null ? 0L : artifacts.longValue(),
+                         sizeInBytes == null ? 0L : sizeInBytes.longValue());
     }
 
-    protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
-                                           Set<String> parameterNameSet,
-                                           Set<String> tagNameSet,
-                                           int skip,
-                                           int limit,
-                                           String orderBy,
-                                           boolean strict)
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Pair<Long, Long> deleteByPath(String storageId,
+                                         String repositoryId,
+                                         String path)
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
+        String directory = StringUtils.removeEnd(StringUtils.defaultString(path), "/");
+        String pathPrefix = directory.isEmpty() ? null : directory + "/";
 
-        Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
-        // COORDINATES
-        StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
-                        .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
-                                        .append("artifactCoordinates.coordinates.")
-                                        .append(e)
-                                        .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
-        sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
-
-        //REPOSITORIES
-        StringBuffer c2 = new StringBuffer();
-        IntStream.range(0, storageRepositoryPairList.size())
-                 .forEach(idx -> c2.append(idx > 0 ? " OR " : "")
-                                   .append(calculateStorageAndRepositoryCondition(storageRepositoryPairArray[idx], idx)));
-        sb.append(c2.length() > 0 ? c2.toString() : "true");
-
-        //TAGS
-        tagNameSet.stream().forEach(t -> sb.append(String.format(" AND tagSet contains (name = :%s)", t)));
-
-        //ORDER
-        if ("uuid".equals(orderBy))
+        long deleted = 0;
+        long sizeInBytes = 0;
+        Pair<Long, Long> batch;
+        do
+        {
+            batch = inTransaction(t -> deleteBatchByPath(storageId, repositoryId, pathPrefix));
+            deleted += batch.getValue0();
+            sizeInBytes += batch.getValue1();
+        }
+        while (batch.getValue0() >= DEFAULT_BATCH_SIZE);
+
+        logger.debug("Deleted [{}] artifact entries from [{}:{}/{}]", deleted, storageId, repositoryId, directory);
+
+        return Pair.with(deleted, sizeInBytes);
+    }
+
+    /**
+     * Selects a batch of the entries with their size and deletes them in the same transaction, so the size returned
+     * is the size of the deleted entries.
+     * <p>
+     * The path prefix is matched with a range of the paths ({@code [prefix, prefix with its last character
+     * incremented)}), which is served by the {@code idx_artifact_path} index over its whole key, unlike a
+     * {@code LIKE} condition on its last field.
+     */
+    private Pair<Long, Long> deleteBatchByPath(String storageId,
+                                               String repositoryId,
+                                               String pathPrefix)
+    {
+        String sQuery = String.format("SELECT @rid AS rid, sizeInBytes FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId%s LIMIT %s",
+                                      getEntityClass().getSimpleName(),
+                                      pathPrefix == null ? ""
+                                              : " AND artifactPath >= :pathFrom AND artifactPath < :pathTo",
+                                      DEFAULT_BATCH_SIZE);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+        if (pathPrefix != null)
         {
-            sb.append(" ORDER BY artifactCoordinates.uuid");
+            char last = pathPrefix.charAt(pathPrefix.length() - 1);
+
+            parameterMap.put("pathFrom", pathPrefix);
+            parameterMap.put("pathTo", pathPrefix.substring(0, pathPrefix.length() - 1) + (char) (last + 1));
         }
-        else if (orderBy != null && !orderBy.trim().isEmpty())
+
+        List<ODocument> records = getDelegate().command(new OSQLSynchQuery<ODocument>(sQuery)).execute(parameterMap);
+        if (records.isEmpty())
         {
-            sb.append(String.format(" ORDER BY artifactCoordinates.coordinates.%s", orderBy));
+            return Pair.with(0L, 0L);
         }
 
-        //PAGE
-        if (skip > 0)
+        List<ORID> ids = new ArrayList<>(records.size());
+        long sizeInBytes = 0;
+        for (ODocument record : records)
         {
-            sb.append(String.format(" SKIP %s", skip));
+            ids.add(((OIdentifiable) record.field("rid")).getIdentity());
+
+            Number size = record.field("sizeInBytes");
+            sizeInBytes += size == null ? 0L : size.longValue();
         }
-        if (limit > 0)
+
+        String sCommand = String.format("DELETE FROM %s WHERE @rid IN :ids", getEntityClass().getSimpleName());
+        Number deleted = getDelegate().command(new OCommandSQL(sCommand))
+                                      .execute(Collections.singletonMap("ids", ids));
+
+        return Pair.with(deleted.longValue(), sizeInBytes);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long updateCoordinateTokens()
+    {
+        return updateInBatches("coordinateTokens IS NULL",
+                               e -> e.setCoordinateTokens(calculateCoordinateTokens(e)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isCoordinateTokensCompleted()
+    {
+        return dataMigrations.isCompleted(ArtifactCoordinatesSearchTokens.MIGRATION);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long updateArchiveFilenames()
+    {
+        return updateInBatches("archiveFilenames IS NULL AND artifactArchiveListing IS NOT NULL",
+                               e -> e.setArchiveFilenames(calculateArchiveFilenames(e)));
+    }
+
+    private long updateInBatches(String condition,
+                                 Consumer<ArtifactEntry> update)
+    {
+        // Entries are walked in record id order, so the ones which have been already updated are not scanned again.
+        String sQuery = String.format("SELECT FROM %s WHERE @rid > :after AND %s ORDER BY @rid ASC LIMIT %s",
+                                      getEntityClass().getSimpleName(),
+                                      condition,
+                                      DEFAULT_BATCH_SIZE);
+
+        long result = 0;
+        List<ORID> batch = Collections.emptyList();
+        do
         {
-            sb.append(String.format(" LIMIT %s", limit));
+            ORID after = batch.isEmpty() ? new ORecordId(-1, -1) : batch.get(batch.size() - 1);
+            batch = inTransaction(t -> {
+                Map<String, Object> parameterMap = new HashMap<>();
+                parameterMap.put("after", after);
+
+                List<ArtifactEntry> entries = getDelegate().command(new OSQLSynchQuery<ArtifactEntry>(sQuery))
+                                                           .execute(parameterMap);
+
+                List<ORID> updated = new ArrayList<>(entries.size());
+                for (ArtifactEntry entry : entries)
+                {
+                    update.accept(entry);
+                    updated.add(getDelegate().getIdentity(getDelegate().save(entry)));
+                }
+
+                return updated;
+            });
+
+            result += batch.size();
+            logger.debug("Updated [{}] artifact entries where [{}].", result, condition);
         }
+        while (batch.size() >= DEFAULT_BATCH_SIZE);
+
+        return result;
+    }
+
+    public List<Pair<String, String>> toList(String storageId,
+                                             String repositoryId)
+    {
+        return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
+    }
+
+    protected QueryBuilder buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                                                 Map<String, String> coordinates,
+                                                 boolean strict)
+    {
+        QueryBuilder queryBuilder = QueryBuilder.select(getEntityClass());
+        boolean coordinateTokens = !coordinates.isEmpty() && isCoordinateTokensCompleted();
+
+        // COORDINATES, sorted so that the query text doesn't depend on the map order
+        new TreeMap<>(coordinates).forEach((coordinate, value) -> {
+            // The index backed search tokens narrow down the entries to be checked with the coordinate value
+            // condition, see ArtifactCoordinatesSearchTokens. Until all the entries have them, they would miss the
+            // ones which don't.
+            if (coordinateTokens)
+            {
+                ArtifactCoordinatesSearchTokens.ofPattern(coordinate, value)
+                                               .forEach(t -> queryBuilder.where("coordinateTokens",
+                                                                                ExpOperator.CONTAINS,
+                                                                                t));
+            }
 
-        // now query should looks like
-        // SELECT * FROM Foo WHERE blah = :blah AND moreBlah = :moreBlah
+            queryBuilder.where(String.format("artifactCoordinates.coordinates.%s.toLowerCase()", coordinate),
+                               strict ? ExpOperator.EQ : ExpOperator.LIKE,
+                               value);
+        });
 
-        logger.debug("Executing SQL query> {}", sb);
+        // REPOSITORIES
+        Map<String, Object> parameterMap = new HashMap<>();
+        Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
+        String repositoriesCondition = IntStream.range(0, storageRepositoryPairArray.length)
+                                                .mapToObj(idx -> calculateStorageAndRepositoryCondition(storageRepositoryPairArray[idx],
+                                                                                                        idx,
+                                                                                                        parameterMap))
+                                                .collect(Collectors.joining(" OR "));
+        if (!repositoriesCondition.isEmpty())
+        {
+            queryBuilder.where(repositoriesCondition, parameterMap);
+        }
 
-        return sb.toString();
+        return queryBuilder;
     }
 
     public String calculateStorageAndRepositoryCondition(Pair<String, String> storageRepositoryPairArray,
-                                                         int idx)
+                                                         int idx,
+                                                         Map<String, Object> parameterMap)
     {
         StringBuffer result = new StringBuffer();
         String storageId = storageRepositoryPairArray.getValue0();
@@ -310,6 +507,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         if (storageId != null && !storageId.trim().isEmpty())
         {
             result.append(String.format("storageId = :storageId%s", idx));
+            parameterMap.put(String.format("storageId%s", idx), storageId);
         }
         if (result.length() > 0)
         {
@@ -318,6 +516,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         if (repositoryId != null && !repositoryId.trim().isEmpty())
         {
             result.append(String.format("repositoryId = :repositoryId%s", idx));
+            parameterMap.put(String.format("repositoryId%s", idx), repositoryId);
         }
         if (result.length() > 0)
         {
@@ -352,12 +551,19 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result;
     }
 
+    /**
+     * Answered from the path index alone, the entry isn't loaded. Most of the missing artifacts are rejected by the
+     * {@link ArtifactExistenceFilter} without a lookup at all.
+     */
     @Override
     public boolean artifactExists(String storageId,
                                   String repositoryId,
                                   String path)
     {
-        return findArtifactEntryId(storageId, repositoryId, path) != null;
+        // A negative answer of the filter may be wrong for the entries just added on another node, so it's only
+        // relied upon here, on the read paths, see ArtifactExistenceFilter.
+        return artifactExistenceFilter.mightExist(storageId, repositoryId, path)
+               && findArtifactEntryId(storageId, repositoryId, path) != null;
     }
 
     @Override
@@ -385,6 +591,7 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deleteAll()
     {
         super.deleteAll();
@@ -394,35 +601,18 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                      String repositoryId,
                                      String path)
     {
-        String sQuery = String.format("SELECT FROM INDEX:idx_artifact_coordinates WHERE key = :path");
-
-        HashMap<String, Object> params = new HashMap<>();
-        params.put("path", path);
+        String sQuery = "SELECT FROM INDEX:idx_artifact_path WHERE key = [:storageId, :repositoryId, :path]";
 
         OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
         oQuery.setLimit(1);
 
-        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
-        ODocument result = resultList.isEmpty() ? null : resultList.iterator().next();
-
-        ORID artifactCoordinatesId = result == null ? null : ((ODocument) result.field("rid")).getIdentity();
-        if (artifactCoordinatesId == null)
-        {
-            return null;
-        }
-
-        sQuery = String.format("SELECT FROM INDEX:idx_artifact WHERE key = [:storageId, :repositoryId, :artifactCoordinatesId]");
-
-        oQuery = new OSQLSynchQuery<>(sQuery);
-        oQuery.setLimit(1);
-
-        params = new HashMap<>();
+        HashMap<String, Object> params = new HashMap<>();
         params.put("storageId", storageId);
         params.put("repositoryId", repositoryId);
-        params.put("artifactCoordinatesId", artifactCoordinatesId);
+        params.put("path", path);
 
-        resultList = getDelegate().command(oQuery).execute(params);
-        result = resultList.isEmpty() ? null : resultList.iterator().next();
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+        ODocument result = resultList.isEmpty() ? null : resultList.iterator().next();
 
         return result == null ? null : ((ODocument) result.field("rid")).getIdentity();
     }
@@ -1,27 +1,114 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.data.CacheName;
 import org.carlspring.strongbox.data.service.CommonCrudService;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.services.ArtifactTagService;
-import org.springframework.cache.annotation.Cacheable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 
+/**
+ * The tags are a tiny set which almost never changes, so they are kept in an immutable name to tag map, preloaded on
+ * startup. The lookups are lock free; only a missing tag is looked up, or created, within its own transaction. The
+ * unique name index rejects the tags created concurrently by other nodes, and the creation is published to the
+ * cluster, so that the other nodes drop the tag they may have registered meanwhile.
+ */
 @Service
 @Transactional
 public class ArtifactTagServiceImpl extends CommonCrudService<ArtifactTagEntry> implements ArtifactTagService
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactTagServiceImpl.class);
+
+    private static final String TOPIC = "artifactTags";
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    private final AtomicReference<Map<String, ArtifactTag>> tags = new AtomicReference<>(Collections.emptyMap());
+
+    private ITopic<String> topic;
+
     @Override
-    @Cacheable(value = CacheName.Artifact.TAGS, key = "#name")
-    public synchronized ArtifactTag findOneOrCreate(String name)
+    public void postConstruct()
+    {
+        super.postConstruct();
+
+        topic = hazelcastInstance.getTopic(TOPIC);
+        topic.addMessageListener(this::onTagCreated);
+
+        List<ArtifactTagEntry> artifactTags = inTransaction(t -> findAll().orElse(Collections.emptyList())
+                                                                          .stream()
+                                                                          .map(this::detach)
+                                                                          .collect(Collectors.toList()));
+        artifactTags.forEach(this::register);
+
+        findOneOrCreate(ArtifactTag.LAST_VERSION);
+
+        logger.debug("Loaded [{}] artifact tags.", tags.get().size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArtifactTag findOneOrCreate(String name)
+    {
+        ArtifactTag artifactTag = tags.get().get(name);
+        if (artifactTag != null)
+        {
+            return artifactTag;
+        }
+
+        ArtifactTagEntry artifactTagEntry = inTransaction(t -> findByName(name));
+        if (artifactTagEntry != null)
+        {
+            return register(artifactTagEntry);
+        }
+
+        try
+        {
+            artifactTagEntry = inTransaction(t -> {
+                ArtifactTagEntry newArtifactTagEntry = new ArtifactTagEntry();
+                newArtifactTagEntry.setName(name);
+
+                return detach(save(newArtifactTagEntry));
+            });
+        }
+        catch (RuntimeException e)
+        {
+            // The tag may have been created by another node meanwhile, in which case the unique index rejects ours.
+            artifactTagEntry = inTransaction(t -> findByName(name));
+            if (artifactTagEntry == null)
+            {
+                throw e;
+            }
+
+            return register(artifactTagEntry);
+        }
+
+        logger.debug("Created artifact tag [{}].", name);
+        topic.publish(name);
+
+        return register(artifactTagEntry);
+    }
+
+    private ArtifactTagEntry findByName(String name)
     {
         HashMap<String, String> params = new HashMap<>();
         params.put("name", name);
@@ -33,10 +120,47 @@ public class ArtifactTagServiceImpl extends CommonCrudService<ArtifactTagEntry>
 
         List<ArtifactTagEntry> resultList = getDelegate().command(oQuery).execute(params);
 
-        return resultList.stream().findFirst().orElseGet(() -> {
-            ArtifactTagEntry artifactTagEntry = new ArtifactTagEntry();
-            artifactTagEntry.setName(name);
-            return getDelegate().detach(save(artifactTagEntry));
+        return resultList.stream().findFirst().map(this::detach).orElse(null);
+    }
+
+    private ArtifactTagEntry detach(ArtifactTagEntry artifactTagEntry)
+    {
+        return getDelegate().detach(artifactTagEntry, true);
+    }
+
+    private ArtifactTag register(ArtifactTag artifactTag)
+    {
+        return tags.updateAndGet(m -> {
+            if (m.containsKey(artifactTag.getName()))
+            {
+                return m;
+            }
+
+            Map<String, ArtifactTag> copy = new HashMap<>(m);
+            copy.put(artifactTag.getName(), artifactTag);
+
+            return Collections.unmodifiableMap(copy);
+        }).get(artifactTag.getName());
+    }
+
+    private void onTagCreated(Message<String> message)
+    {
+        if (message.getPublishingMember().localMember())
+        {
+            return;
+        }
+
+        String name = message.getMessageObject();
+        tags.updateAndGet(m -> {
+            if (!m.containsKey(name))
+            {
+                return m;
+            }
+
+            Map<String, ArtifactTag> copy = new HashMap<>(m);
+            copy.remove(name);
+
+            return Collections.unmodifiableMap(copy);
         });
     }
 
@@ -0,0 +1,63 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.PendingRepositoryChange;
+import org.carlspring.strongbox.services.PendingRepositoryChangeService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The class has a single cluster, so the record ids follow the order in which the changes were committed.
+ */
+@Service
+@Transactional
+public class PendingRepositoryChangeServiceImpl
+        extends CommonCrudService<PendingRepositoryChange>
+        implements PendingRepositoryChangeService
+{
+
+    @Override
+    public List<PendingRepositoryChange> findPending(int limit)
+    {
+        String sQuery = String.format("SELECT FROM %s WHERE deadLettered = false ORDER BY @rid ASC",
+                                      getEntityClass().getSimpleName());
+
+        OSQLSynchQuery<PendingRepositoryChange> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(limit);
+
+        return getDelegate().command(oQuery).execute();
+    }
+
+    @Override
+    public long countPending()
+    {
+        return count(false);
+    }
+
+    @Override
+    public long countDeadLettered()
+    {
+        return count(true);
+    }
+
+    private long count(boolean deadLettered)
+    {
+        String sQuery = String.format("SELECT count(*) FROM %s WHERE deadLettered = :deadLettered",
+                                      getEntityClass().getSimpleName());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("deadLettered", deadLettered);
+
+        List<ODocument> result = getDelegate().command(new OSQLSynchQuery<ODocument>(sQuery)).execute(params);
+
+        return ((Number) result.iterator().next().field("count")).longValue();
+    }
+
+}
@@ -2,25 +2,38 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.QueryBuilder;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactTagService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.id.ORecordId;
 import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
@@ -40,67 +53,237 @@ public class RepositoryArtifactIdGroupServiceImpl
     @Inject
     private ArtifactTagService artifactTagService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Value("${strongbox.artifact.group.idCacheSize:10000}")
+    private long groupIdCacheSize;
+
+    /**
+     * The group identities by storage, repository and artifact id, so that adding to an existing group doesn't need
+     * the group lookup.
+     */
+    private Cache<String, String> groupIdCache;
+
+    @Override
+    public void postConstruct()
+    {
+        super.postConstruct();
+
+        groupIdCache = CacheBuilder.newBuilder().maximumSize(groupIdCacheSize).build();
+    }
+
     @Override
     public void addArtifactToGroup(RepositoryArtifactIdGroupEntry artifactGroup,
                                    ArtifactEntry artifactEntry)
     {
-        ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
-        Assert.notNull(coordinates, "coordinates should not be null");
+        Assert.notNull(artifactEntry.getArtifactCoordinates(), "coordinates should not be null");
 
         ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
-        artifactEntry.getTagSet().add(lastVersionTag);
-        artifactGroup.putArtifactEntry(artifactEntry);
+        addArtifactsToGroup(artifactGroup.getStorageId(),
+                            artifactGroup.getRepositoryId(),
+                            artifactGroup.getName(),
+                            Collections.singletonList(artifactEntry),
+                            lastVersionTag);
+    }
 
-        artifactGroup.getArtifactEntries()
-                     .stream()
-                     .filter(e -> e.getTagSet().contains(lastVersionTag))
-                     .sorted((e1,
-                              e2) -> e1.getArtifactCoordinates().compareTo(e2.getArtifactCoordinates()))
-                     .forEach(e -> checkAndUpdateLastVersionTagIfNeeded(e, artifactEntry, lastVersionTag));
+    @Override
+    public void addArtifactToGroup(String storageId,
+                                   String repositoryId,
+                                   ArtifactEntry artifactEntry)
+    {
+        addArtifactsToGroups(storageId, repositoryId, Collections.singletonList(artifactEntry));
+    }
 
+    @Override
+    public void addArtifactsToGroups(String storageId,
+                                     String repositoryId,
+                                     Collection<? extends ArtifactEntry> artifactEntries)
+    {
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
 
-        save(artifactGroup);
+        Map<String, List<ArtifactEntry>> artifactEntriesByGroup = new LinkedHashMap<>();
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            ArtifactCoordinates coordinates = artifactEntry.getArtifactCoordinates();
+            Assert.notNull(coordinates, "coordinates should not be null");
+
+            artifactEntriesByGroup.computeIfAbsent(coordinates.getId(), k -> new ArrayList<>()).add(artifactEntry);
+        }
+
+        artifactEntriesByGroup.forEach((artifactId, groupEntries) -> {
+            String key = calculateKey(storageId, repositoryId, artifactId);
+            if (groupIdCache.getIfPresent(key) == null)
+            {
+                String groupId = findOneOrCreate(storageId, repositoryId, artifactId).getObjectId();
+                // The group created within the current transaction isn't cached until it's persistent.
+                if (groupId != null && new ORecordId(groupId).isPersistent())
+                {
+                    groupIdCache.put(key, groupId);
+                }
+            }
+
+            addArtifactsToGroup(storageId, repositoryId, artifactId, groupEntries, lastVersionTag);
+        });
     }
 
-    private <S extends ArtifactEntry> Optional<S> checkAndUpdateLastVersionTagIfNeeded(S lastVersionEntry,
-                                                                                       S entity,
-                                                                                       ArtifactTag lastVersionTag)
+    /**
+     * Adds the entries to the group by their reference to it, so that the group record isn't written. Of the other
+     * entries of the group only the ones with the last version tag are loaded, and saved if they have lost the tag.
+     */
+    private void addArtifactsToGroup(String storageId,
+                                     String repositoryId,
+                                     String artifactId,
+                                     List<ArtifactEntry> artifactEntries,
+                                     ArtifactTag lastVersionTag)
     {
-        Optional<S> result = Optional.empty();
-        ArtifactCoordinates coordinates = entity.getArtifactCoordinates();
+        updateLastVersionTag(findLastVersionEntries(storageId, repositoryId, artifactId, lastVersionTag),
+                             artifactEntries,
+                             lastVersionTag).forEach(artifactEntryService::save);
 
-        int artifactCoordinatesComparison = entity.getArtifactCoordinates()
-                                                  .compareTo(lastVersionEntry.getArtifactCoordinates());
-        if (artifactCoordinatesComparison == 0)
+        for (ArtifactEntry artifactEntry : artifactEntries)
         {
-            logger.debug("Set [{}] last version to [{}]",
-                         entity.getArtifactPath(),
-                         coordinates.getVersion());
-            entity.getTagSet().add(lastVersionTag);
+            artifactEntry.setArtifactIdGroup(artifactId);
+            artifactEntryService.save(artifactEntry);
         }
-        else if (artifactCoordinatesComparison > 0)
+    }
+
+    private List<ArtifactEntry> findLastVersionEntries(String storageId,
+                                                       String repositoryId,
+                                                       String artifactId,
+                                                       ArtifactTag lastVersionTag)
+    {
+        // Looked up with the idx_artifact_id_group_tag index, so only the tagged entries of the group are loaded.
+        String sQuery = "SELECT FROM ArtifactEntry WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                        "AND artifactIdGroup = :artifactIdGroup AND tagSet CONTAINS :tag";
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("artifactIdGroup", artifactId);
+        params.put("tag", new ORecordId(((ArtifactTagEntry) lastVersionTag).getObjectId()));
+
+        return getDelegate().command(new OSQLSynchQuery<ArtifactEntry>(sQuery)).execute(params);
+    }
+
+    /**
+     * Puts the last version tag onto the entries with the greatest coordinates, among the added entries and the ones
+     * which are tagged at the moment.
+     *
+     * @return the previously tagged entries which have lost the tag
+     */
+    private List<ArtifactEntry> updateLastVersionTag(Collection<? extends ArtifactEntry> lastVersionEntries,
+                                                     List<ArtifactEntry> artifactEntries,
+                                                     ArtifactTag lastVersionTag)
+    {
+        List<ArtifactEntry> candidates = new ArrayList<>(artifactEntries);
+        lastVersionEntries.stream()
+                          .filter(e -> e.getTagSet().contains(lastVersionTag))
+                          .filter(e -> !artifactEntries.contains(e))
+                          .forEach(candidates::add);
+
+        ArtifactCoordinates lastVersion = null;
+        for (ArtifactEntry candidate : candidates)
         {
-            logger.debug("Update [{}] last version from [{}] to [{}]",
-                         entity.getArtifactPath(),
-                         lastVersionEntry.getArtifactCoordinates().getVersion(),
-                         coordinates.getVersion());
-            entity.getTagSet().add(lastVersionTag);
-
-            lastVersionEntry.getTagSet().remove(lastVersionTag);
-            result = Optional.of(lastVersionEntry);
+            ArtifactCoordinates coordinates = candidate.getArtifactCoordinates();
+            if (lastVersion == null || coordinates.compareTo(lastVersion) > 0)
+            {
+                lastVersion = coordinates;
+            }
         }
-        else
+
+        for (ArtifactEntry artifactEntry : artifactEntries)
         {
-            logger.debug("Keep [{}] last version [{}]",
-                         entity.getArtifactPath(),
-                         lastVersionEntry.getArtifactCoordinates().getVersion());
-            entity.getTagSet().remove(lastVersionTag);
+            if (artifactEntry.getArtifactCoordinates().compareTo(lastVersion) == 0)
+            {
+                logger.debug("Set [{}] last version to [{}]",
+                             artifactEntry.getArtifactPath(),
+                             lastVersion.getVersion());
+                artifactEntry.getTagSet().add(lastVersionTag);
+            }
+            else
+            {
+                logger.debug("Keep [{}] last version [{}]",
+                             artifactEntry.getArtifactPath(),
+                             lastVersion.getVersion());
+                artifactEntry.getTagSet().remove(lastVersionTag);
+            }
+        }
+
+        List<ArtifactEntry> result = new ArrayList<>();
+        for (ArtifactEntry candidate : candidates.subList(artifactEntries.size(), candidates.size()))
+        {
+            if (candidate.getArtifactCoordinates().compareTo(lastVersion) < 0)
+            {
+                logger.debug("Update [{}] last version from [{}] to [{}]",
+                             candidate.getArtifactPath(),
+                             candidate.getArtifactCoordinates().getVersion(),
+                             lastVersion.getVersion());
+                candidate.getTagSet().remove(lastVersionTag);
+                result.add(candidate);
+            }
         }
 
         return result;
     }
 
+    @Override
+    public void reconcileGroups(String storageId,
+                                String repositoryId,
+                                Collection<String> artifactIds)
+    {
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
+        for (String artifactId : artifactIds)
+        {
+            RepositoryArtifactIdGroupEntry artifactGroup = findOne(storageId, repositoryId, artifactId);
+            if (artifactGroup == null)
+            {
+                continue;
+            }
+
+            // The group still has its last version, unless it was one of the removed entries.
+            if (!findLastVersionEntries(storageId, repositoryId, artifactId, lastVersionTag).isEmpty())
+            {
+                continue;
+            }
+
+            List<ArtifactEntry> artifactEntries = findArtifactEntries(artifactGroup);
+            if (artifactEntries.isEmpty())
+            {
+                logger.debug("Delete empty artifact group [{}:{}:{}]", storageId, repositoryId, artifactId);
+                groupIdCache.invalidate(calculateKey(storageId, repositoryId, artifactId));
+                delete(artifactGroup);
+
+                continue;
+            }
+
+            ArtifactEntry lastVersion = null;
+            for (ArtifactEntry artifactEntry : artifactEntries)
+            {
+                if (lastVersion == null
+                    || artifactEntry.getArtifactCoordinates().compareTo(lastVersion.getArtifactCoordinates()) > 0)
+                {
+                    lastVersion = artifactEntry;
+                }
+            }
+
+            logger.debug("Set [{}] last version to [{}]",
+                         lastVersion.getArtifactPath(),
+                         lastVersion.getArtifactCoordinates().getVersion());
+            lastVersion.getTagSet().add(lastVersionTag);
+            artifactEntryService.save(lastVersion);
+        }
+    }
+
+    private String calculateKey(String storageId,
+                                String repositoryId,
+                                String artifactId)
+    {
+        return String.format("%s:%s:%s", storageId, repositoryId, artifactId);
+    }
+
     @Override
     public long count(String storageId,
                       String repositoryId)
@@ -120,24 +303,40 @@ public class RepositoryArtifactIdGroupServiceImpl
     }
 
     @Override
-    public List<RepositoryArtifactIdGroupEntry> findMatching(String storageId,
-                                                             String repositoryId,
-                                                             PagingCriteria pagingCriteria)
+    public List<ArtifactEntry> findArtifactEntries(RepositoryArtifactIdGroupEntry artifactGroup)
     {
-        Map<String, String> params = new HashMap<>();
-        params.put("storageId", storageId);
-        params.put("repositoryId", repositoryId);
+        String sQuery = "SELECT FROM ArtifactEntry WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                        "AND artifactIdGroup = :artifactIdGroup";
 
-        String sQuery = buildQuery(params);
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", artifactGroup.getStorageId());
+        params.put("repositoryId", artifactGroup.getRepositoryId());
+        params.put("artifactIdGroup", artifactGroup.getName());
+
+        return getDelegate().command(new OSQLSynchQuery<ArtifactEntry>(sQuery)).execute(params);
+    }
 
-        StringBuilder sb = new StringBuilder(sQuery);
-        appendPagingCriteria(sb, pagingCriteria);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long deleteAll(String storageId,
+                          String repositoryId)
+    {
+        groupIdCache.invalidateAll();
 
-        logger.debug("Executing SQL query> {}", sb);
+        return deleteAll(Predicate.of(ExpOperator.EQ.of("storageId", storageId))
+                                  .and(Predicate.of(ExpOperator.EQ.of("repositoryId", repositoryId))));
+    }
 
-        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sb.toString());
+    @Override
+    public List<RepositoryArtifactIdGroupEntry> findMatching(String storageId,
+                                                             String repositoryId,
+                                                             PagingCriteria pagingCriteria)
+    {
+        QueryBuilder queryBuilder = QueryBuilder.select(getEntityClass())
+                                                .where("storageId", ExpOperator.EQ, storageId)
+                                                .where("repositoryId", ExpOperator.EQ, repositoryId);
 
-        return getDelegate().command(oQuery).execute(params);
+        return applyPagingCriteria(queryBuilder, pagingCriteria).build().execute(getDelegate());
     }
 
     public RepositoryArtifactIdGroupEntry findOneOrCreate(String storageId,
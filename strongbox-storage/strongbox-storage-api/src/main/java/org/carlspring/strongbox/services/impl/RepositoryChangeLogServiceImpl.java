@@ -0,0 +1,128 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.RepositoryChange;
+import org.carlspring.strongbox.services.RepositoryChangeLogService;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * All the queries are range scans over the {@code (storageId, repositoryId, sequence)} index.
+ */
+@Service
+@Transactional
+public class RepositoryChangeLogServiceImpl
+        extends CommonCrudService<RepositoryChange>
+        implements RepositoryChangeLogService
+{
+
+    @Override
+    public List<RepositoryChange> findChanges(String storageId,
+                                              String repositoryId,
+                                              long since,
+                                              int limit)
+    {
+        String sQuery = String.format("SELECT FROM %s WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                                      "AND sequence > :since ORDER BY sequence ASC",
+                                      getEntityClass().getSimpleName());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("since", since);
+
+        OSQLSynchQuery<RepositoryChange> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(limit);
+
+        List<RepositoryChange> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream().map(this::detach).collect(Collectors.toList());
+    }
+
+    @Override
+    public long findFirstSequence(String storageId,
+                                  String repositoryId)
+    {
+        return findSequence(storageId, repositoryId, "ASC");
+    }
+
+    @Override
+    public long findLastSequence(String storageId,
+                                 String repositoryId)
+    {
+        return findSequence(storageId, repositoryId, "DESC");
+    }
+
+    private long findSequence(String storageId,
+                              String repositoryId,
+                              String order)
+    {
+        String sQuery = String.format("SELECT sequence FROM %s WHERE storageId = :storageId " +
+                                      "AND repositoryId = :repositoryId ORDER BY sequence %s",
+                                      getEntityClass().getSimpleName(), order);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+        oQuery.setLimit(1);
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream()
+                         .findFirst()
+                         .map(d -> d.<Number>field("sequence"))
+                         .map(Number::longValue)
+                         .orElse(0L);
+    }
+
+    @Override
+    public int deleteOlderThan(String storageId,
+                               String repositoryId,
+                               Date timestamp)
+    {
+        long lastSequence = findLastSequence(storageId, repositoryId);
+        if (lastSequence == 0)
+        {
+            return 0;
+        }
+
+        String sQuery = String.format("DELETE FROM %s WHERE storageId = :storageId AND repositoryId = :repositoryId " +
+                                      "AND sequence < :lastSequence AND timestamp < :timestamp",
+                                      getEntityClass().getSimpleName());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("lastSequence", lastSequence);
+        params.put("timestamp", timestamp);
+
+        return getDelegate().command(new OCommandSQL(sQuery)).execute(params);
+    }
+
+    @Override
+    public int delete(String storageId,
+                      String repositoryId)
+    {
+        String sQuery = String.format("DELETE FROM %s WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        return getDelegate().command(new OCommandSQL(sQuery)).execute(params);
+    }
+
+}
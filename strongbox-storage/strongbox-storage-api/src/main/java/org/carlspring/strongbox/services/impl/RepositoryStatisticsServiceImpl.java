@@ -0,0 +1,109 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.data.service.CommonCrudService;
+import org.carlspring.strongbox.domain.RepositoryStatistics;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryStatisticsService;
+
+import javax.inject.Inject;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.javatuples.Pair;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class RepositoryStatisticsServiceImpl
+        extends CommonCrudService<RepositoryStatistics>
+        implements RepositoryStatisticsService
+{
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Override
+    public RepositoryStatistics findOne(String storageId,
+                                        String repositoryId)
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        OSQLSynchQuery<RepositoryStatistics> oQuery = new OSQLSynchQuery<>(buildQuery(params));
+        oQuery.setLimit(1);
+
+        List<RepositoryStatistics> resultList = getDelegate().command(oQuery).execute(params);
+
+        return resultList.stream().findFirst().map(this::detach).orElse(null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RepositoryStatistics findOneOrCreate(String storageId,
+                                                String repositoryId)
+    {
+        RepositoryStatistics result = inTransaction(t -> findOne(storageId, repositoryId));
+        if (result != null)
+        {
+            return result;
+        }
+
+        try
+        {
+            return inTransaction(t -> reconcile(storageId, repositoryId));
+        }
+        catch (RuntimeException e)
+        {
+            // The statistics may have been created concurrently, in which case the unique index rejects ours on commit.
+            result = inTransaction(t -> findOne(storageId, repositoryId));
+            if (result == null)
+            {
+                throw e;
+            }
+
+            return result;
+        }
+    }
+
+    @Override
+    public RepositoryStatistics reconcile(String storageId,
+                                          String repositoryId)
+    {
+        Pair<Long, Long> aggregate = artifactEntryService.countArtifactsAndSizeInBytes(storageId, repositoryId);
+
+        RepositoryStatistics statistics = findOne(storageId, repositoryId);
+        if (statistics == null)
+        {
+            statistics = new RepositoryStatistics(storageId, repositoryId);
+            statistics.setLastActivity(new Date());
+        }
+
+        statistics.setArtifactCount(aggregate.getValue0());
+        statistics.setSizeInBytes(aggregate.getValue1());
+        statistics.setLastReconciled(new Date());
+
+        return detach(save(statistics));
+    }
+
+    @Override
+    public int delete(String storageId,
+                      String repositoryId)
+    {
+        String sQuery = String.format("DELETE FROM %s WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        return getDelegate().command(new OCommandSQL(sQuery)).execute(params);
+    }
+
+}
@@ -0,0 +1,130 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Calculates the search tokens of the artifact coordinates, which are stored in {@code ArtifactEntry.coordinateTokens}
+ * and indexed, so that the coordinate searches don't need to scan all the artifact entries.
+ * <p>
+ * Every coordinate value is lower cased and produces:
+ * <ul>
+ * <li>an exact token {@code name=value}</li>
+ * <li>trigram tokens {@code name:abc} of the value padded with {@code ^^} at the start and {@code $} at the end</li>
+ * </ul>
+ * A search pattern is translated into the tokens which every matching value has to have: the exact token if the
+ * pattern has no wildcards, otherwise the trigrams of its literal parts (anchored to the start or the end of the value
+ * if the pattern is). The tokens narrow the search down with the index, the pattern itself still has to be checked
+ * against the candidates.
+ * <p>
+ * The tokens of the entries stored before them are calculated by the {@link #MIGRATION} data migration, and the
+ * searches only rely on them once it's completed.
+ */
+public final class ArtifactCoordinatesSearchTokens
+{
+
+    /**
+     * Limits the number of conditions added to a query, the few most selective tokens are enough for the index lookup.
+     */
+    public static final int MAX_QUERY_TOKENS = 6;
+
+    public static final String MIGRATION = "artifact-entry-coordinate-tokens";
+
+    private static final String START = "^^";
+
+    private static final String END = "$";
+
+    private ArtifactCoordinatesSearchTokens()
+    {
+    }
+
+    public static Set<String> of(Map<String, String> coordinates)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        for (Map.Entry<String, String> coordinate : coordinates.entrySet())
+        {
+            if (coordinate.getValue() == null)
+            {
+                continue;
+            }
+
+            String name = coordinate.getKey();
+            String value = normalize(coordinate.getValue());
+
+            result.add(exactToken(name, value));
+            trigrams(name, START + value + END, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Translates the search pattern of a coordinate into the tokens which every matching value has.
+     *
+     * @param pattern
+     *            the coordinate value, with {@code %} and {@code ?} wildcards if it's a {@code LIKE} pattern
+     * @return the tokens, at most {@link #MAX_QUERY_TOKENS}, or an empty list if the pattern can't be narrowed down
+     *         with the index (for example a substring shorter than three characters)
+     */
+    public static List<String> ofPattern(String name,
+                                         String pattern)
+    {
+        if (pattern == null)
+        {
+            return Collections.emptyList();
+        }
+
+        String value = normalize(pattern);
+        if (value.indexOf('%') < 0 && value.indexOf('?') < 0)
+        {
+            return Collections.singletonList(exactToken(name, value));
+        }
+
+        // Anchored parts are the most selective ones, so they go first.
+        Set<String> anchored = new LinkedHashSet<>();
+        Set<String> floating = new LinkedHashSet<>();
+
+        String[] parts = value.split("[%?]", -1);
+        for (int i = 0; i < parts.length; i++)
+        {
+            String part = parts[i];
+            boolean first = i == 0 && !part.isEmpty();
+            boolean last = i == parts.length - 1 && !part.isEmpty();
+
+            part = (first ? START : "") + part + (last ? END : "");
+            trigrams(name, part, first || last ? anchored : floating);
+        }
+
+        List<String> result = new ArrayList<>(anchored);
+        floating.stream().filter(t -> !anchored.contains(t)).forEach(result::add);
+
+        return result.size() > MAX_QUERY_TOKENS ? result.subList(0, MAX_QUERY_TOKENS) : result;
+    }
+
+    private static String normalize(String value)
+    {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String exactToken(String name,
+                                     String value)
+    {
+        return String.format("%s=%s", name, value);
+    }
+
+    private static void trigrams(String name,
+                                 String value,
+                                 Set<String> result)
+    {
+        for (int i = 0; i + 3 <= value.length(); i++)
+        {
+            result.add(String.format("%s:%s", name, value.substring(i, i + 3)));
+        }
+    }
+
+}
@@ -6,13 +6,30 @@ package org.carlspring.strongbox.services.support;
 public class ArtifactEntrySearchCriteria
 {
 
+    private String storageId;
+
+    private String repositoryId;
+
     private Integer lastAccessedTimeInDays;
 
     private Long minSizeInBytes;
 
+    private String archiveFilename;
+
     public boolean isEmpty()
     {
-        return lastAccessedTimeInDays == null && minSizeInBytes == null;
+        return storageId == null && repositoryId == null && lastAccessedTimeInDays == null && minSizeInBytes == null &&
+               archiveFilename == null;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
     }
 
     public Integer getLastAccessedTimeInDays()
@@ -25,11 +42,22 @@ public class ArtifactEntrySearchCriteria
         return minSizeInBytes;
     }
 
+    /**
+     * @return the full name, or the last path segment, of a file which the artifact archives should contain
+     */
+    public String getArchiveFilename()
+    {
+        return archiveFilename;
+    }
+
     public static final class Builder
     {
 
+        private String storageId;
+        private String repositoryId;
         private Integer lastAccessedTimeInDays;
         private Long minSizeInBytes;
+        private String archiveFilename;
 
         private Builder()
         {
@@ -40,6 +68,18 @@ public class ArtifactEntrySearchCriteria
             return new Builder();
         }
 
+        public Builder withStorageId(String storageId)
+        {
+            this.storageId = storageId;
+            return this;
+        }
+
+        public Builder withRepositoryId(String repositoryId)
+        {
+            this.repositoryId = repositoryId;
+            return this;
+        }
+
         public Builder withLastAccessedTimeInDays(Integer lastAccessedTimeInDays)
         {
             this.lastAccessedTimeInDays = lastAccessedTimeInDays;
@@ -52,11 +92,20 @@ public class ArtifactEntrySearchCriteria
             return this;
         }
 
+        public Builder withArchiveFilename(String archiveFilename)
+        {
+            this.archiveFilename = archiveFilename;
+            return this;
+        }
+
         public ArtifactEntrySearchCriteria build()
         {
             ArtifactEntrySearchCriteria artifactEntrySearchCriteria = new ArtifactEntrySearchCriteria();
+            artifactEntrySearchCriteria.storageId = this.storageId;
+            artifactEntrySearchCriteria.repositoryId = this.repositoryId;
             artifactEntrySearchCriteria.lastAccessedTimeInDays = this.lastAccessedTimeInDays;
             artifactEntrySearchCriteria.minSizeInBytes = this.minSizeInBytes;
+            artifactEntrySearchCriteria.archiveFilename = this.archiveFilename;
             return artifactEntrySearchCriteria;
         }
     }
@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.services.support;
+
+/**
+ * The outcome of a bulk import, see {@link org.carlspring.strongbox.services.BulkImportService}.
+ */
+public class BulkImportResult
+{
+
+    private final long files;
+
+    private final long artifacts;
+
+    private final long sizeInBytes;
+
+    private final long skipped;
+
+    private final long failed;
+
+    private final long durationMillis;
+
+    public BulkImportResult(long files,
+                            long artifacts,
+                            long sizeInBytes,
+                            long skipped,
+                            long failed,
+                            long durationMillis)
+    {
+        this.files = files;
+        this.artifacts = artifacts;
+        this.sizeInBytes = sizeInBytes;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return the number of imported files, including the non artifact ones (metadata, for example)
+     */
+    public long getFiles()
+    {
+        return files;
+    }
+
+    /**
+     * @return the number of imported artifacts, which have their {@code ArtifactEntry} stored
+     */
+    public long getArtifacts()
+    {
+        return artifacts;
+    }
+
+    public long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    /**
+     * @return the number of skipped files, the checksums, which are calculated instead
+     */
+    public long getSkipped()
+    {
+        return skipped;
+    }
+
+    public long getFailed()
+    {
+        return failed;
+    }
+
+    public long getDurationMillis()
+    {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("BulkImportResult{files=%s, artifacts=%s, sizeInBytes=%s, skipped=%s, failed=%s, " +
+                             "durationMillis=%s}",
+                             files, artifacts, sizeInBytes, skipped, failed, durationMillis);
+    }
+
+}
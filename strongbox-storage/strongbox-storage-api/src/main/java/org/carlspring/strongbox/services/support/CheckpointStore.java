@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the progress of long running maintenance tasks (cleanups, reindexing etc.) on disk, so that an interrupted
+ * task is able to continue from the position it has reached instead of starting over.
+ * <p>
+ * Each checkpoint is a small properties file stored under {@code ${strongbox.vault}/.checkpoints}.
+ */
+@Component
+public class CheckpointStore
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final String CHECKPOINTS_DIRECTORY = ".checkpoints";
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    public Properties load(String name)
+    {
+        Properties properties = new Properties();
+
+        Path checkpointPath = resolve(name);
+        if (!Files.exists(checkpointPath))
+        {
+            return properties;
+        }
+
+        try (InputStream is = Files.newInputStream(checkpointPath))
+        {
+            properties.load(is);
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed to read checkpoint [{}], starting from scratch.", checkpointPath, e);
+            properties.clear();
+        }
+
+        return properties;
+    }
+
+    public synchronized void save(String name,
+                                  Properties properties)
+            throws IOException
+    {
+        Path checkpointPath = resolve(name);
+        Files.createDirectories(checkpointPath.getParent());
+
+        Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tempPath))
+        {
+            properties.store(os, name);
+        }
+
+        Files.move(tempPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public synchronized void remove(String name)
+            throws IOException
+    {
+        Files.deleteIfExists(resolve(name));
+    }
+
+    private Path resolve(String name)
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(), CHECKPOINTS_DIRECTORY)
+                    .resolve(name.replaceAll("[^a-zA-Z0-9._-]", "_") + ".properties");
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.services.support;
+
+/**
+ * The outcome of a repository reconciliation, see
+ * {@link org.carlspring.strongbox.services.ArtifactEntryReconciliationService}.
+ */
+public class ReconciliationResult
+{
+
+    private final long files;
+
+    private final long created;
+
+    private final long updated;
+
+    private final long removed;
+
+    private final long failed;
+
+    private final long durationMillis;
+
+    public ReconciliationResult(long files,
+                                long created,
+                                long updated,
+                                long removed,
+                                long failed,
+                                long durationMillis)
+    {
+        this.files = files;
+        this.created = created;
+        this.updated = updated;
+        this.removed = removed;
+        this.failed = failed;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return the number of checked artifact files
+     */
+    public long getFiles()
+    {
+        return files;
+    }
+
+    /**
+     * @return the number of entries created for the artifact files which had none
+     */
+    public long getCreated()
+    {
+        return created;
+    }
+
+    /**
+     * @return the number of entries which didn't match their artifact files
+     */
+    public long getUpdated()
+    {
+        return updated;
+    }
+
+    /**
+     * @return the number of orphaned entries, whose artifact files don't exist
+     */
+    public long getRemoved()
+    {
+        return removed;
+    }
+
+    public long getFailed()
+    {
+        return failed;
+    }
+
+    public long getDurationMillis()
+    {
+        return durationMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("ReconciliationResult{files=%s, created=%s, updated=%s, removed=%s, failed=%s, " +
+                             "durationMillis=%s}",
+                             files, created, updated, removed, failed, durationMillis);
+    }
+
+}
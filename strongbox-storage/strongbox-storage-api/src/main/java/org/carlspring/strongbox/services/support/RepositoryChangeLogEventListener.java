@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.domain.RepositoryChangeTypeEnum;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryArtifactsImportedEvent;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryChangeLog;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the stored, updated and deleted paths into the {@link RepositoryChangeLog}. A deleted path may be a
+ * directory, in which case everything below it is gone.
+ */
+@Component
+public class RepositoryChangeLogEventListener
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryChangeLogEventListener.class);
+
+    @Inject
+    private RepositoryChangeLog repositoryChangeLog;
+
+    @EventListener
+    public void handle(ArtifactEvent<RepositoryPath> event)
+    {
+        RepositoryChangeTypeEnum type = getChangeType(event.getType());
+        if (type == null)
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = event.getPath();
+        Repository repository = repositoryPath.getRepository();
+
+        String path;
+        try
+        {
+            path = RepositoryFiles.relativizePath(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to record the change of [{}].", repositoryPath, e);
+            return;
+        }
+
+        repositoryChangeLog.append(repository.getStorage().getId(), repository.getId(), type, path);
+    }
+
+    @EventListener
+    public void handle(RepositoryArtifactsImportedEvent event)
+    {
+        event.getArtifactPaths().forEach(p -> repositoryChangeLog.append(event.getStorageId(),
+                                                                         event.getRepositoryId(),
+                                                                         RepositoryChangeTypeEnum.STORE,
+                                                                         p));
+    }
+
+    private RepositoryChangeTypeEnum getChangeType(int eventType)
+    {
+        if (eventType == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+            || eventType == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType())
+        {
+            return RepositoryChangeTypeEnum.STORE;
+        }
+        if (eventType == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+        {
+            return RepositoryChangeTypeEnum.UPDATE;
+        }
+        if (eventType == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return RepositoryChangeTypeEnum.DELETE;
+        }
+
+        return null;
+    }
+
+}
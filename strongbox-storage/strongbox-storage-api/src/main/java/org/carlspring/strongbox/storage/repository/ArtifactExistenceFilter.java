@@ -0,0 +1,506 @@
+package org.carlspring.strongbox.storage.repository;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.storage.Storage;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per repository Bloom filters of the artifact entry paths, so that most lookups of the artifacts which don't exist
+ * (the group members which don't have the artifact, the proxy and deploy checks) are answered without touching the
+ * database.
+ * <p>
+ * The filters are registered on startup and when a repository is created, and built in the background; until then
+ * they answer "might exist". The new entries are added before they are committed, and the ones added from the moment
+ * a build starts counting the entries go to the new filter too, so it never misses an entry. The deleted entries
+ * can't be removed from a filter, they only make it less selective, so the filters are rebuilt on a fixed interval
+ * and as soon as they are filled over their capacity.
+ * <p>
+ * The entries added on the other nodes are received asynchronously, possibly after they have been committed. So
+ * once a node has received an entry of a repository from another node, the negative answers for that repository fall
+ * back to the index for a grace period, while the other node may still be adding entries which haven't arrived yet.
+ * The first entry of a burst, or one whose notification has been lost, is still missed until the next rebuild, so
+ * the negative answers are only relied upon by the read paths (see ArtifactEntryService#artifactExists), never to
+ * decide whether an entry has to be created.
+ */
+@Component
+public class ArtifactExistenceFilter
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactExistenceFilter.class);
+
+    private static final String TOPIC = "artifactExistenceFilter";
+
+    private static final int MIN_EXPECTED_INSERTIONS = 10000;
+
+    @Value("${strongbox.artifact.existenceFilter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.artifact.existenceFilter.fpp:0.01}")
+    private double fpp;
+
+    @Value("${strongbox.artifact.existenceFilter.rebuildIntervalHours:24}")
+    private int rebuildIntervalHours;
+
+    @Value("${strongbox.artifact.existenceFilter.batchSize:1000}")
+    private int batchSize;
+
+    @Value("${strongbox.artifact.existenceFilter.remoteGraceMillis:60000}")
+    private long remoteGraceMillis;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private HazelcastInstance hazelcastInstance;
+
+    private final Map<String, Filter> filters = new ConcurrentHashMap<>();
+
+    private ITopic<ArrayList<String>> topic;
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        topic = hazelcastInstance.getTopic(TOPIC);
+        topic.addMessageListener(this::onArtifactAdded);
+
+        executor = Executors.newSingleThreadExecutor();
+
+        // Registered before any artifact is stored, so the filters don't miss the entries being committed.
+        forEachRepository(this::register);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        scheduler.scheduleWithFixedDelay(this::rebuildAll, rebuildIntervalHours, rebuildIntervalHours, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return {@code false} only if there is definitely no artifact entry with the given path
+     */
+    public boolean mightExist(String storageId,
+                              String repositoryId,
+                              String path)
+    {
+        if (!enabled || path == null)
+        {
+            return true;
+        }
+
+        Filter filter = filters.get(calculateKey(storageId, repositoryId));
+        BloomFilter<CharSequence> current = filter == null ? null : filter.current;
+        if (current == null || current.mightContain(path))
+        {
+            return true;
+        }
+
+        // Another node is adding entries, which may have been committed before they have been received.
+        return System.currentTimeMillis() - filter.remoteAddedMillis < remoteGraceMillis;
+    }
+
+    /**
+     * Registers the new artifact entry, must be called before the entry is committed. The other nodes are notified
+     * asynchronously.
+     */
+    public void add(String storageId,
+                    String repositoryId,
+                    String path)
+    {
+        if (!enabled || path == null)
+        {
+            return;
+        }
+
+        addLocally(storageId, repositoryId, path);
+        topic.publish(new ArrayList<>(Arrays.asList(storageId, repositoryId, path)));
+    }
+
+    /**
+     * Builds the filter of the repository, unless it already has one.
+     */
+    public void register(String storageId,
+                         String repositoryId)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        Filter filter = new Filter(storageId, repositoryId);
+        if (filters.putIfAbsent(calculateKey(storageId, repositoryId), filter) == null)
+        {
+            executor.execute(() -> rebuildQuietly(filter));
+        }
+    }
+
+    /**
+     * Starts over with an empty filter, for a repository which has no artifact entries anymore.
+     */
+    public void reset(String storageId,
+                      String repositoryId)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        Filter filter = new Filter(storageId, repositoryId);
+        filter.current = newBloomFilter(0);
+
+        filters.put(calculateKey(storageId, repositoryId), filter);
+    }
+
+    private void addLocally(String storageId,
+                            String repositoryId,
+                            String path)
+    {
+        Filter filter = filters.get(calculateKey(storageId, repositoryId));
+        if (filter == null)
+        {
+            return;
+        }
+
+        boolean full;
+        synchronized (filter)
+        {
+            if (filter.current != null)
+            {
+                filter.current.put(path);
+            }
+
+            if (filter.building != null)
+            {
+                filter.building.put(path);
+            }
+            else if (filter.current == null || filter.counting)
+            {
+                filter.backlog.add(path);
+            }
+
+            full = filter.current != null && filter.building == null && !filter.counting
+                   && filter.current.approximateElementCount() > filter.expectedInsertions;
+        }
+
+        if (full)
+        {
+            executor.execute(() -> rebuildQuietly(filter));
+        }
+    }
+
+    private void onArtifactAdded(Message<ArrayList<String>> message)
+    {
+        if (message.getPublishingMember().localMember())
+        {
+            return;
+        }
+
+        List<String> artifact = message.getMessageObject();
+        addLocally(artifact.get(0), artifact.get(1), artifact.get(2));
+
+        Filter filter = filters.get(calculateKey(artifact.get(0), artifact.get(1)));
+        if (filter != null)
+        {
+            filter.remoteAddedMillis = System.currentTimeMillis();
+        }
+    }
+
+    private void rebuildAll()
+    {
+        forEachRepository((storageId, repositoryId) -> {
+            Filter filter = filters.get(calculateKey(storageId, repositoryId));
+            if (filter == null)
+            {
+                register(storageId, repositoryId);
+            }
+            else
+            {
+                rebuildQuietly(filter);
+            }
+        });
+    }
+
+    private void forEachRepository(BiConsumer<String, String> action)
+    {
+        for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            for (Repository repository : storage.getRepositories().values())
+            {
+                if (!repository.isGroupRepository())
+                {
+                    action.accept(storage.getId(), repository.getId());
+                }
+            }
+        }
+    }
+
+    private void rebuildQuietly(Filter filter)
+    {
+        try
+        {
+            rebuild(filter);
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to build the artifact existence filter of [{}:{}].", filter.storageId,
+                         filter.repositoryId, e);
+        }
+    }
+
+    private void rebuild(Filter filter)
+    {
+        synchronized (filter)
+        {
+            if (filter.building != null || filter.counting)
+            {
+                return;
+            }
+
+            // The entries added from now on are kept for the new filter, so it misses none of them, including the
+            // ones committed between the count and the scan.
+            filter.counting = true;
+        }
+
+        long artifacts;
+        BloomFilter<CharSequence> bloomFilter;
+        try
+        {
+            artifacts = countArtifacts(filter.storageId, filter.repositoryId);
+            bloomFilter = newBloomFilter(artifacts);
+
+            synchronized (filter)
+            {
+                filter.counting = false;
+                filter.building = bloomFilter;
+                filter.backlog.forEach(bloomFilter::put);
+                filter.backlog.clear();
+            }
+
+            String after = "";
+            List<String> batch;
+            do
+            {
+                batch = findArtifactPaths(filter.storageId, filter.repositoryId, after);
+                batch.forEach(bloomFilter::put);
+
+                after = batch.isEmpty() ? after : batch.get(batch.size() - 1);
+            }
+            while (batch.size() == batchSize);
+        }
+        catch (RuntimeException e)
+        {
+            synchronized (filter)
+            {
+                filter.counting = false;
+                filter.building = null;
+                // The entries kept meanwhile have been added to the current filter as well.
+                if (filter.current != null)
+                {
+                    filter.backlog.clear();
+                }
+            }
+
+            // Without a filter the entries added meanwhile would pile up, it's registered again with the rebuild.
+            if (filter.current == null)
+            {
+                filters.remove(calculateKey(filter.storageId, filter.repositoryId), filter);
+            }
+
+            throw e;
+        }
+
+        synchronized (filter)
+        {
+            filter.current = bloomFilter;
+            filter.building = null;
+            filter.expectedInsertions = expectedInsertions(artifacts);
+        }
+
+        logger.debug("Built the artifact existence filter of [{}:{}] with [{}] artifacts.", filter.storageId,
+                     filter.repositoryId, artifacts);
+    }
+
+    private long countArtifacts(String storageId,
+                                String repositoryId)
+    {
+        return new TransactionTemplate(transactionManager).execute(t -> {
+            String sQuery = String.format("SELECT count(*) AS artifacts FROM %s " +
+                                          "WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                          ArtifactEntry.class.getSimpleName());
+
+            List<ODocument> resultList = getDatabase().command(new OSQLSynchQuery<ODocument>(sQuery))
+                                                      .execute(toParameterMap(storageId, repositoryId));
+
+            return resultList.stream()
+                             .findFirst()
+                             .map(d -> d.<Number>field("artifacts"))
+                             .map(Number::longValue)
+                             .orElse(0L);
+        });
+    }
+
+    /**
+     * Scans the {@code (storageId, repositoryId, artifactPath)} index, only the paths are loaded.
+     */
+    private List<String> findArtifactPaths(String storageId,
+                                           String repositoryId,
+                                           String after)
+    {
+        return new TransactionTemplate(transactionManager).execute(t -> {
+            String sQuery = String.format("SELECT artifactPath FROM %s WHERE storageId = :storageId " +
+                                          "AND repositoryId = :repositoryId AND artifactPath > :after " +
+                                          "ORDER BY artifactPath ASC",
+                                          ArtifactEntry.class.getSimpleName());
+
+            Map<String, Object> params = toParameterMap(storageId, repositoryId);
+            params.put("after", after);
+
+            OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+            oQuery.setLimit(batchSize);
+
+            List<ODocument> resultList = getDatabase().command(oQuery).execute(params);
+
+            return resultList.stream()
+                             .map(d -> d.<String>field("artifactPath"))
+                             .collect(Collectors.toList());
+        });
+    }
+
+    private Map<String, Object> toParameterMap(String storageId,
+                                               String repositoryId)
+    {
+        Map<String, Object> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+
+        return params;
+    }
+
+    private OObjectDatabaseTx getDatabase()
+    {
+        return (OObjectDatabaseTx) entityManager.getDelegate();
+    }
+
+    private BloomFilter<CharSequence> newBloomFilter(long artifacts)
+    {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions(artifacts), fpp);
+    }
+
+    /**
+     * Leaves room for the repository to double before the filter has to be rebuilt.
+     */
+    private static long expectedInsertions(long artifacts)
+    {
+        return Math.max(MIN_EXPECTED_INSERTIONS, artifacts * 2);
+    }
+
+    private String calculateKey(String storageId,
+                                String repositoryId)
+    {
+        return String.format("%s:%s", storageId, repositoryId);
+    }
+
+    private static class Filter
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        /**
+         * The filter which answers the lookups, {@code null} until it's built. Guava Bloom filters are thread safe.
+         */
+        private volatile BloomFilter<CharSequence> current;
+
+        /**
+         * The filter being built, guarded by the instance lock together with the updates.
+         */
+        private BloomFilter<CharSequence> building;
+
+        /**
+         * Whether a build is counting the entries, before the filter to be built can be sized, guarded by the
+         * instance lock.
+         */
+        private boolean counting;
+
+        /**
+         * The entries added before the first build has started, or while a build is counting the entries, guarded by
+         * the instance lock.
+         */
+        private final List<String> backlog = new ArrayList<>();
+
+        /**
+         * When an entry has last been received from another node.
+         */
+        private volatile long remoteAddedMillis;
+
+        private long expectedInsertions = MIN_EXPECTED_INSERTIONS;
+
+        private Filter(String storageId,
+                       String repositoryId)
+        {
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+        }
+
+    }
+
+}
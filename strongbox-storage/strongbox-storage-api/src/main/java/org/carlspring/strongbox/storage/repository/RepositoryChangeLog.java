@@ -0,0 +1,393 @@
+package org.carlspring.strongbox.storage.repository;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.PendingRepositoryChange;
+import org.carlspring.strongbox.domain.RepositoryChange;
+import org.carlspring.strongbox.domain.RepositoryChangeTypeEnum;
+import org.carlspring.strongbox.services.PendingRepositoryChangeService;
+import org.carlspring.strongbox.services.RepositoryChangeLogService;
+import org.carlspring.strongbox.storage.Storage;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Appends the store, update and delete operations to the per repository {@link RepositoryChange} log, so the
+ * incremental consumers (mirrors, indexers, the cron jobs) can process only the changes since the last sequence they
+ * have seen.
+ * <p>
+ * The changes are first recorded as {@link PendingRepositoryChange}s within the transaction of the operation, if there
+ * is one, so they are durable once the operation is committed and discarded if it's rolled back. A single writer then
+ * numbers them into the log in batched transactions, in the order they were committed, deleting the pending changes
+ * within the same transaction. The sequences are assigned starting from the latest persisted one; if another node has
+ * taken the same sequence meanwhile, the unique index rejects the batch and it's retried with the sequences reloaded.
+ * This way the sequences of a repository are gapless and a change becomes visible only together with all the
+ * preceding ones. A batch which fails otherwise is written one change at a time, and the changes which still fail are
+ * dead lettered, so they don't hold back the following ones. The changes older than the retention period are purged
+ * daily.
+ */
+@Component
+public class RepositoryChangeLog
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryChangeLog.class);
+
+    private static final int MAX_RETRY = 10;
+
+    @Value("${strongbox.repository.changeLog.flushIntervalMillis:200}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.repository.changeLog.batchSize:500}")
+    private int batchSize;
+
+    @Value("${strongbox.repository.changeLog.retentionDays:30}")
+    private int retentionDays;
+
+    @Inject
+    private RepositoryChangeLogService repositoryChangeLogService;
+
+    @Inject
+    private PendingRepositoryChangeService pendingRepositoryChangeService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The latest persisted sequence per repository, guarded by the {@link #flushLock}.
+     */
+    private final Map<String, Long> sequences = new HashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::flushQuietly,
+                                        flushIntervalMillis,
+                                        flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::purgeQuietly, 1, 24, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void destroy()
+            throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+
+        flushQuietly();
+    }
+
+    /**
+     * Records the change within the current transaction, or a transaction of its own if there is none.
+     */
+    public void append(String storageId,
+                       String repositoryId,
+                       RepositoryChangeTypeEnum type,
+                       String path)
+    {
+        PendingRepositoryChange change = new PendingRepositoryChange();
+        change.setStorageId(storageId);
+        change.setRepositoryId(repositoryId);
+        change.setType(type.name());
+        change.setPath(path);
+        change.setTimestamp(new Date());
+
+        pendingRepositoryChangeService.save(change);
+    }
+
+    /**
+     * @return the number of committed changes not written to the log yet
+     */
+    public long getQueueDepth()
+    {
+        return pendingRepositoryChangeService.countPending();
+    }
+
+    /**
+     * @return the number of changes which couldn't be written to the log
+     */
+    public long getDeadLetteredChanges()
+    {
+        return pendingRepositoryChangeService.countDeadLettered();
+    }
+
+    /**
+     * Writes all the changes committed at the moment of the call.
+     */
+    public void flush()
+    {
+        flushLock.lock();
+        try
+        {
+            int written;
+            do
+            {
+                written = writeBatch();
+            }
+            while (written >= batchSize);
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the whole change log of the repository, the sequence starts over.
+     */
+    public void reset(String storageId,
+                      String repositoryId)
+    {
+        flushLock.lock();
+        try
+        {
+            flush();
+
+            sequences.remove(calculateKey(storageId, repositoryId));
+            repositoryChangeLogService.delete(storageId, repositoryId);
+        }
+        finally
+        {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the changes older than the retention period.
+     */
+    public void purge()
+    {
+        Date timestamp = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays));
+
+        for (Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            for (Repository repository : storage.getRepositories().values())
+            {
+                int deleted = repositoryChangeLogService.deleteOlderThan(storage.getId(), repository.getId(),
+                                                                         timestamp);
+                if (deleted > 0)
+                {
+                    logger.debug("Purged [{}] changes of [{}:{}].", deleted, storage.getId(), repository.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of pending changes which have been written or dead lettered, {@code 0} if the batch should
+     *         be retried later
+     */
+    private int writeBatch()
+    {
+        try
+        {
+            return write(null);
+        }
+        catch (ORecordDuplicatedException | ONeedRetryException e)
+        {
+            logger.warn("Failed to write a batch of repository changes, retrying later.", e);
+
+            return 0;
+        }
+        catch (RuntimeException e)
+        {
+            logger.warn("Failed to write a batch of repository changes, writing them one at a time.", e);
+        }
+
+        List<String> ids = new TransactionTemplate(transactionManager).execute(
+                t -> pendingRepositoryChangeService.findPending(batchSize)
+                                                   .stream()
+                                                   .map(PendingRepositoryChange::getObjectId)
+                                                   .collect(Collectors.toList()));
+
+        int result = 0;
+        for (String id : ids)
+        {
+            try
+            {
+                write(id);
+            }
+            catch (ORecordDuplicatedException | ONeedRetryException e)
+            {
+                logger.warn("Failed to write the repository change [{}], retrying later.", id, e);
+
+                return 0;
+            }
+            catch (RuntimeException e)
+            {
+                logger.error("Failed to write the repository change [{}], dead lettering it.", id, e);
+                if (!deadLetter(id))
+                {
+                    return 0;
+                }
+            }
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Numbers the pending changes into the log, and deletes them, within one transaction.
+     *
+     * @param id
+     *            the pending change to write, or {@code null} to write the next batch
+     * @return the number of written changes
+     */
+    private int write(String id)
+    {
+        for (int i = 1; ; i++)
+        {
+            Map<String, Long> assigned = new HashMap<>();
+            try
+            {
+                int result = new TransactionTemplate(transactionManager).execute(t -> {
+                    List<PendingRepositoryChange> changes =
+                            id == null ? pendingRepositoryChangeService.findPending(batchSize)
+                                       : pendingRepositoryChangeService.findOne(id)
+                                                                       .map(Collections::singletonList)
+                                                                       .orElse(Collections.emptyList());
+                    for (PendingRepositoryChange change : changes)
+                    {
+                        RepositoryChange entity = new RepositoryChange();
+                        entity.setStorageId(change.getStorageId());
+                        entity.setRepositoryId(change.getRepositoryId());
+                        entity.setSequence(nextSequence(assigned, change.getStorageId(), change.getRepositoryId()));
+                        entity.setType(change.getType());
+                        entity.setPath(change.getPath());
+                        entity.setTimestamp(change.getTimestamp());
+
+                        repositoryChangeLogService.save(entity);
+                        pendingRepositoryChangeService.delete(change);
+                    }
+
+                    return changes.size();
+                });
+
+                sequences.putAll(assigned);
+
+                return result;
+            }
+            catch (ORecordDuplicatedException | ONeedRetryException e)
+            {
+                // Another node has appended to the same repositories, reload their sequences.
+                assigned.keySet().forEach(sequences::remove);
+                if (i >= MAX_RETRY)
+                {
+                    throw e;
+                }
+
+                logger.debug("Retry writing the pending repository changes.");
+            }
+            catch (RuntimeException e)
+            {
+                assigned.keySet().forEach(sequences::remove);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the change couldn't be dead lettered either
+     */
+    private boolean deadLetter(String id)
+    {
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                pendingRepositoryChangeService.findOne(id).ifPresent(change -> {
+                    change.setDeadLettered(true);
+                    pendingRepositoryChangeService.save(change);
+                });
+
+                return null;
+            });
+
+            return true;
+        }
+        catch (RuntimeException e)
+        {
+            logger.error("Failed to dead letter the repository change [{}].", id, e);
+
+            return false;
+        }
+    }
+
+    private long nextSequence(Map<String, Long> assigned,
+                              String storageId,
+                              String repositoryId)
+    {
+        String key = calculateKey(storageId, repositoryId);
+
+        Long last = assigned.get(key);
+        if (last == null)
+        {
+            last = sequences.computeIfAbsent(key, k -> repositoryChangeLogService.findLastSequence(storageId,
+                                                                                                  repositoryId));
+        }
+
+        assigned.put(key, last + 1);
+
+        return last + 1;
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush pending repository changes.", e);
+        }
+    }
+
+    private void purgeQuietly()
+    {
+        try
+        {
+            purge();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to purge the repository changes.", e);
+        }
+    }
+
+    private String calculateKey(String storageId,
+                                String repositoryId)
+    {
+        return String.format("%s:%s", storageId, repositoryId);
+    }
+
+}
@@ -0,0 +1,328 @@
+package org.carlspring.strongbox.storage.repository;
+
+import org.carlspring.strongbox.data.service.impl.WriteBehindQueue;
+import org.carlspring.strongbox.domain.RepositoryStatistics;
+import org.carlspring.strongbox.services.RepositoryStatisticsService;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps track of the number of artifacts, their total size and the last activity per repository.
+ * <p>
+ * The counters are backed by the persisted {@link RepositoryStatistics}, which are calculated with a single aggregate
+ * query the first time a repository is asked for. After that they are maintained incrementally from the store and
+ * delete paths (the persisted ones are written behind, see {@link WriteBehindQueue}) and reconciled on a fixed
+ * interval, so the callers (quota checks, cleanup heuristics, the UI) never have to scan the repository.
+ * <p>
+ * The counters are per node approximations, see {@link RepositoryStatistics}. The deltas aren't applied to the
+ * persisted statistics within the transactions they count, as every store and delete of a repository would then
+ * contend on the same record.
+ */
+@Component
+public class RepositoryUsageCounter
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryUsageCounter.class);
+
+    private final Map<String, Usage> usageMap = new ConcurrentHashMap<>();
+
+    /**
+     * The repositories which have no statistics yet, so the deltas applied on every commit don't look them up.
+     */
+    private final Set<String> missingStatistics = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of reconciliations in progress per repository, the deltas aren't applied meanwhile.
+     */
+    private final Map<String, Integer> reconciling = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @Value("${strongbox.repository.statistics.reconcileIntervalMinutes:60}")
+    private int reconcileIntervalMinutes;
+
+    @Inject
+    private RepositoryStatisticsService repositoryStatisticsService;
+
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::reconcileAll,
+                                        reconcileIntervalMinutes,
+                                        reconcileIntervalMinutes,
+                                        TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    public Usage getUsage(String storageId,
+                          String repositoryId)
+    {
+        String key = calculateKey(storageId, repositoryId);
+
+        Usage usage = usageMap.get(key);
+        if (usage != null)
+        {
+            return usage;
+        }
+
+        // The statistics are looked up outside of the map, so the database isn't accessed while holding its lock.
+        usage = new Usage(repositoryStatisticsService.findOneOrCreate(storageId, repositoryId));
+        missingStatistics.remove(key);
+
+        Usage existing = usageMap.putIfAbsent(key, usage);
+
+        return existing != null ? existing : usage;
+    }
+
+    /**
+     * Applies the given deltas once the current transaction, if any, is committed, so a rolled back change doesn't
+     * make the counters drift. If the repository statistics have not been calculated yet this is no-op, because they
+     * will be calculated from scratch on the first access. The same goes for the deltas applied while the repository
+     * is being reconciled, see {@link #reconcile(String, String)}.
+     */
+    public void update(String storageId,
+                       String repositoryId,
+                       long artifactsDelta,
+                       long sizeInBytesDelta)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            apply(storageId, repositoryId, artifactsDelta, sizeInBytesDelta);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+        {
+
+            @Override
+            public void afterCommit()
+            {
+                apply(storageId, repositoryId, artifactsDelta, sizeInBytesDelta);
+            }
+
+        });
+    }
+
+    private void apply(String storageId,
+                       String repositoryId,
+                       long artifactsDelta,
+                       long sizeInBytesDelta)
+    {
+        String key = calculateKey(storageId, repositoryId);
+
+        reconcileLock.readLock().lock();
+        try
+        {
+            if (reconciling.containsKey(key))
+            {
+                logger.debug("Skipping the statistics update of [{}], it's being reconciled.", key);
+
+                return;
+            }
+
+            Usage usage = usageMap.get(key);
+            if (usage == null)
+            {
+                if (missingStatistics.contains(key))
+                {
+                    return;
+                }
+
+                RepositoryStatistics statistics = repositoryStatisticsService.findOne(storageId, repositoryId);
+                if (statistics == null)
+                {
+                    missingStatistics.add(key);
+
+                    return;
+                }
+
+                usage = new Usage(statistics);
+
+                Usage existing = usageMap.putIfAbsent(key, usage);
+                usage = existing != null ? existing : usage;
+            }
+
+            Date now = new Date();
+
+            usage.artifacts.addAndGet(artifactsDelta);
+            usage.sizeInBytes.addAndGet(sizeInBytesDelta);
+            usage.lastActivity.set(now);
+
+            writeBehindQueue.increment(RepositoryStatistics.class, usage.objectId, "artifactCount", artifactsDelta);
+            writeBehindQueue.increment(RepositoryStatistics.class, usage.objectId, "sizeInBytes", sizeInBytesDelta);
+            writeBehindQueue.set(RepositoryStatistics.class, usage.objectId, "lastActivity", now);
+        }
+        finally
+        {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    public void reset(String storageId,
+                      String repositoryId)
+    {
+        usageMap.remove(calculateKey(storageId, repositoryId));
+
+        writeBehindQueue.flush();
+        repositoryStatisticsService.delete(storageId, repositoryId);
+    }
+
+    /**
+     * Recalculates the statistics of the repository, to fix the drift of the incrementally maintained counters.
+     * <p>
+     * The deltas applied so far are flushed first, and the ones applied until the recalculated statistics are saved
+     * are skipped, so that none of them is added on top of the recalculated absolute values. The changes committed
+     * meanwhile, which the aggregate query may have missed, are counted by the next reconciliation.
+     */
+    public Usage reconcile(String storageId,
+                           String repositoryId)
+    {
+        String key = calculateKey(storageId, repositoryId);
+
+        updateReconciling(key, 1);
+        try
+        {
+            writeBehindQueue.flush();
+
+            Usage usage = new Usage(repositoryStatisticsService.reconcile(storageId, repositoryId));
+            usageMap.put(key, usage);
+            missingStatistics.remove(key);
+
+            return usage;
+        }
+        finally
+        {
+            updateReconciling(key, -1);
+        }
+    }
+
+    private void updateReconciling(String key,
+                                   int delta)
+    {
+        // Taken exclusively, so the deltas being applied are queued before the flush of a starting reconciliation.
+        reconcileLock.writeLock().lock();
+        try
+        {
+            reconciling.compute(key, (k, count) -> {
+                int result = (count == null ? 0 : count) + delta;
+                return result > 0 ? result : null;
+            });
+        }
+        finally
+        {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void reconcileAll()
+    {
+        // The statistics may have been created by another node meanwhile.
+        missingStatistics.clear();
+
+        for (Usage usage : new ArrayList<>(usageMap.values()))
+        {
+            try
+            {
+                reconcile(usage.storageId, usage.repositoryId);
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to reconcile the statistics of [{}:{}]", usage.storageId, usage.repositoryId, e);
+            }
+        }
+    }
+
+    private String calculateKey(String storageId,
+                                String repositoryId)
+    {
+        return String.format("%s:%s", storageId, repositoryId);
+    }
+
+    public static class Usage
+    {
+
+        private final String objectId;
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final AtomicLong artifacts;
+
+        private final AtomicLong sizeInBytes;
+
+        private final AtomicReference<Date> lastActivity;
+
+        private Usage(RepositoryStatistics statistics)
+        {
+            this.objectId = statistics.getObjectId();
+            this.storageId = statistics.getStorageId();
+            this.repositoryId = statistics.getRepositoryId();
+            this.artifacts = new AtomicLong(Optional.ofNullable(statistics.getArtifactCount()).orElse(0L));
+            this.sizeInBytes = new AtomicLong(Optional.ofNullable(statistics.getSizeInBytes()).orElse(0L));
+            this.lastActivity = new AtomicReference<>(statistics.getLastActivity());
+        }
+
+        public String getStorageId()
+        {
+            return storageId;
+        }
+
+        public String getRepositoryId()
+        {
+            return repositoryId;
+        }
+
+        public long getArtifacts()
+        {
+            return artifacts.get();
+        }
+
+        public long getSizeInBytes()
+        {
+            return sizeInBytes.get();
+        }
+
+        public Date getLastActivity()
+        {
+            return lastActivity.get();
+        }
+
+    }
+
+}
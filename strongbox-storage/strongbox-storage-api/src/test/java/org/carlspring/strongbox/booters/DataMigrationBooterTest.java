@@ -0,0 +1,115 @@
+package org.carlspring.strongbox.booters;
+
+import org.carlspring.strongbox.data.service.impl.DataMigrations;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataMigrationBooterTest
+{
+
+    private static final String MIGRATION = "dmbt-migration";
+
+    private final AtomicInteger updates = new AtomicInteger();
+
+    private DataMigrations dataMigrations;
+
+    private ILock lock;
+
+    private HazelcastInstance hazelcastInstance;
+
+    @BeforeEach
+    public void setUp()
+    {
+        dataMigrations = Mockito.mock(DataMigrations.class);
+
+        lock = Mockito.mock(ILock.class);
+        Mockito.when(lock.tryLock()).thenReturn(true);
+
+        hazelcastInstance = Mockito.mock(HazelcastInstance.class);
+        Mockito.when(hazelcastInstance.getLock(Mockito.anyString())).thenReturn(lock);
+    }
+
+    @Test
+    public void migrationShouldBeCompletedOnce()
+            throws InterruptedException
+    {
+        run(createBooter(updates::incrementAndGet));
+
+        assertThat(updates.get()).isEqualTo(1);
+        Mockito.verify(dataMigrations).complete(MIGRATION);
+        Mockito.verify(lock).unlock();
+    }
+
+    @Test
+    public void completedMigrationShouldNotBeRun()
+            throws InterruptedException
+    {
+        Mockito.when(dataMigrations.isCompleted(MIGRATION)).thenReturn(true);
+
+        run(createBooter(updates::incrementAndGet));
+
+        assertThat(updates.get()).isEqualTo(0);
+        Mockito.verify(dataMigrations, Mockito.never()).complete(Mockito.anyString());
+    }
+
+    @Test
+    public void migrationRunByAnotherNodeShouldNotBeRun()
+            throws InterruptedException
+    {
+        Mockito.when(lock.tryLock()).thenReturn(false);
+
+        run(createBooter(updates::incrementAndGet));
+
+        assertThat(updates.get()).isEqualTo(0);
+        Mockito.verify(dataMigrations, Mockito.never()).complete(Mockito.anyString());
+        Mockito.verify(lock, Mockito.never()).unlock();
+    }
+
+    @Test
+    public void failedMigrationShouldNotBeCompleted()
+            throws InterruptedException
+    {
+        run(createBooter(() -> {
+            updates.incrementAndGet();
+            throw new IllegalStateException("dmbt-failure");
+        }));
+
+        // Resumed on the next startup.
+        assertThat(updates.get()).isEqualTo(1);
+        Mockito.verify(dataMigrations, Mockito.never()).complete(Mockito.anyString());
+        Mockito.verify(lock).unlock();
+    }
+
+    private DataMigrationBooter createBooter(LongSupplier update)
+    {
+        DataMigrationBooter booter = new DataMigrationBooter(MIGRATION, update);
+        ReflectionTestUtils.setField(booter, "dataMigrations", dataMigrations);
+        ReflectionTestUtils.setField(booter, "hazelcastInstance", hazelcastInstance);
+
+        return booter;
+    }
+
+    private void run(DataMigrationBooter booter)
+            throws InterruptedException
+    {
+        booter.initialize();
+
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(booter, "executor");
+        if (executor != null)
+        {
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+}
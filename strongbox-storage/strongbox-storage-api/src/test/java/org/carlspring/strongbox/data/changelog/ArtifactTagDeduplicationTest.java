@@ -0,0 +1,124 @@
+package org.carlspring.strongbox.data.changelog;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.record.OIdentifiable;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class ArtifactTagDeduplicationTest
+{
+
+    private static final String TAG_NAME = "atdt-tag";
+
+    private static final String REPOSITORY_ID = "atdt-releases";
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    private ODatabaseSession session;
+
+    @BeforeEach
+    public void setUp()
+    {
+        session = databasePool.acquire();
+        // The duplicates can only be stored without the unique index, as they were before it was introduced.
+        session.command("DROP INDEX idx_artifact_tag_name").close();
+    }
+
+    @AfterEach
+    public void cleanup()
+    {
+        try
+        {
+            session.activateOnCurrentThread();
+            session.command("DELETE FROM ArtifactEntry WHERE repositoryId = ?", REPOSITORY_ID).close();
+            session.command("DELETE FROM ArtifactTagEntry WHERE name = ?", TAG_NAME).close();
+            session.command("CREATE INDEX idx_artifact_tag_name ON ArtifactTagEntry (name) UNIQUE").close();
+        }
+        finally
+        {
+            session.close();
+            ODatabaseRecordThreadLocal.instance().remove();
+        }
+    }
+
+    @Test
+    public void duplicatedTagsShouldBeMerged()
+    {
+        ORID firstTagId = createTag();
+        ORID secondTagId = createTag();
+        ORID thirdTagId = createTag();
+
+        ORID bothTagsEntryId = createArtifactEntry("atdt/1.0/atdt-1.0.jar", firstTagId, secondTagId);
+        ORID duplicateTagEntryId = createArtifactEntry("atdt/1.1/atdt-1.1.jar", thirdTagId);
+
+        assertThat(new ArtifactTagDeduplication().deduplicate(session)).isEqualTo(2);
+
+        Long tags = session.query("SELECT count(*) AS tags FROM ArtifactTagEntry WHERE name = ?", TAG_NAME)
+                           .next()
+                           .getProperty("tags");
+        assertThat(tags).isEqualTo(1L);
+
+        ORID keptTagId = session.query("SELECT @rid AS rid FROM ArtifactTagEntry WHERE name = ?", TAG_NAME)
+                                .next()
+                                .<OIdentifiable>getProperty("rid")
+                                .getIdentity();
+        assertThat(getTagSet(bothTagsEntryId)).extracting(OIdentifiable::getIdentity).containsExactly(keptTagId);
+        assertThat(getTagSet(duplicateTagEntryId)).extracting(OIdentifiable::getIdentity).containsExactly(keptTagId);
+
+        // Nothing left to merge, so that the change can be run on the databases without duplicates.
+        assertThat(new ArtifactTagDeduplication().deduplicate(session)).isEqualTo(0);
+    }
+
+    private ORID createTag()
+    {
+        ODocument artifactTag = new ODocument("ArtifactTagEntry");
+        artifactTag.field("name", TAG_NAME);
+
+        return session.save(artifactTag).getIdentity();
+    }
+
+    private ORID createArtifactEntry(String path,
+                                     ORID... tagIds)
+    {
+        ODocument artifactEntry = new ODocument("ArtifactEntry");
+        artifactEntry.field("storageId", "storage0");
+        artifactEntry.field("repositoryId", REPOSITORY_ID);
+        artifactEntry.field("artifactPath", path);
+        artifactEntry.field("tagSet", new HashSet<>(Arrays.asList(tagIds)));
+
+        return session.save(artifactEntry).getIdentity();
+    }
+
+    private Collection<OIdentifiable> getTagSet(ORID artifactEntryId)
+    {
+        ODocument artifactEntry = session.load(artifactEntryId);
+        artifactEntry.reload();
+
+        return artifactEntry.field("tagSet");
+    }
+
+}
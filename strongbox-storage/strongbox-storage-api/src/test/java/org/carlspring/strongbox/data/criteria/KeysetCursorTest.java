@@ -0,0 +1,104 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetCursorTest
+{
+
+    private final List<String> fetchedAfter = new ArrayList<>();
+
+    @Test
+    public void allPagesShouldBeFetchedInOrder()
+    {
+        try (Stream<Integer> stream = cursor(7, 3).stream())
+        {
+            assertThat(stream.collect(Collectors.toList())).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        }
+
+        // Each page is positioned after the last record of the previous one, the short page ends the iteration.
+        assertThat(fetchedAfter).containsExactly(null, "2", "5");
+    }
+
+    @Test
+    public void emptyPageShouldEndTheIteration()
+    {
+        try (Stream<Integer> stream = cursor(6, 3).stream())
+        {
+            assertThat(stream.count()).isEqualTo(6);
+        }
+
+        assertThat(fetchedAfter).containsExactly(null, "2", "5");
+    }
+
+    @Test
+    public void pagesShouldBeFetchedLazily()
+    {
+        try (Stream<Integer> stream = cursor(100, 3).stream())
+        {
+            assertThat(stream.limit(4).collect(Collectors.toList())).containsExactly(0, 1, 2, 3);
+        }
+
+        assertThat(fetchedAfter).containsExactly(null, "2");
+    }
+
+    @Test
+    public void closedCursorShouldNotFetchAnymore()
+    {
+        KeysetCursor<Integer> cursor = cursor(100, 3);
+        assertThat(cursor.next()).isEqualTo(0);
+
+        cursor.close();
+
+        assertThat(cursor.hasNext()).isFalse();
+        assertThat(fetchedAfter).containsExactly((String) null);
+    }
+
+    @Test
+    public void cursorShouldStartAfterTheGivenToken()
+    {
+        KeysetCursor<Integer> cursor = new KeysetCursor<>(this::fetch, KeysetCursorTest::token, 3, token(90));
+
+        List<Integer> result = new ArrayList<>();
+        cursor.forEachRemaining(result::add);
+
+        assertThat(result).containsExactlyElementsOf(IntStream.range(91, 100).boxed().collect(Collectors.toList()));
+        assertThat(fetchedAfter.get(0)).isEqualTo("90");
+    }
+
+    private KeysetCursor<Integer> cursor(int size,
+                                         int fetchSize)
+    {
+        return new KeysetCursor<>(after -> fetch(after, size, fetchSize), KeysetCursorTest::token, fetchSize, null);
+    }
+
+    private List<Integer> fetch(ContinuationToken after)
+    {
+        return fetch(after, 100, 3);
+    }
+
+    private List<Integer> fetch(ContinuationToken after,
+                                int size,
+                                int fetchSize)
+    {
+        String objectId = after == null ? null : after.getObjectId();
+        fetchedAfter.add(objectId);
+
+        int from = objectId == null ? 0 : Integer.parseInt(objectId) + 1;
+
+        return IntStream.range(from, Math.min(from + fetchSize, size)).boxed().collect(Collectors.toList());
+    }
+
+    private static ContinuationToken token(Integer record)
+    {
+        return new ContinuationToken(Collections.singletonList(record.toString()), record.toString());
+    }
+
+}
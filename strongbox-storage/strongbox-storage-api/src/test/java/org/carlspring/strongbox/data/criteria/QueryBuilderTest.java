@@ -0,0 +1,103 @@
+package org.carlspring.strongbox.data.criteria;
+
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class QueryBuilderTest
+{
+
+    @Test
+    public void testValuesAreBound()
+    {
+        ParameterizedQuery query = QueryBuilder.select(ArtifactEntry.class)
+                                               .where("storageId", ExpOperator.EQ, "storage0")
+                                               .where("tagSet.name", ExpOperator.CONTAINS, "last-version")
+                                               .orderBy("uuid", false)
+                                               .skip(10)
+                                               .limit(5)
+                                               .build();
+
+        assertThat(query.getText()).isEqualTo("SELECT * FROM ArtifactEntry " +
+                                              "WHERE storageId = :storageId_0 AND tagSet CONTAINS (name = :name_1) " +
+                                              "ORDER BY uuid ASC SKIP :skip");
+        assertThat(query.getParameters()).containsEntry("storageId_0", "storage0")
+                                         .containsEntry("name_1", "last-version")
+                                         .containsEntry("skip", 10);
+        assertThat(query.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void testTextDoesNotDependOnValues()
+    {
+        ParameterizedQuery first = QueryBuilder.select(ArtifactEntry.class)
+                                               .where("storageId", ExpOperator.EQ, "storage0")
+                                               .skip(10)
+                                               .limit(5)
+                                               .build();
+        ParameterizedQuery second = QueryBuilder.select(ArtifactEntry.class)
+                                                .where("storageId", ExpOperator.EQ, "storage1")
+                                                .skip(20)
+                                                .limit(50)
+                                                .build();
+
+        assertThat(first.getText()).isEqualTo(second.getText());
+    }
+
+    @Test
+    public void testInvalidIdentifiersAreRejected()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class)
+                                              .where("storageId = 'x' OR 1", ExpOperator.EQ, "storage0"));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class).orderBy("uuid; DELETE FROM X", false));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class).projection("*; DELETE FROM X"));
+    }
+
+    @Test
+    public void testLiteralsAreRejected()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class)
+                                              .where("storageId = 'storage0'", Collections.emptyMap()));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class)
+                                              .where("storageId = \"storage0\"", Collections.emptyMap()));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class)
+                                              .where("storageId = :storageId", Collections.emptyMap()));
+    }
+
+    @Test
+    public void testParametersAreComparedByValue()
+    {
+        QueryBuilder queryBuilder = QueryBuilder.select(ArtifactEntry.class)
+                                                .where("storageId = :storageId",
+                                                       Collections.singletonMap("storageId", new String("storage0")));
+
+        queryBuilder.where("storageId = :storageId OR storageId IS NULL",
+                           Collections.singletonMap("storageId", new String("storage0")));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> queryBuilder.where("storageId = :storageId",
+                                                     Collections.singletonMap("storageId", "storage1")));
+    }
+
+    @Test
+    public void testSkipParameterIsReserved()
+    {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> QueryBuilder.select(ArtifactEntry.class)
+                                              .where("sizeInBytes > :skip", Collections.singletonMap("skip", 1))
+                                              .skip(10)
+                                              .build());
+    }
+
+}
@@ -0,0 +1,195 @@
+package org.carlspring.strongbox.data.service;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.data.service.impl.EntityMetadataRegistry;
+import org.carlspring.strongbox.data.service.impl.EntityServiceRegistry;
+
+import javax.persistence.CascadeType;
+import javax.persistence.EntityManager;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.command.OCommandRequestText;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommonCrudServiceTest
+{
+
+    /**
+     * The {@code uuid}s of the stored tags, and their record ids.
+     */
+    private final Map<String, String> storedTags = new HashMap<>();
+
+    private final List<String> executedQueries = new ArrayList<>();
+
+    private TestCrudService<TestHolder> holderService;
+
+    @BeforeEach
+    public void setUp()
+    {
+        OObjectDatabaseTx db = Mockito.mock(OObjectDatabaseTx.class);
+        Mockito.doAnswer(invocation -> query(invocation.getArgument(0))).when(db).command(Mockito.any());
+        Mockito.doAnswer(invocation -> invocation.getArgument(0)).when(db).save(Mockito.any());
+
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        Mockito.when(entityManager.getDelegate()).thenReturn(db);
+
+        EntityServiceRegistry entityServiceRegistry = new EntityServiceRegistry();
+        EntityMetadataRegistry entityMetadataRegistry = new EntityMetadataRegistry();
+
+        holderService = new TestCrudService<>(TestHolder.class);
+        TestCrudService<TestTag> tagService = new TestCrudService<>(TestTag.class);
+        for (TestCrudService<?> service : Arrays.asList(holderService, tagService))
+        {
+            ReflectionTestUtils.setField(service, "entityManager", entityManager);
+            ReflectionTestUtils.setField(service, "entityServiceRegistry", entityServiceRegistry);
+            ReflectionTestUtils.setField(service, "entityMetadataRegistry", entityMetadataRegistry);
+            service.postConstruct();
+        }
+
+        storedTags.put("tag-1", "#22:1");
+        storedTags.put("tag-2", "#22:2");
+    }
+
+    @Test
+    public void cascadedCollectionShouldBeIdentifiedWithOneQuery()
+    {
+        TestTag storedTag1 = new TestTag("tag-1");
+        TestTag storedTag2 = new TestTag("tag-2");
+        TestTag newTag = new TestTag("tag-3");
+        TestTag tagWithoutUuid = new TestTag(null);
+
+        TestHolder holder = new TestHolder();
+        holder.tags.addAll(Arrays.asList(storedTag1, storedTag2, newTag, tagWithoutUuid));
+
+        holderService.save(holder);
+
+        assertThat(storedTag1.getObjectId()).isEqualTo("#22:1");
+        assertThat(storedTag2.getObjectId()).isEqualTo("#22:2");
+        assertThat(newTag.getObjectId()).isNull();
+        assertThat(tagWithoutUuid.getUuid()).isNotNull();
+        assertThat(holder.tags).containsExactlyInAnyOrder(storedTag1, storedTag2, newTag, tagWithoutUuid);
+
+        // The tag which has not been found isn't looked up again, on its own.
+        assertThat(executedQueries).hasSize(1);
+        assertThat(executedQueries.get(0)).contains("FROM TestTag WHERE uuid IN :uuids");
+    }
+
+    @Test
+    public void singleCascadedEntityShouldBeLookedUpOnItsOwn()
+    {
+        TestTag storedTag = new TestTag("tag-1");
+
+        TestHolder holder = new TestHolder();
+        holder.tags.add(storedTag);
+
+        holderService.save(holder);
+
+        assertThat(storedTag.getObjectId()).isEqualTo("#22:1");
+        assertThat(executedQueries).hasSize(1);
+        assertThat(executedQueries.get(0)).contains("FROM TestTag WHERE uuid = :uuid");
+    }
+
+    @Test
+    public void notCascadedFieldsShouldBeLeftAsTheyAre()
+    {
+        TestTag referencedTag = new TestTag("tag-1");
+
+        TestHolder holder = new TestHolder();
+        holder.referencedTag = referencedTag;
+
+        holderService.save(holder);
+
+        assertThat(referencedTag.getObjectId()).isNull();
+        assertThat(executedQueries).isEmpty();
+    }
+
+    private OCommandRequest query(OCommandRequestText query)
+    {
+        executedQueries.add(query.getText());
+
+        return Mockito.mock(OCommandRequest.class, invocation -> {
+            if (!"execute".equals(invocation.getMethod().getName()))
+            {
+                return null;
+            }
+
+            Map<String, Object> parameterMap = invocation.getArgument(0);
+            Collection<String> uuids = parameterMap.containsKey("uuids") ?
+                                       (Collection<String>) parameterMap.get("uuids") :
+                                       Arrays.asList((String) parameterMap.get("uuid"));
+
+            return uuids.stream()
+                        .filter(storedTags::containsKey)
+                        .map(this::record)
+                        .collect(Collectors.toList());
+        });
+    }
+
+    private ODocument record(String uuid)
+    {
+        ODocument record = Mockito.mock(ODocument.class);
+        Mockito.doReturn(new ODocument(new ORecordId(storedTags.get(uuid)))).when(record).field("objectId");
+        Mockito.doReturn(uuid).when(record).field("uuid");
+
+        return record;
+    }
+
+    static class TestTag
+            extends GenericEntity
+    {
+
+        TestTag(String uuid)
+        {
+            this.uuid = uuid;
+        }
+
+    }
+
+    static class TestHolder
+            extends GenericEntity
+    {
+
+        @OneToMany(cascade = CascadeType.ALL)
+        private List<TestTag> tags = new ArrayList<>();
+
+        @ManyToOne
+        private TestTag referencedTag;
+
+    }
+
+    private static class TestCrudService<T extends GenericEntity>
+            extends CommonCrudService<T>
+    {
+
+        private final Class<T> entityClass;
+
+        TestCrudService(Class<T> entityClass)
+        {
+            this.entityClass = entityClass;
+        }
+
+        @Override
+        public Class<T> getEntityClass()
+        {
+            return entityClass;
+        }
+
+    }
+
+}
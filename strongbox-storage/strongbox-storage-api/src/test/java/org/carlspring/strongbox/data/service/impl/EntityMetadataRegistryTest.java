@@ -0,0 +1,51 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
+import org.carlspring.strongbox.data.service.support.EntityMetadata;
+import org.carlspring.strongbox.data.service.support.EntityMetadata.CascadeField;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class EntityMetadataRegistryTest
+{
+
+    private final EntityMetadataRegistry entityMetadataRegistry = new EntityMetadataRegistry();
+
+    @Test
+    public void metadataShouldBeCalculatedOncePerClass()
+    {
+        EntityMetadata entityMetadata = entityMetadataRegistry.getEntityMetadata(ArtifactEntry.class);
+
+        assertThat(entityMetadata.getEntityClass()).isEqualTo(ArtifactEntry.class);
+        assertThat(entityMetadataRegistry.getEntityMetadata(ArtifactEntry.class)).isSameAs(entityMetadata);
+    }
+
+    @Test
+    public void onlySaveCascadedFieldsShouldBeListed()
+    {
+        // The tags are referenced only, their saves are not cascaded.
+        assertThat(entityMetadataRegistry.getEntityMetadata(ArtifactEntry.class).getCascadeFields())
+                .extracting(CascadeField::getName, CascadeField::isCollection)
+                .containsExactly(tuple("artifactCoordinates", false));
+    }
+
+    @Test
+    public void cascadeFieldShouldAccessThePrivateField()
+    {
+        CascadeField field = entityMetadataRegistry.getEntityMetadata(ArtifactEntry.class)
+                                                   .getCascadeFields()
+                                                   .get(0);
+
+        RawArtifactCoordinates coordinates = new RawArtifactCoordinates("org/carlspring/emrt/1.0/emrt-1.0.jar");
+
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        field.set(artifactEntry, coordinates);
+
+        assertThat(field.get(artifactEntry)).isSameAs(coordinates);
+        assertThat(artifactEntry.getArtifactCoordinates()).isSameAs(coordinates);
+    }
+
+}
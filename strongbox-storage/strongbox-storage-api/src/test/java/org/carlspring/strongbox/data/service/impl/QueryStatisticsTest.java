@@ -0,0 +1,92 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.data.service.impl.QueryStatistics.Shape;
+import org.carlspring.strongbox.data.service.impl.QueryStatistics.SlowQuery;
+import org.carlspring.strongbox.data.service.impl.QueryStatistics.SortBy;
+import org.carlspring.strongbox.services.RepositoryStatisticsService;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class QueryStatisticsTest
+{
+
+    private static final String SHAPE = "SELECT * FROM RepositoryStatistics WHERE repositoryId = :repositoryId AND " +
+                                        "storageId = :storageId";
+
+    @Inject
+    private QueryStatistics queryStatistics;
+
+    @Inject
+    private RepositoryStatisticsService repositoryStatisticsService;
+
+    @Test
+    public void queriesShouldBeRecordedByShape()
+    {
+        long queryCount = queryStatistics.getQueryCount();
+
+        repositoryStatisticsService.findOne("qst-storage", "qst-repository-1");
+        repositoryStatisticsService.findOne("qst-storage", "qst-repository-2");
+
+        assertThat(queryStatistics.getQueryCount()).isGreaterThanOrEqualTo(queryCount + 2);
+
+        List<Shape> shapes = queryStatistics.getShapes(SortBy.COUNT, Integer.MAX_VALUE)
+                                            .stream()
+                                            .filter(s -> SHAPE.equals(s.getShape()))
+                                            .collect(Collectors.toList());
+        assertThat(shapes).hasSize(1);
+
+        Shape shape = shapes.get(0);
+        assertThat(shape.getCount()).isGreaterThanOrEqualTo(2);
+        assertThat(shape.getHistogram().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(shape.getCount());
+    }
+
+    @Test
+    public void slowQueriesShouldNotBeExplainedByDefault()
+    {
+        String query = "SELECT FROM RepositoryStatistics WHERE storageId = 'qst-slow-storage'";
+        long slowQueryCount = queryStatistics.getSlowQueryCount();
+
+        queryStatistics.record(query, null, TimeUnit.MILLISECONDS.toNanos(queryStatistics.getSlowThresholdMillis()));
+
+        assertThat(queryStatistics.getSlowQueryCount()).isEqualTo(slowQueryCount + 1);
+
+        SlowQuery slowQuery = queryStatistics.getShapes(SortBy.COUNT, Integer.MAX_VALUE)
+                                             .stream()
+                                             .filter(s -> QueryStatistics.normalize(query).equals(s.getShape()))
+                                             .findFirst()
+                                             .map(Shape::getLastSlowQuery)
+                                             .orElse(null);
+        assertThat(slowQuery).isNotNull();
+        assertThat(slowQuery.getQuery()).isEqualTo(query);
+        assertThat(slowQuery.getPlan()).isNull();
+    }
+
+    @Test
+    public void literalsShouldBeReplacedWithinTheShape()
+    {
+        assertThat(QueryStatistics.normalize("SELECT FROM cluster:[artifactentry__s_2drepo] " +
+                                             "WHERE  name = 'x\\'y' AND\n@rid > #12:34 LIMIT 100"))
+                .isEqualTo("SELECT FROM cluster:? WHERE name = ? AND @rid > ? LIMIT ?");
+        assertThat(QueryStatistics.normalize("UPDATE #3:7 SET downloadCount = ifnull(downloadCount, 0) + 5"))
+                .isEqualTo("UPDATE ? SET downloadCount = ifnull(downloadCount, ?) + ?");
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.RepositoryStatistics;
+import org.carlspring.strongbox.services.RepositoryStatisticsService;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class ShardedCountersTest
+{
+
+    private static final int INCREMENTS = 1000;
+
+    @Inject
+    private ShardedCounters shardedCounters;
+
+    @Inject
+    private RepositoryStatisticsService repositoryStatisticsService;
+
+    @Test
+    public void incrementsShouldBeCompactedIntoTheEntityField()
+    {
+        RepositoryStatistics statistics = new RepositoryStatistics("sct-storage", "sct-repository");
+        statistics.setArtifactCount(10L);
+
+        String objectId = repositoryStatisticsService.save(statistics).getObjectId();
+
+        IntStream.range(0, INCREMENTS)
+                 .parallel()
+                 .forEach(i -> {
+                     shardedCounters.increment(objectId, "artifactCount", 1);
+                     if (i % 100 == 0)
+                     {
+                         shardedCounters.flush();
+                     }
+                 });
+
+        assertThat(shardedCounters.get(objectId, "artifactCount")).isEqualTo(INCREMENTS);
+        assertThat(shardedCounters.get(Arrays.asList(objectId, "#0:0"), "artifactCount"))
+                .containsEntry(objectId, (long) INCREMENTS)
+                .containsEntry("#0:0", 0L);
+
+        shardedCounters.compact();
+
+        assertThat(shardedCounters.get(objectId, "artifactCount")).isEqualTo(0);
+        assertThat(repositoryStatisticsService.findOne("sct-storage", "sct-repository").getArtifactCount())
+                .isEqualTo(10L + INCREMENTS);
+    }
+
+    @Test
+    public void shardsOfDeletedEntitiesShouldBeDropped()
+    {
+        RepositoryStatistics statistics = new RepositoryStatistics("sct-storage", "sct-deleted-repository");
+
+        String objectId = repositoryStatisticsService.save(statistics).getObjectId();
+
+        shardedCounters.increment(objectId, "artifactCount", 5);
+        shardedCounters.flush();
+
+        repositoryStatisticsService.delete("sct-storage", "sct-deleted-repository");
+
+        shardedCounters.compact();
+
+        assertThat(shardedCounters.get(objectId, "artifactCount")).isEqualTo(0);
+    }
+
+}
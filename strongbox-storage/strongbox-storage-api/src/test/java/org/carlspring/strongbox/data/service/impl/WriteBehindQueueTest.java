@@ -0,0 +1,182 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.db.record.ORecordOperation;
+import com.orientechnologies.orient.core.exception.OConcurrentModificationException;
+import com.orientechnologies.orient.core.id.ORecordId;
+import com.orientechnologies.orient.core.sql.OCommandSQL;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindQueueTest
+{
+
+    private static final String OBJECT_ID = "#21:1";
+
+    private static final String OTHER_OBJECT_ID = "#21:2";
+
+    private final List<String> pendingCommands = new CopyOnWriteArrayList<>();
+
+    private final List<String> executedCommands = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<String> onExecute = command -> {
+    };
+
+    private WriteBehindQueue writeBehindQueue;
+
+    @BeforeEach
+    public void setUp()
+    {
+        OObjectDatabaseTx db = Mockito.mock(OObjectDatabaseTx.class);
+        Mockito.doAnswer(invocation -> command(invocation.getArgument(0))).when(db).command(Mockito.any());
+
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        Mockito.when(entityManager.getDelegate()).thenReturn(db);
+
+        // Only the commands of the committed transactions are recorded.
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.doAnswer(invocation -> {
+            executedCommands.addAll(pendingCommands);
+            pendingCommands.clear();
+            return null;
+        }).when(transactionManager).commit(Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            pendingCommands.clear();
+            return null;
+        }).when(transactionManager).rollback(Mockito.any());
+
+        writeBehindQueue = new WriteBehindQueue();
+        ReflectionTestUtils.setField(writeBehindQueue, "entityManager", entityManager);
+        ReflectionTestUtils.setField(writeBehindQueue, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(writeBehindQueue, "flushIntervalMillis", 3600000L);
+        ReflectionTestUtils.setField(writeBehindQueue, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(writeBehindQueue, "batchSize", 100);
+        ReflectionTestUtils.setField(writeBehindQueue, "maxAttempts", 3);
+        writeBehindQueue.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws InterruptedException
+    {
+        onExecute = command -> {
+        };
+        writeBehindQueue.destroy();
+    }
+
+    @Test
+    public void updatesShouldBeCoalescedPerEntity()
+    {
+        writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 1L);
+        writeBehindQueue.increment(ArtifactEntry.class, OBJECT_ID, "downloadCount", 1);
+        writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 2L);
+        writeBehindQueue.increment(ArtifactEntry.class, OBJECT_ID, "downloadCount", 2);
+
+        assertThat(writeBehindQueue.getQueueDepth()).isEqualTo(1);
+
+        writeBehindQueue.flush();
+
+        assertThat(executedCommands).containsExactly(
+                "UPDATE #21:1 SET lastUsed = :lastUsed, downloadCount = ifnull(downloadCount, 0) + :downloadCount " +
+                "{downloadCount=3, lastUsed=2}");
+        assertThat(writeBehindQueue.getQueueDepth()).isEqualTo(0);
+        assertThat(writeBehindQueue.getFlushedUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    public void requeuedUpdatesShouldNotOverwriteNewerOnes()
+    {
+        writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 1L);
+        writeBehindQueue.increment(ArtifactEntry.class, OBJECT_ID, "downloadCount", 1);
+
+        onExecute = command -> {
+            // Queued by a serving thread while the failing flush is in progress.
+            writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 2L);
+            writeBehindQueue.increment(ArtifactEntry.class, OBJECT_ID, "downloadCount", 1);
+
+            throw new OConcurrentModificationException(new ORecordId(21, 1), 2, 1, ORecordOperation.UPDATED);
+        };
+        writeBehindQueue.flush();
+
+        assertThat(executedCommands).isEmpty();
+        assertThat(writeBehindQueue.getFailedUpdates()).isEqualTo(1);
+        assertThat(writeBehindQueue.getQueueDepth()).isEqualTo(1);
+
+        onExecute = command -> {
+        };
+        writeBehindQueue.flush();
+
+        // The newer value wins, while the deltas of every attempt are summed.
+        assertThat(executedCommands).hasSize(1);
+        assertThat(executedCommands.get(0)).endsWith("{downloadCount=11, lastUsed=2}");
+    }
+
+    @Test
+    public void updatesShouldBeDeadLetteredAfterTheMaxAttempts()
+    {
+        writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 1L);
+
+        onExecute = command -> {
+            throw new OConcurrentModificationException(new ORecordId(21, 1), 2, 1, ORecordOperation.UPDATED);
+        };
+        for (int i = 0; i < 3; i++)
+        {
+            writeBehindQueue.flush();
+        }
+
+        assertThat(writeBehindQueue.getQueueDepth()).isEqualTo(0);
+        assertThat(writeBehindQueue.getDeadLetteredUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    public void poisonUpdateShouldNotFailTheBatch()
+    {
+        writeBehindQueue.set(ArtifactEntry.class, OBJECT_ID, "lastUsed", 1L);
+        writeBehindQueue.set(ArtifactEntry.class, OTHER_OBJECT_ID, "lastUsed", 1L);
+
+        onExecute = command -> {
+            if (command.startsWith("UPDATE " + OBJECT_ID))
+            {
+                throw new IllegalStateException("Poison update.");
+            }
+        };
+        writeBehindQueue.flush();
+
+        assertThat(executedCommands).containsExactly("UPDATE #21:2 SET lastUsed = :lastUsed {lastUsed=1}");
+        assertThat(writeBehindQueue.getFlushedUpdates()).isEqualTo(1);
+        assertThat(writeBehindQueue.getDeadLetteredUpdates()).isEqualTo(1);
+        assertThat(writeBehindQueue.getQueueDepth()).isEqualTo(0);
+    }
+
+    private OCommandRequest command(OCommandSQL command)
+    {
+        return Mockito.mock(OCommandRequest.class, invocation -> {
+            if (!"execute".equals(invocation.getMethod().getName()))
+            {
+                return null;
+            }
+
+            Map<String, Object> parameterMap = invocation.getArgument(0);
+            onExecute.accept(command.getText());
+            pendingCommands.add(command.getText() + " " + new TreeMap<>(parameterMap));
+
+            return 1;
+        });
+    }
+
+}
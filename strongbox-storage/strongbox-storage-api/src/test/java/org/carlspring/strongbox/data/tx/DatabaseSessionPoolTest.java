@@ -0,0 +1,169 @@
+package org.carlspring.strongbox.data.tx;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.services.RepositoryStatisticsService;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.orientechnologies.orient.core.db.ODatabaseDocumentInternal;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.storage.OStorage;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class DatabaseSessionPoolTest
+{
+
+    @Inject
+    private DatabaseSessionPool sessionPool;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private RepositoryStatisticsService repositoryStatisticsService;
+
+    @Test
+    public void acquiredSessionsShouldBeValidAndCounted()
+    {
+        long acquireCount = sessionPool.getAcquireCount();
+        long waitTimeNanos = sessionPool.getWaitTimeNanos();
+
+        ODatabaseDocumentInternal session = sessionPool.acquire();
+        try
+        {
+            assertThat(session.isClosed()).isFalse();
+            assertThat(sessionPool.getAcquireCount()).isGreaterThan(acquireCount);
+            assertThat(sessionPool.getWaitTimeNanos()).isGreaterThan(waitTimeNanos);
+            assertThat(sessionPool.getActiveCount()).isPositive();
+            assertThat(sessionPool.getPeakActiveCount()).isGreaterThanOrEqualTo(sessionPool.getActiveCount());
+            assertThat(sessionPool.getUtilization()).isGreaterThan(0).isLessThanOrEqualTo(1);
+        }
+        finally
+        {
+            sessionPool.release(session);
+            ODatabaseRecordThreadLocal.instance().remove();
+        }
+
+        assertThat(session.isClosed()).isTrue();
+    }
+
+    @Test
+    public void sessionsShouldBeCountedOnceWhenReleased()
+    {
+        // A pool of its own, so the sessions of the background threads don't affect the counts.
+        DatabaseSessionPool pool = new DatabaseSessionPool();
+        ReflectionTestUtils.setField(pool, "databasePool", mockDatabasePool());
+        ReflectionTestUtils.setField(pool, "validate", true);
+        ReflectionTestUtils.setField(pool, "requestThreads", 8);
+        ReflectionTestUtils.setField(pool, "backgroundSessions", 2);
+        pool.init();
+
+        assertThat(pool.getMaxSize()).isEqualTo(10);
+
+        ODatabaseDocumentInternal session = pool.acquire();
+        assertThat(pool.getActiveCount()).isEqualTo(1);
+
+        pool.release(session);
+        pool.release(session);
+        assertThat(pool.getActiveCount()).isEqualTo(0);
+
+        // A session closed before it's released is still counted as released.
+        session = pool.acquire();
+        session.close();
+        assertThat(pool.getActiveCount()).isEqualTo(1);
+
+        pool.release(session);
+        assertThat(pool.getActiveCount()).isEqualTo(0);
+        assertThat(pool.getPeakActiveCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void requestShouldHoldOneSessionForAllItsTransactions()
+    {
+        // Bound the same way as the OpenEntityManagerInViewInterceptor binds the EntityManager of a request.
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try
+        {
+            ODatabaseDocumentInternal first = new TransactionTemplate(transactionManager).execute(t -> {
+                repositoryStatisticsService.findOne("dspt-storage", "dspt-repository");
+
+                return ODatabaseRecordThreadLocal.instance().get();
+            });
+            ODatabaseDocumentInternal second = new TransactionTemplate(transactionManager).execute(t -> {
+                repositoryStatisticsService.findOne("dspt-storage", "dspt-repository");
+
+                return ODatabaseRecordThreadLocal.instance().get();
+            });
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.isClosed()).isFalse();
+        }
+        finally
+        {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            ODatabaseRecordThreadLocal.instance().remove();
+        }
+    }
+
+    @Test
+    public void parallelismShouldBeCappedByTheBackgroundSessions()
+    {
+        assertThat(DatabaseSessionPool.calculateParallelism(4, 16)).isEqualTo(4);
+        assertThat(DatabaseSessionPool.calculateParallelism(64, 16)).isEqualTo(16);
+        assertThat(DatabaseSessionPool.calculateParallelism(0, 16))
+                .isEqualTo(Math.min(Runtime.getRuntime().availableProcessors(), 16));
+        assertThat(DatabaseSessionPool.calculateParallelism(4, 0)).isEqualTo(1);
+    }
+
+    private ODatabasePool mockDatabasePool()
+    {
+        OStorage storage = Mockito.mock(OStorage.class);
+
+        ODatabasePool databasePool = Mockito.mock(ODatabasePool.class);
+        Mockito.when(databasePool.acquire()).thenAnswer(invocation -> {
+            AtomicBoolean closed = new AtomicBoolean();
+
+            ODatabaseDocumentInternal session = Mockito.mock(ODatabaseDocumentInternal.class,
+                                                             Mockito.withSettings()
+                                                                    .extraInterfaces(ODatabaseSession.class));
+            Mockito.when(session.getStorage()).thenReturn(storage);
+            Mockito.when(session.isClosed()).thenAnswer(i -> closed.get());
+            Mockito.doAnswer(i -> {
+                closed.set(true);
+                return null;
+            }).when(session).close();
+
+            return session;
+        });
+
+        return databasePool;
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.carlspring.strongbox.domain;
+
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Selector;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactEntryQueryTemplateTest
+{
+
+    @Test
+    public void testCoordinateTokensCondition()
+    {
+        Selector<ArtifactEntry> selector = createSelector();
+        ArtifactEntryQueryTemplate<Object, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(null, true);
+
+        assertThat(queryTemplate.calculateQueryString(selector)).contains("coordinateTokens CONTAINS");
+        assertThat(queryTemplate.exposeParameterMap(selector.getPredicate())).containsValue("artifactId=junit");
+    }
+
+    @Test
+    public void testNoCoordinateTokensConditionUntilMigrated()
+    {
+        Selector<ArtifactEntry> selector = createSelector();
+        ArtifactEntryQueryTemplate<Object, ArtifactEntry> queryTemplate = new ArtifactEntryQueryTemplate<>(null, false);
+
+        assertThat(queryTemplate.calculateQueryString(selector)).doesNotContain("coordinateTokens");
+        assertThat(queryTemplate.exposeParameterMap(selector.getPredicate())).doesNotContainValue("artifactId=junit");
+    }
+
+    private Selector<ArtifactEntry> createSelector()
+    {
+        Selector<ArtifactEntry> selector = new Selector<>(ArtifactEntry.class);
+        selector.where(ExpOperator.EQ.of("artifactCoordinates.coordinates.artifactId", "junit"));
+
+        return selector;
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactsRemover.BatchResult;
+import org.carlspring.strongbox.services.support.CheckpointStore;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.carlspring.strongbox.providers.repository.proxied.LocalStorageProxyRepositoryExpiredArtifactsCleaner.CHECKPOINT_NAME;
+
+class LocalStorageProxyRepositoryExpiredArtifactsCleanerTest
+{
+
+    private static final String CHECKPOINT_KEY = "storage0:proxy:10:null";
+
+    private final Properties checkpoint = new Properties();
+
+    private Repository repository;
+
+    private ProxyRepositoryArtifactsRemover proxyRepositoryArtifactsRemover;
+
+    private CheckpointStore checkpointStore;
+
+    private LocalStorageProxyRepositoryExpiredArtifactsCleaner cleaner;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn("storage0");
+
+        repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn("proxy");
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+        Mockito.doReturn(Collections.singletonMap("proxy", repository)).when(storage).getRepositories();
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        Mockito.when(configuration.getStorages()).thenReturn(Collections.singletonMap("storage0", storage));
+
+        ConfigurationManager configurationManager = Mockito.mock(ConfigurationManager.class);
+        Mockito.when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        proxyRepositoryArtifactsRemover = Mockito.mock(ProxyRepositoryArtifactsRemover.class);
+        Mockito.when(proxyRepositoryArtifactsRemover.isAccessibleProxyRepository(repository)).thenReturn(true);
+
+        checkpointStore = Mockito.mock(CheckpointStore.class);
+        Mockito.when(checkpointStore.load(CHECKPOINT_NAME)).thenReturn(checkpoint);
+
+        cleaner = new LocalStorageProxyRepositoryExpiredArtifactsCleaner();
+        ReflectionTestUtils.setField(cleaner, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(cleaner, "proxyRepositoryArtifactsRemover", proxyRepositoryArtifactsRemover);
+        ReflectionTestUtils.setField(cleaner, "checkpointStore", checkpointStore);
+    }
+
+    @Test
+    public void cleanupShouldResumeFromTheCheckpoint()
+            throws IOException
+    {
+        checkpoint.setProperty(CHECKPOINT_KEY + ".lastUsed", "1000");
+        checkpoint.setProperty(CHECKPOINT_KEY + ".objectId", "#21:5");
+
+        Mockito.when(proxyRepositoryArtifactsRemover.removeBatch(Mockito.eq(repository), Mockito.any(),
+                                                                 Mockito.eq(new Date(1000)), Mockito.eq("#21:5"),
+                                                                 Mockito.eq(2)))
+               .thenReturn(batchResult(2, new Date(2000), "#21:7"));
+        Mockito.when(proxyRepositoryArtifactsRemover.removeBatch(Mockito.eq(repository), Mockito.any(),
+                                                                 Mockito.eq(new Date(2000)), Mockito.eq("#21:7"),
+                                                                 Mockito.eq(2)))
+               .thenReturn(batchResult(1, new Date(3000), "#21:8"));
+
+        cleaner.cleanup(10, null, 2, 0);
+
+        Mockito.verify(proxyRepositoryArtifactsRemover, Mockito.times(2))
+               .removeBatch(Mockito.eq(repository), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(2));
+        Mockito.verify(checkpointStore).remove(CHECKPOINT_NAME);
+    }
+
+    @Test
+    public void completedRepositoriesShouldBeSkipped()
+            throws IOException
+    {
+        checkpoint.setProperty(CHECKPOINT_KEY + ".completed", Boolean.TRUE.toString());
+
+        cleaner.cleanup(10, null, 2, 0);
+
+        Mockito.verify(proxyRepositoryArtifactsRemover, Mockito.never())
+               .removeBatch(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+        Mockito.verify(checkpointStore).remove(CHECKPOINT_NAME);
+    }
+
+    @Test
+    public void checkpointShouldBeKeptWhenInterrupted()
+            throws IOException
+    {
+        Mockito.when(proxyRepositoryArtifactsRemover.removeBatch(Mockito.eq(repository), Mockito.any(),
+                                                                 Mockito.isNull(), Mockito.isNull(),
+                                                                 Mockito.eq(2)))
+               .thenAnswer(invocation -> {
+                   Thread.currentThread().interrupt();
+                   return batchResult(2, new Date(2000), "#21:7");
+               });
+
+        try
+        {
+            cleaner.cleanup(10, null, 2, 0);
+        }
+        finally
+        {
+            // Clears the interrupted status.
+            Thread.interrupted();
+        }
+
+        Mockito.verify(checkpointStore).save(CHECKPOINT_NAME, checkpoint);
+        Mockito.verify(checkpointStore, Mockito.never()).remove(CHECKPOINT_NAME);
+        assertThat(checkpoint).containsEntry(CHECKPOINT_KEY + ".lastUsed", "2000")
+                              .containsEntry(CHECKPOINT_KEY + ".objectId", "#21:7");
+    }
+
+    static BatchResult batchResult(int size,
+                                   Date lastUsed,
+                                   String objectId)
+    {
+        BatchResult batchResult = new BatchResult();
+        ReflectionTestUtils.setField(batchResult, "size", size);
+        ReflectionTestUtils.setField(batchResult, "lastUsed", lastUsed);
+        ReflectionTestUtils.setField(batchResult, "objectId", objectId);
+
+        return batchResult;
+    }
+
+}
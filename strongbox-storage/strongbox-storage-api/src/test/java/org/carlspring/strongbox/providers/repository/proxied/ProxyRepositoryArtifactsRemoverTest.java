@@ -0,0 +1,128 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.domain.ArtifactEntryView;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactsRemover.BatchResult;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProxyRepositoryArtifactsRemoverTest
+{
+
+    private Repository repository;
+
+    private RepositoryPathResolver repositoryPathResolver;
+
+    private ArtifactEntryService artifactEntryService;
+
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    private ProxyRepositoryArtifactsRemover remover;
+
+    @BeforeEach
+    public void setUp()
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn("storage0");
+
+        repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn("proxy");
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+
+        repositoryPathResolver = Mockito.mock(RepositoryPathResolver.class);
+        artifactEntryService = Mockito.mock(ArtifactEntryService.class);
+        repositoryUsageCounter = Mockito.mock(RepositoryUsageCounter.class);
+
+        remover = new ProxyRepositoryArtifactsRemover();
+        ReflectionTestUtils.setField(remover, "repositoryPathResolver", repositoryPathResolver);
+        ReflectionTestUtils.setField(remover, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(remover, "repositoryUsageCounter", repositoryUsageCounter);
+        ReflectionTestUtils.setField(remover, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void failedDeletesShouldBeReported()
+            throws IOException
+    {
+        Date lastUsed = new Date();
+        Mockito.when(artifactEntryService.findMatchingViews(Mockito.any(), Mockito.isNull(), Mockito.isNull(),
+                                                            Mockito.eq(2)))
+               .thenReturn(Arrays.asList(view("#21:1", "a/a.jar", 10L, lastUsed),
+                                         view("#21:2", "b/b.jar", 20L, lastUsed)));
+
+        mockPath("a/a.jar", null);
+        mockPath("b/b.jar", new IOException("Device or resource busy"));
+
+        BatchResult result = remover.removeBatch(repository, null, null, null, 2);
+
+        assertThat(result.getSize()).isEqualTo(2);
+        assertThat(result.getBytes()).isEqualTo(30L);
+        assertThat(result.getLastUsed()).isEqualTo(lastUsed);
+        assertThat(result.getObjectId()).isEqualTo("#21:2");
+        assertThat(result.getFailedPaths()).containsExactly("b/b.jar");
+
+        // The entries are removed regardless, the failed files are left for the operator.
+        Mockito.verify(artifactEntryService).deleteByIds(Arrays.asList("#21:1", "#21:2"));
+        Mockito.verify(repositoryUsageCounter).update("storage0", "proxy", -2, -30L);
+    }
+
+    @Test
+    public void emptyBatchShouldRemoveNothing()
+            throws IOException
+    {
+        BatchResult result = remover.removeBatch(repository, null, null, null, 2);
+
+        assertThat(result.getSize()).isEqualTo(0);
+        Mockito.verify(artifactEntryService, Mockito.never()).deleteByIds(Mockito.any());
+        Mockito.verifyZeroInteractions(repositoryUsageCounter);
+    }
+
+    private void mockPath(String artifactPath,
+                          IOException failure)
+            throws IOException
+    {
+        StorageFileSystemProvider provider = Mockito.mock(StorageFileSystemProvider.class);
+        LayoutFileSystem fileSystem = Mockito.mock(LayoutFileSystem.class);
+        Mockito.when(fileSystem.provider()).thenReturn(provider);
+
+        RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+        Mockito.when(repositoryPath.getFileSystem()).thenReturn(fileSystem);
+        Mockito.when(repositoryPathResolver.resolve(repository, artifactPath)).thenReturn(repositoryPath);
+
+        if (failure != null)
+        {
+            Mockito.doThrow(failure).when(provider).delete(repositoryPath, true);
+        }
+    }
+
+    private ArtifactEntryView view(String objectId,
+                                   String artifactPath,
+                                   Long sizeInBytes,
+                                   Date lastUsed)
+    {
+        ArtifactEntryView view = Mockito.mock(ArtifactEntryView.class);
+        Mockito.when(view.getObjectId()).thenReturn(objectId);
+        Mockito.when(view.getArtifactPath()).thenReturn(artifactPath);
+        Mockito.when(view.getSizeInBytes()).thenReturn(sizeInBytes);
+        Mockito.when(view.getLastUsed()).thenReturn(lastUsed);
+
+        return view;
+    }
+
+}
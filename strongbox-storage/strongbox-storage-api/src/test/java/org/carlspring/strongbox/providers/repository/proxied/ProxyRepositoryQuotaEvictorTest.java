@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter.Usage;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.carlspring.strongbox.providers.repository.proxied.LocalStorageProxyRepositoryExpiredArtifactsCleanerTest.batchResult;
+
+class ProxyRepositoryQuotaEvictorTest
+{
+
+    private Repository repository;
+
+    private Usage usage;
+
+    private ProxyRepositoryArtifactsRemover proxyRepositoryArtifactsRemover;
+
+    private ProxyRepositoryQuotaEvictor evictor;
+
+    @BeforeEach
+    public void setUp()
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.getId()).thenReturn("storage0");
+
+        RemoteRepository remoteRepository = Mockito.mock(RemoteRepository.class);
+        Mockito.when(remoteRepository.getLocalStorageMaxArtifacts()).thenReturn(100L);
+
+        repository = Mockito.mock(Repository.class);
+        Mockito.when(repository.getId()).thenReturn("proxy");
+        Mockito.when(repository.getStorage()).thenReturn(storage);
+        Mockito.when(repository.isProxyRepository()).thenReturn(true);
+        Mockito.when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        usage = Mockito.mock(Usage.class);
+
+        RepositoryUsageCounter repositoryUsageCounter = Mockito.mock(RepositoryUsageCounter.class);
+        Mockito.when(repositoryUsageCounter.getUsage("storage0", "proxy")).thenReturn(usage);
+
+        proxyRepositoryArtifactsRemover = Mockito.mock(ProxyRepositoryArtifactsRemover.class);
+        Mockito.when(proxyRepositoryArtifactsRemover.isAccessibleProxyRepository(repository)).thenReturn(true);
+
+        evictor = new ProxyRepositoryQuotaEvictor();
+        ReflectionTestUtils.setField(evictor, "highWatermark", 0.95);
+        ReflectionTestUtils.setField(evictor, "lowWatermark", 0.85);
+        ReflectionTestUtils.setField(evictor, "batchSize", 10);
+        ReflectionTestUtils.setField(evictor, "repositoryUsageCounter", repositoryUsageCounter);
+        ReflectionTestUtils.setField(evictor, "proxyRepositoryArtifactsRemover", proxyRepositoryArtifactsRemover);
+    }
+
+    @Test
+    public void evictionShouldStopAtTheLowWatermark()
+            throws IOException
+    {
+        // Every batch evicts 10 artifacts, so the usage drops below the low watermark after the second one.
+        Mockito.when(usage.getArtifacts()).thenReturn(100L, 90L, 80L);
+        Mockito.when(proxyRepositoryArtifactsRemover.removeBatch(Mockito.eq(repository), Mockito.any(),
+                                                                 Mockito.isNull(), Mockito.isNull(),
+                                                                 Mockito.eq(10)))
+               .thenReturn(batchResult(10, new Date(), "#21:1"));
+
+        ReflectionTestUtils.invokeMethod(evictor, "evict", repository);
+
+        Mockito.verify(proxyRepositoryArtifactsRemover, Mockito.times(2))
+               .removeBatch(Mockito.eq(repository), Mockito.any(), Mockito.isNull(), Mockito.isNull(),
+                            Mockito.eq(10));
+    }
+
+    @Test
+    public void evictionShouldStopWhenNothingIsLeft()
+            throws IOException
+    {
+        // The usage is ahead of the entries, for example until the next reconciliation.
+        Mockito.when(usage.getArtifacts()).thenReturn(100L);
+        Mockito.when(proxyRepositoryArtifactsRemover.removeBatch(Mockito.eq(repository), Mockito.any(),
+                                                                 Mockito.isNull(), Mockito.isNull(),
+                                                                 Mockito.eq(10)))
+               .thenReturn(batchResult(0, null, null));
+
+        ReflectionTestUtils.invokeMethod(evictor, "evict", repository);
+
+        Mockito.verify(proxyRepositoryArtifactsRemover, Mockito.times(1))
+               .removeBatch(Mockito.eq(repository), Mockito.any(), Mockito.isNull(), Mockito.isNull(),
+                            Mockito.eq(10));
+    }
+
+    @Test
+    public void evictionShouldNotBeRequestedBelowTheHighWatermark()
+            throws IOException
+    {
+        Mockito.when(usage.getArtifacts()).thenReturn(95L);
+
+        evictor.requestEviction(repository);
+
+        Mockito.verify(proxyRepositoryArtifactsRemover, Mockito.never())
+               .removeBatch(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+}
@@ -7,7 +7,9 @@ import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.storage.repository.ArtifactExistenceFilter;
 
 import javax.inject.Inject;
 import java.text.ParseException;
@@ -17,8 +19,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.time.DateUtils;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +34,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
@@ -65,6 +71,12 @@ public class ArtifactEntryServiceTest
     @Inject
     private  ArtifactCoordinatesService artifactCoordinatesService;
 
+    @Inject
+    private ArtifactExistenceFilter artifactExistenceFilter;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void setup(TestInfo testInfo)
     {
@@ -276,6 +288,107 @@ public class ArtifactEntryServiceTest
         assertThat(left).isEqualTo(1);
     }
 
+    @Test
+    public void deleteByPathShouldWork(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        int all = count(groupId);
+        assertThat(all).isEqualTo(3);
+
+        // The entries of `groupId + "myId"` are not located under the `groupId` directory.
+        Pair<Long, Long> removed = artifactEntryService.deleteByPath(STORAGE_ID, REPOSITORY_ID, groupId + "/");
+        assertThat(removed.getValue0()).isEqualTo(all - 1);
+
+        List<ArtifactEntry> left = findAll(groupId);
+        assertThat(left).hasSize(1);
+        assertThat(left.get(0).getArtifactPath()).startsWith(groupId + "myId/");
+    }
+
+    @Test
+    public void deleteByPathShouldNotMatchSiblingDirectories(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        // `ARTIFACT_ID + "123"` starts with `ARTIFACT_ID`, but it's another directory.
+        Pair<Long, Long> removed = artifactEntryService.deleteByPath(STORAGE_ID, REPOSITORY_ID,
+                                                                     groupId + "/" + ARTIFACT_ID);
+        assertThat(removed.getValue0()).isEqualTo(1);
+
+        List<String> left = findAll(groupId).stream()
+                                            .map(ArtifactEntry::getArtifactPath)
+                                            .collect(Collectors.toList());
+        assertThat(left).hasSize(2);
+        assertThat(left).filteredOn(p -> p.startsWith(groupId + "/" + ARTIFACT_ID + "/")).isEmpty();
+    }
+
+    @Test
+    public void artifactPathShouldResolveTheEntry(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        List<ArtifactEntry> artifactEntries = findAll(groupId);
+        assertThat(artifactEntries).hasSize(3);
+
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            String path = artifactEntry.getArtifactCoordinates().toPath();
+            assertThat(artifactEntry.getArtifactPath()).isEqualTo(path);
+
+            assertThat(artifactEntryService.artifactExists(STORAGE_ID, REPOSITORY_ID, path)).isTrue();
+            assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path).getObjectId())
+                    .isEqualTo(artifactEntry.getObjectId());
+
+            // The path is only unique within its repository.
+            assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID + "-other", path)).isNull();
+        }
+    }
+
+    @Test
+    public void deleteByIdsShouldWork(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        List<String> objectIds = findAll(groupId).stream()
+                                                 .map(ArtifactEntry::getObjectId)
+                                                 .collect(Collectors.toList());
+        assertThat(objectIds).hasSize(3);
+
+        int removed = artifactEntryService.deleteByIds(objectIds.subList(1, objectIds.size()));
+        assertThat(removed).isEqualTo(2);
+
+        assertThat(findAll(groupId)).extracting(ArtifactEntry::getObjectId).containsOnly(objectIds.get(0));
+
+        // The records which are already gone are not counted.
+        assertThat(artifactEntryService.deleteByIds(objectIds)).isEqualTo(1);
+    }
+
+    @Test
+    public void bulkDeletesShouldJoinTheCallerTransaction(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        List<ArtifactEntry> artifactEntries = findAll(groupId);
+        assertThat(artifactEntries).hasSize(3);
+
+        // The entries of `groupId + "myId"` are not located under the `groupId` directory.
+        List<String> objectIds = artifactEntries.stream()
+                                                .filter(e -> e.getArtifactPath().startsWith(groupId + "myId/"))
+                                                .map(ArtifactEntry::getObjectId)
+                                                .collect(Collectors.toList());
+
+        new TransactionTemplate(transactionManager).execute(t -> {
+            assertThat(artifactEntryService.deleteByIds(objectIds)).isEqualTo(1);
+            assertThat(artifactEntryService.deleteByPath(STORAGE_ID, REPOSITORY_ID, groupId + "/").getValue0())
+                    .isEqualTo(2);
+
+            t.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(count(groupId)).isEqualTo(3);
+    }
+
     @Test
     public void searchByLastUsedAndBySizeShouldWork(TestInfo testInfo)
     {
@@ -301,6 +414,29 @@ public class ArtifactEntryServiceTest
         assertThat(entries).hasSize(all - 1);
     }
 
+    @Test
+    public void searchViewsShouldWork(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        List<ArtifactEntry> entries = findAll(groupId);
+        List<ArtifactEntryView> views = artifactEntryService.findMatchingViews(anArtifactEntrySearchCriteria()
+                                                                                       .withStorageId(STORAGE_ID)
+                                                                                       .withRepositoryId(REPOSITORY_ID)
+                                                                                       .build(),
+                                                                               PagingCriteria.ALL)
+                                                            .stream()
+                                                            .filter(v -> v.getArtifactPath().startsWith(groupId))
+                                                            .collect(Collectors.toList());
+
+        assertThat(views).extracting(ArtifactEntryView::getObjectId)
+                         .containsOnlyElementsOf(entries.stream()
+                                                        .map(ArtifactEntry::getObjectId)
+                                                        .collect(Collectors.toList()))
+                         .hasSize(entries.size());
+        assertThat(views).extracting(ArtifactEntryView::getStorageId).containsOnly(STORAGE_ID);
+    }
+
     /**
      * Make sure that we are able to search artifacts by single coordinate.
      *
@@ -332,6 +468,48 @@ public class ArtifactEntryServiceTest
                                 });
     }
 
+    @Test
+    public void streamArtifactListShouldFetchAllPages(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+
+        HashMap<String, String> coordinates = new HashMap<>();
+        coordinates.put("path", groupId);
+
+        List<String> expected = artifactEntryService.findArtifactList(STORAGE_ID, REPOSITORY_ID, coordinates, false)
+                                                    .stream()
+                                                    .map(ArtifactEntry::getObjectId)
+                                                    .collect(Collectors.toList());
+        assertThat(expected).hasSize(3);
+
+        // A page per entry, the last one being empty.
+        List<String> result = new TransactionTemplate(transactionManager).execute(t -> {
+            try (Stream<ArtifactEntry> stream = artifactEntryService.streamArtifactList(STORAGE_ID,
+                                                                                        REPOSITORY_ID,
+                                                                                        coordinates,
+                                                                                        false,
+                                                                                        1))
+            {
+                return stream.map(ArtifactEntry::getObjectId).collect(Collectors.toList());
+            }
+        });
+
+        assertThat(result).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void streamAllShouldFetchAllPages()
+    {
+        long count = new TransactionTemplate(transactionManager).execute(t -> {
+            try (Stream<ArtifactEntry> stream = artifactEntryService.streamAll(2))
+            {
+                return stream.map(ArtifactEntry::getObjectId).distinct().count();
+            }
+        });
+
+        assertThat(count).isEqualTo(artifactEntryService.count());
+    }
+
     /**
      * Make sure that we are able to search artifacts by two coordinates that need to be joined with logical AND operator.
      */
@@ -425,6 +603,38 @@ public class ArtifactEntryServiceTest
         assertThat(secondTimeReadFromDatabase.getLastUsed()).isEqualTo(sampleDate);
     }
 
+    @Test
+    public void artifactExistsShouldBeAnsweredByTheExistenceFilter(TestInfo testInfo)
+    {
+        final String groupId = getGroupId(GROUP_ID, testInfo);
+        final String repositoryId = REPOSITORY_ID + "-filter";
+
+        // A built, empty filter, as for a new repository.
+        artifactExistenceFilter.reset(STORAGE_ID, repositoryId);
+
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(repositoryId);
+        artifactEntry.setArtifactCoordinates(createArtifactCoordinates(groupId, ARTIFACT_ID, "1.0.0", "jar"));
+
+        String path = save(artifactEntry).getArtifactPath();
+        String missingPath = path + ".missing";
+
+        assertThat(artifactExistenceFilter.mightExist(STORAGE_ID, repositoryId, path)).isTrue();
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, repositoryId, path)).isTrue();
+
+        assertThat(artifactExistenceFilter.mightExist(STORAGE_ID, repositoryId, missingPath)).isFalse();
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, repositoryId, missingPath)).isFalse();
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, repositoryId, missingPath)).isNull();
+
+        // A filter which has missed the entry, as for an entry added on another node whose notification has been
+        // lost: the write paths still find it with the index.
+        artifactExistenceFilter.reset(STORAGE_ID, repositoryId);
+
+        assertThat(artifactEntryService.artifactExists(STORAGE_ID, repositoryId, path)).isFalse();
+        assertThat(artifactEntryService.findOneArtifact(STORAGE_ID, repositoryId, path)).isNotNull();
+    }
+
     private Date createSampleDate()
             throws ParseException
     {
@@ -1,18 +1,34 @@
 package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.RawArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.data.changelog.ArtifactIdGroupMigration;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 
 import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseRecordThreadLocal;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
 import com.orientechnologies.orient.core.storage.ORecordDuplicatedException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
@@ -26,9 +42,41 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 class RepositoryArtifactIdGroupServiceImplTest
 {
 
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "raigst-releases";
+
+    private static final String ARTIFACT_ID = "raigst-artifact";
+
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactCoordinatesService artifactCoordinatesService;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @AfterEach
+    public void cleanup()
+    {
+        List<ArtifactEntry> artifactEntries = artifactEntryService.findArtifactList(STORAGE_ID,
+                                                                                    REPOSITORY_ID,
+                                                                                    new HashMap<>(),
+                                                                                    true);
+        List<AbstractArtifactCoordinates> artifactCoordinates =
+                artifactEntries.stream()
+                               .map(e -> (AbstractArtifactCoordinates) e.getArtifactCoordinates())
+                               .collect(Collectors.toList());
+        artifactEntryService.delete(artifactEntries);
+        artifactCoordinatesService.delete(artifactCoordinates);
+
+        repositoryArtifactIdGroupService.deleteAll(STORAGE_ID, REPOSITORY_ID);
+    }
+
     @Test
     public void repositoryArtifactIdGroupShouldBeProtectedByIndex()
     {
@@ -47,4 +95,119 @@ class RepositoryArtifactIdGroupServiceImplTest
                     System.out.println(repositoryArtifactIdGroupService.save(g2).getObjectId());
         });
     }
+
+    @Test
+    public void addingArtifactsShouldNotUpdateTheGroup()
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(STORAGE_ID,
+                                                                                                        REPOSITORY_ID,
+                                                                                                        ARTIFACT_ID);
+        Long groupVersion = artifactGroup.getEntityVersion();
+
+        repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, createArtifactEntry("1.0"));
+        repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, createArtifactEntry("1.1"));
+
+        assertThat(repositoryArtifactIdGroupService.findOne(STORAGE_ID, REPOSITORY_ID, ARTIFACT_ID)
+                                                   .getEntityVersion()).isEqualTo(groupVersion);
+
+        // The last version tag is moved onto the greatest coordinates.
+        Map<String, Boolean> lastVersions = findLastVersions(artifactGroup);
+        assertThat(lastVersions).hasSize(2)
+                                .containsEntry(createPath("1.0"), false)
+                                .containsEntry(createPath("1.1"), true);
+    }
+
+    @Test
+    public void linkedGroupMembersShouldBeUpdated()
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(STORAGE_ID,
+                                                                                                        REPOSITORY_ID,
+                                                                                                        ARTIFACT_ID);
+        ArtifactEntry artifactEntry = artifactEntryService.save(createArtifactEntry("1.0"));
+        assertThat(repositoryArtifactIdGroupService.findArtifactEntries(artifactGroup)).isEmpty();
+
+        // The group links of the groups stored before the entries referred to their group.
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            session.command(String.format("UPDATE %s SET artifactEntries = [%s]",
+                                          artifactGroup.getObjectId(),
+                                          artifactEntry.getObjectId()))
+                   .close();
+
+            assertThat(new ArtifactIdGroupMigration().migrate(session)).isEqualTo(1L);
+            assertThat(new ArtifactIdGroupMigration().migrate(session)).isEqualTo(0L);
+        }
+        finally
+        {
+            ODatabaseRecordThreadLocal.instance().remove();
+        }
+
+        assertThat(repositoryArtifactIdGroupService.findArtifactEntries(artifactGroup))
+                .extracting(ArtifactEntry::getObjectId)
+                .containsExactly(artifactEntry.getObjectId());
+    }
+
+    @Test
+    public void groupsOfDeletedEntriesShouldBeReconciled()
+    {
+        RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(STORAGE_ID,
+                                                                                                        REPOSITORY_ID,
+                                                                                                        ARTIFACT_ID);
+        repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, createArtifactEntry("1.0"));
+        repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, createArtifactEntry("1.1"));
+
+        // The last version is deleted, so the tag is put back onto the remaining entry.
+        artifactEntryService.deleteByIds(findObjectIds(createPath("1.1")));
+        repositoryArtifactIdGroupService.reconcileGroups(STORAGE_ID,
+                                                         REPOSITORY_ID,
+                                                         Collections.singleton(ARTIFACT_ID));
+
+        assertThat(findLastVersions(artifactGroup)).hasSize(1).containsEntry(createPath("1.0"), true);
+
+        // The group left without entries is deleted.
+        artifactEntryService.deleteByIds(findObjectIds(createPath("1.0")));
+        repositoryArtifactIdGroupService.reconcileGroups(STORAGE_ID,
+                                                         REPOSITORY_ID,
+                                                         Collections.singleton(ARTIFACT_ID));
+
+        assertThat(repositoryArtifactIdGroupService.findOne(STORAGE_ID, REPOSITORY_ID, ARTIFACT_ID)).isNull();
+    }
+
+    private ArtifactEntry createArtifactEntry(String version)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+        artifactEntry.setArtifactCoordinates(new RawArtifactCoordinates(createPath(version)));
+
+        return artifactEntry;
+    }
+
+    private String createPath(String version)
+    {
+        return String.format("org/carlspring/%s/%s/%s-%s.jar", ARTIFACT_ID, version, ARTIFACT_ID, version);
+    }
+
+    private List<String> findObjectIds(String path)
+    {
+        return Collections.singletonList(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, path)
+                                                             .getObjectId());
+    }
+
+    private Map<String, Boolean> findLastVersions(RepositoryArtifactIdGroupEntry artifactGroup)
+    {
+        return repositoryArtifactIdGroupService.findArtifactEntries(artifactGroup)
+                                               .stream()
+                                               .collect(Collectors.toMap(ArtifactEntry::getArtifactPath,
+                                                                         this::isLastVersion));
+    }
+
+    private boolean isLastVersion(ArtifactEntry artifactEntry)
+    {
+        return artifactEntry.getTagSet()
+                            .stream()
+                            .map(ArtifactTag::getName)
+                            .anyMatch(ArtifactTag.LAST_VERSION::equals);
+    }
+
 }
@@ -0,0 +1,64 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactCoordinatesSearchTokensTest
+{
+
+    @Test
+    public void testCoordinateTokens()
+    {
+        Set<String> tokens = ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("artifactId", "JUnit"));
+
+        assertThat(tokens).containsExactly("artifactId=junit",
+                                           "artifactId:^^j",
+                                           "artifactId:^ju",
+                                           "artifactId:jun",
+                                           "artifactId:uni",
+                                           "artifactId:nit",
+                                           "artifactId:it$");
+    }
+
+    @Test
+    public void testExactPattern()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.ofPattern("artifactId", "JUnit")).containsExactly("artifactId=junit");
+    }
+
+    @Test
+    public void testPrefixPattern()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.ofPattern("artifactId", "jun%")).containsExactly("artifactId:^^j",
+                                                                                                     "artifactId:^ju",
+                                                                                                     "artifactId:jun");
+    }
+
+    @Test
+    public void testSubstringPattern()
+    {
+        assertThat(ArtifactCoordinatesSearchTokens.ofPattern("artifactId", "%unit%")).containsExactly("artifactId:uni",
+                                                                                                      "artifactId:nit");
+
+        // Too short to be narrowed down with trigrams.
+        assertThat(ArtifactCoordinatesSearchTokens.ofPattern("artifactId", "%un%")).isEmpty();
+    }
+
+    @Test
+    public void testPatternTokensAreCoordinateTokens()
+    {
+        Set<String> tokens = ArtifactCoordinatesSearchTokens.of(Collections.singletonMap("groupId",
+                                                                                         "org.carlspring.strongbox"));
+
+        List<String> patternTokens = ArtifactCoordinatesSearchTokens.ofPattern("groupId", "org.carl%strong?ox");
+
+        assertThat(patternTokens).isNotEmpty()
+                                 .hasSizeLessThanOrEqualTo(ArtifactCoordinatesSearchTokens.MAX_QUERY_TOKENS);
+        assertThat(tokens).containsAll(patternTokens);
+    }
+
+}
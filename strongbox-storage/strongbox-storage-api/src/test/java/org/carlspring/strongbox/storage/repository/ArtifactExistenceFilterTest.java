@@ -0,0 +1,257 @@
+package org.carlspring.strongbox.storage.repository;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Message;
+import com.hazelcast.core.MessageListener;
+import com.orientechnologies.orient.core.command.OCommandRequest;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the windows in which an entry could be committed without being in the filter which answers the lookups.
+ */
+class ArtifactExistenceFilterTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "aeft-releases";
+
+    private final List<String> storedPaths = new ArrayList<>();
+
+    private volatile Runnable onCount = () -> {
+    };
+
+    private ArtifactExistenceFilter artifactExistenceFilter;
+
+    private MessageListener<ArrayList<String>> messageListener;
+
+    @BeforeEach
+    public void setUp()
+    {
+        OObjectDatabaseTx db = Mockito.mock(OObjectDatabaseTx.class);
+        Mockito.doAnswer(invocation -> command(invocation.getArgument(0))).when(db).command(Mockito.any());
+
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        Mockito.when(entityManager.getDelegate()).thenReturn(db);
+
+        ITopic<ArrayList<String>> topic = Mockito.mock(ITopic.class);
+        HazelcastInstance hazelcastInstance = Mockito.mock(HazelcastInstance.class);
+        Mockito.when(hazelcastInstance.<ArrayList<String>>getTopic(Mockito.anyString())).thenReturn(topic);
+
+        // No repositories on startup, they are registered by the tests.
+        ConfigurationManager configurationManager = Mockito.mock(ConfigurationManager.class,
+                                                                 Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(configurationManager.getConfiguration().getStorages()).thenReturn(Collections.emptyMap());
+
+        artifactExistenceFilter = new ArtifactExistenceFilter();
+        ReflectionTestUtils.setField(artifactExistenceFilter, "entityManager", entityManager);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "transactionManager",
+                                     Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(artifactExistenceFilter, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "hazelcastInstance", hazelcastInstance);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "enabled", true);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "fpp", 0.01);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "rebuildIntervalHours", 24);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "batchSize", 1000);
+        ReflectionTestUtils.setField(artifactExistenceFilter, "remoteGraceMillis", 60000L);
+        artifactExistenceFilter.afterPropertiesSet();
+
+        ArgumentCaptor<MessageListener<ArrayList<String>>> listenerCaptor = ArgumentCaptor.forClass(
+                MessageListener.class);
+        Mockito.verify(topic).addMessageListener(listenerCaptor.capture());
+        messageListener = listenerCaptor.getValue();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        artifactExistenceFilter.destroy();
+    }
+
+    @Test
+    public void storedEntriesShouldBeFound()
+            throws Exception
+    {
+        storedPaths.add("aeft/1.0/aeft-1.0.jar");
+
+        register();
+
+        assertThat(mightExist("aeft/1.0/aeft-1.0.jar")).isTrue();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isFalse();
+    }
+
+    @Test
+    public void entriesAddedBeforeTheFirstBuildShouldBeKept()
+            throws Exception
+    {
+        // The build is held back, so the filter is registered but has nothing to answer with yet.
+        CountDownLatch release = new CountDownLatch(1);
+        getExecutor().execute(() -> {
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        artifactExistenceFilter.register(STORAGE_ID, REPOSITORY_ID);
+
+        add("aeft/1.0/aeft-1.0.jar");
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isTrue();
+
+        release.countDown();
+        awaitBuild();
+
+        assertThat(mightExist("aeft/1.0/aeft-1.0.jar")).isTrue();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isFalse();
+    }
+
+    @Test
+    public void entriesAddedWhileCountingShouldBeKept()
+            throws Exception
+    {
+        register();
+
+        // Added while the rebuild counts the entries, and committed after the scan.
+        onCount = () -> add("aeft/1.0/aeft-1.0.jar");
+        ReflectionTestUtils.invokeMethod(artifactExistenceFilter, "rebuild", getFilter());
+
+        assertThat(mightExist("aeft/1.0/aeft-1.0.jar")).isTrue();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isFalse();
+    }
+
+    @Test
+    public void entriesAddedOnAnotherNodeShouldFallBackToTheIndex()
+            throws Exception
+    {
+        register();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isFalse();
+
+        // An entry has been received from another node, which may have committed more which haven't arrived yet.
+        receive("aeft/1.0/aeft-1.0.jar");
+
+        assertThat(mightExist("aeft/1.0/aeft-1.0.jar")).isTrue();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isTrue();
+
+        // Once the grace period is over, only the received entry is answered positively.
+        ReflectionTestUtils.setField(artifactExistenceFilter, "remoteGraceMillis", 0L);
+
+        assertThat(mightExist("aeft/1.0/aeft-1.0.jar")).isTrue();
+        assertThat(mightExist("aeft/1.1/aeft-1.1.jar")).isFalse();
+    }
+
+    private void register()
+            throws Exception
+    {
+        artifactExistenceFilter.register(STORAGE_ID, REPOSITORY_ID);
+        awaitBuild();
+    }
+
+    private void awaitBuild()
+            throws Exception
+    {
+        getExecutor().submit(() -> null).get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Adds the entry as it's being saved, before it's committed, so the filter builds don't find it in the database.
+     */
+    private void add(String path)
+    {
+        artifactExistenceFilter.add(STORAGE_ID, REPOSITORY_ID, path);
+    }
+
+    private void receive(String path)
+    {
+        Member member = Mockito.mock(Member.class);
+        Mockito.when(member.localMember()).thenReturn(false);
+
+        Message<ArrayList<String>> message = Mockito.mock(Message.class);
+        Mockito.when(message.getPublishingMember()).thenReturn(member);
+        Mockito.when(message.getMessageObject()).thenReturn(new ArrayList<>(Arrays.asList(STORAGE_ID,
+                                                                                            REPOSITORY_ID,
+                                                                                            path)));
+
+        messageListener.onMessage(message);
+    }
+
+    private boolean mightExist(String path)
+    {
+        return artifactExistenceFilter.mightExist(STORAGE_ID, REPOSITORY_ID, path);
+    }
+
+    private ExecutorService getExecutor()
+    {
+        return (ExecutorService) ReflectionTestUtils.getField(artifactExistenceFilter, "executor");
+    }
+
+    private Object getFilter()
+    {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(artifactExistenceFilter, "filters"))
+                .get(String.format("%s:%s", STORAGE_ID, REPOSITORY_ID));
+    }
+
+    /**
+     * Answers the count and the path scan queries of the filter builds.
+     */
+    private OCommandRequest command(OSQLSynchQuery<ODocument> query)
+    {
+        OCommandRequest request = Mockito.mock(OCommandRequest.class);
+        if (query.getText().contains("count(*)"))
+        {
+            Mockito.doAnswer(invocation -> {
+                long artifacts = storedPaths.size();
+                onCount.run();
+
+                ODocument result = Mockito.mock(ODocument.class);
+                Mockito.doReturn(artifacts).when(result).field("artifacts");
+
+                return Collections.singletonList(result);
+            }).when(request).execute(Mockito.<Object>any());
+        }
+        else
+        {
+            Mockito.doAnswer(invocation -> {
+                String after = (String) ((Map<?, ?>) invocation.getArgument(0)).get("after");
+
+                List<ODocument> result = new ArrayList<>();
+                storedPaths.stream().filter(p -> p.compareTo(after) > 0).sorted().forEach(p -> {
+                    ODocument record = Mockito.mock(ODocument.class);
+                    Mockito.doReturn(p).when(record).field("artifactPath");
+                    result.add(record);
+                });
+
+                return result;
+            }).when(request).execute(Mockito.<Object>any());
+        }
+
+        return request;
+    }
+
+}
@@ -0,0 +1,74 @@
+package org.carlspring.strongbox.storage.repository;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.RepositoryChange;
+import org.carlspring.strongbox.domain.RepositoryChangeTypeEnum;
+import org.carlspring.strongbox.services.RepositoryChangeLogService;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@TestExecutionListeners(listeners = { CacheManagerTestExecutionListener.class },
+                        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS)
+class RepositoryChangeLogTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "rclt-releases";
+
+    @Inject
+    private RepositoryChangeLog repositoryChangeLog;
+
+    @Inject
+    private RepositoryChangeLogService repositoryChangeLogService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup()
+    {
+        repositoryChangeLog.reset(STORAGE_ID, REPOSITORY_ID);
+    }
+
+    @Test
+    public void onlyTheCommittedChangesShouldBeLogged()
+    {
+        new TransactionTemplate(transactionManager).execute(t -> {
+            repositoryChangeLog.append(STORAGE_ID, REPOSITORY_ID, RepositoryChangeTypeEnum.STORE, "rolled-back.jar");
+            t.setRollbackOnly();
+
+            return null;
+        });
+        new TransactionTemplate(transactionManager).execute(t -> {
+            repositoryChangeLog.append(STORAGE_ID, REPOSITORY_ID, RepositoryChangeTypeEnum.STORE, "committed.jar");
+
+            return null;
+        });
+        repositoryChangeLog.append(STORAGE_ID, REPOSITORY_ID, RepositoryChangeTypeEnum.DELETE, "committed.jar");
+
+        repositoryChangeLog.flush();
+
+        assertThat(repositoryChangeLogService.findChanges(STORAGE_ID, REPOSITORY_ID, 0, 100))
+                .extracting(RepositoryChange::getSequence, RepositoryChange::getType, RepositoryChange::getPath)
+                .containsExactly(tuple(1L, RepositoryChangeTypeEnum.STORE.name(), "committed.jar"),
+                                 tuple(2L, RepositoryChangeTypeEnum.DELETE.name(), "committed.jar"));
+        assertThat(repositoryChangeLog.getQueueDepth()).isEqualTo(0);
+    }
+
+}
@@ -68,6 +68,26 @@ public interface RepositoryProvider
                       Predicate predicate,
                       Paginator paginator);
     
+    /**
+     * Searches Artifact Paths like {@link #search(String, String, Predicate, Paginator)}, for the callers which only
+     * need the Paths themselves. The Paths don't carry the Artifact entries, so they can be selected without loading
+     * the entity graph (coordinates, tags, archive listing).
+     * 
+     * @param storageId
+     * @param repositoryId
+     * @param predicate
+     * @param paginator
+     * @return
+     */
+    @Transactional(readOnly = true)
+    default List<Path> searchPaths(String storageId,
+                                   String repositoryId,
+                                   Predicate predicate,
+                                   Paginator paginator)
+    {
+        return search(storageId, repositoryId, predicate, paginator);
+    }
+
     /**
      * Counts Artifacts. For Group repositories result will be distinct within
      * group members.
@@ -31,5 +31,15 @@ public interface RemoteRepository
 
     boolean isAutoImportRemoteSSLCertificate();
 
+    /**
+     * @return the maximum size of the locally cached artifacts, or {@code null} if it is unlimited
+     */
+    Long getLocalStorageMaxSizeInBytes();
+
+    /**
+     * @return the maximum number of the locally cached artifacts, or {@code null} if it is unlimited
+     */
+    Long getLocalStorageMaxArtifacts();
+
     CustomRemoteRepositoryConfiguration getCustomConfiguration();
 }
@@ -37,6 +37,10 @@ public class RemoteRepositoryData
 
     private boolean autoImportRemoteSSLCertificate;
 
+    private Long localStorageMaxSizeInBytes;
+
+    private Long localStorageMaxArtifacts;
+
     private String url;
 
     private CustomRemoteRepositoryConfigurationData customConfiguration;
@@ -58,6 +62,8 @@ public class RemoteRepositoryData
         this.checkIntervalSeconds = other.getCheckIntervalSeconds();
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
+        this.localStorageMaxSizeInBytes = other.getLocalStorageMaxSizeInBytes();
+        this.localStorageMaxArtifacts = other.getLocalStorageMaxArtifacts();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
     }
 
@@ -111,6 +117,16 @@ public class RemoteRepositoryData
         return autoImportRemoteSSLCertificate;
     }
 
+    public Long getLocalStorageMaxSizeInBytes()
+    {
+        return localStorageMaxSizeInBytes;
+    }
+
+    public Long getLocalStorageMaxArtifacts()
+    {
+        return localStorageMaxArtifacts;
+    }
+
     public CustomRemoteRepositoryConfigurationData getCustomConfiguration()
     {
         return customConfiguration;
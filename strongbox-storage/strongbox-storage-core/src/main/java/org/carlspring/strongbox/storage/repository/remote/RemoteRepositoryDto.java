@@ -34,6 +34,10 @@ public class RemoteRepositoryDto
 
     private boolean autoImportRemoteSSLCertificate;
 
+    private Long localStorageMaxSizeInBytes;
+
+    private Long localStorageMaxArtifacts;
+
     private RemoteRepositoryConfigurationDto customConfiguration;
 
     public String getUrl()
@@ -136,6 +140,26 @@ public class RemoteRepositoryDto
         return allowsDirectoryBrowsing;
     }
 
+    public Long getLocalStorageMaxSizeInBytes()
+    {
+        return localStorageMaxSizeInBytes;
+    }
+
+    public void setLocalStorageMaxSizeInBytes(Long localStorageMaxSizeInBytes)
+    {
+        this.localStorageMaxSizeInBytes = localStorageMaxSizeInBytes;
+    }
+
+    public Long getLocalStorageMaxArtifacts()
+    {
+        return localStorageMaxArtifacts;
+    }
+
+    public void setLocalStorageMaxArtifacts(Long localStorageMaxArtifacts)
+    {
+        this.localStorageMaxArtifacts = localStorageMaxArtifacts;
+    }
+
     public RemoteRepositoryConfigurationDto getCustomConfiguration()
     {
         return customConfiguration;
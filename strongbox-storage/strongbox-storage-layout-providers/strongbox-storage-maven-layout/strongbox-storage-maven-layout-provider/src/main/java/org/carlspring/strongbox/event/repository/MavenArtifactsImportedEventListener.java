@@ -0,0 +1,80 @@
+package org.carlspring.strongbox.event.repository;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.repository.group.metadata.MavenMetadataGroupRepositoryComponent;
+import org.carlspring.strongbox.services.ArtifactMetadataService;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the metadata of the bulk imported artifacts, once per artifact (the {@code groupId/artifactId} directory)
+ * of the imported batch, and updates the metadata of the group repositories containing the repository.
+ */
+@Component
+public class MavenArtifactsImportedEventListener
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenArtifactsImportedEventListener.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactMetadataService artifactMetadataService;
+
+    @Inject
+    private MavenMetadataGroupRepositoryComponent mavenMetadataGroupRepositoryComponent;
+
+    @EventListener
+    public void handle(RepositoryArtifactsImportedEvent event)
+    {
+        Repository repository = configurationManager.getRepository(event.getStorageId(), event.getRepositoryId());
+        if (repository == null || !Maven2LayoutProvider.ALIAS.equals(repository.getLayout()))
+        {
+            return;
+        }
+
+        Set<String> artifactBasePaths = new TreeSet<>();
+        for (String artifactPath : event.getArtifactPaths())
+        {
+            // groupId/artifactId/version/file
+            String[] segments = artifactPath.split("/");
+            if (segments.length > 2)
+            {
+                artifactBasePaths.add(String.join("/", Arrays.copyOf(segments, segments.length - 2)));
+            }
+        }
+
+        for (String artifactBasePath : artifactBasePaths)
+        {
+            try
+            {
+                artifactMetadataService.rebuildMetadata(event.getStorageId(),
+                                                        event.getRepositoryId(),
+                                                        artifactBasePath);
+                mavenMetadataGroupRepositoryComponent.updateGroupsContaining(
+                        repositoryPathResolver.resolve(repository, artifactBasePath));
+            }
+            catch (Exception e)
+            {
+                logger.error("Failed to rebuild the metadata of [{}:{}:{}].",
+                             event.getStorageId(), event.getRepositoryId(), artifactBasePath, e);
+            }
+        }
+    }
+
+}
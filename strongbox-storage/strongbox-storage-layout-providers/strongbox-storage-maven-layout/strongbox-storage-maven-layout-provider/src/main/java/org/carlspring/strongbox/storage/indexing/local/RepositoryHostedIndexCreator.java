@@ -1,7 +1,9 @@
 package org.carlspring.strongbox.storage.indexing.local;
 
 import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -73,27 +75,30 @@ public class RepositoryHostedIndexCreator
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
 
-        final long totalArtifactGroupsInRepository = repositoryArtifactIdGroupService.count(storageId,
-                                                                                            repositoryId);
-        if (totalArtifactGroupsInRepository == 0)
+        // Keyset pagination by group name, so that every page is a single index range scan.
+        ContinuationToken after = null;
+        List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries;
+        do
         {
-            return;
-        }
-
-        final long iterations = totalArtifactGroupsInRepository / REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE + 1;
-
-        for (int i = 0; i < iterations; i++)
-        {
-            final PagingCriteria pagingCriteria = new PagingCriteria(i * REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE,
-                                                                     REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE);
-            final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries = repositoryArtifactIdGroupService.findMatching(
-                    storageId,
-                    repositoryId,
-                    pagingCriteria);
+            final PagingCriteria pagingCriteria = new PagingCriteria(after,
+                                                                     REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE,
+                                                                     Sort.by(Sort.Order.asc("name")));
+            repositoryArtifactIdGroupEntries = repositoryArtifactIdGroupService.findMatching(storageId,
+                                                                                             repositoryId,
+                                                                                             pagingCriteria);
+            if (repositoryArtifactIdGroupEntries.isEmpty())
+            {
+                break;
+            }
 
             final List<ArtifactContext> artifactContexts = createArtifactContexts(repositoryArtifactIdGroupEntries);
             Indexer.INSTANCE.addArtifactsToIndex(artifactContexts, indexingContext);
+
+            final RepositoryArtifactIdGroupEntry last = repositoryArtifactIdGroupEntries.get(
+                    repositoryArtifactIdGroupEntries.size() - 1);
+            after = new ContinuationToken(Collections.singletonList(last.getName()), last.getObjectId());
         }
+        while (repositoryArtifactIdGroupEntries.size() == REPOSITORY_ARTIFACT_GROUP_FETCH_PAGE_SIZE);
     }
 
     private List<ArtifactContext> createArtifactContexts(final List<RepositoryArtifactIdGroupEntry> repositoryArtifactIdGroupEntries)
@@ -130,7 +135,7 @@ public class RepositoryHostedIndexCreator
     private Map<String, List<ArtifactEntry>> groupArtifactEntriesByVersion(final RepositoryArtifactIdGroupEntry groupEntry)
     {
         final Map<String, List<ArtifactEntry>> groupedByVersion = new LinkedHashMap<>();
-        for (final ArtifactEntry artifactEntry : groupEntry.getArtifactEntries())
+        for (final ArtifactEntry artifactEntry : repositoryArtifactIdGroupService.findArtifactEntries(groupEntry))
         {
             final MavenArtifactCoordinates coordinates = (MavenArtifactCoordinates) artifactEntry.getArtifactCoordinates();
             final String version = coordinates.getVersion();
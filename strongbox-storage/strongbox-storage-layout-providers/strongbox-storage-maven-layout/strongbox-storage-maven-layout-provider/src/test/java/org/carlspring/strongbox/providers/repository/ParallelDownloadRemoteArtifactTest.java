@@ -1,6 +1,8 @@
 package org.carlspring.strongbox.providers.repository;
 
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.data.service.impl.ShardedCounters;
+import org.carlspring.strongbox.data.service.impl.WriteBehindQueue;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
@@ -49,6 +51,12 @@ public class ParallelDownloadRemoteArtifactTest
     private Map<InputStream, Thread> remoteRepositoryConnectionOwnerMap = new ConcurrentHashMap<>();
     private int concurrency = Runtime.getRuntime().availableProcessors();
     
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    private ShardedCounters shardedCounters;
+
     @Inject
     private PlatformTransactionManager transactionManager;
 
@@ -127,6 +135,9 @@ public class ParallelDownloadRemoteArtifactTest
 
         assertThat(actual).isEqualTo(expected);
         
+        writeBehindQueue.flush();
+        shardedCounters.compact();
+
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId,
                                                                        repositoryId,
                                                                        path);
@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.support.ReconciliationResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(CONCURRENT)
+public class ArtifactEntryReconciliationServiceTest
+{
+
+    private static final String REPOSITORY_RELEASES = "aers-releases";
+
+    private static final String A1 = "org.carlspring.strongbox.reconcile:strongbox-reconcile";
+
+    @Inject
+    private ArtifactEntryReconciliationService artifactEntryReconciliationService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    public void testReconcileMissingArtifactEntry(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                  Repository repository,
+                                                  @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                     id = A1,
+                                                                     versions = { "1.0" })
+                                                  Path artifactPath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String path = RepositoryFiles.relativizePath((RepositoryPath) artifactPath);
+
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+        assertThat(artifactEntry).isNotNull();
+
+        artifactEntryService.delete(artifactEntry);
+        assertThat(artifactEntryService.artifactExists(storageId, repositoryId, path)).isFalse();
+
+        ReconciliationResult result = artifactEntryReconciliationService.reconcile(storageId, repositoryId, false);
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRemoved()).isEqualTo(0);
+        assertThat(result.getFailed()).isEqualTo(0);
+
+        ArtifactEntry reconciledArtifactEntry = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+        assertThat(reconciledArtifactEntry).isNotNull();
+        assertThat(reconciledArtifactEntry.getSizeInBytes()).isEqualTo(artifactEntry.getSizeInBytes());
+        assertThat(reconciledArtifactEntry.getChecksums()).isEqualTo(artifactEntry.getChecksums());
+
+        // The entries match the files now, so there is nothing left to reconcile.
+        result = artifactEntryReconciliationService.reconcile(storageId, repositoryId, true);
+
+        assertThat(result.getCreated()).isEqualTo(0);
+        assertThat(result.getUpdated()).isEqualTo(0);
+        assertThat(result.getRemoved()).isEqualTo(0);
+    }
+
+}
@@ -6,6 +6,8 @@ import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.MavenArtifact;
 import org.carlspring.strongbox.artifact.MavenArtifactUtils;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.data.service.impl.ShardedCounters;
+import org.carlspring.strongbox.data.service.impl.WriteBehindQueue;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -51,6 +53,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
@@ -91,6 +94,12 @@ public class ArtifactManagementServiceImplTest
 
     private static final String LAST_VERSION_RELEASES = "last-version-releases";
 
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    private ShardedCounters shardedCounters;
+
     @Inject
     private ArtifactManagementService mavenArtifactManagementService;
 
@@ -522,6 +531,9 @@ public class ArtifactManagementServiceImplTest
             assertThat(Long.valueOf(CONTENT_SIZE)).as(message).isEqualTo(resultList.get(i));
         }
 
+        writeBehindQueue.flush();
+        shardedCounters.compact();
+
         RepositoryPath repositoryPathResult = repositoryPathResolver.resolve(repository, path);
         ArtifactEntry artifactEntry = repositoryPathResult.getArtifactEntry();
 
@@ -680,6 +692,64 @@ public class ArtifactManagementServiceImplTest
     }
 
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testStoreWithMatchingExpectedChecksum(@MavenRepository(repositoryId = "expected-checksums-match")
+                                                      Repository repository,
+                                                      @MavenTestArtifact(resource = "org/carlspring/strongbox/strongbox-checksum-test/8.4/strongbox-checksum-test-8.4.jar")
+                                                      Path artifact)
+            throws Exception
+    {
+        String artifactPathStr = "org/carlspring/strongbox/strongbox-checksum-test/8.4/strongbox-checksum-test-8.4.jar";
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactPathStr);
+
+        String sha1Checksum = new String(Files.readAllBytes(artifact.resolveSibling(artifact.getFileName() + ".sha1")));
+
+        try (InputStream is = Files.newInputStream(artifact))
+        {
+            mavenArtifactManagementService.store(repositoryPath, is,
+                                                 Collections.singletonMap("SHA-1", sha1Checksum.trim()));
+        }
+
+        assertThat(Files.exists(repositoryPath)).isTrue();
+        assertThat(artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                        repository.getId(),
+                                                        RepositoryFiles.relativizePath(repositoryPath)))
+                .isNotNull();
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testStoreWithMismatchingExpectedChecksum(@MavenRepository(repositoryId = "expected-checksums-mismatch")
+                                                         Repository repository,
+                                                         @MavenTestArtifact(resource = "org/carlspring/strongbox/strongbox-checksum-test/8.4/strongbox-checksum-test-8.4.jar")
+                                                         Path artifact)
+            throws Exception
+    {
+        String artifactPathStr = "org/carlspring/strongbox/strongbox-checksum-test/8.4/strongbox-checksum-test-8.4.jar";
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactPathStr);
+
+        // The repository has no remote one, so the default (strict) checksum policy applies.
+        try (InputStream is = Files.newInputStream(artifact))
+        {
+            Map<String, String> expectedChecksums = Collections.singletonMap("SHA-1",
+                                                                             "0000000000000000000000000000000000000000");
+
+            assertThatExceptionOfType(ArtifactStorageException.class)
+                    .isThrownBy(() -> mavenArtifactManagementService.store(repositoryPath, is, expectedChecksums));
+        }
+
+        // The rejected content is never moved from the temporary location.
+        assertThat(Files.exists(repositoryPath)).isFalse();
+        assertThat(artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                        repository.getId(),
+                                                        artifactPathStr))
+                .isNull();
+    }
+
+
     private Long getResult(int i,
                            CountDownLatch storedSync, 
                            RepositoryPath repositoryPath,
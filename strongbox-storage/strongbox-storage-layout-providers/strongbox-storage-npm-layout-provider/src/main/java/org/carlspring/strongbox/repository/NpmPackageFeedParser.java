@@ -11,19 +11,16 @@ import javax.inject.Inject;
 import javax.transaction.Transactional;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.npm.metadata.PackageEntry;
 import org.carlspring.strongbox.npm.metadata.PackageFeed;
 import org.carlspring.strongbox.npm.metadata.PackageVersion;
 import org.carlspring.strongbox.npm.metadata.SearchResult;
 import org.carlspring.strongbox.npm.metadata.SearchResults;
 import org.carlspring.strongbox.npm.metadata.Versions;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -152,21 +149,19 @@ public class NpmPackageFeedParser
         
         Repository repository = repositoryPath.getRepository();
         Storage storage = repository.getStorage();
-        ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
 
         Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
         lock.lock();
 
         try
         {
-            if (artifactEntryService.artifactExists(e.getStorageId(), e.getRepositoryId(),
-                                                    e.getArtifactCoordinates().toPath()))
+            if (artifactEntryService.findOneArtifact(e.getStorageId(), e.getRepositoryId(),
+                                                     e.getArtifactCoordinates().toPath()) != null)
             {
                 return;
             }
 
-            RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-            repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+            repositoryArtifactIdGroupService.addArtifactToGroup(storage.getId(), repository.getId(), e);
         } 
         finally
         {
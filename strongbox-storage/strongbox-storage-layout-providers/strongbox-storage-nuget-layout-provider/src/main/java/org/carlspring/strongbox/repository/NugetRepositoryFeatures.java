@@ -1,7 +1,6 @@
 package org.carlspring.strongbox.repository;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
-import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
 import org.carlspring.strongbox.client.ArtifactTransportException;
 import org.carlspring.strongbox.configuration.Configuration;
@@ -14,9 +13,7 @@ import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
-import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
@@ -211,7 +208,7 @@ public class NugetRepositoryFeatures
             String packageVersion = packageEntry.getProperties().getVersion().toString();
 
             NugetArtifactCoordinates c = new NugetArtifactCoordinates(packageId, packageVersion, "nupkg");
-            if (artifactEntryService.artifactExists(storageId, repositoryId, c.toPath()))
+            if (artifactEntryService.findOneArtifact(storageId, repositoryId, c.toPath()) != null)
             {
                 continue;
             }
@@ -239,15 +236,13 @@ public class NugetRepositoryFeatures
             RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, (NugetArtifactCoordinates) e.getArtifactCoordinates());
 
             Storage storage = repository.getStorage();
-            ArtifactCoordinates coordinates = RepositoryFiles.readCoordinates(repositoryPath);
             
             Lock lock = repositoryPathLock.lock(repositoryPath).writeLock();
             lock.lock();
             
             try
             {
-                RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
-                repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, e);
+                repositoryArtifactIdGroupService.addArtifactToGroup(storage.getId(), repository.getId(), e);
             }
             finally
             {
@@ -43,6 +43,8 @@ public class NugetGroupRepositoryProviderTest
     
     private static final String REPOSITORY_RELEASES_3 = "ngrpt-releases-3";
 
+    private static final String REPOSITORY_RELEASES_4 = "ngrpt-releases-4";
+
     private static final String REPOSITORY_GROUP = "ngrpt-releases-group";
 
     private static final String REPOSITORY_GROUP_WITH_NESTED_GROUP_1 = "ngrpt-releases-group-with-nested-group-level-1";
@@ -166,4 +168,38 @@ public class NugetGroupRepositoryProviderTest
         assertThat(count).isEqualTo(Long.valueOf(12));
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testHostedSearchPaths(@NugetRepository(repositoryId = REPOSITORY_RELEASES_4)
+                                      Repository repository,
+                                      @NugetTestArtifact(repositoryId = REPOSITORY_RELEASES_4,
+                                                         id = "ngrpt.search.paths.package",
+                                                         versions = { "1.0.0",
+                                                                      "1.0.1",
+                                                                      "1.0.2" })
+                                      Path artifactPath)
+    {
+        RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        Paginator paginator = new Paginator();
+        paginator.setLimit(2);
+        paginator.setSkip(1);
+        paginator.setProperty("artifactPath");
+
+        Predicate predicate = Predicate.empty();
+        predicate.and(Predicate.of(ExpOperator.EQ.of("artifactCoordinates.coordinates.extension", "nupkg")));
+
+        List<Path> result = repositoryProvider.searchPaths(repository.getStorage().getId(),
+                                                           repository.getId(),
+                                                           predicate,
+                                                           paginator);
+
+        assertThat(result).hasSize(2)
+                          .containsExactlyElementsOf(repositoryProvider.search(repository.getStorage().getId(),
+                                                                               repository.getId(),
+                                                                               predicate,
+                                                                               paginator));
+    }
+
 }
@@ -0,0 +1,60 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.data.tx.DatabaseSessionPool;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the wait time and the utilization of the {@link DatabaseSessionPool}.
+ */
+@Component
+public class DatabaseSessionPoolMetrics
+        implements MeterBinder
+{
+
+    @Inject
+    private DatabaseSessionPool sessionPool;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionTimer.builder("strongbox.db.pool.wait",
+                              sessionPool,
+                              p -> p.getAcquireCount() + p.getAcquireFailureCount(),
+                              DatabaseSessionPool::getWaitTimeNanos,
+                              TimeUnit.NANOSECONDS)
+                     .description("Time spent waiting for a database session")
+                     .register(registry);
+        Gauge.builder("strongbox.db.pool.wait.max", sessionPool, p -> p.getMaxWaitTimeNanos() / 1e9)
+             .description("Longest time spent waiting for a database session")
+             .baseUnit("seconds")
+             .register(registry);
+        FunctionCounter.builder("strongbox.db.pool.failures", sessionPool, DatabaseSessionPool::getAcquireFailureCount)
+                       .description("Database session acquisitions which failed or timed out")
+                       .register(registry);
+        FunctionCounter.builder("strongbox.db.pool.invalid", sessionPool, DatabaseSessionPool::getInvalidCount)
+                       .description("Database sessions discarded by the validation")
+                       .register(registry);
+        Gauge.builder("strongbox.db.pool.active", sessionPool, DatabaseSessionPool::getActiveCount)
+             .description("Database sessions in use")
+             .register(registry);
+        Gauge.builder("strongbox.db.pool.active.peak", sessionPool, DatabaseSessionPool::getPeakActiveCount)
+             .description("Highest number of database sessions in use at once")
+             .register(registry);
+        Gauge.builder("strongbox.db.pool.max", sessionPool, DatabaseSessionPool::getMaxSize)
+             .description("Maximum number of database sessions")
+             .register(registry);
+        Gauge.builder("strongbox.db.pool.utilization", sessionPool, DatabaseSessionPool::getUtilization)
+             .description("Ratio of the database sessions in use to the maximum")
+             .register(registry);
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.data.service.impl.QueryStatistics;
+import org.carlspring.strongbox.data.service.impl.QueryStatistics.SortBy;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves the latency statistics of the database queries, grouped by the query shape (see {@link QueryStatistics}),
+ * sorted by {@code total}, {@code mean}, {@code max} or {@code count}.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint
+{
+
+    static final int DEFAULT_LIMIT = 20;
+
+    static final int MAX_LIMIT = 100;
+
+    @Inject
+    private QueryStatistics queryStatistics;
+
+    @ReadOperation
+    public Map<String, Object> statistics(@Nullable String sort,
+                                          @Nullable Integer limit)
+    {
+        SortBy sortBy = toSortBy(sort);
+        int maxShapes = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMillis", queryStatistics.getSlowThresholdMillis());
+        result.put("queries", queryStatistics.getQueryCount());
+        result.put("slowQueries", queryStatistics.getSlowQueryCount());
+        result.put("shapes", queryStatistics.getShapes(sortBy, maxShapes));
+
+        return result;
+    }
+
+    private SortBy toSortBy(String sort)
+    {
+        if (sort == null)
+        {
+            return SortBy.TOTAL;
+        }
+
+        return Arrays.stream(SortBy.values())
+                     .filter(s -> s.name().equalsIgnoreCase(sort))
+                     .findFirst()
+                     .orElseThrow(() -> new InvalidEndpointRequestException(
+                             String.format("Unsupported sort property [%s].", sort), "Unsupported sort property"));
+    }
+
+    @DeleteOperation
+    public void reset()
+    {
+        queryStatistics.reset();
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.data.service.impl.QueryStatistics;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the totals of the {@link QueryStatistics}; the per shape statistics, which would be too many series, are
+ * served by the {@link QueryStatisticsEndpoint}.
+ */
+@Component
+public class QueryStatisticsMetrics
+        implements MeterBinder
+{
+
+    @Inject
+    private QueryStatistics queryStatistics;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionTimer.builder("strongbox.db.queries",
+                              queryStatistics,
+                              QueryStatistics::getQueryCount,
+                              QueryStatistics::getTotalTimeNanos,
+                              TimeUnit.NANOSECONDS)
+                     .description("Executed database queries and commands")
+                     .register(registry);
+        FunctionCounter.builder("strongbox.db.queries.slow", queryStatistics, QueryStatistics::getSlowQueryCount)
+                       .description("Database queries and commands which exceeded the slow query threshold")
+                       .register(registry);
+        Gauge.builder("strongbox.db.queries.shapes", queryStatistics, QueryStatistics::getShapeCount)
+             .description("Number of distinct query shapes being tracked")
+             .register(registry);
+    }
+
+}
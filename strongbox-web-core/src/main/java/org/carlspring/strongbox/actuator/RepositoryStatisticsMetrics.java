@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.actuator;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.impl.WriteBehindQueue;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+
+import javax.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the repository statistics (see {@link RepositoryUsageCounter}) and the state of the {@link WriteBehindQueue}
+ * as gauges, which only read the incrementally maintained counters.
+ */
+@Component
+public class RepositoryStatisticsMetrics
+        implements MeterBinder
+{
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        configurationManager.getConfiguration()
+                            .getStorages()
+                            .values()
+                            .stream()
+                            .flatMap(s -> s.getRepositories().values().stream())
+                            .forEach(r -> bindTo(registry, r));
+
+        Gauge.builder("strongbox.writebehind.queue.depth", writeBehindQueue, WriteBehindQueue::getQueueDepth)
+             .description("Number of entities with pending updates")
+             .register(registry);
+        Gauge.builder("strongbox.writebehind.lag", writeBehindQueue, WriteBehindQueue::getLag)
+             .description("Age of the oldest pending update")
+             .baseUnit("milliseconds")
+             .register(registry);
+        FunctionCounter.builder("strongbox.writebehind.deadlettered", writeBehindQueue,
+                                WriteBehindQueue::getDeadLetteredUpdates)
+                       .description("Pending updates dropped after they failed to flush")
+                       .register(registry);
+    }
+
+    private void bindTo(MeterRegistry registry,
+                        Repository repository)
+    {
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        Gauge.builder("strongbox.repository.artifacts", repositoryUsageCounter,
+                      c -> c.getUsage(storageId, repositoryId).getArtifacts())
+             .description("Number of artifacts within the repository")
+             .tags("storage", storageId, "repository", repositoryId)
+             .register(registry);
+        Gauge.builder("strongbox.repository.size", repositoryUsageCounter,
+                      c -> c.getUsage(storageId, repositoryId).getSizeInBytes())
+             .description("Total size of the artifacts within the repository")
+             .baseUnit("bytes")
+             .tags("storage", storageId, "repository", repositoryId)
+             .register(registry);
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.carlspring.strongbox.app.boot;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Jetty thread pool, which serves the requests as well as the async events (see
+ * {@code EventExecutorFactoryBean}). Each request holds a database session for its whole duration, so the database
+ * session pool ({@code strongbox.orientdb.pool.max}) is sized to the same number of threads by default, plus the
+ * sessions of the background threads ({@code strongbox.orientdb.pool.background}).
+ */
+@Component
+public class JettyThreadPoolCustomizer
+        implements WebServerFactoryCustomizer<JettyServletWebServerFactory>
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(JettyThreadPoolCustomizer.class);
+
+    @Value("${strongbox.jetty.minThreads:8}")
+    private int minThreads;
+
+    @Value("${strongbox.jetty.maxThreads:200}")
+    private int maxThreads;
+
+    @Override
+    public void customize(JettyServletWebServerFactory factory)
+    {
+        logger.info("Using Jetty thread pool of [{}..{}] threads.", minThreads, maxThreads);
+
+        factory.setThreadPool(new QueuedThreadPool(maxThreads, minThreads));
+    }
+
+}
@@ -28,6 +28,7 @@ import org.carlspring.strongbox.yaml.YAMLMapperFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.persistence.EntityManagerFactory;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Arrays;
 import java.util.List;
@@ -49,6 +50,7 @@ import org.springframework.format.FormatterRegistry;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.*;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.context.request.RequestContextListener;
@@ -56,6 +58,7 @@ import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.springframework.web.filter.RequestContextFilter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
@@ -105,6 +108,9 @@ public class WebConfig
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
     WebConfig()
     {
         logger.debug("Initialized web configuration.");
@@ -228,6 +234,21 @@ public class WebConfig
                   .setPathMatcher(antPathMatcher);
     }
 
+    /**
+     * Binds a single EntityManager, and so a single database session, to each request, which all the service calls
+     * and transactions of the request share instead of acquiring a session of their own. The static resources don't
+     * need one.
+     */
+    @Override
+    protected void addInterceptors(InterceptorRegistry registry)
+    {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/docs/**", "/static/assets/**", "/webjars/**", "/*.html");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry)
     {
@@ -0,0 +1,103 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.domain.ArtifactEntryView;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactArchiveListingService;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Serves the archive listings of the artifacts, and the artifacts whose archives contain a given file, from the
+ * persisted listings, so that the requests don't scan the archives.
+ */
+@Controller
+@RequestMapping("/api/archives")
+@Api(value = "/api/archives")
+public class ArchiveListingController
+        extends BaseController
+{
+
+    static final int MAX_LIMIT = 1000;
+
+    @Inject
+    private ArtifactArchiveListingService artifactArchiveListingService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @ApiOperation(value = "Returns the artifacts whose archives contain the given file.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The matching artifacts.") })
+    @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity findArtifacts(@ApiParam(value = "The full name, or the last path segment, of the file",
+                                                  required = true)
+                                        @RequestParam(name = "filename") String filename,
+                                        @ApiParam(value = "The storageId")
+                                        @RequestParam(name = "storageId", required = false) String storageId,
+                                        @ApiParam(value = "The repositoryId")
+                                        @RequestParam(name = "repositoryId", required = false) String repositoryId,
+                                        @ApiParam(value = "The maximum number of artifacts to return")
+                                        @RequestParam(name = "limit", defaultValue = "100") int limit)
+    {
+        ArtifactEntrySearchCriteria searchCriteria = ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria()
+                                                                                        .withStorageId(storageId)
+                                                                                        .withRepositoryId(repositoryId)
+                                                                                        .withArchiveFilename(filename)
+                                                                                        .build();
+        PagingCriteria pagingCriteria = new PagingCriteria(0, Math.max(1, Math.min(limit, MAX_LIMIT)), Sort.byUuid());
+
+        List<ArtifactEntryView> artifacts = artifactEntryService.findMatchingViews(searchCriteria, pagingCriteria);
+
+        return getJSONListResponseEntityBody("artifacts", artifacts);
+    }
+
+    @ApiOperation(value = "Returns the names of the entries of an artifact archive.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The archive entries."),
+                            @ApiResponse(code = 404, message = "The requested path was not found.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @GetMapping(value = "{storageId}/{repositoryId}/{path:.+}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getArchiveListing(@RepositoryMapping Repository repository,
+                                            @PathVariable("path") String path,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                            String acceptHeader)
+            throws IOException
+    {
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+        if (repositoryPath == null || !Files.isRegularFile(repositoryPath))
+        {
+            return getNotFoundResponseEntity("The requested repository path was not found.", acceptHeader);
+        }
+
+        Set<String> filenames = artifactArchiveListingService.getArchiveFilenames(repositoryPath);
+
+        return getJSONListResponseEntityBody("filenames", new ArrayList<>(filenames));
+    }
+
+}
@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -137,6 +139,7 @@ public class BrowseController
 
     @ApiOperation(value = "List the contents for a repository.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The list was returned."),
+                            @ApiResponse(code = 400, message = "The requested sort property is not supported."),
                             @ApiResponse(code = 404, message = "The requested storage, repository, or path was not found."),
                             @ApiResponse(code = 500, message = "An error occurred.") })
     @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
@@ -146,6 +149,14 @@ public class BrowseController
                              MediaType.APPLICATION_JSON_VALUE })
     public Object repositoryContent(@RepositoryMapping Repository repository,
                                     @PathVariable("path") String rawPath,
+                                    @ApiParam(value = "The number of entries to skip")
+                                    @RequestParam(name = "skip", required = false, defaultValue = "0") int skip,
+                                    @ApiParam(value = "The maximum number of entries, all of them if not positive")
+                                    @RequestParam(name = "limit", required = false, defaultValue = "-1") int limit,
+                                    @ApiParam(value = "The sort property", allowableValues = "name,lastModified,size")
+                                    @RequestParam(name = "sort", required = false, defaultValue = "name") String sort,
+                                    @ApiParam(value = "The sort order", allowableValues = "asc,desc")
+                                    @RequestParam(name = "order", required = false, defaultValue = "asc") String order,
                                     HttpServletRequest request,
                                     ModelMap model,
                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader)
@@ -172,7 +183,20 @@ public class BrowseController
                 return getNotFoundResponseEntity("Requested repository doesn't allow browsing.", acceptHeader);
             }
 
-            DirectoryListing directoryListing = directoryListingService.fromRepositoryPath(repositoryPath);
+            Sort.Order sortOrder = "desc".equalsIgnoreCase(order) ? Sort.Order.desc(sort) : Sort.Order.asc(sort);
+
+            DirectoryListing directoryListing;
+            try
+            {
+                directoryListing = directoryListingService.fromRepositoryPath(repositoryPath,
+                                                                              new PagingCriteria(skip,
+                                                                                                 limit,
+                                                                                                 Sort.by(sortOrder)));
+            }
+            catch (IllegalArgumentException e)
+            {
+                return getBadRequestResponseEntity(e.getMessage(), acceptHeader);
+            }
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
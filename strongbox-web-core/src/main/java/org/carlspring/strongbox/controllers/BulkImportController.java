@@ -0,0 +1,121 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.services.BulkImportService;
+import org.carlspring.strongbox.services.support.BulkImportResult;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@RequestMapping("/api/import")
+@Api(value = "/api/import")
+public class BulkImportController
+        extends BaseController
+{
+
+    @Inject
+    private BulkImportService bulkImportService;
+
+    @ApiOperation(value = "Starts the import of a directory, or a zip archive, within the import roots of the " +
+                          "server into a repository.")
+    @ApiResponses(value = { @ApiResponse(code = 202, message = "The import has been started."),
+                            @ApiResponse(code = 400, message = "The source does not exist."),
+                            @ApiResponse(code = 403, message = "The source is not within the import roots."),
+                            @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!"),
+                            @ApiResponse(code = 409, message = "An import into the repository is in progress.") })
+    @PreAuthorize("hasAuthority('CONFIGURATION_ADD_UPDATE_REPOSITORY')")
+    @PostMapping(value = "/{storageId}/{repositoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity importArtifacts(@RepositoryMapping Repository repository,
+                                          @ApiParam(value = "The source directory or archive", required = true)
+                                          @RequestParam(name = "source") String source,
+                                          @RequestHeader(HttpHeaders.ACCEPT) String accept)
+            throws IOException
+    {
+        try
+        {
+            bulkImportService.submitImport(repository.getStorage().getId(), repository.getId(), source);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                 .body(getResponseEntityBody(String.format("The import of [%s] has been started.",
+                                                                           source),
+                                                             accept));
+        }
+        catch (NoSuchFileException e)
+        {
+            return getBadRequestResponseEntity(String.format("The source [%s] does not exist.", source), accept);
+        }
+        catch (AccessDeniedException e)
+        {
+            return getFailedResponseEntity(HttpStatus.FORBIDDEN,
+                                           String.format("The source [%s] is not within the import roots.", source),
+                                           accept);
+        }
+        catch (IllegalStateException e)
+        {
+            return getFailedResponseEntity(HttpStatus.CONFLICT, e.getMessage(), accept);
+        }
+    }
+
+    @ApiOperation(value = "Returns the result of the last import into a repository.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The import result.",
+                                         response = BulkImportResult.class),
+                            @ApiResponse(code = 202, message = "The import is in progress."),
+                            @ApiResponse(code = 404, message = "No import has been started."),
+                            @ApiResponse(code = 500, message = "The import has failed.") })
+    @PreAuthorize("hasAuthority('CONFIGURATION_ADD_UPDATE_REPOSITORY')")
+    @GetMapping(value = "/{storageId}/{repositoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getImportResult(@RepositoryMapping Repository repository,
+                                          @RequestHeader(HttpHeaders.ACCEPT) String accept)
+            throws InterruptedException
+    {
+        String storageId = repository.getStorage().getId();
+        Optional<CompletableFuture<BulkImportResult>> result = bulkImportService.findImport(storageId,
+                                                                                            repository.getId());
+        if (!result.isPresent())
+        {
+            return getNotFoundResponseEntity("No import has been started.", accept);
+        }
+        if (!result.get().isDone())
+        {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                                 .body(getResponseEntityBody("The import is in progress.", accept));
+        }
+
+        try
+        {
+            return ResponseEntity.ok(result.get().get());
+        }
+        catch (ExecutionException e)
+        {
+            return getExceptionResponseEntity(HttpStatus.INTERNAL_SERVER_ERROR,
+                                              String.format("The import has failed: %s", e.getCause().getMessage()),
+                                              e.getCause(),
+                                              accept);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.controllers.support.RepositoryChangesEntityBody;
+import org.carlspring.strongbox.controllers.support.RepositoryChangesEntityBody.Change;
+import org.carlspring.strongbox.domain.RepositoryChange;
+import org.carlspring.strongbox.services.RepositoryChangeLogService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+@RequestMapping("/api/changes")
+@Api(value = "/api/changes")
+public class RepositoryChangeLogController
+        extends BaseController
+{
+
+    static final int MAX_LIMIT = 1000;
+
+    @Inject
+    private RepositoryChangeLogService repositoryChangeLogService;
+
+    @ApiOperation(value = "Returns the changes of a repository since the given sequence, in sequence order.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The repository changes.",
+                                         response = RepositoryChangesEntityBody.class),
+                            @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @GetMapping(value = "/{storageId}/{repositoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getChanges(@RepositoryMapping(allowOutOfServiceRepository = true) Repository repository,
+                                     @ApiParam(value = "The sequence of the last processed change")
+                                     @RequestParam(name = "since", defaultValue = "0") long since,
+                                     @ApiParam(value = "The maximum number of changes to return")
+                                     @RequestParam(name = "limit", defaultValue = "100") int limit)
+    {
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        List<RepositoryChange> changes = repositoryChangeLogService.findChanges(storageId,
+                                                                                repositoryId,
+                                                                                since,
+                                                                                Math.max(1, Math.min(limit,
+                                                                                                     MAX_LIMIT)));
+        long firstSequence = repositoryChangeLogService.findFirstSequence(storageId, repositoryId);
+        long nextSequence = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+        return ResponseEntity.ok(new RepositoryChangesEntityBody(storageId,
+                                                                 repositoryId,
+                                                                 firstSequence,
+                                                                 nextSequence,
+                                                                 firstSequence > since + 1,
+                                                                 changes.stream()
+                                                                        .map(this::toChange)
+                                                                        .collect(Collectors.toList())));
+    }
+
+    private Change toChange(RepositoryChange change)
+    {
+        return new Change(change.getSequence(), change.getType(), change.getPath(), change.getTimestamp());
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.controllers.support.RepositoryStatisticsEntityBody;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter;
+import org.carlspring.strongbox.storage.repository.RepositoryUsageCounter.Usage;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Controller
+@RequestMapping("/api/statistics")
+@Api(value = "/api/statistics")
+public class RepositoryStatisticsController
+        extends BaseController
+{
+
+    @Inject
+    private RepositoryUsageCounter repositoryUsageCounter;
+
+    @ApiOperation(value = "Returns the number of artifacts, their total size and the last activity of a repository.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The repository statistics.",
+                                         response = RepositoryStatisticsEntityBody.class),
+                            @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!") })
+    @PreAuthorize("hasAuthority('CONFIGURATION_VIEW_REPOSITORY')")
+    @GetMapping(value = "/{storageId}/{repositoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getStatistics(@RepositoryMapping(allowOutOfServiceRepository = true) Repository repository)
+    {
+        Usage usage = repositoryUsageCounter.getUsage(repository.getStorage().getId(), repository.getId());
+
+        return ResponseEntity.ok(toEntityBody(usage));
+    }
+
+    @ApiOperation(value = "Recalculates the statistics of a repository.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The recalculated repository statistics.",
+                                         response = RepositoryStatisticsEntityBody.class),
+                            @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!") })
+    @PreAuthorize("hasAuthority('CONFIGURATION_ADD_UPDATE_REPOSITORY')")
+    @PostMapping(value = "/{storageId}/{repositoryId}/reconcile", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity reconcile(@RepositoryMapping(allowOutOfServiceRepository = true) Repository repository)
+    {
+        Usage usage = repositoryUsageCounter.reconcile(repository.getStorage().getId(), repository.getId());
+
+        return ResponseEntity.ok(toEntityBody(usage));
+    }
+
+    private RepositoryStatisticsEntityBody toEntityBody(Usage usage)
+    {
+        return new RepositoryStatisticsEntityBody(usage.getStorageId(),
+                                                  usage.getRepositoryId(),
+                                                  usage.getArtifacts(),
+                                                  usage.getSizeInBytes(),
+                                                  usage.getLastActivity());
+    }
+
+}
@@ -2,6 +2,8 @@ package org.carlspring.strongbox.controllers.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.controllers.BaseController;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.AqlSearchService;
@@ -33,15 +35,36 @@ public class AqlController extends BaseController
     private AqlSearchService aqlSearchService;
 
     @ApiOperation(value = "Used to search for artifacts.", response = SearchResults.class)
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+                            @ApiResponse(code = 400, message = "Invalid continuation token.") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                                 @ApiParam(value = "Continuation token of the page, as returned in the `next` field of the previous page")
+                                 @RequestParam(name = "after", required = false) String after)
         throws IOException
     {
         AqlQueryParser parser = new AqlQueryParser(query);
         Selector<ArtifactEntry> selector = parser.parseQuery();
 
+        // Queries without explicit `skip:` are paged with continuation tokens.
+        Paginator paginator = selector.getPaginator();
+        paginator.setKeyset(paginator.getSkip() == 0);
+        if (after != null)
+        {
+            try
+            {
+                ContinuationToken token = ContinuationToken.decode(after);
+                token.validate(paginator.getSortProperties());
+
+                paginator.setAfter(token);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return getBadRequestResponseEntity(e.getMessage(), MediaType.APPLICATION_JSON_VALUE);
+            }
+        }
+
         SearchResults result = aqlSearchService.search(selector);
 
         return ResponseEntity.ok(result);
@@ -8,6 +8,7 @@ import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.service.impl.ShardedCounters;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.nuget.NugetSearchRequest;
@@ -50,6 +51,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.core.io.InputStreamResource;
@@ -96,6 +98,9 @@ public class NugetArtifactController
     @Inject
     private RepositorySearchEventListener repositorySearchEventListener;
 
+    @Inject
+    private ShardedCounters shardedCounters;
+
     @DeleteMapping(path = { "{storageId}/{repositoryId}/{packageId}/{version}" })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     public ResponseEntity deletePackage(@RequestHeader(name = "X-NuGet-ApiKey", required = false) String apiKey,
@@ -207,13 +212,18 @@ public class NugetArtifactController
         feed.setId(feedId);
         feed.setUpdated(new Date());
         feed.setTitle("Packages");
+        // The download counts and the last version tag are fetched once for the whole page.
+        Map<String, Long> downloadCounts = shardedCounters.get(getObjectIds(files), "downloadCount");
+        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
+
         List<PackageEntry> packageEntrys = new ArrayList<>();
         for (Nupkg nupkg : files)
         {
             try
             {
                 PackageEntry entry = createPackageEntry(feedId, (PathNupkg) nupkg);
-                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties());
+                calculateFeedEntryProperties((PathNupkg) nupkg, entry.getProperties(), downloadCounts,
+                                             lastVersionTag);
                 packageEntrys.add(entry);
             }
             catch (NoSuchAlgorithmException | IOException | NugetFormatException e)
@@ -226,8 +236,28 @@ public class NugetArtifactController
         return feed;
     }
 
+    private List<String> getObjectIds(Collection<? extends Nupkg> files)
+    {
+        List<String> result = new ArrayList<>();
+        for (Nupkg nupkg : files)
+        {
+            try
+            {
+                result.add(((PathNupkg) nupkg).getPath().getArtifactEntry().getObjectId());
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed to read the artifact entry of package {}", nupkg, e);
+            }
+        }
+
+        return result;
+    }
+
     private void calculateFeedEntryProperties(PathNupkg nupkg,
-                                              EntryProperties properties) throws IOException
+                                              EntryProperties properties,
+                                              Map<String, Long> downloadCounts,
+                                              ArtifactTag lastVersionTag) throws IOException
     {
         RepositoryPath path = nupkg.getPath();
         ArtifactEntry artifactEntry = path.getArtifactEntry();
@@ -236,8 +266,10 @@ public class NugetArtifactController
 
         properties.setReportAbuseUrl("");
 
-        properties.setDownloadCount(artifactEntry.getDownloadCount());
-        properties.setVersionDownloadCount(artifactEntry.getDownloadCount());
+        int downloadCount = artifactEntry.getDownloadCount() +
+                            downloadCounts.getOrDefault(artifactEntry.getObjectId(), 0L).intValue();
+        properties.setDownloadCount(downloadCount);
+        properties.setVersionDownloadCount(downloadCount);
 
         properties.setRatingsCount(0);
         properties.setVersionRatingsCount(0);
@@ -245,7 +277,6 @@ public class NugetArtifactController
         properties.setRating(Double.valueOf(0));
         properties.setVersionRating(Double.valueOf(0));
 
-        ArtifactTag lastVersionTag = artifactTagService.findOneOrCreate(ArtifactTagEntry.LAST_VERSION);
         if (artifactEntry.getTagSet().contains(lastVersionTag))
         {
             properties.setIsLatestVersion(true);
@@ -249,8 +249,8 @@ public class PypiArtifactController extends BaseArtifactController
                                                      packageNameToDownload)));
 
         Paginator paginator = new Paginator();
-        List<Path> searchResult = repositoryProvider.search(repository.getStorage().getId(), repository.getId(),
-                                                            predicate, paginator);
+        List<Path> searchResult = repositoryProvider.searchPaths(repository.getStorage().getId(), repository.getId(),
+                                                                 predicate, paginator);
 
         String searchPackageHtmlResponse = htmlResponseBuilder.getHtmlResponse(searchResult);
         return ResponseEntity.status(HttpStatus.OK).body(searchPackageHtmlResponse);
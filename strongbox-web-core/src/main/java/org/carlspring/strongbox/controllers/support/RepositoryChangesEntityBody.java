@@ -0,0 +1,138 @@
+package org.carlspring.strongbox.controllers.support;
+
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RepositoryChangesEntityBody
+{
+
+    @JsonProperty("storageId")
+    private String storageId;
+
+    @JsonProperty("repositoryId")
+    private String repositoryId;
+
+    @JsonProperty("firstSequence")
+    private long firstSequence;
+
+    @JsonProperty("nextSequence")
+    private long nextSequence;
+
+    @JsonProperty("truncated")
+    private boolean truncated;
+
+    @JsonProperty("changes")
+    private List<Change> changes;
+
+    @JsonCreator
+    public RepositoryChangesEntityBody(@JsonProperty("storageId") String storageId,
+                                       @JsonProperty("repositoryId") String repositoryId,
+                                       @JsonProperty("firstSequence") long firstSequence,
+                                       @JsonProperty("nextSequence") long nextSequence,
+                                       @JsonProperty("truncated") boolean truncated,
+                                       @JsonProperty("changes") List<Change> changes)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.firstSequence = firstSequence;
+        this.nextSequence = nextSequence;
+        this.truncated = truncated;
+        this.changes = changes;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    /**
+     * @return the sequence of the oldest retained change
+     */
+    public long getFirstSequence()
+    {
+        return firstSequence;
+    }
+
+    /**
+     * @return the value of the {@code since} parameter for the next page
+     */
+    public long getNextSequence()
+    {
+        return nextSequence;
+    }
+
+    /**
+     * @return {@code true} if some of the changes since the requested sequence have already been purged, so the
+     *         consumer has to do a full resync
+     */
+    public boolean isTruncated()
+    {
+        return truncated;
+    }
+
+    public List<Change> getChanges()
+    {
+        return changes;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Change
+    {
+
+        @JsonProperty("sequence")
+        private long sequence;
+
+        @JsonProperty("type")
+        private String type;
+
+        @JsonProperty("path")
+        private String path;
+
+        @JsonProperty("timestamp")
+        private Date timestamp;
+
+        @JsonCreator
+        public Change(@JsonProperty("sequence") long sequence,
+                      @JsonProperty("type") String type,
+                      @JsonProperty("path") String path,
+                      @JsonProperty("timestamp") Date timestamp)
+        {
+            this.sequence = sequence;
+            this.type = type;
+            this.path = path;
+            this.timestamp = timestamp;
+        }
+
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        public String getType()
+        {
+            return type;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public Date getTimestamp()
+        {
+            return timestamp;
+        }
+
+    }
+
+}
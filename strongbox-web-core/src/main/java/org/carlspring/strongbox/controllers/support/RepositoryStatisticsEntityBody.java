@@ -0,0 +1,67 @@
+package org.carlspring.strongbox.controllers.support;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RepositoryStatisticsEntityBody
+{
+
+    @JsonProperty("storageId")
+    private String storageId;
+
+    @JsonProperty("repositoryId")
+    private String repositoryId;
+
+    @JsonProperty("artifacts")
+    private long artifacts;
+
+    @JsonProperty("sizeInBytes")
+    private long sizeInBytes;
+
+    @JsonProperty("lastActivity")
+    private Date lastActivity;
+
+    @JsonCreator
+    public RepositoryStatisticsEntityBody(@JsonProperty("storageId") String storageId,
+                                          @JsonProperty("repositoryId") String repositoryId,
+                                          @JsonProperty("artifacts") long artifacts,
+                                          @JsonProperty("sizeInBytes") long sizeInBytes,
+                                          @JsonProperty("lastActivity") Date lastActivity)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.artifacts = artifacts;
+        this.sizeInBytes = sizeInBytes;
+        this.lastActivity = lastActivity;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public long getArtifacts()
+    {
+        return artifacts;
+    }
+
+    public long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    public Date getLastActivity()
+    {
+        return lastActivity;
+    }
+
+}
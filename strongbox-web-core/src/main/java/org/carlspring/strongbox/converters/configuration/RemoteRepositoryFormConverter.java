@@ -28,6 +28,8 @@ public enum RemoteRepositoryFormConverter
         result.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setAutoImportRemoteSSLCertificate(source.isAutoImportRemoteSSLCertificate());
+        result.setLocalStorageMaxSizeInBytes(source.getLocalStorageMaxSizeInBytes());
+        result.setLocalStorageMaxArtifacts(source.getLocalStorageMaxArtifacts());
         return result;
     }
 }
@@ -10,6 +10,7 @@ public class DirectoryListing
 
     private List<FileContent> files;
 
+    private Integer total;
 
     public List<FileContent> getDirectories()
     {
@@ -41,4 +42,17 @@ public class DirectoryListing
         this.files = files;
     }
 
+    /**
+     * @return the number of directories and files in the whole listing, of which only a page may have been returned
+     */
+    public Integer getTotal()
+    {
+        return total;
+    }
+
+    public void setTotal(Integer total)
+    {
+        this.total = total;
+    }
+
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
 
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
@@ -18,6 +19,14 @@ public interface DirectoryListingService
 
     DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException;
+
+    /**
+     * Lists a page of the directory contents, the directories first and then the files, each of them sorted by the
+     * {@code name}, {@code lastModified} or {@code size}.
+     */
+    DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                        PagingCriteria pagingCriteria)
+        throws IOException;
     
     DirectoryListing fromPath(Path root, Path path)
             throws IOException;
@@ -3,21 +3,22 @@ package org.carlspring.strongbox.services;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.domain.FileContent;
-import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -29,6 +30,8 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
 
     private static final Logger logger = LoggerFactory.getLogger(DirectoryListingService.class);
 
+    private static final PagingCriteria BY_NAME = new PagingCriteria(0, -1, Sort.by(Sort.Order.asc("name")));
+
     private String baseUrl;
 
     public DirectoryListingServiceImpl(String baseUrl)
@@ -79,83 +82,173 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
     public DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException
     {
-        return fromPath(path);
+        return fromPath(path, BY_NAME);
     }
 
-    private DirectoryListing fromPath(Path path)
+    @Override
+    public DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                               PagingCriteria pagingCriteria)
         throws IOException
     {
-        path = path.normalize();
+        return fromPath(path, pagingCriteria);
+    }
 
-        DirectoryListing directoryListing = new DirectoryListing();
+    private DirectoryListing fromPath(Path path,
+                                      PagingCriteria pagingCriteria)
+        throws IOException
+    {
+        return generateDirectoryListing(path.normalize(), pagingCriteria);
+    }
+
+    /**
+     * Only the names and the basic attributes are read for the whole directory, which are enough to sort it. The
+     * repository attributes (the artifact path and the resource URL) are read for the entries of the requested page
+     * only.
+     */
+    private DirectoryListing generateDirectoryListing(Path path,
+                                                      PagingCriteria pagingCriteria)
+        throws IOException
+    {
+        List<ListingEntry> directoryEntries = new ArrayList<>();
+        List<ListingEntry> fileEntries = new ArrayList<>();
+
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(path))
+        {
+            for (Path contentPath : directoryStream)
+            {
+                String name = contentPath.getFileName().toString();
+                if (name.startsWith("."))
+                {
+                    continue;
+                }
+
+                BasicFileAttributes attributes;
+                try
+                {
+                    attributes = Files.readAttributes(contentPath, BasicFileAttributes.class);
+                }
+                catch (IOException e)
+                {
+                    logger.debug("Error accessing path {}", contentPath);
+                    continue;
+                }
+
+                ListingEntry entry = new ListingEntry(contentPath, name, attributes);
+                if (attributes.isDirectory())
+                {
+                    directoryEntries.add(entry);
+                }
+                else
+                {
+                    fileEntries.add(entry);
+                }
+            }
+        }
 
-        Map<String, List<FileContent>> content = generateDirectoryListing(path);
+        Comparator<ListingEntry> comparator = getComparator(pagingCriteria.getSort());
+        directoryEntries.sort(comparator);
+        fileEntries.sort(comparator);
 
-        directoryListing.setDirectories(content.get("directories"));
-        directoryListing.setFiles(content.get("files"));
+        int total = directoryEntries.size() + fileEntries.size();
+        int from = Math.min(Math.max(pagingCriteria.getSkip(), 0), total);
+        int to = pagingCriteria.getLimit() > 0 ? (int) Math.min((long) from + pagingCriteria.getLimit(), total) : total;
+
+        List<FileContent> directories = new ArrayList<>();
+        List<FileContent> files = new ArrayList<>();
+        for (int i = from; i < to; i++)
+        {
+            if (i < directoryEntries.size())
+            {
+                directories.add(toDirectory(directoryEntries.get(i)));
+            }
+            else
+            {
+                files.add(toFile(fileEntries.get(i - directoryEntries.size())));
+            }
+        }
+
+        DirectoryListing directoryListing = new DirectoryListing();
+        directoryListing.setDirectories(directories);
+        directoryListing.setFiles(files);
+        directoryListing.setTotal(total);
 
         return directoryListing;
     }
 
-    private Map<String, List<FileContent>> generateDirectoryListing(Path path)
+    private FileContent toDirectory(ListingEntry entry)
         throws IOException
     {
-        List<FileContent> directories = new ArrayList<>();
-        List<FileContent> files = new ArrayList<>();
+        FileContent directory = newFileContent(entry);
+        directory.setUrl(calculateDirectoryUrl(directory));
 
-        List<Path> contentPaths;
-        try (Stream<Path> pathStream = Files.list(path))
-        {
-            contentPaths = pathStream
-                                   .filter(p -> !p.toFile().getName().startsWith("."))
-                                   .filter(p -> {
-                                       try
-                                       {
-                                           return !Files.isHidden(p);
-                                       }
-                                       catch (IOException e)
-                                       {
-                                           logger.debug("Error accessing path {}", p);
-                                           return false;
-                                       }
-                                   })
-                                   .sorted()
-                                   .collect(Collectors.toList());
-        }
+        return directory;
+    }
 
-        for (Path contentPath : contentPaths)
+    private FileContent toFile(ListingEntry entry)
+        throws IOException
+    {
+        FileContent file = newFileContent(entry);
+        if (entry.path instanceof RepositoryPath)
         {
-            FileContent file = new FileContent(contentPath.getFileName().toString());
+            file.setUrl(RepositoryFiles.readResourceUrl((RepositoryPath) entry.path));
+        }
 
-            Map<String, Object> fileAttributes = Files.readAttributes(contentPath, "*");
+        file.setLastModified(new Date(entry.attributes.lastModifiedTime().toMillis()));
+        file.setSize(entry.attributes.size());
 
-            file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
-            file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+        return file;
+    }
 
-            file.setArtifactPath((String) fileAttributes.get("artifactPath"));
+    private FileContent newFileContent(ListingEntry entry)
+        throws IOException
+    {
+        FileContent fileContent = new FileContent(entry.name);
+        if (entry.path instanceof RepositoryPath)
+        {
+            RepositoryPath repositoryPath = (RepositoryPath) entry.path;
 
-            if (Boolean.TRUE.equals(fileAttributes.get("isDirectory")))
-            {
-                file.setUrl(calculateDirectoryUrl(file));
+            fileContent.setStorageId(repositoryPath.getRepository().getStorage().getId());
+            fileContent.setRepositoryId(repositoryPath.getRepository().getId());
+            fileContent.setArtifactPath(RepositoryFiles.relativizePath(repositoryPath));
+        }
 
-                directories.add(file);
+        return fileContent;
+    }
 
-                continue;
+    private Comparator<ListingEntry> getComparator(Sort sort)
+    {
+        Comparator<ListingEntry> result = null;
+        for (Sort.Order order : sort.getOrders())
+        {
+            Comparator<ListingEntry> comparator;
+            switch (order.getProperty())
+            {
+                case "name":
+                    comparator = Comparator.comparing(e -> e.name);
+                    break;
+                case "lastModified":
+                    comparator = Comparator.comparing(e -> e.attributes.lastModifiedTime());
+                    break;
+                case "size":
+                    comparator = Comparator.comparingLong(e -> e.attributes.size());
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unsupported sort property [%s].",
+                                                                     order.getProperty()));
             }
 
-            file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
-
-            file.setLastModified(new Date(((FileTime) fileAttributes.get("lastModifiedTime")).toMillis()));
-            file.setSize((Long) fileAttributes.get("size"));
+            if (order.getDirection() == Sort.Direction.DESC)
+            {
+                comparator = comparator.reversed();
+            }
 
-            files.add(file);
+            result = result == null ? comparator : result.thenComparing(comparator);
         }
 
-        Map<String, List<FileContent>> listing = new HashMap<>();
-        listing.put("directories", directories);
-        listing.put("files", files);
+        // The name is the tie breaker, so the pages are stable.
+        Comparator<ListingEntry> byName = Comparator.comparing(e -> e.name);
 
-        return listing;
+        return result == null ? byName : result.thenComparing(byName);
     }
 
     /**
@@ -185,7 +278,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
             throw new RuntimeException(message);
         }
 
-        return fromPath(path);
+        return fromPath(path, BY_NAME);
     }
 
     private URL calculateDirectoryUrl(FileContent file)
@@ -209,4 +302,24 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
                                      file.getRepositoryId(), file.getArtifactPath()));
     }
 
+    private static class ListingEntry
+    {
+
+        private final Path path;
+
+        private final String name;
+
+        private final BasicFileAttributes attributes;
+
+        ListingEntry(Path path,
+                     String name,
+                     BasicFileAttributes attributes)
+        {
+            this.path = path;
+            this.name = name;
+            this.attributes = attributes;
+        }
+
+    }
+
 }
@@ -17,7 +17,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithUserDetails;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.notNullValue;
 
 /**
@@ -82,6 +86,60 @@ public class ActuatorEndpointControllerTest
                .body("strongbox.revision", equalTo(revision));
     }
 
+    @Test
+    @WithUserDetails("admin")
+    public void testQueryStatistics()
+    {
+        String url = getContextBaseUrl() + "/queries";
+
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url + "?sort=count&limit=5")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("queries", greaterThan(0))
+               .body("shapes", hasSize(allOf(greaterThan(0), lessThanOrEqualTo(5))))
+               .body("shapes[0].shape", notNullValue())
+               .body("shapes[0].histogram", notNullValue());
+
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url + "?sort=unknown")
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(getContextBaseUrl() + "/metrics/strongbox.db.queries")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("name", equalTo("strongbox.db.queries"));
+
+        mockMvc.when()
+               .delete(url)
+               .then()
+               .statusCode(HttpStatus.NO_CONTENT.value());
+    }
+
+    @Test
+    @WithUserDetails("admin")
+    public void testDatabaseSessionPoolMetrics()
+    {
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(getContextBaseUrl() + "/metrics/strongbox.db.pool.wait")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("name", equalTo("strongbox.db.pool.wait"));
+
+        mockMvc.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(getContextBaseUrl() + "/metrics/strongbox.db.pool.utilization")
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("name", equalTo("strongbox.db.pool.utilization"));
+    }
+
     @WithAnonymousUser
     @ParameterizedTest
     @ValueSource(strings = { "/",
@@ -92,7 +150,8 @@ public class ActuatorEndpointControllerTest
                              "/metrics",
                              "/metrics/" + METRIC_NAME,
                              "/loggers",
-                             "/loggers/" + LOGGER_PACKAGE })
+                             "/loggers/" + LOGGER_PACKAGE,
+                             "/queries" })
     public void testEndpointsWithUnauthorizedUser(final String endpoint)
     {
         String url = getContextBaseUrl() + endpoint;
@@ -116,7 +175,8 @@ public class ActuatorEndpointControllerTest
                              "/metrics",
                              "/metrics/" + METRIC_NAME,
                              "/loggers",
-                             "/loggers/" + LOGGER_PACKAGE })
+                             "/loggers/" + LOGGER_PACKAGE,
+                             "/queries" })
     public void testEndpointsWithAuthorizedUser(final String endpoint)
     {
         String url = getContextBaseUrl() + endpoint;
@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+
+@IntegrationTest
+public class ArchiveListingControllerTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "alct-releases";
+
+    private static final String POM_ENTRY = "META-INF/maven/org.carlspring.strongbox/alct-artifact/pom.xml";
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+
+        setContextBaseUrl("/api/archives");
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testFindArtifactsContainingFile(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                Repository repository,
+                                                @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                   id = "org.carlspring.strongbox:alct-artifact",
+                                                                   versions = { "1.0" })
+                                                Path artifactPath)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String path = RepositoryFiles.relativizePath((RepositoryPath) artifactPath.normalize());
+
+        // The listing is served from the artifact entry, it's calculated and persisted if it isn't there yet.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(getContextBaseUrl() + "/" + storageId + "/" + repositoryId + "/" + path)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("filenames", hasItem(POM_ENTRY));
+
+        String url = getContextBaseUrl() + "?storageId={storageId}&repositoryId={repositoryId}&filename={filename}";
+
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, POM_ENTRY)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifacts.artifactPath", contains(path));
+
+        // The last path segment matches too.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, "pom.xml")
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifacts.artifactPath", contains(path));
+
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url, storageId, repositoryId, "missing.txt")
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifacts", empty());
+    }
+
+}
@@ -40,6 +40,7 @@ public class BrowseControllerTest
 
     private static final String REPOSITORY_1 = "browsing-test-repository-1";
     private static final String REPOSITORY_2 = "browsing-test-repository-2";
+    private static final String REPOSITORY_3 = "browsing-test-repository-3";
 
     @Override
     @BeforeEach
@@ -196,6 +197,49 @@ public class BrowseControllerTest
         assertThat(htmlResponse.contains(link)).as("Expected to have found [ " + link + " ] in the response html").isTrue();
     }
 
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testRepositoryContentsPage(@MavenRepository(repositoryId = REPOSITORY_3)
+                                           Repository repository,
+                                           @MavenTestArtifact(repositoryId = REPOSITORY_3,
+                                                              id = "org.carlspring.strongbox.browsing:test-paging",
+                                                              versions = { "1.0",
+                                                                           "2.0",
+                                                                           "3.0" })
+                                           List<Path> artifactsPaths)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() + "/{storageId}/{repositoryId}/{artifactPath}";
+
+        RepositoryPath artifactBasePath = (RepositoryPath) artifactsPaths.get(0).normalize().getParent().getParent();
+        String artifactBasePathStr = RepositoryFiles.relativizePath(artifactBasePath);
+
+        DirectoryListing returned = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                                           .param("skip", 1)
+                                           .param("limit", 1)
+                                           .param("order", "desc")
+                                           .when()
+                                           .get(url, storageId, repositoryId, artifactBasePathStr)
+                                           .prettyPeek()
+                                           .as(DirectoryListing.class);
+
+        assertThat(returned.getDirectories()).extracting(FileContent::getName).containsExactly("2.0");
+        assertThat(returned.getFiles()).isEmpty();
+        assertThat(returned.getTotal()).isGreaterThanOrEqualTo(3);
+
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .param("sort", "foo")
+               .when()
+               .get(url, storageId, repositoryId, artifactBasePathStr)
+               .prettyPeek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     public void testRepositoryContentsWithRepositoryNotFound()
     {
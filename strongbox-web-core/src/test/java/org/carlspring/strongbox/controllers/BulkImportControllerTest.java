@@ -0,0 +1,153 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.services.BulkImportService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.FileSystemUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@IntegrationTest
+public class BulkImportControllerTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "bict-releases";
+
+    private static final String ARTIFACT_BASE_PATH = "org/carlspring/strongbox/bict-artifact/1.0/bict-artifact-1.0";
+
+    @Inject
+    private BulkImportService bulkImportService;
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+
+        setContextBaseUrl("/api/import");
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testImportDirectory(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                    Repository repository)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        Path importRoot = Files.createDirectories(bulkImportService.getImportRoots().get(0));
+        Path source = Files.createTempDirectory(importRoot, "bict");
+        try
+        {
+            Path jar = source.resolve(ARTIFACT_BASE_PATH + ".jar");
+            Files.createDirectories(jar.getParent());
+            Files.write(jar, "bict".getBytes(StandardCharsets.UTF_8));
+            // The checksums of the source are skipped, they are calculated while importing.
+            Files.write(source.resolve(ARTIFACT_BASE_PATH + ".jar.sha1"), "invalid".getBytes(StandardCharsets.UTF_8));
+
+            mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                   .param("source", source.toString())
+                   .when()
+                   .post(getContextBaseUrl() + "/{storageId}/{repositoryId}", storageId, repositoryId)
+                   .peek()
+                   .then()
+                   .statusCode(HttpStatus.ACCEPTED.value());
+
+            bulkImportService.findImport(storageId, repositoryId).get().get(1, TimeUnit.MINUTES);
+
+            mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                   .when()
+                   .get(getContextBaseUrl() + "/{storageId}/{repositoryId}", storageId, repositoryId)
+                   .peek()
+                   .then()
+                   .statusCode(HttpStatus.OK.value())
+                   .body("files", equalTo(1))
+                   .body("artifacts", equalTo(1))
+                   .body("skipped", equalTo(1))
+                   .body("failed", equalTo(0));
+
+            String sha1 = mockMvc.when()
+                                 .get("/storages/{storageId}/{repositoryId}/" + ARTIFACT_BASE_PATH + ".jar.sha1",
+                                      storageId, repositoryId)
+                                 .then()
+                                 .statusCode(HttpStatus.OK.value())
+                                 .extract()
+                                 .asString();
+
+            assertThat(sha1).isNotEqualTo("invalid");
+        }
+        finally
+        {
+            FileSystemUtils.deleteRecursively(source.toFile());
+        }
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testImportMissingSource(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                        Repository repository)
+    {
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .param("source", "/non/existing/bict")
+               .when()
+               .post(getContextBaseUrl() + "/{storageId}/{repositoryId}",
+                     repository.getStorage().getId(),
+                     repository.getId())
+               .peek()
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    @Test
+    public void testImportSourceOutsideTheImportRoots(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                                      Repository repository)
+            throws Exception
+    {
+        Path importRoot = Files.createDirectories(bulkImportService.getImportRoots().get(0));
+        Path outside = Files.createTempDirectory("bict");
+        try
+        {
+            // Neither directly nor by escaping an import root.
+            Path escape = importRoot.relativize(outside.toRealPath());
+            for (String source : new String[]{ outside.toString(),
+                                               escape.toString(),
+                                               importRoot.resolve(escape).toString() })
+            {
+                mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                       .param("source", source)
+                       .when()
+                       .post(getContextBaseUrl() + "/{storageId}/{repositoryId}",
+                             repository.getStorage().getId(),
+                             repository.getId())
+                       .peek()
+                       .then()
+                       .statusCode(HttpStatus.FORBIDDEN.value());
+            }
+        }
+        finally
+        {
+            FileSystemUtils.deleteRecursively(outside.toFile());
+        }
+    }
+
+}
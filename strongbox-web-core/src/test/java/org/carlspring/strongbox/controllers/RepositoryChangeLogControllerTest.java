@@ -0,0 +1,102 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryChangeLog;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+
+@IntegrationTest
+public class RepositoryChangeLogControllerTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "rclct-releases";
+
+    @Inject
+    private RepositoryChangeLog repositoryChangeLog;
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+
+        setContextBaseUrl("/api/changes");
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGetChangesSince(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                    Repository repository,
+                                    @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                       id = "org.carlspring.strongbox:rclct-artifact",
+                                                       versions = { "1.0", "1.1" })
+                                    Path artifactPath)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        repositoryChangeLog.flush();
+
+        String url = getContextBaseUrl() + "/{storageId}/{repositoryId}";
+
+        int lastSequence = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                                  .when()
+                                  .get(url + "?since=0&limit=1000", storageId, repositoryId)
+                                  .peek()
+                                  .then()
+                                  .statusCode(HttpStatus.OK.value())
+                                  .body("firstSequence", equalTo(1))
+                                  .body("truncated", equalTo(false))
+                                  .body("changes", hasSize(greaterThan(1)))
+                                  .body("changes[0].sequence", equalTo(1))
+                                  .body("changes.path",
+                                        everyItem(startsWith("org/carlspring/strongbox/rclct-artifact")))
+                                  .extract()
+                                  .path("nextSequence");
+
+        // Paging, one change at a time.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url + "?since=1&limit=1", storageId, repositoryId)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("changes", hasSize(1))
+               .body("changes[0].sequence", equalTo(2))
+               .body("nextSequence", equalTo(2));
+
+        // Nothing new since the last change.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(url + "?since=" + lastSequence, storageId, repositoryId)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("changes", empty())
+               .body("nextSequence", equalTo(lastSequence));
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.artifact.MavenTestArtifact;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+@IntegrationTest
+public class RepositoryStatisticsControllerTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "rsct-releases";
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+
+        setContextBaseUrl("/api/statistics");
+    }
+
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class,
+                  ArtifactManagementTestExecutionListener.class })
+    @Test
+    public void testGetAndReconcileStatistics(@MavenRepository(repositoryId = REPOSITORY_RELEASES)
+                                              Repository repository,
+                                              @MavenTestArtifact(repositoryId = REPOSITORY_RELEASES,
+                                                                 id = "org.carlspring.strongbox:rsct-artifact",
+                                                                 versions = { "1.0", "1.1" })
+                                              Path artifactPath)
+            throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String url = getContextBaseUrl() + "/{storageId}/{repositoryId}";
+
+        int artifacts = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                               .when()
+                               .get(url, storageId, repositoryId)
+                               .peek()
+                               .then()
+                               .statusCode(HttpStatus.OK.value())
+                               .body("storageId", equalTo(storageId))
+                               .body("repositoryId", equalTo(repositoryId))
+                               .body("artifacts", greaterThan(0))
+                               .body("sizeInBytes", greaterThan(0))
+                               .extract()
+                               .path("artifacts");
+
+        // The statistics have been calculated by now, the deployed artifact is counted incrementally.
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.carlspring.strongbox:rsct-artifact:1.2");
+        buildArtifactDeployer(Paths.get(System.getProperty("java.io.tmpdir")))
+                .generateAndDeployArtifact(artifact, storageId, repositoryId);
+
+        int updatedArtifacts = mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+                                      .when()
+                                      .get(url, storageId, repositoryId)
+                                      .peek()
+                                      .then()
+                                      .statusCode(HttpStatus.OK.value())
+                                      .body("artifacts", greaterThan(artifacts))
+                                      .extract()
+                                      .path("artifacts");
+
+        // The incrementally maintained statistics should match the recalculated ones.
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .post(url + "/reconcile", storageId, repositoryId)
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body("artifacts", equalTo(updatedArtifacts));
+    }
+
+}
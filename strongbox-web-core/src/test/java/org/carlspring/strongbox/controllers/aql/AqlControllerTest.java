@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.controllers.aql;
 
 import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.data.criteria.ContinuationToken;
 import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
@@ -9,6 +10,7 @@ import org.carlspring.strongbox.testing.repository.MavenRepository;
 import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
 
 import java.nio.file.Path;
+import java.util.Collections;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -102,6 +104,32 @@ public class AqlControllerTest
                .body("error", containsString("[1:103]"));
     }
 
+    @Test
+    public void testInvalidContinuationToken()
+    {
+        String url = getContextBaseUrl();
+        String query = String.format("storage:%s+repository:%s", STORAGE_SC_TEST, REPOSITORY_RELEASES);
+
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .queryParam("after", "not-a-continuation-token")
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        // A well-formed token which was issued for another sort order.
+        String token = new ContinuationToken(Collections.singletonList("1.0"), "#25:12").encode();
+        mockMvc.accept(MediaType.APPLICATION_JSON_VALUE)
+               .queryParam("query", query)
+               .queryParam("after", token)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value())
+               .body("message", containsString("doesn't match the sort properties"));
+    }
+
     @Test
     @ExtendWith({ RepositoryManagementTestExecutionListener.class,
                   ArtifactManagementTestExecutionListener.class })
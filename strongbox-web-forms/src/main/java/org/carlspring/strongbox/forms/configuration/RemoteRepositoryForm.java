@@ -33,6 +33,12 @@ public class RemoteRepositoryForm
 
     private boolean autoImportRemoteSSLCertificate;
 
+    @PositiveOrZero(message = "A localStorageMaxSizeInBytes must be positive or zero.")
+    private Long localStorageMaxSizeInBytes;
+
+    @PositiveOrZero(message = "A localStorageMaxArtifacts must be positive or zero.")
+    private Long localStorageMaxArtifacts;
+
     public String getUrl()
     {
         return url;
@@ -92,4 +98,24 @@ public class RemoteRepositoryForm
     {
         return autoImportRemoteSSLCertificate;
     }
+
+    public Long getLocalStorageMaxSizeInBytes()
+    {
+        return localStorageMaxSizeInBytes;
+    }
+
+    public void setLocalStorageMaxSizeInBytes(Long localStorageMaxSizeInBytes)
+    {
+        this.localStorageMaxSizeInBytes = localStorageMaxSizeInBytes;
+    }
+
+    public Long getLocalStorageMaxArtifacts()
+    {
+        return localStorageMaxArtifacts;
+    }
+
+    public void setLocalStorageMaxArtifacts(Long localStorageMaxArtifacts)
+    {
+        this.localStorageMaxArtifacts = localStorageMaxArtifacts;
+    }
 }